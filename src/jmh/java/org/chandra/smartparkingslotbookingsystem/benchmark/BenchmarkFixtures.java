@@ -0,0 +1,70 @@
+package org.chandra.smartparkingslotbookingsystem.benchmark;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.ConcurrentSlotRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Shared data builders for the JMH benchmarks.
+ * <p>
+ * Repositories and services are wired by hand, without a Spring context, so the
+ * benchmarks measure the storage and service code only.
+ * </p>
+ */
+final class BenchmarkFixtures {
+    static final LocalDateTime BASE_TIME = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * Slot repository that can be bulk-loaded without per-slot console output.
+     */
+    static final class BenchmarkSlotRepository extends ConcurrentSlotRepository {
+        void load(ParkingSlot slot) {
+            preload(slot);
+        }
+    }
+
+    static String slotId(int i) {
+        return (i % 2 == 0 ? "C-" : "B-") + i;
+    }
+
+    static String phone(int i) {
+        return String.format("9%09d", i);
+    }
+
+    /**
+     * Builds a repository with {@code count} slots, alternating Car and Bike, all available.
+     */
+    static BenchmarkSlotRepository slots(int count) {
+        BenchmarkSlotRepository repository = new BenchmarkSlotRepository();
+        for (int i = 0; i < count; i++) {
+            String location = "L" + (i % 64);
+            if (i % 2 == 0)
+                repository.load(new CarParkingSlot(slotId(i), "Car", location, 50.0, true, i % 3 == 0, 15));
+            else
+                repository.load(new BikeParkingSlot(slotId(i), "Bike", location, 20.0, true, i % 3 == 0, true));
+        }
+        return repository;
+    }
+
+    /**
+     * Fills a booking repository with {@code count} bookings spread over {@code count / 10} users.
+     */
+    static BookingRepository bookings(int count, int slotCount) {
+        BookingRepository repository = new BookingRepository();
+        int users = Math.max(1, count / 10);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = BASE_TIME.plusHours(i);
+            repository.save(new Booking("BKG-" + i, "User " + i, "user" + i + "@mail.com", phone(i % users),
+                    "KA01AB" + i, slotId(i % slotCount), start, start.plusHours(2), BookingStatus.ACTIVE, 100.0));
+        }
+        return repository;
+    }
+}
@@ -0,0 +1,45 @@
+package org.chandra.smartparkingslotbookingsystem.benchmark;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link BookingRepository#findByUserPhone(String)} with a growing booking
+ * history, ten bookings per user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class BookingRepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int bookingCount;
+
+    private BookingRepository repository;
+    private int users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = BenchmarkFixtures.bookings(bookingCount, 1000);
+        users = Math.max(1, bookingCount / 10);
+    }
+
+    @Benchmark
+    public List<Booking> findByUserPhone() {
+        return repository.findByUserPhone(BenchmarkFixtures.phone(ThreadLocalRandom.current().nextInt(users)));
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends BookingRepositoryBenchmark {}
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends BookingRepositoryBenchmark {}
+}
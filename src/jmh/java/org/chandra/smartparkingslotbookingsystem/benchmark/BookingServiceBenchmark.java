@@ -0,0 +1,91 @@
+package org.chandra.smartparkingslotbookingsystem.benchmark;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotScheduleRepository;
+import org.chandra.smartparkingslotbookingsystem.service.BookingService;
+import org.chandra.smartparkingslotbookingsystem.service.BookingServiceImpl;
+import org.chandra.smartparkingslotbookingsystem.service.SlotServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks {@link BookingService#createBooking} and {@link BookingService#cancelBooking}
+ * end to end through the service and repository layers.
+ * <p>
+ * Every created booking gets its own future window (slots are visited round-robin and each
+ * lap moves one hour ahead), so the benchmark measures the success path rather than conflicts.
+ * Cancellation works through bookings created at the start of each iteration; once those
+ * run out it measures the already-cancelled path.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class BookingServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int slotCount;
+
+        BookingService bookingService;
+        private final AtomicLong bookingSequence = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            bookingService = new BookingServiceImpl(new BookingRepository(),
+                    new SlotServiceImpl(BenchmarkFixtures.slots(slotCount)), new SlotScheduleRepository());
+        }
+
+        Booking createNext() {
+            long n = bookingSequence.getAndIncrement();
+            int slot = (int) (n % slotCount);
+            LocalDateTime start = BenchmarkFixtures.BASE_TIME.plusHours(n / slotCount);
+            return bookingService.createBooking("Bench User", "bench@mail.com", BenchmarkFixtures.phone(slot),
+                    "KA01AB1234", BenchmarkFixtures.slotId(slot), start, start.plusHours(1));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CancellationState {
+        String[] cancellable;
+        final AtomicInteger cursor = new AtomicInteger();
+
+        @Setup(Level.Iteration)
+        public void prepare(ServiceState service) {
+            cancellable = new String[service.slotCount];
+            for (int i = 0; i < cancellable.length; i++) {
+                Booking booking = service.createNext();
+                cancellable[i] = booking == null ? "" : booking.getBookingId();
+            }
+            cursor.set(0);
+        }
+
+        String next() {
+            return cancellable[Math.floorMod(cursor.getAndIncrement(), cancellable.length)];
+        }
+    }
+
+    @Benchmark
+    public Booking createBooking(ServiceState service) {
+        return service.createNext();
+    }
+
+    @Benchmark
+    public void cancelBooking(ServiceState service, CancellationState cancellations) {
+        service.bookingService.cancelBooking(cancellations.next());
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends BookingServiceBenchmark {}
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends BookingServiceBenchmark {}
+}
@@ -0,0 +1,64 @@
+package org.chandra.smartparkingslotbookingsystem.benchmark;
+
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup benchmarks for {@link SlotRepository#findById(String)}, the availability queries
+ * ({@link SlotRepository#findAvailableByType(String)}, {@link SlotRepository#countAvailableByType(String)},
+ * {@link SlotRepository#findFirstAvailableByType(String)}) over growing inventories.
+ * <p>
+ * {@link SingleThreaded} and {@link MultiThreaded} run the same benchmarks with one
+ * thread and with one thread per available core.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class SlotRepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int slotCount;
+
+    private SlotRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = BenchmarkFixtures.slots(slotCount);
+    }
+
+    @Benchmark
+    public Optional<ParkingSlot> findById() {
+        return repository.findById(BenchmarkFixtures.slotId(ThreadLocalRandom.current().nextInt(slotCount)));
+    }
+
+    @Benchmark
+    public List<ParkingSlot> findAvailableByType() {
+        return repository.findAvailableByType(ThreadLocalRandom.current().nextBoolean() ? "Car" : "bike");
+    }
+
+    @Benchmark
+    public int countAvailableByType() {
+        return repository.countAvailableByType(ThreadLocalRandom.current().nextBoolean() ? "Car" : "bike");
+    }
+
+    @Benchmark
+    public Optional<ParkingSlot> findFirstAvailableByType() {
+        return repository.findFirstAvailableByType(ThreadLocalRandom.current().nextBoolean() ? "Car" : "bike");
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends SlotRepositoryBenchmark {}
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends SlotRepositoryBenchmark {}
+}
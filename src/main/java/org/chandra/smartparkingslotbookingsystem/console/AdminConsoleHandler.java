@@ -1,12 +1,24 @@
 package org.chandra.smartparkingslotbookingsystem.console;
 
+import org.chandra.smartparkingslotbookingsystem.metrics.OperationSnapshot;
 import org.chandra.smartparkingslotbookingsystem.model.*;
+import org.chandra.smartparkingslotbookingsystem.pricing.Money;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingFilter;
+import org.chandra.smartparkingslotbookingsystem.repository.Page;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotFilter;
 import org.chandra.smartparkingslotbookingsystem.service.AdminService;
+import org.chandra.smartparkingslotbookingsystem.service.SlotImportResult;
+import org.chandra.smartparkingslotbookingsystem.service.UtilizationReport;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.function.Function;
 
 /**
  * Handles all administrative console operations:
@@ -14,6 +26,8 @@ import java.util.Scanner;
  */
 @Component
 public class AdminConsoleHandler {
+    private static final int PAGE_SIZE = 20;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
     private final AdminService adminService;
 
@@ -36,20 +50,28 @@ public class AdminConsoleHandler {
             System.out.println("4. Delete Slot");
             System.out.println("5. View All Bookings");
             System.out.println("6. Cancel Booking");
-            System.out.println("7. Exit to Main Menu");
+            System.out.println("7. Export Slot Snapshot");
+            System.out.println("8. Bulk Import Slots (CSV/NDJSON)");
+            System.out.println("9. Metrics");
+            System.out.println("10. Utilization Report");
+            System.out.println("11. Exit to Main Menu");
             System.out.print("Enter choice: ");
 
             int choice = scanner.nextInt();
             scanner.nextLine(); // consume newline
 
             switch (choice) {
-                case 1 -> viewAllSlots();
+                case 1 -> viewAllSlots(scanner);
                 case 2 -> addNewSlot(scanner);
                 case 3 -> updateSlot(scanner);
                 case 4 -> deleteSlot(scanner);
-                case 5 -> viewAllBookings();
+                case 5 -> viewAllBookings(scanner);
                 case 6 -> cancelBooking(scanner);
-                case 7 -> {
+                case 7 -> exportSlotSnapshot(scanner);
+                case 8 -> importSlots(scanner);
+                case 9 -> viewMetrics();
+                case 10 -> viewUtilizationReport();
+                case 11 -> {
                     System.out.println("Returning to Main Menu...");
                     return;
                 }
@@ -59,16 +81,14 @@ public class AdminConsoleHandler {
     }
 
     /**
-     * Displays all parking slots.
+     * Displays parking slots, optionally of one type, a page at a time.
      */
-    private void viewAllSlots() {
-        List<ParkingSlot> slots = adminService.getAllSlots();
-        if (slots.isEmpty()) {
-            System.out.println("No parking slots found.");
-        } else {
-            System.out.println("\nAll Parking Slots:");
-            slots.forEach(System.out::println);
-        }
+    private void viewAllSlots(Scanner scanner) {
+        System.out.print("Filter by slot type (Car/Bike, blank for all): ");
+        String type = blankToNull(scanner.nextLine());
+        SlotFilter filter = SlotFilter.ofType(type);
+        System.out.println("\nAll Parking Slots:");
+        printPages(scanner, cursor -> adminService.getSlots(filter, cursor, PAGE_SIZE), "No parking slots found.");
     }
 
     /**
@@ -130,15 +150,14 @@ public class AdminConsoleHandler {
         boolean available = scanner.nextBoolean();
         scanner.nextLine();
 
-        // Update basic info (type and location remain unchanged for simplicity)
-        adminService.getAllSlots().stream()
-                .filter(slot -> slot.getId().equalsIgnoreCase(id))
-                .findFirst()
-                .ifPresentOrElse(slot -> {
+        // Update basic info (type and location remain unchanged for simplicity); the edit is
+        // applied to a copy and retried if a booking changes the slot in the meantime
+        adminService.editSlot(id, slot -> {
                     slot.setHourlyRate(rate);
                     slot.setAvailable(available);
-                    adminService.updateSlot(slot);
-                }, () -> System.out.println("Slot not found."));
+                })
+                .ifPresentOrElse(slot -> System.out.println("Slot updated: " + slot),
+                        () -> System.out.println("Slot not found."));
     }
 
     /**
@@ -149,24 +168,60 @@ public class AdminConsoleHandler {
         System.out.print("Enter Slot ID to delete: ");
         String id = scanner.nextLine();
 
-        adminService.getAllSlots().stream()
-                .filter(slot -> slot.getId().equalsIgnoreCase(id))
-                .findFirst()
+        adminService.getSlotById(id)
                 .ifPresentOrElse(adminService::deleteSlot,
                         () -> System.out.println("Slot not found."));
     }
 
     /**
-     * Displays all bookings in the system.
+     * Displays bookings matching optional status, slot and date filters, a page at a time.
      */
-    private void viewAllBookings() {
-        List<Booking> bookings = adminService.getAllBookings();
-        if (bookings.isEmpty()) {
-            System.out.println("No bookings found.");
-        } else {
-            System.out.println("\nAll Bookings:");
-            bookings.forEach(System.out::println);
+    private void viewAllBookings(Scanner scanner) {
+        BookingFilter filter;
+        try {
+            System.out.print("Filter by status (ACTIVE/COMPLETED/CANCELLED, blank for all): ");
+            String status = blankToNull(scanner.nextLine());
+            System.out.print("Filter by slot ID (blank for all): ");
+            String slotId = blankToNull(scanner.nextLine());
+            System.out.print("Bookings starting from date (dd-MM-yyyy, blank for any): ");
+            String from = blankToNull(scanner.nextLine());
+            System.out.print("Bookings starting until date (dd-MM-yyyy, blank for any): ");
+            String to = blankToNull(scanner.nextLine());
+            filter = new BookingFilter(status == null ? null : BookingStatus.valueOf(status.toUpperCase(Locale.ROOT)), slotId,
+                    from == null ? null : LocalDate.parse(from, DATE_FORMAT), to == null ? null : LocalDate.parse(to, DATE_FORMAT));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.out.println("Invalid filter: " + e.getMessage());
+            return;
         }
+        System.out.println("\nBookings:");
+        printPages(scanner, cursor -> adminService.getBookings(filter, cursor, PAGE_SIZE), "No bookings found.");
+    }
+
+    /**
+     * Prints pages fetched by {@code fetch} until the last page or until the admin stops.
+     */
+    private static <T> void printPages(Scanner scanner, Function<String, Page<T>> fetch, String emptyMessage) {
+        Page<T> page = fetch.apply(null);
+        if (page.items().isEmpty()) {
+            System.out.println(emptyMessage);
+            return;
+        }
+        int shown = 0;
+        while (true) {
+            page.items().forEach(System.out::println);
+            shown += page.items().size();
+            if (!page.hasNext()) {
+                System.out.println("-- " + shown + " shown, end of list --");
+                return;
+            }
+            System.out.print("-- " + shown + " shown. Press Enter for more, or 'q' to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) return;
+            page = fetch.apply(page.nextCursor());
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 
     /**
@@ -177,4 +232,56 @@ public class AdminConsoleHandler {
         String bookingId = scanner.nextLine();
         adminService.cancelBookingAsAdmin(bookingId);
     }
+
+    /**
+     * Writes the current slot inventory to a binary snapshot file.
+     */
+    private void exportSlotSnapshot(Scanner scanner) {
+        System.out.print("\nEnter snapshot file path: ");
+        String path = scanner.nextLine();
+        adminService.exportSlotSnapshot(path);
+    }
+
+    /**
+     * Imports many slots at once from a CSV or NDJSON file and reports rejected rows.
+     */
+    private void importSlots(Scanner scanner) {
+        System.out.println("\n===== BULK IMPORT SLOTS =====");
+        System.out.println("CSV columns: id,type,location,hourlyRate,available,hasChargingStation,maxLength,hasHelmetLock");
+        System.out.print("Enter file path (.csv or .ndjson): ");
+        String path = scanner.nextLine();
+        SlotImportResult result = adminService.importSlots(path);
+        result.errors().forEach(System.out::println);
+    }
+
+    /**
+     * Displays call counts, latency percentiles and outcome counters of every service operation.
+     */
+    private void viewMetrics() {
+        List<OperationSnapshot> metrics = adminService.getServiceMetrics();
+        if (metrics.isEmpty()) {
+            System.out.println("No metrics recorded yet.");
+        } else {
+            System.out.println("\nService Metrics (also published over JMX):");
+            metrics.forEach(System.out::println);
+        }
+    }
+
+    /**
+     * Displays occupancy, bookings, revenue and dwell time per location and slot type, and revenue per day.
+     */
+    private void viewUtilizationReport() {
+        UtilizationReport report = adminService.getUtilizationReport();
+        if (report.rows().isEmpty()) {
+            System.out.println("No slots or bookings yet.");
+            return;
+        }
+        System.out.println("\nUtilization by Location and Type:");
+        report.rows().forEach(System.out::println);
+        System.out.println("\nRevenue by Day and Location:");
+        report.dailyRevenue().forEach(day ->
+                System.out.printf("%s %-8s %s%n", day.date().format(DATE_FORMAT), day.location(), Money.format(day.revenueMinor())));
+        System.out.printf("%nTotal revenue: %s | Average dwell: %.1f min%n",
+                Money.format(report.revenueMinor()), report.averageDwellMinutes());
+    }
 }
@@ -2,11 +2,15 @@ package org.chandra.smartparkingslotbookingsystem.console;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.util.Scanner;
 
 @Component
+@Profile("!simulation")
+@ConditionalOnProperty(name = "console.enabled", havingValue = "true", matchIfMissing = true)
 public class ConsoleApplicationRunner implements CommandLineRunner {
 
     private final UserConsoleHandler userConsoleHandler;
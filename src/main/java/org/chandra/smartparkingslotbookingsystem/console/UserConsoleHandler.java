@@ -1,7 +1,9 @@
 package org.chandra.smartparkingslotbookingsystem.console;
 
 import org.chandra.smartparkingslotbookingsystem.model.Booking;
-import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.SlotRecord;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotQuery;
+import org.chandra.smartparkingslotbookingsystem.service.BookingResult;
 import org.chandra.smartparkingslotbookingsystem.service.BookingService;
 import org.chandra.smartparkingslotbookingsystem.service.SlotService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -63,16 +65,16 @@ public class UserConsoleHandler {
     }
 
     /**
-     * Displays available parking slots based on type.
+     * Displays available parking slots based on type, from one consistent snapshot.
      */
     private void viewAvailableSlots(Scanner scanner) {
         System.out.print("Enter slot type (Car/Bike): ");
         String type = scanner.nextLine();
-        List<ParkingSlot> availableSlots = slotService.getAvailableSlotsByType(type);
+        List<SlotRecord> availableSlots = slotService.getSlotSnapshot().availableByType(type).toList();
         if (availableSlots.isEmpty()) {
             System.out.println("No available " + type + " slots found.");
         } else {
-            System.out.println("\nAvailable Slots:");
+            System.out.println("\nAvailable Slots (" + availableSlots.size() + " free):");
             availableSlots.forEach(System.out::println);
         }
     }
@@ -95,8 +97,17 @@ public class UserConsoleHandler {
         System.out.print("Enter your vehicle registration number: ");
         String vehicleNumber = scanner.nextLine();
 
-        System.out.print("Enter slot ID to book: ");
+        System.out.print("Enter slot ID to book (or AUTO to get the best matching slot): ");
         String slotId = scanner.nextLine();
+        SlotQuery query = null;
+        if (slotId.trim().equalsIgnoreCase("AUTO")) {
+            try {
+                query = readSlotQuery(scanner);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Invalid requirement: " + e.getMessage() + ". Booking not created.");
+                return;
+            }
+        }
 
         // Define formatters
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
@@ -127,13 +138,53 @@ public class UserConsoleHandler {
                 return;
             }
 
-            bookingService.createBooking(name, email, phone, vehicleNumber, slotId, startDateTime, endDateTime);
+            if (query == null) {
+                bookingService.quote(slotId, startDateTime, endDateTime)
+                        .ifPresent(quote -> System.out.println("Price: " + quote));
+                bookingService.createBooking(name, email, phone, vehicleNumber, slotId, startDateTime, endDateTime);
+                return;
+            }
+            BookingResult result = bookingService.autoAssignBooking(name, email, phone, vehicleNumber, query, startDateTime, endDateTime);
+            if (result.booking() != null)
+                System.out.println("Assigned slot " + result.booking().getSlotId() + ": " + result.booking());
+            else
+                System.out.println("No matching " + query.type() + " slot is free for that time. Booking not created.");
 
         } catch (DateTimeParseException e) {
             System.out.println("Invalid date or time format. Please use 'dd-MM-yyyy' for date and 'HH:mm' for time.");
         }
     }
 
+    /**
+     * Asks for the vehicle's requirements for an auto-assigned booking.
+     * Blank answers mean no requirement.
+     */
+    private SlotQuery readSlotQuery(Scanner scanner) {
+        System.out.print("Enter slot type (Car/Bike): ");
+        String type = scanner.nextLine();
+        int vehicleLength = 0;
+        boolean helmetLock = false;
+        if (type.trim().equalsIgnoreCase("Car")) {
+            System.out.print("Enter vehicle length in feet (blank for any): ");
+            String length = scanner.nextLine().trim();
+            vehicleLength = length.isEmpty() ? 0 : Integer.parseInt(length);
+        } else {
+            System.out.print("Need a helmet lock? (y/n): ");
+            helmetLock = scanner.nextLine().trim().equalsIgnoreCase("y");
+        }
+        System.out.print("Need a charging station? (y/n): ");
+        boolean charging = scanner.nextLine().trim().equalsIgnoreCase("y");
+        System.out.print("Enter preferred location (blank for any): ");
+        String location = scanner.nextLine();
+        System.out.print("Enter maximum hourly rate (blank for any): ");
+        String rate = scanner.nextLine().trim();
+        System.out.print("Prefer the CHEAPEST or the CLOSEST slot? ");
+        String order = scanner.nextLine().trim();
+        return new SlotQuery(type, vehicleLength, charging, helmetLock, location,
+                rate.isEmpty() ? 0 : Double.parseDouble(rate),
+                order.isEmpty() ? SlotQuery.Order.CHEAPEST : SlotQuery.Order.valueOf(order.toUpperCase()));
+    }
+
     /**
      * Displays all bookings associated with a user's phone number.
      */
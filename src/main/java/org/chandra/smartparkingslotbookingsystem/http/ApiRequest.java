@@ -0,0 +1,164 @@
+package org.chandra.smartparkingslotbookingsystem.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.chandra.smartparkingslotbookingsystem.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One API call as seen by a route handler: path parameters, query parameters, headers and
+ * a JSON body, with typed accessors that turn missing or malformed input into
+ * {@code 400 Bad Request}.
+ */
+final class ApiRequest {
+    static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final HttpExchange exchange;
+    private final Map<String, String> pathParams;
+    private Map<String, String> query;
+
+    ApiRequest(HttpExchange exchange, Map<String, String> pathParams) {
+        this.exchange = exchange;
+        this.pathParams = pathParams;
+    }
+
+    String path(String name) {
+        return pathParams.get(name);
+    }
+
+    String header(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    /**
+     * @return the query parameter, or {@code null} if it is absent or blank
+     */
+    String query(String name) {
+        if (query == null) query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String value = query.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    int queryInt(String name, int defaultValue, int min, int max) {
+        String value = query(name);
+        if (value == null) return defaultValue;
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < min || parsed > max) throw new NumberFormatException();
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw ApiException.badRequest("Query parameter '" + name + "' must be a number between " + min + " and " + max);
+        }
+    }
+
+    boolean queryBoolean(String name) {
+        return Boolean.parseBoolean(query(name));
+    }
+
+    LocalDate queryDate(String name) {
+        String value = query(name);
+        try {
+            return value == null ? null : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw ApiException.badRequest("Query parameter '" + name + "' must be a date like 2025-01-31");
+        }
+    }
+
+    LocalDateTime queryDateTime(String name) {
+        String value = query(name);
+        if (value == null) throw ApiException.badRequest("Query parameter '" + name + "' is required");
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw ApiException.badRequest("Query parameter '" + name + "' must be a date-time like 2025-01-31T09:30");
+        }
+    }
+
+    /**
+     * Reads the body as a JSON object.
+     */
+    Map<String, Object> jsonObject() {
+        if (body() instanceof Map<?, ?> map) return cast(map);
+        throw ApiException.badRequest("Request body must be a JSON object");
+    }
+
+    /**
+     * Reads the body as a JSON array of objects.
+     */
+    List<Map<String, Object>> jsonObjects() {
+        if (body() instanceof List<?> list) {
+            for (Object item : list)
+                if (!(item instanceof Map<?, ?>)) throw ApiException.badRequest("Request body must be a JSON array of objects");
+            return cast(list);
+        }
+        throw ApiException.badRequest("Request body must be a JSON array");
+    }
+
+    static String string(Map<String, Object> object, String field) {
+        Object value = object.get(field);
+        if (value == null || value.toString().isBlank()) throw ApiException.badRequest("Field '" + field + "' is required");
+        if (!(value instanceof String s)) throw ApiException.badRequest("Field '" + field + "' must be a string");
+        return s.trim();
+    }
+
+    static double number(Map<String, Object> object, String field) {
+        if (object.get(field) instanceof Number n) return n.doubleValue();
+        throw ApiException.badRequest("Field '" + field + "' must be a number");
+    }
+
+    static boolean flag(Map<String, Object> object, String field, boolean defaultValue) {
+        Object value = object.get(field);
+        if (value == null) return defaultValue;
+        if (value instanceof Boolean b) return b;
+        throw ApiException.badRequest("Field '" + field + "' must be true or false");
+    }
+
+    static LocalDateTime dateTime(Map<String, Object> object, String field) {
+        String value = string(object, field);
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw ApiException.badRequest("Field '" + field + "' must be a date-time like 2025-01-31T09:30");
+        }
+    }
+
+    private Object body() {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) throw new ApiException(413, "Request body exceeds " + MAX_BODY_BYTES + " bytes");
+            if (bytes.length == 0) throw ApiException.badRequest("Request body is empty");
+            return Json.parse(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalArgumentException e) {
+            throw ApiException.badRequest("Malformed JSON: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(name, value);
+        }
+        return params;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+}
@@ -0,0 +1,15 @@
+package org.chandra.smartparkingslotbookingsystem.http;
+
+/**
+ * Status and JSON body of an API call; a {@code null} body sends no content.
+ */
+record ApiResponse(int status, Object body) {
+
+    static ApiResponse ok(Object body) {
+        return new ApiResponse(200, body);
+    }
+
+    static ApiResponse created(Object body) {
+        return new ApiResponse(201, body);
+    }
+}
@@ -0,0 +1,130 @@
+package org.chandra.smartparkingslotbookingsystem.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.chandra.smartparkingslotbookingsystem.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dispatches requests to route handlers by method and path template, e.g.
+ * {@code GET /api/bookings/{id}}, and writes their results as JSON.
+ * <p>
+ * Handlers signal client errors with {@link ApiException}; {@link IllegalArgumentException}s
+ * from the services become {@code 400}, anything else {@code 500}. Error bodies are
+ * {@code {"error": "..."}}.
+ * </p>
+ */
+final class ApiRouter implements HttpHandler {
+    private static final Logger log = LoggerFactory.getLogger(ApiRouter.class);
+
+    @FunctionalInterface
+    interface Handler {
+        ApiResponse handle(ApiRequest request);
+    }
+
+    private record Route(String method, String[] segments, Handler handler) {}
+
+    private final List<Route> routes = new ArrayList<>();
+
+    ApiRouter get(String template, Handler handler) {
+        return add("GET", template, handler);
+    }
+
+    ApiRouter post(String template, Handler handler) {
+        return add("POST", template, handler);
+    }
+
+    ApiRouter put(String template, Handler handler) {
+        return add("PUT", template, handler);
+    }
+
+    ApiRouter delete(String template, Handler handler) {
+        return add("DELETE", template, handler);
+    }
+
+    private ApiRouter add(String method, String template, Handler handler) {
+        routes.add(new Route(method, split(template), handler));
+        return this;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        ApiResponse response;
+        try {
+            response = dispatch(exchange);
+        } catch (ApiException e) {
+            response = error(e.status(), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            response = error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("{} {} failed", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            response = error(500, "Internal error");
+        }
+        send(exchange, response);
+    }
+
+    private ApiResponse dispatch(HttpExchange exchange) {
+        String[] path = split(exchange.getRequestURI().getRawPath());
+        boolean pathMatched = false;
+        for (Route route : routes) {
+            Map<String, String> params = match(route.segments(), path);
+            if (params == null) continue;
+            pathMatched = true;
+            if (route.method().equals(exchange.getRequestMethod()))
+                return route.handler().handle(new ApiRequest(exchange, params));
+        }
+        if (pathMatched) throw new ApiException(405, "Method " + exchange.getRequestMethod() + " not allowed");
+        throw ApiException.notFound("No route for " + exchange.getRequestURI().getPath());
+    }
+
+    private static Map<String, String> match(String[] template, String[] path) {
+        if (template.length != path.length) return null;
+        Map<String, String> params = null;
+        for (int i = 0; i < template.length; i++) {
+            String segment = template[i];
+            if (segment.startsWith("{")) {
+                if (params == null) params = new HashMap<>(4);
+                params.put(segment.substring(1, segment.length() - 1), URLDecoder.decode(path[i], StandardCharsets.UTF_8));
+            } else if (!segment.equals(path[i])) {
+                return null;
+            }
+        }
+        return params == null ? Map.of() : params;
+    }
+
+    private static String[] split(String path) {
+        return path.replaceAll("^/+|/+$", "").split("/+");
+    }
+
+    private static ApiResponse error(int status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        return new ApiResponse(status, body);
+    }
+
+    private static void send(HttpExchange exchange, ApiResponse response) throws IOException {
+        try (exchange) {
+            if (response.body() == null) {
+                exchange.sendResponseHeaders(response.status() == 200 ? 204 : response.status(), -1);
+                return;
+            }
+            byte[] bytes = Json.write(response.body()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.chandra.smartparkingslotbookingsystem.http;
+
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP/JSON server for kiosks and mobile clients, built on the JDK {@link HttpServer}.
+ * <p>
+ * Every request runs on its own virtual thread, so thousands of concurrent connections
+ * are served without a thread pool ceiling: a request waiting on the booking journal
+ * parks its virtual thread instead of holding a platform thread. The routes are defined
+ * by {@link ParkingApi}. The server runs next to the console unless {@code console.enabled}
+ * is {@code false}.
+ * </p>
+ *
+ * <p><strong>Profile:</strong> http</p>
+ */
+@Component
+@Profile("http")
+public class HttpApiServer {
+    private static final Logger log = LoggerFactory.getLogger(HttpApiServer.class);
+
+    private final ParkingApi api;
+    private final String host;
+    private final int port;
+    private final int backlog;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-", 0).factory());
+    private HttpServer server;
+
+    @Autowired
+    public HttpApiServer(ParkingApi api,
+                         @Value("${http.host:0.0.0.0}") String host,
+                         @Value("${http.port:8080}") int port,
+                         @Value("${http.backlog:1024}") int backlog) {
+        this.api = api;
+        this.host = host;
+        this.port = port;
+        this.backlog = backlog;
+    }
+
+    @PostConstruct
+    public void start() {
+        ApiRouter router = new ApiRouter();
+        api.register(router);
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), backlog);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen on " + host + ":" + port, e);
+        }
+        server.createContext("/api/", router);
+        server.setExecutor(executor);
+        server.start();
+        log.info("🌐 HTTP API listening on {}:{}", host, port());
+    }
+
+    /**
+     * @return the bound port, which differs from {@code http.port} when that is {@code 0}
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server == null) return;
+        server.stop(1);
+        executor.close();
+        log.info("HTTP API stopped.");
+    }
+}
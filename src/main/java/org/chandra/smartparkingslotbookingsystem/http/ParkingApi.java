@@ -0,0 +1,424 @@
+package org.chandra.smartparkingslotbookingsystem.http;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.pricing.Money;
+import org.chandra.smartparkingslotbookingsystem.pricing.Quote;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingFilter;
+import org.chandra.smartparkingslotbookingsystem.repository.Page;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotFilter;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotQuery;
+import org.chandra.smartparkingslotbookingsystem.service.AdminService;
+import org.chandra.smartparkingslotbookingsystem.service.BookingRequest;
+import org.chandra.smartparkingslotbookingsystem.service.BookingResult;
+import org.chandra.smartparkingslotbookingsystem.service.BookingService;
+import org.chandra.smartparkingslotbookingsystem.service.SlotImportResult;
+import org.chandra.smartparkingslotbookingsystem.service.SlotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Routes of the HTTP API, mapping JSON requests onto {@link SlotService}, {@link BookingService}
+ * and {@link AdminService}.
+ * <p>
+ * Customer routes live under {@code /api/slots} and {@code /api/bookings}. Booking IDs are easy
+ * to guess, so reading or cancelling a booking also takes the phone number it was made with,
+ * and listing a user's bookings takes their phone number and email; a booking that does not
+ * match answers 404, like one that does not exist. Admin routes live under
+ * {@code /api/admin} and require the {@code X-Admin-Token} header to match {@code http.admin-token};
+ * while that property is blank they are refused. The snapshot and import routes only read and
+ * write files inside {@code http.data-dir}. Lists are paged with the same cursors as the
+ * admin console: pass a page's {@code nextCursor} as {@code cursor} to get the next one.
+ * </p>
+ * <p>
+ * With {@code http.read-only=true}, as on a replication follower, routes that change slots or
+ * bookings answer 403 and only reads are served.
+ * </p>
+ *
+ * <p><strong>Profile:</strong> http</p>
+ */
+@Component
+@Profile("http")
+public class ParkingApi {
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final SlotService slotService;
+    private final BookingService bookingService;
+    private final AdminService adminService;
+    private final byte[] adminToken;
+    private final boolean readOnly;
+    private final Path dataDirectory;
+
+    @Autowired
+    public ParkingApi(SlotService slotService, BookingService bookingService, AdminService adminService,
+                      @Value("${http.admin-token:}") String adminToken,
+                      @Value("${http.read-only:false}") boolean readOnly,
+                      @Value("${http.data-dir:data}") String dataDirectory) {
+        this.slotService = slotService;
+        this.bookingService = bookingService;
+        this.adminService = adminService;
+        this.adminToken = adminToken.isBlank() ? null : adminToken.getBytes(StandardCharsets.UTF_8);
+        this.readOnly = readOnly;
+        this.dataDirectory = Path.of(dataDirectory).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Registers every route on {@code router}.
+     */
+    void register(ApiRouter router) {
+        router.get("/api/slots", this::searchSlots)
+                .get("/api/slots/available/{type}", this::availability)
+                .get("/api/slots/{id}", this::getSlot)
+                .get("/api/slots/{id}/quote", this::quote)
+                .get("/api/bookings", this::bookingsByPhone)
+                .post("/api/bookings", write(this::createBooking))
+                .post("/api/bookings/batch", write(this::createBookings))
+                .post("/api/bookings/auto", write(this::autoAssignBooking))
+                .get("/api/bookings/{id}", this::getBooking)
+                .delete("/api/bookings/{id}", write(this::cancelBooking))
+                .get("/api/admin/slots", admin(this::searchSlots))
+                .post("/api/admin/slots", admin(write(this::createSlot)))
+                .put("/api/admin/slots/{id}", admin(write(this::updateSlot)))
+                .delete("/api/admin/slots/{id}", admin(write(this::deleteSlot)))
+                .get("/api/admin/bookings", admin(this::searchBookings))
+                .delete("/api/admin/bookings/{id}", admin(write(this::cancelBookingAsAdmin)))
+                .get("/api/admin/metrics", admin(request -> ApiResponse.ok(adminService.getServiceMetrics())))
+                .get("/api/admin/report", admin(request -> ApiResponse.ok(adminService.getUtilizationReport())))
+                .post("/api/admin/snapshot", admin(this::exportSnapshot))
+                .post("/api/admin/import", admin(write(this::importSlots)));
+    }
+
+    private ApiResponse searchSlots(ApiRequest request) {
+        SlotFilter filter = new SlotFilter(request.query("type"), request.query("location"), request.queryBoolean("available"));
+        Page<ParkingSlot> page = slotService.getSlots(filter, request.query("cursor"), pageSize(request));
+        return ApiResponse.ok(page(page, ParkingApi::slotJson));
+    }
+
+    private ApiResponse availability(ApiRequest request) {
+        String type = request.path("type");
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", type);
+        body.put("available", slotService.countAvailableSlots(type));
+        body.put("firstAvailable", slotService.findFirstAvailableSlot(type).map(ParkingApi::slotJson).orElse(null));
+        return ApiResponse.ok(body);
+    }
+
+    private ApiResponse getSlot(ApiRequest request) {
+        return ApiResponse.ok(slotJson(slot(request.path("id"))));
+    }
+
+    /**
+     * Prices a stay in a slot without booking it.
+     */
+    private ApiResponse quote(ApiRequest request) {
+        String id = request.path("id");
+        LocalDateTime start = request.queryDateTime("start");
+        LocalDateTime end = request.queryDateTime("end");
+        if (!end.isAfter(start)) throw ApiException.badRequest("A stay must end after it starts");
+        Quote quote = bookingService.quote(id, start, end).orElseThrow(() -> ApiException.notFound("Slot " + id + " not found"));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("slotId", id);
+        body.put("type", quote.type());
+        body.put("location", quote.location());
+        body.put("hours", quote.hours());
+        body.put("hourlyRate", Money.toMajor(quote.hourlyRateMinor()));
+        body.put("surgePercent", quote.surgePercent());
+        body.put("amountMinor", quote.amountMinor());
+        body.put("amount", quote.amount());
+        return ApiResponse.ok(body);
+    }
+
+    /**
+     * Lists the bookings made with both the phone number and the email in the query.
+     */
+    private ApiResponse bookingsByPhone(ApiRequest request) {
+        String phone = request.query("phone");
+        String email = request.query("email");
+        if (phone == null || email == null) throw ApiException.badRequest("Query parameters 'phone' and 'email' are required");
+        return ApiResponse.ok(bookingService.getBookingsByUserPhone(phone).stream()
+                .filter(booking -> email.equalsIgnoreCase(trimmed(booking.getUserEmail())))
+                .map(ParkingApi::bookingJson).toList());
+    }
+
+    /**
+     * Creates one booking. The slot and the window are checked first, so a refusal that
+     * remains can only be a conflict with another booking or an occupied slot.
+     */
+    private ApiResponse createBooking(ApiRequest request) {
+        BookingRequest booking = bookingRequest(request.jsonObject());
+        slot(booking.slotId());
+        if (!booking.endTime().isAfter(booking.startTime())) throw ApiException.badRequest("Booking must end after it starts");
+        Booking created = bookingService.createBooking(booking.userName(), booking.userEmail(), booking.userPhone(),
+                booking.vehicleNumber(), booking.slotId(), booking.startTime(), booking.endTime());
+        if (created == null) throw new ApiException(409, "Slot is already booked for part of that window or currently occupied");
+        return ApiResponse.created(bookingJson(created));
+    }
+
+    /**
+     * Books the best free slot matching the requirements in the body instead of a named slot.
+     */
+    private ApiResponse autoAssignBooking(ApiRequest request) {
+        Map<String, Object> body = request.jsonObject();
+        SlotQuery query = slotQuery(body);
+        BookingResult result = bookingService.autoAssignBooking(ApiRequest.string(body, "userName"), ApiRequest.string(body, "userEmail"),
+                ApiRequest.string(body, "userPhone"), ApiRequest.string(body, "vehicleNumber"), query,
+                ApiRequest.dateTime(body, "startTime"), ApiRequest.dateTime(body, "endTime"));
+        return switch (result.outcome()) {
+            case CREATED -> ApiResponse.created(bookingJson(result.booking()));
+            case INVALID_WINDOW -> throw ApiException.badRequest("Booking must end after it starts");
+            case SLOT_NOT_FOUND, CONFLICT, SLOT_OCCUPIED, NO_SLOT_AVAILABLE ->
+                    throw new ApiException(409, "No matching " + query.type() + " slot is free for that window");
+        };
+    }
+
+    private ApiResponse createBookings(ApiRequest request) {
+        List<BookingRequest> requests = request.jsonObjects().stream().map(ParkingApi::bookingRequest).toList();
+        return ApiResponse.ok(bookingService.createBookings(requests).stream().map(result -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("outcome", result.outcome());
+            body.put("booking", result.booking() == null ? null : bookingJson(result.booking()));
+            return body;
+        }).toList());
+    }
+
+    private ApiResponse getBooking(ApiRequest request) {
+        return ApiResponse.ok(bookingJson(ownBooking(request)));
+    }
+
+    private ApiResponse cancelBooking(ApiRequest request) {
+        Booking booking = ownBooking(request);
+        bookingService.cancelBooking(booking.getBookingId());
+        return ApiResponse.ok(bookingJson(booking(booking.getBookingId())));
+    }
+
+    private ApiResponse createSlot(ApiRequest request) {
+        Map<String, Object> body = request.jsonObject();
+        String id = ApiRequest.string(body, "id");
+        if (slotService.getSlotById(id).isPresent()) throw new ApiException(409, "Slot " + id + " already exists");
+        String type = ApiRequest.string(body, "type");
+        String location = ApiRequest.string(body, "location");
+        double rate = ApiRequest.number(body, "hourlyRate");
+        boolean charging = ApiRequest.flag(body, "hasChargingStation", false);
+        ParkingSlot slot;
+        if (type.equalsIgnoreCase("Car"))
+            slot = new CarParkingSlot(id, "Car", location, rate, true, charging, (int) ApiRequest.number(body, "maxLength"));
+        else if (type.equalsIgnoreCase("Bike"))
+            slot = new BikeParkingSlot(id, "Bike", location, rate, true, charging, ApiRequest.flag(body, "hasHelmetLock", false));
+        else
+            throw ApiException.badRequest("Field 'type' must be Car or Bike");
+        adminService.createSlot(slot);
+        return ApiResponse.created(slotJson(slot));
+    }
+
+    /**
+     * Changes a slot's hourly rate and availability, the fields the admin console can edit.
+     * With a {@code version} in the body the change only applies to that version of the slot,
+     * and a slot changed in the meantime answers 409; without one it is applied to the
+     * current slot, retrying if a booking changes it concurrently.
+     */
+    private ApiResponse updateSlot(ApiRequest request) {
+        Map<String, Object> body = request.jsonObject();
+        String id = request.path("id");
+        Consumer<ParkingSlot> edit = slot -> {
+            if (body.containsKey("hourlyRate")) slot.setHourlyRate(ApiRequest.number(body, "hourlyRate"));
+            slot.setAvailable(ApiRequest.flag(body, "available", slot.isAvailable()));
+        };
+        if (!body.containsKey("version"))
+            return ApiResponse.ok(slotJson(adminService.editSlot(id, edit)
+                    .orElseThrow(() -> ApiException.notFound("Slot " + id + " not found"))));
+        long version = (long) ApiRequest.number(body, "version");
+        ParkingSlot slot = slot(id).copy();
+        edit.accept(slot);
+        if (!adminService.updateSlot(slot, version))
+            throw new ApiException(409, "Slot " + id + " has changed since version " + version);
+        return ApiResponse.ok(slotJson(slot));
+    }
+
+    private ApiResponse deleteSlot(ApiRequest request) {
+        adminService.deleteSlot(slot(request.path("id")));
+        return ApiResponse.ok(null);
+    }
+
+    private ApiResponse searchBookings(ApiRequest request) {
+        BookingStatus status;
+        try {
+            String value = request.query("status");
+            status = value == null ? null : BookingStatus.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw ApiException.badRequest("Query parameter 'status' must be one of " + List.of(BookingStatus.values()));
+        }
+        BookingFilter filter = new BookingFilter(status, request.query("slotId"), request.queryDate("from"), request.queryDate("to"));
+        return ApiResponse.ok(page(adminService.getBookings(filter, request.query("cursor"), pageSize(request)), ParkingApi::bookingJson));
+    }
+
+    private ApiResponse cancelBookingAsAdmin(ApiRequest request) {
+        Booking booking = booking(request.path("id"));
+        adminService.cancelBookingAsAdmin(booking.getBookingId());
+        return ApiResponse.ok(bookingJson(booking(booking.getBookingId())));
+    }
+
+    private ApiResponse exportSnapshot(ApiRequest request) {
+        int written = adminService.exportSlotSnapshot(dataFile(request.jsonObject()));
+        if (written < 0) throw new ApiException(500, "Slot snapshot could not be written");
+        return ApiResponse.ok(Map.of("slots", written));
+    }
+
+    private ApiResponse importSlots(ApiRequest request) {
+        SlotImportResult result = adminService.importSlots(dataFile(request.jsonObject()));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("imported", result.imported());
+        body.put("duplicates", result.duplicates());
+        body.put("rejected", result.rejected());
+        body.put("errors", result.errors());
+        body.put("millis", result.millis());
+        return ApiResponse.ok(body);
+    }
+
+    /**
+     * Resolves the body's {@code path} against the data directory, refusing absolute paths and
+     * paths that climb out of it, so admin calls cannot read or write arbitrary files.
+     */
+    private String dataFile(Map<String, Object> body) {
+        String name = ApiRequest.string(body, "path");
+        Path file;
+        try {
+            file = dataDirectory.resolve(name).normalize();
+        } catch (InvalidPathException e) {
+            throw ApiException.badRequest("Field 'path' is not a valid file name");
+        }
+        if (Path.of(name).isAbsolute() || !file.startsWith(dataDirectory) || file.equals(dataDirectory))
+            throw ApiException.badRequest("Field 'path' must name a file inside the data directory");
+        return file.toString();
+    }
+
+    /**
+     * Guards an admin route with the admin token, compared in constant time.
+     */
+    private ApiRouter.Handler admin(ApiRouter.Handler handler) {
+        return request -> {
+            if (adminToken == null) throw new ApiException(403, "Admin API is disabled; set http.admin-token to enable it");
+            String token = request.header(ADMIN_TOKEN_HEADER);
+            if (token == null || !MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8)))
+                throw new ApiException(401, "Missing or invalid " + ADMIN_TOKEN_HEADER);
+            return handler.handle(request);
+        };
+    }
+
+    /**
+     * Refuses a route that changes slots or bookings while this node is read-only.
+     */
+    private ApiRouter.Handler write(ApiRouter.Handler handler) {
+        if (!readOnly) return handler;
+        return request -> {
+            throw new ApiException(403, "This node is a read-only replica; send changes to the leader");
+        };
+    }
+
+    private ParkingSlot slot(String id) {
+        return slotService.getSlotById(id).orElseThrow(() -> ApiException.notFound("Slot " + id + " not found"));
+    }
+
+    private Booking booking(String id) {
+        return bookingService.getBookingById(id).orElseThrow(() -> ApiException.notFound("Booking " + id + " not found"));
+    }
+
+    /**
+     * Looks up the booking in the path for its owner, identified by the {@code phone} query
+     * parameter. A booking made with another phone number is reported as not found.
+     */
+    private Booking ownBooking(ApiRequest request) {
+        String id = request.path("id");
+        String phone = request.query("phone");
+        if (phone == null) throw ApiException.badRequest("Query parameter 'phone' is required");
+        Booking booking = booking(id);
+        if (!phone.equalsIgnoreCase(trimmed(booking.getUserPhone()))) throw ApiException.notFound("Booking " + id + " not found");
+        return booking;
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static int pageSize(ApiRequest request) {
+        return request.queryInt("limit", DEFAULT_PAGE_SIZE, 1, MAX_PAGE_SIZE);
+    }
+
+    private static BookingRequest bookingRequest(Map<String, Object> body) {
+        return new BookingRequest(ApiRequest.string(body, "userName"), ApiRequest.string(body, "userEmail"),
+                ApiRequest.string(body, "userPhone"), ApiRequest.string(body, "vehicleNumber"),
+                ApiRequest.string(body, "slotId"), ApiRequest.dateTime(body, "startTime"), ApiRequest.dateTime(body, "endTime"));
+    }
+
+    private static SlotQuery slotQuery(Map<String, Object> body) {
+        SlotQuery.Order order;
+        try {
+            order = body.get("order") == null ? SlotQuery.Order.CHEAPEST : SlotQuery.Order.valueOf(ApiRequest.string(body, "order").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw ApiException.badRequest("Field 'order' must be one of " + List.of(SlotQuery.Order.values()));
+        }
+        return new SlotQuery(ApiRequest.string(body, "type"),
+                body.get("vehicleLength") == null ? 0 : (int) ApiRequest.number(body, "vehicleLength"),
+                ApiRequest.flag(body, "needsCharging", false), ApiRequest.flag(body, "needsHelmetLock", false),
+                body.get("preferredLocation") == null ? null : ApiRequest.string(body, "preferredLocation"),
+                body.get("maxRate") == null ? 0 : ApiRequest.number(body, "maxRate"), order);
+    }
+
+    private static <T> Map<String, Object> page(Page<T> page, Function<T, Map<String, Object>> toJson) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("items", page.items().stream().map(toJson).toList());
+        body.put("nextCursor", page.nextCursor());
+        return body;
+    }
+
+    static Map<String, Object> slotJson(ParkingSlot slot) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", slot.getId());
+        body.put("type", slot.getType());
+        body.put("location", slot.getLocation());
+        body.put("hourlyRate", slot.getHourlyRate());
+        body.put("available", slot.isAvailable());
+        body.put("version", slot.getVersion());
+        if (slot instanceof CarParkingSlot car) {
+            body.put("hasChargingStation", car.hasChargingStation());
+            body.put("maxLength", car.getMaxLength());
+        } else if (slot instanceof BikeParkingSlot bike) {
+            body.put("hasChargingStation", bike.hasChargingStation());
+            body.put("hasHelmetLock", bike.hasHelmetLock());
+        }
+        return body;
+    }
+
+    static Map<String, Object> bookingJson(Booking booking) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("bookingId", booking.getBookingId());
+        body.put("userName", booking.getUserName());
+        body.put("userEmail", booking.getUserEmail());
+        body.put("userPhone", booking.getUserPhone());
+        body.put("vehicleNumber", booking.getVehicleNumber());
+        body.put("slotId", booking.getSlotId());
+        body.put("startTime", booking.getStartTime());
+        body.put("endTime", booking.getEndTime());
+        body.put("status", booking.getStatus());
+        body.put("totalAmount", booking.getTotalAmount());
+        body.put("version", booking.getVersion());
+        return body;
+    }
+}
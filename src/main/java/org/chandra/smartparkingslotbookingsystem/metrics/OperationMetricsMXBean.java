@@ -0,0 +1,19 @@
+package org.chandra.smartparkingslotbookingsystem.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of one service operation. Latencies are reported in microseconds.
+ */
+public interface OperationMetricsMXBean {
+    String getService();
+    String getOperation();
+    long getCount();
+    long getErrors();
+    double getMeanMicros();
+    double getP50Micros();
+    double getP99Micros();
+    double getP999Micros();
+    double getMaxMicros();
+    Map<String, Long> getOutcomes();
+}
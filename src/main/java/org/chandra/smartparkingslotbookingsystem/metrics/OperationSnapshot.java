@@ -0,0 +1,29 @@
+package org.chandra.smartparkingslotbookingsystem.metrics;
+
+import java.util.Map;
+
+/**
+ * Point-in-time copy of the metrics of one service operation. Latencies are in microseconds.
+ *
+ * @param service    the service interface, e.g. {@code BookingService}
+ * @param operation  the method name, e.g. {@code createBooking}
+ * @param count      number of completed calls
+ * @param errors     number of calls that threw
+ * @param meanMicros mean latency
+ * @param p50Micros  median latency
+ * @param p99Micros  99th percentile latency
+ * @param p999Micros 99.9th percentile latency
+ * @param maxMicros  largest latency seen
+ * @param outcomes   business outcome counters, e.g. {@code CONFLICT -> 3}
+ */
+public record OperationSnapshot(String service, String operation, long count, long errors,
+                                double meanMicros, double p50Micros, double p99Micros, double p999Micros,
+                                double maxMicros, Map<String, Long> outcomes) {
+
+    @Override
+    public String toString() {
+        return String.format("%-15s %-26s count=%-8d errors=%-5d mean=%9.1fus p50=%9.1fus p99=%9.1fus p999=%9.1fus max=%9.1fus%s",
+                service, operation, count, errors, meanMicros, p50Micros, p99Micros, p999Micros, maxMicros,
+                outcomes.isEmpty() ? "" : " " + outcomes);
+    }
+}
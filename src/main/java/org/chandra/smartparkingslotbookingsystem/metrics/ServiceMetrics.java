@@ -0,0 +1,106 @@
+package org.chandra.smartparkingslotbookingsystem.metrics;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of per-operation service metrics.
+ * <p>
+ * Each operation gets one {@link OperationMetrics}, created on first use and, when JMX is
+ * enabled, registered with the platform MBean server as
+ * {@code org.chandra.smartparkingslotbookingsystem:type=ServiceMetrics,service=<Service>,name=<operation>}.
+ * </p>
+ */
+@Component
+public class ServiceMetrics {
+    private static final Logger log = LoggerFactory.getLogger(ServiceMetrics.class);
+    static final String JMX_DOMAIN = "org.chandra.smartparkingslotbookingsystem";
+
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final MBeanServer mBeanServer;
+
+    /**
+     * Creates a registry that is not published over JMX, e.g. for benchmarks.
+     */
+    public ServiceMetrics() {
+        this(false);
+    }
+
+    @Autowired
+    public ServiceMetrics(@Value("${metrics.jmx.enabled:true}") boolean jmxEnabled) {
+        this.mBeanServer = jmxEnabled ? ManagementFactory.getPlatformMBeanServer() : null;
+    }
+
+    /**
+     * Returns the metrics of an operation, creating and publishing them on first use.
+     *
+     * @param service   the service interface name, e.g. {@code BookingService}
+     * @param operation the operation name, e.g. {@code createBooking}
+     */
+    public OperationMetrics operation(String service, String operation) {
+        return operations.computeIfAbsent(service + '.' + operation, key -> {
+            OperationMetrics metrics = new OperationMetrics(service, operation);
+            register(metrics);
+            return metrics;
+        });
+    }
+
+    /**
+     * Counts one business outcome of an operation.
+     */
+    public void countOutcome(String service, String operation, String outcome) {
+        operation(service, operation).countOutcome(outcome);
+    }
+
+    /**
+     * @return a copy of every operation's metrics, ordered by service and operation
+     */
+    public List<OperationSnapshot> snapshot() {
+        return operations.values().stream()
+                .map(OperationMetrics::snapshot)
+                .sorted(Comparator.comparing(OperationSnapshot::service).thenComparing(OperationSnapshot::operation))
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (mBeanServer == null) return;
+        for (OperationMetrics metrics : operations.values()) {
+            try {
+                ObjectName name = objectName(metrics);
+                if (mBeanServer.isRegistered(name)) mBeanServer.unregisterMBean(name);
+            } catch (JMException e) {
+                log.warn("Could not unregister metrics MBean for {}.{}: {}", metrics.getService(), metrics.getOperation(), e.getMessage());
+            }
+        }
+    }
+
+    private void register(OperationMetrics metrics) {
+        if (mBeanServer == null) return;
+        try {
+            ObjectName name = objectName(metrics);
+            if (mBeanServer.isRegistered(name)) mBeanServer.unregisterMBean(name);
+            mBeanServer.registerMBean(metrics, name);
+        } catch (JMException e) {
+            log.warn("Could not register metrics MBean for {}.{}: {}", metrics.getService(), metrics.getOperation(), e.getMessage());
+        }
+    }
+
+    private static ObjectName objectName(OperationMetrics metrics) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=ServiceMetrics,service=" + ObjectName.quote(metrics.getService())
+                + ",name=" + ObjectName.quote(metrics.getOperation()));
+    }
+}
@@ -0,0 +1,76 @@
+package org.chandra.smartparkingslotbookingsystem.metrics;
+
+import org.chandra.smartparkingslotbookingsystem.service.AdminService;
+import org.chandra.smartparkingslotbookingsystem.service.BookingService;
+import org.chandra.smartparkingslotbookingsystem.service.SlotService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps the service beans in a timing proxy so every call of a service interface method
+ * is recorded in {@link ServiceMetrics}, without touching the service implementations.
+ * <p>
+ * The proxy implements only the service interface, which is how every caller already
+ * injects the services. Each {@link Method} resolves its {@link OperationMetrics} once,
+ * so a call costs two {@link System#nanoTime()} reads and one histogram update.
+ * </p>
+ */
+@Component
+public class ServiceMetricsPostProcessor implements BeanPostProcessor {
+    private static final List<Class<?>> INSTRUMENTED = List.of(SlotService.class, BookingService.class, AdminService.class);
+
+    private final ObjectProvider<ServiceMetrics> metrics;
+
+    @Autowired
+    public ServiceMetricsPostProcessor(ObjectProvider<ServiceMetrics> metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        for (Class<?> service : INSTRUMENTED) {
+            if (service.isInstance(bean))
+                return Proxy.newProxyInstance(service.getClassLoader(), new Class<?>[]{service},
+                        new TimingHandler(bean, service.getSimpleName(), metrics.getObject()));
+        }
+        return bean;
+    }
+
+    private static final class TimingHandler implements InvocationHandler {
+        private final Object target;
+        private final String service;
+        private final ServiceMetrics metrics;
+        private final Map<Method, OperationMetrics> byMethod = new ConcurrentHashMap<>();
+
+        TimingHandler(Object target, String service, ServiceMetrics metrics) {
+            this.target = target;
+            this.service = service;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) return method.invoke(target, args);
+            OperationMetrics operation = byMethod.computeIfAbsent(method, m -> metrics.operation(service, m.getName()));
+            long start = System.nanoTime();
+            try {
+                Object result = method.invoke(target, args);
+                operation.record(System.nanoTime() - start);
+                return result;
+            } catch (InvocationTargetException e) {
+                operation.recordError(System.nanoTime() - start);
+                throw e.getCause();
+            }
+        }
+    }
+}
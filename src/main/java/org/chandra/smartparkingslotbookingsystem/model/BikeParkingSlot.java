@@ -21,6 +21,13 @@ public class BikeParkingSlot extends ParkingSlot{
     public boolean hasChargingStation() {return hasChargingStation;}
     public void setHasChargingStation(boolean hasChargingStation) {this.hasChargingStation = hasChargingStation;}
 
+    @Override
+    public BikeParkingSlot copy() {
+        BikeParkingSlot copy = new BikeParkingSlot(getId(), getType(), getLocation(), getHourlyRate(), isAvailable(), hasChargingStation, hasHelmetLock);
+        copy.setVersion(getVersion());
+        return copy;
+    }
+
     @Override
     public String toString() {
         return String.format("%s | Helmet Lock: %s | Charging: %s",
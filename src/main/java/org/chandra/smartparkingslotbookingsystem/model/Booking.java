@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 /**
  * Represents a reservation made by a user for a specific parking slot.
  * Includes user contact and vehicle details in a login-free environment.
+ * The version counts the status changes the repository has stored for it.
  */
 public class Booking {
     private String bookingId;
@@ -17,6 +18,7 @@ public class Booking {
     private LocalDateTime endTime;
     private BookingStatus status;
     private double totalAmount;
+    private long version;
 
     public Booking(){}
     public Booking(String bookingId, String userName, String userEmail, String userPhone,String vehicleNumber, String slotId, LocalDateTime startTime, LocalDateTime endTime, BookingStatus status, double totalAmount) {
@@ -40,6 +42,8 @@ public class Booking {
     public void setUserEmail(String userEmail) {this.userEmail = userEmail;}
     public String getUserPhone() {return userPhone;}
     public void setUserPhone(String userPhone) {this.userPhone = userPhone;}
+    public String getVehicleNumber() {return vehicleNumber;}
+    public void setVehicleNumber(String vehicleNumber) {this.vehicleNumber = vehicleNumber;}
     public String getSlotId() {return slotId;}
     public void setSlotId(String slotId) {this.slotId = slotId;}
     public LocalDateTime getStartTime() {return startTime;}
@@ -50,6 +54,8 @@ public class Booking {
     public void setStatus(BookingStatus status) {this.status = status;}
     public double getTotalAmount() {return totalAmount;}
     public void setTotalAmount(double totalAmount) {this.totalAmount = totalAmount;}
+    public long getVersion() {return version;}
+    public void setVersion(long version) {this.version = version;}
 
     @Override
     public String toString() {
@@ -0,0 +1,52 @@
+package org.chandra.smartparkingslotbookingsystem.model;
+
+import java.util.Locale;
+
+/**
+ * Text form of numeric booking IDs: {@code "BKG-"} followed by the ID in base 36.
+ * <p>
+ * Every booking ID maps to a positive {@code long}, so repositories can key bookings by a
+ * primitive instead of a case-insensitive string. Older six-character hexadecimal IDs are
+ * valid base-36 numbers and keep working.
+ * </p>
+ */
+public final class BookingId {
+    public static final String PREFIX = "BKG-";
+    private static final int RADIX = 36;
+
+    private BookingId() {}
+
+    /**
+     * @param id a positive numeric booking ID
+     * @return the text form, e.g. {@code BKG-2F9KQ81XZ4}
+     */
+    public static String format(long id) {
+        if (id <= 0) throw new IllegalArgumentException("Booking ID must be positive: " + id);
+        return PREFIX + Long.toString(id, RADIX).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses a booking ID case-insensitively, ignoring surrounding whitespace, without
+     * allocating.
+     *
+     * @param bookingId the text form of a booking ID
+     * @return the numeric ID, or {@code -1} if the text is not a valid booking ID
+     */
+    public static long parse(String bookingId) {
+        if (bookingId == null) return -1;
+        int from = 0;
+        int to = bookingId.length();
+        while (from < to && Character.isWhitespace(bookingId.charAt(from))) from++;
+        while (to > from && Character.isWhitespace(bookingId.charAt(to - 1))) to--;
+        if (!bookingId.regionMatches(true, from, PREFIX, 0, PREFIX.length())) return -1;
+        from += PREFIX.length();
+        if (from == to) return -1;
+        long id = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(bookingId.charAt(i), RADIX);
+            if (digit < 0 || id > (Long.MAX_VALUE - digit) / RADIX) return -1;
+            id = id * RADIX + digit;
+        }
+        return id > 0 ? id : -1;
+    }
+}
@@ -22,6 +22,13 @@ public class CarParkingSlot extends ParkingSlot{
     public int getMaxLength() {return maxLength;}
     public void setMaxLength(int maxLength) {this.maxLength = maxLength;}
 
+    @Override
+    public CarParkingSlot copy() {
+        CarParkingSlot copy = new CarParkingSlot(getId(), getType(), getLocation(), getHourlyRate(), isAvailable(), hasChargingStation, maxLength);
+        copy.setVersion(getVersion());
+        return copy;
+    }
+
     @Override
     public String toString() {
         return String.format("%s | Charging: %s | Max Length: %dft",
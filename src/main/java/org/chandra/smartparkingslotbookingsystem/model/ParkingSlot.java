@@ -3,13 +3,15 @@ package org.chandra.smartparkingslotbookingsystem.model;
 /**
  * Base abstract class representing a generic parking slot
  * All specific slot types (Car, Bike, Truck, etc.) will extend this class
+ * The version is bumped by the repository on every stored change, for optimistic updates
  */
 public abstract class ParkingSlot {
     private String id;
     private String type;
     private String location;
     private double hourlyRate;
-    private boolean available;
+    private volatile boolean available;
+    private volatile long version;
 
     protected ParkingSlot() {}
 
@@ -31,6 +33,8 @@ public abstract class ParkingSlot {
     public void setHourlyRate(double hourlyRate) {this.hourlyRate = hourlyRate;}
     public boolean isAvailable() {return available;}
     public void setAvailable(boolean available) {this.available = available;}
+    public long getVersion() {return version;}
+    public void setVersion(long version) {this.version = version;}
 
     @Override
     public String toString() {
@@ -38,6 +42,12 @@ public abstract class ParkingSlot {
                 id, type, location, hourlyRate, available ? "Yes" : "No");
     }
 
+    /**
+     * Creates a detached copy of this slot, version included, that can be edited and
+     * written back with a conditional update
+     */
+    public abstract ParkingSlot copy();
+
     /**
      * Marks a slot as booked
      */
@@ -0,0 +1,52 @@
+package org.chandra.smartparkingslotbookingsystem.model;
+
+/**
+ * Immutable copy of a {@link ParkingSlot} at one version, as published to readers.
+ * <p>
+ * Unlike a {@link ParkingSlot}, a record can be shared freely between threads: it never
+ * changes after it is created, so a reader always sees one consistent state of the slot.
+ * Features the slot's kind does not have are {@code false} or {@code 0}.
+ * </p>
+ */
+public record SlotRecord(Kind kind, String id, String type, String location, double hourlyRate, boolean available,
+                         boolean hasChargingStation, boolean hasHelmetLock, int maxLength, long version) {
+
+    public enum Kind {CAR, BIKE}
+
+    /**
+     * @throws IllegalArgumentException if the slot is neither a car nor a bike slot
+     */
+    public static SlotRecord of(ParkingSlot slot) {
+        if (slot instanceof CarParkingSlot car)
+            return new SlotRecord(Kind.CAR, car.getId(), car.getType(), car.getLocation(), car.getHourlyRate(),
+                    car.isAvailable(), car.hasChargingStation(), false, car.getMaxLength(), car.getVersion());
+        if (slot instanceof BikeParkingSlot bike)
+            return new SlotRecord(Kind.BIKE, bike.getId(), bike.getType(), bike.getLocation(), bike.getHourlyRate(),
+                    bike.isAvailable(), bike.hasChargingStation(), bike.hasHelmetLock(), 0, bike.getVersion());
+        throw new IllegalArgumentException("Unsupported slot type: " + slot.getClass().getSimpleName());
+    }
+
+    /**
+     * @return a new, detached {@link ParkingSlot} with this record's state
+     */
+    public ParkingSlot toSlot() {
+        ParkingSlot slot = switch (kind) {
+            case CAR -> new CarParkingSlot(id, type, location, hourlyRate, available, hasChargingStation, maxLength);
+            case BIKE -> new BikeParkingSlot(id, type, location, hourlyRate, available, hasChargingStation, hasHelmetLock);
+        };
+        slot.setVersion(version);
+        return slot;
+    }
+
+    @Override
+    public String toString() {
+        String base = String.format("[%s] Type: %s | Location: %s | Rate: %.2f/hr | Available: %s",
+                id, type, location, hourlyRate, available ? "Yes" : "No");
+        return switch (kind) {
+            case CAR -> String.format("%s | Charging: %s | Max Length: %dft",
+                    base, hasChargingStation ? "Yes" : "No", maxLength);
+            case BIKE -> String.format("%s | Helmet Lock: %s | Charging: %s",
+                    base, hasHelmetLock ? "Yes" : "No", hasChargingStation ? "Yes" : "No");
+        };
+    }
+}
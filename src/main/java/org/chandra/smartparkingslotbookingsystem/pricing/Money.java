@@ -0,0 +1,55 @@
+package org.chandra.smartparkingslotbookingsystem.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between amounts in major units, e.g. {@code 12.50}, and exact {@code long}
+ * amounts in minor units, e.g. {@code 1250}. Prices are computed in minor units only, so
+ * adding and multiplying them never rounds.
+ */
+public final class Money {
+    public static final int MINOR_PER_MAJOR = 100;
+    private static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Parses an amount in major units exactly.
+     *
+     * @param amount e.g. {@code "12.5"}
+     * @return the amount in minor units, e.g. {@code 1250}
+     * @throws IllegalArgumentException if the amount is not a number or has more than two decimals
+     */
+    public static long ofMajor(String amount) {
+        try {
+            return new BigDecimal(amount.trim()).movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: '" + amount.trim() + "'");
+        }
+    }
+
+    /**
+     * Converts an amount held as a {@code double}, such as a slot's hourly rate, to the nearest minor unit.
+     */
+    public static long ofMajor(double amount) {
+        long minor = Math.round(amount * MINOR_PER_MAJOR);
+        if ((double) minor / MINOR_PER_MAJOR == amount) return minor; // already a whole number of minor units
+        return BigDecimal.valueOf(amount).setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact();
+    }
+
+    /**
+     * @return the amount in major units, for fields that are still {@code double}s
+     */
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_PER_MAJOR;
+    }
+
+    /**
+     * @return the amount in major units with two decimals, e.g. {@code "12.50"}
+     */
+    public static String format(long minor) {
+        return BigDecimal.valueOf(minor, SCALE).toPlainString();
+    }
+}
@@ -0,0 +1,259 @@
+package org.chandra.smartparkingslotbookingsystem.pricing;
+
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.ConcurrentSlotRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotOccupancy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Prices parking in exact minor units from three configurable tables.
+ * <ul>
+ *   <li>{@code pricing.tariffs}: the base hourly rate per slot type, optionally per location,
+ *       e.g. {@code Car=60,Car@A1=80,Bike=20.50}. The most specific entry wins; slots without
+ *       one are charged their own hourly rate.</li>
+ *   <li>{@code pricing.time-bands}: percentages of the base rate for hours of the day, e.g.
+ *       {@code 8-10:125,17-19:125,22-6:80}. Each charged hour is priced by the hour of the day
+ *       it starts in; hours outside every band cost 100%.</li>
+ *   <li>{@code pricing.surge}: percentages applied once the slot type's occupancy at the
+ *       location reaches a threshold, e.g. {@code 70:120,90:150}.</li>
+ * </ul>
+ * <p>
+ * Every started hour is charged, with a one-hour minimum. The hour bands are summed with
+ * prefix sums, so a quote costs the same for two hours as for two weeks, and the product of
+ * rate, bands and surge is rounded to the minor unit once, at the end. With all three tables
+ * empty, the default, a booking costs its slot's hourly rate per hour.
+ * </p>
+ * <p>
+ * Quotes are kept in a bounded, direct-mapped cache of {@code pricing.quote-cache-size}
+ * entries, keyed by type, location, slot rate, hour of the day, hours and surge. Repeated
+ * requests for the same stay are answered from it without locking; a colliding request
+ * simply replaces the entry.
+ * </p>
+ */
+@Component
+public class PricingEngine {
+    private static final int FULL_PRICE = 100;
+    private static final int HOURS_PER_DAY = 24;
+
+    private final Map<String, Long> tariffs;
+    private final int[] bandPrefix = new int[HOURS_PER_DAY + 1];
+    private final boolean banded;
+    private final int[] surgeThresholds;
+    private final int[] surgePercents;
+    private final AtomicReferenceArray<CacheEntry> cache;
+
+    /**
+     * A cached quote and everything it was computed from.
+     */
+    private record CacheEntry(String type, String location, double slotRate, int startHour, long hours, int surgePercent, Quote quote) {
+        boolean matches(String type, String location, double slotRate, int startHour, long hours, int surgePercent) {
+            return this.startHour == startHour && this.hours == hours && this.surgePercent == surgePercent
+                    && this.slotRate == slotRate && this.type.equals(type) && this.location.equals(location);
+        }
+    }
+
+    /**
+     * Creates an engine without tariffs, time bands or surge, which charges each slot's own rate.
+     */
+    public PricingEngine() {
+        this("", "", "", 1024);
+    }
+
+    @Autowired
+    public PricingEngine(@Value("${pricing.tariffs:}") String tariffs,
+                         @Value("${pricing.time-bands:}") String timeBands,
+                         @Value("${pricing.surge:}") String surge,
+                         @Value("${pricing.quote-cache-size:4096}") int quoteCacheSize) {
+        if (quoteCacheSize < 0) throw new IllegalArgumentException("pricing.quote-cache-size must not be negative");
+        this.tariffs = parseTariffs(tariffs);
+        int[] bands = parseTimeBands(timeBands);
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) bandPrefix[hour + 1] = bandPrefix[hour] + bands[hour];
+        this.banded = Arrays.stream(bands).anyMatch(percent -> percent != FULL_PRICE);
+        int[][] steps = parseSurge(surge);
+        this.surgeThresholds = steps[0];
+        this.surgePercents = steps[1];
+        this.cache = quoteCacheSize == 0 ? null
+                : new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(1, quoteCacheSize - 1)) << 1);
+    }
+
+    /**
+     * Prices a stay in a slot.
+     *
+     * @param slot      the slot being booked
+     * @param startTime the start of the stay
+     * @param endTime   the end of the stay, after {@code startTime}
+     * @param occupancy the current occupancy of the slot's type at its location, which selects the surge
+     * @return the {@link Quote}, possibly shared with earlier callers
+     * @throws IllegalArgumentException if the stay does not end after it starts
+     * @throws ArithmeticException      if the amount does not fit in a {@code long}
+     */
+    public Quote quote(ParkingSlot slot, LocalDateTime startTime, LocalDateTime endTime, SlotOccupancy occupancy) {
+        return quote(slot.getType(), slot.getLocation(), slot.getHourlyRate(), startTime, endTime, occupancy);
+    }
+
+    /**
+     * Prices a stay in any slot of a type at a location with a given own hourly rate, e.g.
+     * to rank best-fit candidates by what they would actually cost.
+     *
+     * @param type      the slot type
+     * @param location  the slot location
+     * @param slotRate  the slot's own hourly rate, charged when no tariff applies
+     * @param startTime the start of the stay
+     * @param endTime   the end of the stay, after {@code startTime}
+     * @param occupancy the current occupancy of the type at the location, which selects the surge
+     * @return the {@link Quote}, possibly shared with earlier callers
+     * @throws IllegalArgumentException if the stay does not end after it starts
+     * @throws ArithmeticException      if the amount does not fit in a {@code long}
+     */
+    public Quote quote(String type, String location, double slotRate, LocalDateTime startTime, LocalDateTime endTime,
+                       SlotOccupancy occupancy) {
+        if (!endTime.isAfter(startTime)) throw new IllegalArgumentException("A stay must end after it starts");
+        long hours = Math.max(1, (Duration.between(startTime, endTime).toMinutes() + 59) / 60);
+        int startHour = banded ? startTime.getHour() : 0; // without bands the hour of the day does not matter
+        int surgePercent = surgePercent(occupancy.percent());
+
+        if (cache == null) return compute(type, location, slotRate, startHour, hours, surgePercent);
+        int index = index(type, location, slotRate, startHour, hours, surgePercent);
+        CacheEntry entry = cache.get(index);
+        if (entry != null && entry.matches(type, location, slotRate, startHour, hours, surgePercent)) return entry.quote();
+        Quote quote = compute(type, location, slotRate, startHour, hours, surgePercent);
+        cache.set(index, new CacheEntry(type, location, slotRate, startHour, hours, surgePercent, quote));
+        return quote;
+    }
+
+    /**
+     * @return the surge percentage for an occupancy, {@code 100} below the lowest threshold
+     */
+    int surgePercent(int occupancyPercent) {
+        int percent = FULL_PRICE;
+        for (int i = 0; i < surgeThresholds.length && surgeThresholds[i] <= occupancyPercent; i++) percent = surgePercents[i];
+        return percent;
+    }
+
+    private Quote compute(String type, String location, double slotRate, int startHour, long hours, int surgePercent) {
+        long rate = hourlyRate(type, location, slotRate);
+        long percentHours = bandPercentSum(startHour, hours);
+        long scaled = Math.multiplyExact(Math.multiplyExact(rate, percentHours), surgePercent);
+        long amount = (scaled + FULL_PRICE * FULL_PRICE / 2) / (FULL_PRICE * FULL_PRICE);
+        return new Quote(type, location, hours, rate, surgePercent, amount);
+    }
+
+    /**
+     * @return the base rate in minor units: the location's tariff, else the type's, else the slot's own rate
+     */
+    private long hourlyRate(String type, String location, double slotRate) {
+        if (tariffs.isEmpty()) return Money.ofMajor(slotRate);
+        String normalizedType = ConcurrentSlotRepository.normalize(type);
+        Long rate = tariffs.get(normalizedType + '@' + ConcurrentSlotRepository.normalize(location));
+        if (rate == null) rate = tariffs.get(normalizedType);
+        return rate != null ? rate : Money.ofMajor(slotRate);
+    }
+
+    /**
+     * @return the sum of the band percentages of {@code hours} consecutive hours from {@code startHour}
+     */
+    private long bandPercentSum(int startHour, long hours) {
+        int day = bandPrefix[HOURS_PER_DAY];
+        int rest = (int) (hours % HOURS_PER_DAY);
+        long sum = Math.multiplyExact(hours / HOURS_PER_DAY, (long) day);
+        int end = startHour + rest;
+        sum += end <= HOURS_PER_DAY
+                ? bandPrefix[end] - bandPrefix[startHour]
+                : day - bandPrefix[startHour] + bandPrefix[end - HOURS_PER_DAY];
+        return sum;
+    }
+
+    private int index(String type, String location, double slotRate, int startHour, long hours, int surgePercent) {
+        int hash = type.hashCode();
+        hash = 31 * hash + location.hashCode();
+        hash = 31 * hash + Double.hashCode(slotRate);
+        hash = 31 * hash + startHour;
+        hash = 31 * hash + Long.hashCode(hours);
+        hash = 31 * hash + surgePercent;
+        return (hash ^ (hash >>> 16)) & (cache.length() - 1);
+    }
+
+    private static Map<String, Long> parseTariffs(String spec) {
+        Map<String, Long> tariffs = new HashMap<>();
+        for (String entry : entries(spec)) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2 || parts[0].isBlank()) throw invalid("tariffs", entry);
+            String[] key = parts[0].split("@");
+            if (key.length > 2 || key[0].isBlank()) throw invalid("tariffs", entry);
+            long rate = Money.ofMajor(parts[1]);
+            if (rate < 0) throw invalid("tariffs", entry);
+            String type = ConcurrentSlotRepository.normalize(key[0]);
+            tariffs.put(key.length == 1 ? type : type + '@' + ConcurrentSlotRepository.normalize(key[1]), rate);
+        }
+        return tariffs;
+    }
+
+    /**
+     * Parses {@code from-to:percent} entries; a range with {@code from > to} wraps past midnight.
+     */
+    private static int[] parseTimeBands(String spec) {
+        int[] bands = new int[HOURS_PER_DAY];
+        Arrays.fill(bands, FULL_PRICE);
+        for (String entry : entries(spec)) {
+            try {
+                String[] parts = entry.split(":");
+                String[] bounds = parts[0].split("-");
+                if (parts.length != 2 || bounds.length != 2) throw new NumberFormatException();
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = Integer.parseInt(bounds[1].trim());
+                int percent = Integer.parseInt(parts[1].trim());
+                if (from < 0 || from >= HOURS_PER_DAY || to < 0 || to > HOURS_PER_DAY || from == to || percent < 0)
+                    throw new NumberFormatException();
+                int length = to > from ? to - from : to + HOURS_PER_DAY - from;
+                for (int hour = 0; hour < length; hour++) bands[(from + hour) % HOURS_PER_DAY] = percent;
+            } catch (NumberFormatException e) {
+                throw invalid("time-bands", entry);
+            }
+        }
+        return bands;
+    }
+
+    /**
+     * Parses {@code occupancyPercent:percent} entries into ascending thresholds and their percentages.
+     */
+    private static int[][] parseSurge(String spec) {
+        int[][] steps = entries(spec).stream().map(entry -> {
+            try {
+                String[] parts = entry.split(":");
+                if (parts.length != 2) throw new NumberFormatException();
+                int threshold = Integer.parseInt(parts[0].trim());
+                int percent = Integer.parseInt(parts[1].trim());
+                if (threshold < 0 || threshold > 100 || percent < 0) throw new NumberFormatException();
+                return new int[]{threshold, percent};
+            } catch (NumberFormatException e) {
+                throw invalid("surge", entry);
+            }
+        }).sorted((a, b) -> Integer.compare(a[0], b[0])).toArray(int[][]::new);
+        int[] thresholds = new int[steps.length];
+        int[] percents = new int[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            thresholds[i] = steps[i][0];
+            percents[i] = steps[i][1];
+        }
+        return new int[][]{thresholds, percents};
+    }
+
+    private static List<String> entries(String spec) {
+        if (spec == null || spec.isBlank()) return List.of();
+        return Arrays.stream(spec.split(",")).map(String::trim).filter(entry -> !entry.isEmpty()).toList();
+    }
+
+    private static IllegalArgumentException invalid(String property, String entry) {
+        return new IllegalArgumentException("Invalid pricing." + property + " entry: '" + entry + "'");
+    }
+}
@@ -0,0 +1,29 @@
+package org.chandra.smartparkingslotbookingsystem.pricing;
+
+/**
+ * The price of parking in one slot type at one location for a number of started hours.
+ * Quotes do not depend on the date or on the slot itself, so equal requests share one
+ * cached quote.
+ *
+ * @param type            the slot type
+ * @param location        the location code
+ * @param hours           the number of charged hours, at least one
+ * @param hourlyRateMinor the tariff's base rate per hour, in minor units
+ * @param surgePercent    the occupancy surcharge applied to every hour, {@code 100} for none
+ * @param amountMinor     the total, after time-of-day bands and surge, in minor units
+ */
+public record Quote(String type, String location, long hours, long hourlyRateMinor, int surgePercent, long amountMinor) {
+
+    /**
+     * @return the total in major units, as stored on a booking
+     */
+    public double amount() {
+        return Money.toMajor(amountMinor);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s @ %s for %d h at %s/hr%s: %s", type, location, hours, Money.format(hourlyRateMinor),
+                surgePercent == 100 ? "" : " (surge " + surgePercent + "%)", Money.format(amountMinor));
+    }
+}
@@ -0,0 +1,167 @@
+package org.chandra.smartparkingslotbookingsystem.replication;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.chandra.smartparkingslotbookingsystem.repository.ChangeFeed;
+import org.chandra.smartparkingslotbookingsystem.repository.ReplicaStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replication follower: keeps the local repositories a copy of a {@link ReplicationLeader}'s.
+ * <p>
+ * A single thread connects to the leader, applies the snapshot it sends and then every
+ * change in log order, so reads such as available slots by type or bookings by phone can be
+ * served from this node. The leader's heartbeats bound how long a silent connection is
+ * trusted: after three missed heartbeats the connection is dropped, and the follower keeps
+ * retrying every {@code replication.retry-millis}, resynchronizing from a fresh snapshot
+ * once the leader is back. Meanwhile the last replicated state stays readable: a snapshot
+ * loads off to the side and replaces it on the leader's first heartbeat after the snapshot.
+ * </p>
+ * <p>
+ * A follower does not accept writes of its own; see {@code application-follower.properties}.
+ * It can never take over from its leader either: it keeps no journal, so its state lives
+ * only in memory, and it rebuilds neither booking time windows nor start and end timers
+ * from what it replicates. A replacement leader starts from the old leader's journal.
+ * </p>
+ *
+ * <p><strong>Profile:</strong> follower</p>
+ */
+@Component
+@Profile("follower")
+public class ReplicationFollower {
+    private static final Logger log = LoggerFactory.getLogger(ReplicationFollower.class);
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final ReplicaStore store;
+    private final String leaderHost;
+    private final int leaderPort;
+    private final long heartbeatMillis;
+    private final long retryMillis;
+    private final AtomicLong applied = new AtomicLong();
+    private Thread follower;
+    private volatile Socket socket;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile boolean synced;
+
+    @Autowired
+    public ReplicationFollower(ReplicaStore store,
+                               @Value("${replication.leader-host:127.0.0.1}") String leaderHost,
+                               @Value("${replication.port:7070}") int leaderPort,
+                               @Value("${replication.heartbeat-millis:1000}") long heartbeatMillis,
+                               @Value("${replication.retry-millis:1000}") long retryMillis) {
+        if (heartbeatMillis <= 0) throw new IllegalArgumentException("replication.heartbeat-millis must be positive: " + heartbeatMillis);
+        if (retryMillis <= 0) throw new IllegalArgumentException("replication.retry-millis must be positive: " + retryMillis);
+        this.store = store;
+        this.leaderHost = leaderHost;
+        this.leaderPort = leaderPort;
+        this.heartbeatMillis = heartbeatMillis;
+        this.retryMillis = retryMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        follower = Thread.ofPlatform().name("replication-follower").daemon().start(this::followLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Socket current = socket;
+        try {
+            if (current != null) current.close();
+        } catch (IOException ignored) {
+            // the follow loop is exiting anyway
+        }
+        follower.interrupt();
+        try {
+            follower.join(retryMillis + heartbeatMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return {@code true} while connected to the leader
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * @return {@code true} once the current connection's snapshot has been applied
+     */
+    public boolean isSynchronized() {
+        return connected && synced;
+    }
+
+    /**
+     * @return the number of change records applied since startup, snapshots included
+     */
+    public long appliedChanges() {
+        return applied.get();
+    }
+
+    private void followLoop() {
+        boolean warned = false;
+        while (running) {
+            try (Socket current = new Socket()) {
+                socket = current;
+                current.connect(new InetSocketAddress(leaderHost, leaderPort), (int) Math.min(Integer.MAX_VALUE, retryMillis));
+                current.setSoTimeout((int) Math.min(Integer.MAX_VALUE, heartbeatMillis * 3));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(current.getInputStream(), BUFFER_BYTES));
+                ReplicationProtocol.readHeader(in);
+                connected = true;
+                warned = false;
+                log.info("🔁 Following replication leader at {}:{} — applying snapshot...", leaderHost, leaderPort);
+                follow(in);
+            } catch (IOException | RuntimeException e) {
+                if (running && !warned) {
+                    log.warn("Replication leader at {}:{} unavailable: {} — retrying every {} ms.", leaderHost, leaderPort, e.getMessage(), retryMillis);
+                    warned = true;
+                }
+            } finally {
+                connected = false;
+                synced = false;
+            }
+            if (!running) break;
+            try {
+                Thread.sleep(retryMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    private void follow(DataInputStream in) throws IOException {
+        while (running) {
+            ByteBuffer change = ReplicationProtocol.readFrame(in);
+            byte type = ChangeFeed.typeOf(change);
+            if (type == ReplicationProtocol.HEARTBEAT) {
+                if (!synced) {
+                    store.finishSnapshot();
+                    synced = true;
+                    log.info("In sync with replication leader — {} changes applied so far.", applied.get());
+                }
+                continue;
+            }
+            if (type == ChangeFeed.RESET) synced = false;
+            store.apply(change);
+            applied.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.chandra.smartparkingslotbookingsystem.replication;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.chandra.smartparkingslotbookingsystem.repository.ChangeFeed;
+import org.chandra.smartparkingslotbookingsystem.repository.ReplicaStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replication leader: streams the ordered log of booking and slot changes to followers over TCP.
+ * <p>
+ * Each follower connection gets a virtual thread and a lock-free queue subscribed to the
+ * {@link ChangeFeed}. The queue is subscribed before the follower is seeded with a
+ * {@link ReplicaStore#snapshot snapshot}, so no change made during the snapshot is lost.
+ * Queued changes are then written in order, batched into one flush whenever the queue runs
+ * dry, with a heartbeat after each idle {@code replication.heartbeat-millis}. A follower
+ * more than {@code replication.max-lag} changes behind is disconnected rather than let the
+ * queue grow without bound; it resynchronizes from a fresh snapshot when it reconnects.
+ * </p>
+ *
+ * <p><strong>Profile:</strong> leader</p>
+ */
+@Component
+@Profile("leader")
+public class ReplicationLeader {
+    private static final Logger log = LoggerFactory.getLogger(ReplicationLeader.class);
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final ReplicaStore store;
+    private final ChangeFeed changeFeed;
+    private final String host;
+    private final int port;
+    private final long heartbeatMillis;
+    private final int maxLag;
+    private final Set<FollowerSession> sessions = ConcurrentHashMap.newKeySet();
+    private ServerSocket server;
+    private volatile boolean running;
+
+    @Autowired
+    public ReplicationLeader(ReplicaStore store, ChangeFeed changeFeed,
+                             @Value("${replication.host:127.0.0.1}") String host,
+                             @Value("${replication.port:7070}") int port,
+                             @Value("${replication.heartbeat-millis:1000}") long heartbeatMillis,
+                             @Value("${replication.max-lag:1000000}") int maxLag) {
+        if (heartbeatMillis <= 0) throw new IllegalArgumentException("replication.heartbeat-millis must be positive: " + heartbeatMillis);
+        if (maxLag <= 0) throw new IllegalArgumentException("replication.max-lag must be positive: " + maxLag);
+        this.store = store;
+        this.changeFeed = changeFeed;
+        this.host = host;
+        this.port = port;
+        this.heartbeatMillis = heartbeatMillis;
+        this.maxLag = maxLag;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        server = new ServerSocket();
+        server.bind(new InetSocketAddress(host, port));
+        running = true;
+        Thread.ofPlatform().name("replication-leader").daemon().start(this::acceptLoop);
+        log.info("🔁 Replication leader listening on {}:{}", host, port());
+    }
+
+    /**
+     * @return the bound port, useful when {@code replication.port} is {@code 0}
+     */
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * @return the number of connected followers
+     */
+    public int followers() {
+        return sessions.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            if (server != null) server.close();
+        } catch (IOException e) {
+            log.warn("Replication listener did not close cleanly: {}", e.getMessage());
+        }
+        sessions.forEach(FollowerSession::close);
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = server.accept();
+                FollowerSession session = new FollowerSession(socket);
+                sessions.add(session);
+                Thread.ofVirtual().name("replication-to-" + socket.getRemoteSocketAddress()).start(session);
+            } catch (IOException e) {
+                if (running) log.warn("Replication listener failed to accept a follower: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One connected follower: its change queue and the loop that drains it onto the socket.
+     */
+    private final class FollowerSession implements Runnable, ChangeFeed.Listener {
+        private final Socket socket;
+        private final SocketAddress address;
+        private final LinkedTransferQueue<ByteBuffer> pending = new LinkedTransferQueue<>();
+        private final AtomicInteger backlog = new AtomicInteger();
+        private volatile boolean overflowed;
+
+        FollowerSession(Socket socket) {
+            this.socket = socket;
+            this.address = socket.getRemoteSocketAddress();
+        }
+
+        @Override
+        public void onChange(ByteBuffer change) {
+            if (overflowed) return;
+            if (backlog.incrementAndGet() > maxLag) {
+                overflowed = true;
+                return;
+            }
+            pending.add(change);
+        }
+
+        @Override
+        public void run() {
+            changeFeed.subscribe(this);
+            try (socket; DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_BYTES))) {
+                socket.setTcpNoDelay(true);
+                ReplicationProtocol.writeHeader(out);
+                int[] seeded = {0};
+                store.snapshot(record -> {
+                    write(out, record);
+                    seeded[0]++;
+                });
+                ReplicationProtocol.writeFrame(out, ReplicationProtocol.heartbeat());
+                out.flush();
+                log.info("Follower {} connected and seeded with {} records.", address, seeded[0]);
+
+                while (running && !overflowed) {
+                    ByteBuffer change = pending.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (change == null) {
+                        ReplicationProtocol.writeFrame(out, ReplicationProtocol.heartbeat());
+                    } else {
+                        do {
+                            backlog.decrementAndGet();
+                            ReplicationProtocol.writeFrame(out, change);
+                        } while ((change = pending.poll()) != null);
+                    }
+                    out.flush();
+                }
+                if (overflowed)
+                    log.warn("Follower {} fell more than {} changes behind — disconnecting it so it resynchronizes.", address, maxLag);
+            } catch (IOException | UncheckedIOException e) {
+                if (running) log.warn("Follower {} disconnected: {}", address, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                changeFeed.unsubscribe(this);
+                sessions.remove(this);
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // the session loop reports the disconnect
+            }
+        }
+
+        private static void write(DataOutputStream out, ByteBuffer record) {
+            try {
+                ReplicationProtocol.writeFrame(out, record);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
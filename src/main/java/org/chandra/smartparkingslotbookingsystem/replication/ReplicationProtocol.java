@@ -0,0 +1,71 @@
+package org.chandra.smartparkingslotbookingsystem.replication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Wire format between a replication leader and its followers.
+ * <p>
+ * The leader opens with a 6-byte header ({@code magic:int, version:short}), then sends
+ * frames framed like {@code BookingJournal} records: {@code length | crc32c | payload}, where
+ * the payload is a {@code ChangeFeed} record or a one-byte heartbeat. A frame that fails its
+ * checksum ends the connection, and the follower resynchronizes on reconnect.
+ * </p>
+ */
+final class ReplicationProtocol {
+    static final int MAGIC = 0x5052504C; // "PRPL"
+    static final short VERSION = 1;
+    static final byte HEARTBEAT = 0;
+    static final int MAX_FRAME_BYTES = 1 << 20;
+
+    private ReplicationProtocol() {}
+
+    static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    static void readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Peer is not a replication leader");
+        short version = in.readShort();
+        if (version != VERSION) throw new IOException("Unsupported replication protocol version " + version);
+    }
+
+    static ByteBuffer heartbeat() {
+        return ByteBuffer.wrap(new byte[]{HEARTBEAT});
+    }
+
+    /**
+     * Writes one frame; the payload buffer is left untouched.
+     */
+    static void writeFrame(DataOutputStream out, ByteBuffer payload) throws IOException {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.duplicate().get(bytes);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        out.writeInt(bytes.length);
+        out.writeInt((int) crc.getValue());
+        out.write(bytes);
+    }
+
+    /**
+     * Reads one frame and verifies its checksum.
+     *
+     * @throws java.io.EOFException if the leader closed the connection
+     * @throws IOException          if the frame is malformed or corrupt
+     */
+    static ByteBuffer readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        int checksum = in.readInt();
+        if (length <= 0 || length > MAX_FRAME_BYTES) throw new IOException("Invalid replication frame length " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        if ((int) crc.getValue() != checksum) throw new IOException("Replication frame failed its checksum");
+        return ByteBuffer.wrap(bytes);
+    }
+}
@@ -0,0 +1,110 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe bitmap of free slots, indexed by slot ordinal, with a running count of set bits.
+ * <p>
+ * Bits live in pages of {@value #PAGE_BITS} bits that are allocated on first use, so the
+ * bitmap never has to be resized or copied while other threads flip bits. Setting or
+ * clearing a bit is a single compare-and-set on its 64-bit word, and the count is only
+ * adjusted when a bit actually changes, which keeps {@link #cardinality()} exact and O(1).
+ * </p>
+ */
+final class AvailabilityBitmap {
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_BITS = 1 << PAGE_SHIFT;
+    private static final int WORDS_PER_PAGE = PAGE_BITS / Long.SIZE;
+    static final int MAX_PAGES = 1 << 14;
+    static final int CAPACITY = MAX_PAGES * PAGE_BITS;
+
+    private final AtomicReferenceArray<AtomicLongArray> pages = new AtomicReferenceArray<>(MAX_PAGES);
+    private final AtomicInteger cardinality = new AtomicInteger();
+    private volatile int pageLimit; // one past the highest allocated page
+
+    /**
+     * Sets the bit of {@code ordinal}.
+     *
+     * @return {@code true} if the bit was clear before
+     */
+    boolean set(int ordinal) {
+        AtomicLongArray page = page(ordinal, true);
+        int word = (ordinal & (PAGE_BITS - 1)) >>> 6;
+        long mask = 1L << ordinal;
+        long current;
+        do {
+            current = page.get(word);
+            if ((current & mask) != 0) return false;
+        } while (!page.compareAndSet(word, current, current | mask));
+        cardinality.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Clears the bit of {@code ordinal}.
+     *
+     * @return {@code true} if the bit was set before
+     */
+    boolean clear(int ordinal) {
+        AtomicLongArray page = page(ordinal, false);
+        if (page == null) return false;
+        int word = (ordinal & (PAGE_BITS - 1)) >>> 6;
+        long mask = 1L << ordinal;
+        long current;
+        do {
+            current = page.get(word);
+            if ((current & mask) == 0) return false;
+        } while (!page.compareAndSet(word, current, current & ~mask));
+        cardinality.decrementAndGet();
+        return true;
+    }
+
+    boolean get(int ordinal) {
+        AtomicLongArray page = page(ordinal, false);
+        return page != null && (page.get((ordinal & (PAGE_BITS - 1)) >>> 6) & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * @return the number of set bits
+     */
+    int cardinality() {
+        return cardinality.get();
+    }
+
+    /**
+     * Returns the first set bit at or after {@code from}, skipping unallocated pages and
+     * empty words without allocating.
+     *
+     * @return the ordinal of the next set bit, or {@code -1} if there is none
+     */
+    int nextSetBit(int from) {
+        if (from < 0) from = 0;
+        int limit = pageLimit;
+        for (int p = from >>> PAGE_SHIFT; p < limit; p++) {
+            AtomicLongArray page = pages.get(p);
+            if (page == null) continue;
+            int startBit = p == from >>> PAGE_SHIFT ? from & (PAGE_BITS - 1) : 0;
+            for (int w = startBit >>> 6; w < WORDS_PER_PAGE; w++) {
+                long bits = page.get(w);
+                if (w == startBit >>> 6) bits &= -1L << startBit;
+                if (bits != 0) return (p << PAGE_SHIFT) + (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    private AtomicLongArray page(int ordinal, boolean create) {
+        if (ordinal < 0 || ordinal >= CAPACITY)
+            throw new IndexOutOfBoundsException("Slot ordinal " + ordinal + " exceeds bitmap capacity " + CAPACITY);
+        int index = ordinal >>> PAGE_SHIFT;
+        AtomicLongArray page = pages.get(index);
+        if (page != null || !create) return page;
+        pages.compareAndSet(index, null, new AtomicLongArray(WORDS_PER_PAGE));
+        synchronized (this) {
+            if (index >= pageLimit) pageLimit = index + 1;
+        }
+        return pages.get(index);
+    }
+}
@@ -0,0 +1,202 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Booking counts, revenue and dwell time per slot type and location, and revenue per day and
+ * location, of a {@link BookingRepository}.
+ * <p>
+ * Every booking contributes to the counters of its status: an active booking to the active
+ * count and revenue, a completed one to the completed count, revenue and booked minutes, a
+ * cancelled one only to the cancelled count. Each stored booking, status change and delete
+ * moves one booking's contribution, so the counters stay current without ever scanning the
+ * history, and reading them costs time in the number of locations and days, not bookings.
+ * The counters are {@link LongAdder}s, so bookings finishing on many threads at once do not
+ * contend on one value. Every method that changes a contribution must run inside the
+ * repository's compute on the booking's key.
+ * </p>
+ * <p>
+ * A booking is attributed to the type and location its slot has when the booking is stored,
+ * and keeps that attribution for good, even if the slot is later edited or deleted. Each
+ * cell has an {@code int} code: the aggregates remember the code of every active booking, and
+ * the repository keeps the code of every finished one in its history row, so a later status
+ * change or delete, e.g. an admin cancelling a completed booking, moves the booking's
+ * contribution out of the cell it was counted in. Bookings of unknown slots count under
+ * {@value #UNKNOWN}.
+ * </p>
+ */
+final class BookingAggregates {
+    static final String UNKNOWN = "UNKNOWN";
+
+    private final Function<String, ParkingSlot> slotOf;
+    private final ConcurrentMap<String, Cell> cells = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Cell> cellsByCode = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCode = new AtomicInteger();
+    private final ConcurrentMap<Long, Cell> activeCells = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DayKey, LongAdder> revenueByDay = new ConcurrentHashMap<>();
+
+    private record DayKey(LocalDate date, String location) {}
+
+    /**
+     * The counters of one type at one location.
+     */
+    private static final class Cell {
+        final int code;
+        final String type;
+        final String location;
+        final LongAdder active = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final LongAdder revenueMinor = new LongAdder();
+        final LongAdder dwellMinutes = new LongAdder();
+
+        Cell(int code, String type, String location) {
+            this.code = code;
+            this.type = type;
+            this.location = location;
+        }
+
+        BookingTotals read() {
+            return new BookingTotals(type, location, active.sum(), completed.sum(), cancelled.sum(),
+                    revenueMinor.sum(), dwellMinutes.sum());
+        }
+    }
+
+    /**
+     * @param slotOf resolves a slot ID to the slot, or {@code null} if it is unknown
+     */
+    BookingAggregates(Function<String, ParkingSlot> slotOf) {
+        this.slotOf = slotOf;
+    }
+
+    /**
+     * @return the code of the cell a booking about to be stored is attributed to, from its slot as it is now
+     */
+    int cellOf(Booking booking) {
+        ParkingSlot slot = booking.getSlotId() == null ? null : slotOf.apply(booking.getSlotId());
+        String type = slot != null ? ConcurrentSlotRepository.normalize(slot.getType()) : UNKNOWN;
+        String location = slot != null ? ConcurrentSlotRepository.normalize(slot.getLocation()) : UNKNOWN;
+        return cells.computeIfAbsent(type + '@' + location, k -> {
+            Cell cell = new Cell(nextCode.getAndIncrement(), type, location);
+            cellsByCode.put(cell.code, cell);
+            return cell;
+        }).code;
+    }
+
+    /**
+     * @return the code of the cell an active booking was counted in when it was stored
+     */
+    int activeCellOf(long id, Booking booking) {
+        Cell cell = activeCells.get(id);
+        return cell != null ? cell.code : cellOf(booking);
+    }
+
+    /**
+     * Counts a newly stored booking.
+     *
+     * @param cell the code from {@link #cellOf(Booking)}
+     */
+    void added(long id, int cell, Booking booking) {
+        Cell counted = cell(cell, booking);
+        if (booking.getStatus() == BookingStatus.ACTIVE) activeCells.put(id, counted);
+        count(counted, booking, booking.getStatus(), 1, true);
+    }
+
+    /**
+     * Moves a booking's contribution from the status it had to the one it has now.
+     *
+     * @param cell the code of the cell the booking was counted in
+     */
+    void statusChanged(long id, int cell, Booking booking, BookingStatus from, BookingStatus to) {
+        Cell counted = cell(cell, booking);
+        if (from == BookingStatus.ACTIVE) activeCells.remove(id);
+        if (to == BookingStatus.ACTIVE) activeCells.put(id, counted);
+        boolean revenueMoves = earns(from) != earns(to); // completing an active booking keeps its revenue
+        count(counted, booking, from, -1, revenueMoves);
+        count(counted, booking, to, 1, revenueMoves);
+    }
+
+    /**
+     * Stops counting a deleted booking.
+     *
+     * @param cell the code of the cell the booking was counted in
+     */
+    void removed(long id, int cell, Booking booking) {
+        activeCells.remove(id);
+        count(cell(cell, booking), booking, booking.getStatus(), -1, true);
+    }
+
+    /**
+     * @return the totals of every type and location that ever had a booking, by location and then type
+     */
+    List<BookingTotals> totals() {
+        return cells.values().stream()
+                .map(Cell::read)
+                .sorted(Comparator.comparing(BookingTotals::location).thenComparing(BookingTotals::type))
+                .toList();
+    }
+
+    /**
+     * @return the revenue of every day and location with revenue, by day and then location
+     */
+    List<DailyRevenue> revenueByDay() {
+        return revenueByDay.entrySet().stream()
+                .map(entry -> new DailyRevenue(entry.getKey().date(), entry.getKey().location(), entry.getValue().sum()))
+                .filter(day -> day.revenueMinor() != 0)
+                .sorted(Comparator.comparing(DailyRevenue::date).thenComparing(DailyRevenue::location))
+                .toList();
+    }
+
+    /**
+     * Adds ({@code sign = 1}) or subtracts ({@code sign = -1}) what a booking contributes in a status.
+     */
+    private void count(Cell cell, Booking booking, BookingStatus status, int sign, boolean revenue) {
+        if (status == null) return;
+        switch (status) {
+            case ACTIVE -> cell.active.add(sign);
+            case COMPLETED -> {
+                cell.completed.add(sign);
+                cell.dwellMinutes.add(sign * bookedMinutes(booking));
+            }
+            case CANCELLED -> cell.cancelled.add(sign);
+        }
+        if (revenue && earns(status)) addRevenue(cell, booking, sign);
+    }
+
+    private static boolean earns(BookingStatus status) {
+        return status == BookingStatus.ACTIVE || status == BookingStatus.COMPLETED;
+    }
+
+    private void addRevenue(Cell cell, Booking booking, int sign) {
+        long amount = sign * Math.round(booking.getTotalAmount() * 100); // amounts are whole minor units
+        if (amount == 0) return;
+        cell.revenueMinor.add(amount);
+        if (booking.getStartTime() != null)
+            revenueByDay.computeIfAbsent(new DayKey(booking.getStartTime().toLocalDate(), cell.location), k -> new LongAdder()).add(amount);
+    }
+
+    private static long bookedMinutes(Booking booking) {
+        if (booking.getStartTime() == null || booking.getEndTime() == null) return 0;
+        return Math.max(0, Duration.between(booking.getStartTime(), booking.getEndTime()).toMinutes());
+    }
+
+    /**
+     * @return the cell with a code, or the booking's cell from its slot if the code is unknown
+     */
+    private Cell cell(int code, Booking booking) {
+        Cell cell = cellsByCode.get(code);
+        return cell != null ? cell : cellsByCode.get(cellOf(booking));
+    }
+}
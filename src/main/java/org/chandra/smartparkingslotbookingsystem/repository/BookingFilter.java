@@ -0,0 +1,32 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Criteria for paged booking queries. A {@code null} criterion matches every booking.
+ *
+ * @param status only bookings with this status
+ * @param slotId only bookings of this slot, matched case-insensitively
+ * @param from   only bookings starting on or after this date
+ * @param to     only bookings starting on or before this date
+ */
+public record BookingFilter(BookingStatus status, String slotId, LocalDate from, LocalDate to) {
+
+    private static final BookingFilter ALL = new BookingFilter(null, null, null, null);
+
+    public static BookingFilter all() {
+        return ALL;
+    }
+
+    public boolean matches(Booking booking) {
+        if (status != null && booking.getStatus() != status) return false;
+        if (slotId != null && !slotId.trim().equalsIgnoreCase(booking.getSlotId())) return false;
+        if (from == null && to == null) return true;
+        if (booking.getStartTime() == null) return false;
+        LocalDate day = booking.getStartTime().toLocalDate();
+        return (from == null || !day.isBefore(from)) && (to == null || !day.isAfter(to));
+    }
+}
@@ -0,0 +1,505 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead journal of {@link Booking} mutations.
+ * <p>
+ * Every save, status change and delete is encoded as a compact binary record
+ * ({@code length | crc32c | payload}) and appended to a {@link FileChannel}.
+ * Callers enqueue records without blocking and then wait for them to become durable;
+ * a single writer thread drains everything queued so far, writes it with one gathering
+ * write and issues a single {@code force}, so concurrent writers share the fsync cost
+ * (group commit).
+ * </p>
+ * <p>
+ * On startup the journal is replayed in order, reading the file in fixed-size chunks. A torn
+ * record at the tail (from a crash mid-write) fails its checksum and is truncated away. A
+ * batch that fails to write is truncated away as well before the next batch is appended, so
+ * a torn record never sits in front of acknowledged ones; if the file cannot be truncated,
+ * the journal refuses every later write.
+ * </p>
+ * <p>
+ * Once the file grows past {@code booking.journal.compact-bytes} and has at least doubled
+ * since it was last compacted, the writer replaces it with a snapshot of the current
+ * bookings, written to a temporary file and renamed over the journal. Records queued while
+ * the snapshot is taken are appended after it; replaying a change the snapshot already
+ * contains is harmless.
+ * </p>
+ */
+@Component
+public class BookingJournal {
+    private static final Logger log = LoggerFactory.getLogger(BookingJournal.class);
+    private static final int MAGIC = 0x50424A4C; // "PBJL"
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MAX_BATCH = 1024;
+    private static final int MAX_RECORD_BYTES = 1 << 18; // six short-length strings and a few fixed fields
+    static final int MAX_STRING_BYTES = Short.MAX_VALUE;
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    static final byte SAVE = 1;
+    static final byte STATUS = 2;
+    static final byte DELETE = 3;
+
+    private final boolean enabled;
+    private final boolean fsync;
+    private final Path path;
+    private final long compactBytes;
+    private final LinkedBlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>();
+    private FileChannel channel;
+    private Consumer<Consumer<ByteBuffer>> snapshot;
+    private long committedEnd;
+    private long compactedSize;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile IOException failure;
+
+    private record PendingRecord(ByteBuffer record, CompletableFuture<Void> durable) {}
+
+    public BookingJournal(boolean enabled, String path, boolean fsync) {
+        this(enabled, path, fsync, 64L << 20);
+    }
+
+    @Autowired
+    public BookingJournal(@Value("${booking.journal.enabled:false}") boolean enabled,
+                          @Value("${booking.journal.path:data/booking.journal}") String path,
+                          @Value("${booking.journal.fsync:true}") boolean fsync,
+                          @Value("${booking.journal.compact-bytes:67108864}") long compactBytes) {
+        this.enabled = enabled;
+        this.fsync = fsync;
+        this.path = Path.of(path);
+        this.compactBytes = compactBytes;
+    }
+
+    /**
+     * @return a journal that records nothing, for repositories used without persistence
+     */
+    public static BookingJournal disabled() {
+        return new BookingJournal(false, "", false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens the journal file, replays every intact record into {@code sink} and starts the
+     * group-commit writer. Does nothing when the journal is disabled.
+     *
+     * @param sink     receives each decoded mutation in journal order
+     * @param snapshot writes every current booking as a save payload (see {@link #encodeSave})
+     *                 to the consumer it is given, to compact the journal
+     * @return the number of records replayed
+     */
+    public synchronized int open(Consumer<JournalEntry> sink, Consumer<Consumer<ByteBuffer>> snapshot) {
+        if (!enabled || running) return 0;
+        this.snapshot = snapshot;
+        int replayed = 0;
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putShort(FORMAT_VERSION).flip();
+                while (header.hasRemaining()) channel.write(header);
+                channel.force(true);
+            } else {
+                replayed = replay(sink);
+            }
+            committedEnd = channel.size();
+            compactedSize = HEADER_BYTES; // a journal past the threshold is compacted after the first batch
+            channel.position(committedEnd);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open booking journal " + path, e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "booking-journal");
+        writer.setDaemon(true);
+        writer.start();
+        return replayed;
+    }
+
+    /**
+     * Stops the writer after it has flushed everything queued and closes the file.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (!running) return;
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join();
+            channel.close();
+            PendingRecord late;
+            while ((late = queue.poll()) != null)
+                late.durable().completeExceptionally(new IOException("Booking journal is closed"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Booking journal {} did not close cleanly: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a save record. Never blocks; wait on the returned future for durability.
+     *
+     * @throws IllegalArgumentException if a string field is longer than {@value #MAX_STRING_BYTES} bytes in UTF-8
+     */
+    public CompletableFuture<Void> appendSave(Booking booking) {
+        if (!running) return CompletableFuture.completedFuture(null);
+        return enqueue(encodeSave(booking));
+    }
+
+    /**
+     * Queues a status-change record. Never blocks; wait on the returned future for durability.
+     */
+    public CompletableFuture<Void> appendStatus(String bookingId, BookingStatus status) {
+        if (!running) return CompletableFuture.completedFuture(null);
+        return enqueue(encodeStatus(bookingId, status));
+    }
+
+    /**
+     * Queues a delete record. Never blocks; wait on the returned future for durability.
+     */
+    public CompletableFuture<Void> appendDelete(String bookingId) {
+        if (!running) return CompletableFuture.completedFuture(null);
+        return enqueue(encodeDelete(bookingId));
+    }
+
+    /**
+     * Blocks until a queued record is durable.
+     *
+     * @throws UncheckedIOException if the record could not be written
+     */
+    public void await(CompletableFuture<Void> durable) {
+        try {
+            durable.join();
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IOException io) throw new UncheckedIOException("Booking journal write failed", io);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(ByteBuffer payload) {
+        IOException failed = failure;
+        if (failed != null) return CompletableFuture.failedFuture(failed);
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        queue.add(new PendingRecord(frame(payload.flip()), durable));
+        return durable;
+    }
+
+    /**
+     * @return {@code length | crc32c | payload} for a flipped payload
+     */
+    private static ByteBuffer frame(ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.remaining());
+        return record.putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload).flip();
+    }
+
+    private void writeLoop() {
+        List<PendingRecord> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRecord first = running ? queue.take() : queue.poll();
+                if (first == null) break;
+                batch.add(first);
+            } catch (InterruptedException e) {
+                continue; // close() interrupts to stop waiting; drain whatever is left
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            commit(batch);
+            batch.clear();
+            if (failure == null && committedEnd > compactBytes && committedEnd >= 2 * compactedSize) compact();
+        }
+    }
+
+    private void commit(List<PendingRecord> batch) {
+        IOException failed = failure;
+        if (failed != null) {
+            for (PendingRecord pending : batch) pending.durable().completeExceptionally(failed);
+            return;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        for (int i = 0; i < buffers.length; i++) buffers[i] = batch.get(i).record();
+        try {
+            long written = 0;
+            for (ByteBuffer buffer : buffers) written += buffer.remaining();
+            for (long remaining = written; remaining > 0; ) remaining -= channel.write(buffers);
+            if (fsync) channel.force(false);
+            committedEnd += written;
+            for (PendingRecord pending : batch) pending.durable().complete(null);
+        } catch (IOException e) {
+            for (PendingRecord pending : batch) pending.durable().completeExceptionally(e);
+            discardFailedBatch(e);
+        }
+    }
+
+    /**
+     * Cuts the file back to the end of the last committed batch, so the next batch is not
+     * appended behind a torn record that replay would stop at.
+     */
+    private void discardFailedBatch(IOException cause) {
+        try {
+            channel.truncate(committedEnd);
+            channel.position(committedEnd);
+            channel.force(true);
+            log.warn("Booking journal {} write failed, batch discarded: {}", path, cause.getMessage());
+        } catch (IOException e) {
+            e.addSuppressed(cause);
+            failure = e;
+            log.error("Booking journal {} cannot be repaired after a failed write — refusing further writes.", path, e);
+        }
+    }
+
+    /**
+     * Replaces the journal with one save record per current booking. Runs on the writer thread,
+     * so no batch is written to the old file while the snapshot is taken.
+     */
+    private void compact() {
+        Path temp = path.resolveSibling(path.getFileName() + ".compact");
+        long before = committedEnd;
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+                buffer.putInt(MAGIC).putShort(FORMAT_VERSION);
+                snapshot.accept(payload -> {
+                    ByteBuffer record = frame(payload);
+                    if (record.remaining() > buffer.remaining()) flush(out, buffer);
+                    buffer.put(record);
+                });
+                flush(out, buffer);
+                out.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | UncheckedIOException e) {
+            compactedSize = committedEnd; // try again once the journal has doubled
+            log.warn("Booking journal {} could not be compacted: {}", path, e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // a stale temporary file is overwritten by the next compaction
+            }
+            return;
+        }
+        try {
+            channel.close();
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            committedEnd = channel.size();
+            compactedSize = committedEnd; // compact again once the journal has doubled
+            channel.position(committedEnd);
+            log.info("Booking journal {} compacted from {} to {} bytes.", path, before, committedEnd);
+        } catch (IOException e) {
+            failure = e;
+            log.error("Booking journal {} cannot be reopened after compaction — refusing further writes.", path, e);
+        }
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) out.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private int replay(Consumer<JournalEntry> sink) throws IOException {
+        long size = channel.size();
+        ChunkReader data = new ChunkReader(channel);
+        if (size < HEADER_BYTES || !data.require(HEADER_BYTES) || data.buffer.getInt() != MAGIC)
+            throw new IOException("Not a booking journal: " + path);
+        short version = data.buffer.getShort();
+        if (version != FORMAT_VERSION)
+            throw new IOException("Unsupported booking journal version " + version + ": " + path);
+
+        int replayed = 0;
+        long validEnd = HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        while (data.require(RECORD_HEADER_BYTES)) {
+            int length = data.buffer.getInt();
+            int checksum = data.buffer.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES || !data.require(length)) break;
+            ByteBuffer payload = data.buffer.slice(data.buffer.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) break;
+            sink.accept(decode(payload));
+            data.buffer.position(data.buffer.position() + length);
+            validEnd += RECORD_HEADER_BYTES + length;
+            replayed++;
+        }
+        if (validEnd < size) {
+            log.warn("Booking journal {} has a torn tail — truncating {} bytes.", path, size - validEnd);
+            channel.truncate(validEnd);
+        }
+        return replayed;
+    }
+
+    /**
+     * Reads a file front to back through one reusable buffer of {@value #CHUNK_BYTES} bytes,
+     * so replay needs neither a mapping of the whole file nor memory in proportion to it.
+     */
+    private static final class ChunkReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES).flip();
+        private long filePosition;
+
+        ChunkReader(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return whether at least {@code bytes} unread bytes are buffered, refilling from the file if needed
+         */
+        boolean require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return true;
+            buffer.compact();
+            int read;
+            while (buffer.hasRemaining() && (read = channel.read(buffer, filePosition)) > 0) filePosition += read;
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+    }
+
+    /**
+     * A decoded journal record. {@code booking} is set for saves, {@code status} for status changes.
+     */
+    public record JournalEntry(byte type, String bookingId, Booking booking, BookingStatus status) {
+        public boolean isSave() {return type == SAVE;}
+        public boolean isStatusChange() {return type == STATUS;}
+        public boolean isDelete() {return type == DELETE;}
+    }
+
+    /**
+     * Checks that every string field of a booking fits the journal's {@value #MAX_STRING_BYTES}-byte
+     * length prefix, so callers can refuse a booking before storing anything of it.
+     *
+     * @throws IllegalArgumentException naming the first field that is too long
+     */
+    static void checkEncodable(Booking booking) {
+        checkLength("booking ID", booking.getBookingId());
+        checkLength("user name", booking.getUserName());
+        checkLength("user email", booking.getUserEmail());
+        checkLength("user phone", booking.getUserPhone());
+        checkLength("vehicle number", booking.getVehicleNumber());
+        checkLength("slot ID", booking.getSlotId());
+    }
+
+    private static void checkLength(String field, String value) {
+        if (value != null && value.getBytes(StandardCharsets.UTF_8).length > MAX_STRING_BYTES)
+            throw new IllegalArgumentException("Booking " + field + " is longer than " + MAX_STRING_BYTES + " bytes");
+    }
+
+    static ByteBuffer encodeSave(Booking booking) {
+        int size = 1 + stringBytes(booking.getBookingId()) + stringBytes(booking.getUserName())
+                + stringBytes(booking.getUserEmail()) + stringBytes(booking.getUserPhone())
+                + stringBytes(booking.getVehicleNumber()) + stringBytes(booking.getSlotId())
+                + 2 * (Long.BYTES + Integer.BYTES) + 1 + Double.BYTES;
+        ByteBuffer payload = ByteBuffer.allocate(size);
+        payload.put(SAVE);
+        putString(payload, booking.getBookingId());
+        putString(payload, booking.getUserName());
+        putString(payload, booking.getUserEmail());
+        putString(payload, booking.getUserPhone());
+        putString(payload, booking.getVehicleNumber());
+        putString(payload, booking.getSlotId());
+        putTime(payload, booking.getStartTime());
+        putTime(payload, booking.getEndTime());
+        payload.put((byte) booking.getStatus().ordinal());
+        payload.putDouble(booking.getTotalAmount());
+        return payload;
+    }
+
+    static ByteBuffer encodeStatus(String bookingId, BookingStatus status) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + stringBytes(bookingId) + 1);
+        payload.put(STATUS);
+        putString(payload, bookingId);
+        payload.put((byte) status.ordinal());
+        return payload;
+    }
+
+    static ByteBuffer encodeDelete(String bookingId) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + stringBytes(bookingId));
+        payload.put(DELETE);
+        putString(payload, bookingId);
+        return payload;
+    }
+
+    static JournalEntry decode(ByteBuffer payload) {
+        byte type = payload.get();
+        String bookingId = getString(payload);
+        return switch (type) {
+            case SAVE -> {
+                Booking booking = new Booking(bookingId, getString(payload), getString(payload), getString(payload),
+                        getString(payload), getString(payload), getTime(payload), getTime(payload),
+                        BookingStatus.values()[payload.get()], payload.getDouble());
+                yield new JournalEntry(type, bookingId, booking, booking.getStatus());
+            }
+            case STATUS -> new JournalEntry(type, bookingId, null, BookingStatus.values()[payload.get()]);
+            case DELETE -> new JournalEntry(type, bookingId, null, null);
+            default -> throw new IllegalStateException("Unknown booking journal record type " + type);
+        };
+    }
+
+    static int stringBytes(String value) {
+        return Short.BYTES + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES)
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes does not fit a journal record");
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        buffer.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+}
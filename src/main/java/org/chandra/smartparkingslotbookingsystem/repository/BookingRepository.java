@@ -3,43 +3,232 @@ package org.chandra.smartparkingslotbookingsystem.repository;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
 import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * In-memory repository for managing {@link Booking} entities.
  * <p>
- * Stores all bookings in a transient list shared across profiles.
- * Supports CRUD operations and booking status management.
+ * Active bookings are stored as objects in a concurrent hash index keyed by the numeric
+ * booking ID (see {@link BookingId}), with a secondary multimap index from normalized user
+ * phone number to that user's booking IDs, and a sorted set of active IDs for pages. The
+ * indexes are updated together on save and delete, so lookups by ID, by phone, status
+ * changes and deletes stay O(1), and a page starts at its cursor.
+ * </p>
+ * <p>
+ * Once a booking is completed or cancelled it moves to a {@link CompactBookingStore}, which
+ * keeps the ever-growing history in primitive columns and materializes {@link Booking}
+ * objects only when they are read. Bookings returned for finished bookings are copies.
+ * The history is partitioned by the location of each booking's slot (see
+ * {@link ShardedBookingHistory}), so bookings finishing at different locations do not
+ * contend for one lock.
+ * </p>
+ * <p>
+ * When the {@link BookingJournal} is enabled, every mutation is appended to it while the
+ * booking's key is locked, which keeps per-booking record order, and the caller waits for
+ * group commit after the lock is released. A change whose record cannot be written is
+ * undone before the caller sees the error: a new booking is removed again, and a booking
+ * whose status change or delete failed is put back as it was. The journal is replayed on startup and
+ * compacted from {@link #snapshot}, which shuts out changes while it reads the bookings: a
+ * record can be written before the compute that queued it has published the booking, and a
+ * snapshot taken in between would drop a booking whose record the compaction discards. The same records go to the {@link ChangeFeed} while a
+ * follower is replicating this repository.
+ * </p>
+ * <p>
+ * The same changes also keep {@link BookingAggregates}: booking counts, revenue and dwell
+ * time per slot type and location and revenue per day, readable without a scan of the history.
  * </p>
  */
 @Repository
 public class BookingRepository {
-    private final List<Booking> bookings = new ArrayList<>();
+    private static final Logger log = LoggerFactory.getLogger(BookingRepository.class);
+    private static final Comparator<Booking> BY_START_TIME =
+            Comparator.comparing(Booking::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()));
+    private static final Comparator<Booking> BY_ID = Comparator.comparingLong(b -> BookingId.parse(b.getBookingId()));
+    private static final int STREAM_PAGE_SIZE = 512;
+
+    private final BookingJournal journal;
+    private final ChangeFeed changeFeed;
+    private final Function<String, ParkingSlot> slotOf;
+    // changes share the read lock; a snapshot takes the write lock to see none half done
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private volatile Store store;
+
+    /**
+     * Everything the repository holds, replaced as a whole by {@link #reset()}, so a reset
+     * lets go of the old history instead of keeping its columns around.
+     */
+    private static final class Store {
+        final ConcurrentMap<Long, Booking> bookingsById = new ConcurrentHashMap<>();
+        final ConcurrentMap<String, Set<Long>> bookingIdsByPhone = new ConcurrentHashMap<>();
+        final NavigableSet<Long> activeIds = new ConcurrentSkipListSet<>();
+        final ShardedBookingHistory history;
+        final BookingAggregates aggregates;
+
+        Store(Function<String, ParkingSlot> slotOf) {
+            history = new ShardedBookingHistory(ConcurrentSlotRepository.defaultShardCount(), slotId -> {
+                ParkingSlot slot = slotOf.apply(slotId);
+                return slot != null ? slot.getLocation() : null;
+            });
+            aggregates = new BookingAggregates(slotOf);
+        }
+    }
+
+    public BookingRepository() {
+        this(BookingJournal.disabled());
+    }
+
+    public BookingRepository(BookingJournal journal) {
+        this(journal, new ChangeFeed(), slotId -> null);
+    }
+
+    /**
+     * A journaled change to one booking and what it replaced, to undo it with if its record
+     * cannot be written.
+     *
+     * @param before  the booking as it was, or the very object that was changed
+     * @param status  its status before the change
+     * @param version its version before the change
+     * @param cell    the aggregate cell it was counted in
+     */
+    private record Change(CompletableFuture<Void> durable, Booking before, BookingStatus status, long version, int cell) {}
+
+    @Autowired
+    public BookingRepository(BookingJournal journal, ChangeFeed changeFeed, SlotRepository slotRepository) {
+        this(journal, changeFeed, slotId -> slotRepository.findById(slotId).orElse(null));
+    }
+
+    private BookingRepository(BookingJournal journal, ChangeFeed changeFeed, Function<String, ParkingSlot> slotOf) {
+        this.journal = journal;
+        this.changeFeed = changeFeed;
+        this.slotOf = slotOf;
+        this.store = new Store(slotOf);
+    }
 
     @PostConstruct
     public void init() {
-        System.out.println("📘 BookingRepository initialized — ready to manage bookings.");
+        int replayed = journal.open(this::apply, this::snapshot);
+        Store store = this.store;
+        if (journal.isEnabled())
+            log.info("📘 BookingRepository initialized — replayed {} journal records, {} active and {} finished bookings restored.",
+                    replayed, store.bookingsById.size(), store.history.size());
+        else
+            log.info("📘 BookingRepository initialized — ready to manage bookings.");
     }
 
     @PreDestroy
     public void shutdown() {
-        System.out.println("BookingRepository shutting down — clearing in-memory data...");
-        bookings.clear();
+        log.info("BookingRepository shutting down — clearing in-memory data (journal is kept)...");
+        reset();
     }
 
     /**
-     * Retrieves all the Bookings currently available in the repository.
+     * Retrieves all the Bookings currently available in the repository, ordered by start time.
      *
      * @return a new {@link List} containing all stored {@link Booking} objects.
      */
     public List<Booking> findAll() {
-        return new ArrayList<>(bookings);
+        Store store = this.store;
+        List<Booking> all = new ArrayList<>(store.bookingsById.values());
+        Set<Long> live = new HashSet<>(store.bookingsById.keySet());
+        all.addAll(store.history.findAll(live::contains));
+        all.sort(BY_START_TIME);
+        return all;
+    }
+
+    /**
+     * Retrieves one page of bookings matching a filter, ordered by booking ID, which follows
+     * creation time. Each page walks the active bookings' IDs and the history's rows in ID
+     * order from the cursor, so it costs time in the bookings it passes over, not in every
+     * booking stored, and only materializes the history bookings it returns.
+     *
+     * @param filter the criteria to match
+     * @param cursor the {@link Page#nextCursor()} of the previous page, or {@code null} for the first page
+     * @param limit  the maximum number of bookings per page
+     * @return the page, whose cursor continues after its last booking
+     * @throws IllegalArgumentException if the cursor is not one returned by this method or the limit is not positive
+     */
+    public Page<Booking> findPage(BookingFilter filter, String cursor, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        long afterId = 0;
+        if (cursor != null && (afterId = BookingId.parse(cursor)) < 0)
+            throw new IllegalArgumentException("Invalid booking cursor: " + cursor);
+
+        Store store = this.store;
+        // one extra booking tells whether another page follows
+        int wanted = limit + 1;
+        List<Booking> candidates = new ArrayList<>(wanted * 2);
+        for (Long id : store.activeIds.tailSet(afterId, false)) {
+            Booking booking = store.bookingsById.get(id);
+            if (booking == null || !filter.matches(booking)) continue;
+            candidates.add(booking);
+            if (candidates.size() == wanted) break;
+        }
+        candidates.addAll(store.history.page(afterId, wanted, filter));
+        candidates.sort(BY_ID);
+
+        List<Booking> items = new ArrayList<>(Math.min(limit, candidates.size()));
+        long last = afterId;
+        for (Booking booking : candidates) {
+            long id = BookingId.parse(booking.getBookingId());
+            if (id == last) continue; // moved to the history while we were reading
+            if (items.size() == limit) return new Page<>(items, BookingId.format(last));
+            items.add(booking);
+            last = id;
+        }
+        return new Page<>(items, null);
+    }
+
+    /**
+     * Streams every booking matching a filter in booking ID order, fetching
+     * {@value #STREAM_PAGE_SIZE} bookings at a time instead of copying the whole repository.
+     *
+     * @param filter the criteria to match
+     * @return a lazy, sequential {@link Stream} of bookings
+     */
+    public Stream<Booking> stream(BookingFilter filter) {
+        return Stream.iterate(findPage(filter, null, STREAM_PAGE_SIZE), Objects::nonNull,
+                        page -> page.hasNext() ? findPage(filter, page.nextCursor(), STREAM_PAGE_SIZE) : null)
+                .flatMap(page -> page.items().stream());
+    }
+
+    /**
+     * Retrieves the bookings that are still active, without touching the booking history.
+     *
+     * @return a new {@link List} of active {@link Booking} objects
+     */
+    public List<Booking> findActive() {
+        Store store = this.store;
+        List<Booking> active = new ArrayList<>(store.bookingsById.size());
+        for (Booking booking : store.bookingsById.values())
+            if (booking.getStatus() == BookingStatus.ACTIVE) active.add(booking);
+        return active;
     }
 
     /**
@@ -49,56 +238,473 @@ public class BookingRepository {
      * @return an {@link Optional} containing the {@link Booking} if found, otherwise empty.
      */
     public Optional<Booking> findById(String bookingId) {
-        return bookings.stream()
-                .filter(b -> b.getBookingId().equalsIgnoreCase(bookingId))
-                .findFirst();
+        long id = BookingId.parse(bookingId);
+        if (id < 0) return Optional.empty();
+        Store store = this.store;
+        Booking booking = store.bookingsById.get(id);
+        return booking != null ? Optional.of(booking) : store.history.find(id);
     }
 
     /**
      * Retrieves all bookings associated with a user's phone number.
      *
      * @param phoneNumber the phone number of the user
-     * @return list of {@link Booking} belonging to that user
+     * @return list of {@link Booking} belonging to that user, ordered by start time
      */
     public List<Booking> findByUserPhone(String phoneNumber) {
-        return bookings.stream()
-                .filter(b -> b.getUserPhone().equalsIgnoreCase(phoneNumber))
-                .collect(Collectors.toList());
+        Store store = this.store;
+        String phone = normalize(phoneNumber);
+        Set<Long> ids = store.bookingIdsByPhone.get(phone);
+        List<Booking> result = new ArrayList<>(ids == null ? 0 : ids.size());
+        Set<Long> live = new HashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                Booking booking = store.bookingsById.get(id);
+                if (booking != null && live.add(id)) result.add(booking);
+            }
+        }
+        for (Booking booking : store.history.findByPhone(phone))
+            if (!live.contains(BookingId.parse(booking.getBookingId()))) result.add(booking);
+        result.sort(BY_START_TIME);
+        return result;
     }
 
     /**
-     * Adds a new booking to the repository.
+     * Adds a new booking to the repository and waits until it is durable in the journal.
+     * <p>
+     * If a booking with the same ID already exists, the save is skipped.
+     * </p>
      *
      * @param booking the {@link Booking} instance to be added.
+     * @throws IllegalArgumentException if the booking ID is not a valid {@link BookingId} or a field is
+     *                                  too long for the journal, in which case the booking is not stored
+     * @throws UncheckedIOException     if the journal write failed, in which case the booking is not stored
      */
     public void save(Booking booking) {
-        bookings.add(booking);
-        System.out.printf("Booking %s added successfully.%n", booking.getBookingId());
+        long key = key(booking.getBookingId());
+        BookingJournal.checkEncodable(booking);
+        CompletableFuture<Void> durable = insert(key, booking);
+        if (durable != null) {
+            awaitOrRollBack(key, booking, durable);
+            log.debug("Booking {} added successfully.", booking.getBookingId());
+        } else
+            log.warn("Booking {} already exists — save skipped.", booking.getBookingId());
     }
 
     /**
-     * Updates the status (active/completed/cancelled) of booking, if it exists.
+     * Adds several new bookings and waits once for all of them to become durable, so a batch
+     * shares a single group commit instead of paying one per booking.
+     * <p>
+     * Bookings whose ID already exists are skipped.
+     * </p>
+     *
+     * @param bookings the {@link Booking} instances to be added.
+     * @return the number of bookings added
+     * @throws IllegalArgumentException if a booking ID is not a valid {@link BookingId} or a field is
+     *                                  too long for the journal, in which case none of the bookings is stored
+     * @throws UncheckedIOException     if a journal write failed; the bookings whose records failed
+     *                                  are not stored, the others are
+     */
+    public int saveAll(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            key(booking.getBookingId());
+            BookingJournal.checkEncodable(booking);
+        }
+        List<Booking> added = new ArrayList<>(bookings.size());
+        List<CompletableFuture<Void>> durable = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            CompletableFuture<Void> future = insert(key(booking.getBookingId()), booking);
+            if (future == null) continue;
+            added.add(booking);
+            durable.add(future);
+        }
+        UncheckedIOException failed = null;
+        for (int i = 0; i < durable.size(); i++) {
+            try {
+                awaitOrRollBack(key(added.get(i).getBookingId()), added.get(i), durable.get(i));
+            } catch (UncheckedIOException e) {
+                if (failed == null) failed = e;
+            }
+        }
+        if (failed != null) throw failed;
+        log.debug("{} of {} bookings added successfully.", durable.size(), bookings.size());
+        return durable.size();
+    }
+
+    /**
+     * Updates the status (active/completed/cancelled) of booking, if it exists,
+     * and waits until the change is durable in the journal.
+     * Completing or cancelling an active booking moves it to the compact history.
      *
      * @param bookingId the identifier of the booking whose status is to be updated.
      * @param newStatus the new {@link BookingStatus} to set.
+     * @return {@code true} if the booking exists and was updated
+     * @throws UncheckedIOException if the journal write failed, in which case the booking is put
+     *                              back as it was
+     */
+    public boolean updateStatus(String bookingId, BookingStatus newStatus) {
+        return updateStatus(bookingId, null, newStatus);
+    }
+
+    /**
+     * Updates the status of a booking only if it currently has {@code expectedStatus}, and
+     * waits until the change is durable in the journal.
+     * <p>
+     * The check and the change run in the same compute on the booking's key as every other
+     * change to it, so of two callers racing to move an active booking on, e.g. a cancel
+     * and an end-time completion, exactly one succeeds. The loser sees {@code false} and can
+     * re-read the booking to find out what happened.
+     * </p>
+     *
+     * @param bookingId      the identifier of the booking whose status is to be updated.
+     * @param expectedStatus the status the booking must have, or {@code null} for any
+     * @param newStatus      the new {@link BookingStatus} to set.
+     * @return {@code true} if the booking was updated, {@code false} if it does not exist or
+     *         no longer has the expected status
+     * @throws UncheckedIOException if the journal write failed, in which case the booking is put
+     *                              back as it was
      */
-    public void updateStatus(String bookingId, BookingStatus newStatus) {
-        findById(bookingId).ifPresentOrElse(existing -> {
-            existing.setStatus(newStatus);
-            System.out.printf("Booking %s status updated to %s.%n", bookingId, newStatus);
-        }, () -> System.out.printf("Booking %s not found — update skipped.%n", bookingId));
+    public boolean updateStatus(String bookingId, BookingStatus expectedStatus, BookingStatus newStatus) {
+        List<Change> changes = new ArrayList<>(1);
+        long key = BookingId.parse(bookingId);
+        if (key > 0) {
+            Store store = this.store;
+            change(() -> store.bookingsById.compute(key, (k, existing) -> {
+                Booking before = existing != null ? existing : store.history.find(k).orElse(null);
+                if (before == null) return null;
+                BookingStatus status = before.getStatus();
+                long version = before.getVersion();
+                int cell = cellOf(store, k, existing);
+                if (!changeStatus(store, k, existing, expectedStatus, newStatus)) return existing;
+                changes.add(new Change(journal.appendStatus(BookingId.format(k), newStatus), before, status, version, cell));
+                if (changeFeed.isActive()) changeFeed.publish(BookingJournal.encodeStatus(BookingId.format(k), newStatus));
+                return newStatus == BookingStatus.ACTIVE ? existing : null;
+            }));
+        }
+        if (!changes.isEmpty()) {
+            awaitOrRevertStatus(key, changes.get(0));
+            log.debug("Booking {} status updated to {}.", bookingId, newStatus);
+            return true;
+        }
+        if (expectedStatus == null)
+            log.warn("Booking {} not found — update skipped.", bookingId);
+        else
+            log.debug("Booking {} is missing or no longer {} — update to {} refused.", bookingId, expectedStatus, newStatus);
+        return false;
     }
 
     /**
      * Deletes a Booking from the repository, if it exists, else deletion is skipped.
      *
      * @param bookingId the identifier of the booking to be deleted.
+     * @throws UncheckedIOException if the journal write failed, in which case the booking is put back
      */
     public void delete(String bookingId) {
-        boolean removed = bookings.removeIf(b -> b.getBookingId().equalsIgnoreCase(bookingId));
-        if (removed)
-            System.out.printf("Booking %s deleted successfully.%n", bookingId);
-        else
-            System.out.printf("Booking %s not found — deletion skipped.%n", bookingId);
+        List<Change> changes = new ArrayList<>(1);
+        long key = BookingId.parse(bookingId);
+        if (key > 0) {
+            Store store = this.store;
+            change(() -> store.bookingsById.compute(key, (k, existing) -> {
+                Booking before = existing != null ? existing : store.history.find(k).orElse(null);
+                if (before == null) return null;
+                int cell = cellOf(store, k, existing);
+                if (remove(store, k, existing)) {
+                    changes.add(new Change(journal.appendDelete(BookingId.format(k)), before, before.getStatus(), before.getVersion(), cell));
+                    if (changeFeed.isActive()) changeFeed.publish(BookingJournal.encodeDelete(BookingId.format(k)));
+                }
+                return null;
+            }));
+        }
+        if (!changes.isEmpty()) {
+            awaitOrRestore(key, changes.get(0));
+            log.debug("Booking {} deleted successfully.", bookingId);
+        } else
+            log.warn("Booking {} not found — deletion skipped.", bookingId);
+    }
+
+    /**
+     * Returns the running booking totals of every slot type and location, maintained on every
+     * change instead of computed from the bookings, so the cost does not grow with the history.
+     *
+     * @return one {@link BookingTotals} per type and location, ordered by location and then type
+     */
+    public List<BookingTotals> bookingTotals() {
+        return store.aggregates.totals();
+    }
+
+    /**
+     * Returns the revenue of active and completed bookings per start day and location,
+     * maintained on every change.
+     *
+     * @return one {@link DailyRevenue} per day and location, ordered by day and then location
+     */
+    public List<DailyRevenue> dailyRevenue() {
+        return store.aggregates.revenueByDay();
+    }
+
+    /**
+     * Stores a new booking and journals it, unless its ID is already taken.
+     *
+     * @return the journal future, or {@code null} if the booking was a duplicate
+     */
+    private CompletableFuture<Void> insert(long key, Booking booking) {
+        List<CompletableFuture<Void>> durable = new ArrayList<>(1);
+        Store store = this.store;
+        change(() -> store.bookingsById.computeIfAbsent(key, k -> {
+            if (!add(store, k, booking)) return null;
+            durable.add(journal.appendSave(booking));
+            if (changeFeed.isActive()) changeFeed.publish(BookingJournal.encodeSave(booking));
+            return booking.getStatus() == BookingStatus.ACTIVE ? booking : null;
+        }));
+        return durable.isEmpty() ? null : durable.get(0);
+    }
+
+    /**
+     * Waits for a new booking's save record and, if it could not be written, removes the
+     * booking again, without journaling, so memory does not hold a booking the journal lacks.
+     */
+    private void awaitOrRollBack(long key, Booking booking, CompletableFuture<Void> durable) {
+        try {
+            journal.await(durable);
+        } catch (UncheckedIOException e) {
+            Store store = this.store;
+            change(() -> store.bookingsById.compute(key, (k, existing) -> {
+                if (remove(store, k, existing) && changeFeed.isActive()) changeFeed.publish(BookingJournal.encodeDelete(BookingId.format(k)));
+                return null;
+            }));
+            log.warn("Booking {} could not be journaled — save rolled back.", booking.getBookingId());
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for a status change's record and, if it could not be written, puts the booking
+     * back as it was, without journaling, unless it has changed again since.
+     */
+    private void awaitOrRevertStatus(long key, Change change) {
+        try {
+            journal.await(change.durable());
+        } catch (UncheckedIOException e) {
+            Store store = this.store;
+            change(() -> store.bookingsById.compute(key, (k, current) -> {
+                Booking changed = current != null ? current : store.history.find(k).orElse(null);
+                if (changed == null || changed.getVersion() != change.version() + 1) return current;
+                remove(store, k, current);
+                if (changeFeed.isActive()) changeFeed.publish(BookingJournal.encodeDelete(BookingId.format(k)));
+                return restore(store, k, change);
+            }));
+            log.warn("Booking {} status change could not be journaled — rolled back to {}.", BookingId.format(key), change.status());
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for a delete's record and, if it could not be written, puts the booking back,
+     * without journaling.
+     */
+    private void awaitOrRestore(long key, Change change) {
+        try {
+            journal.await(change.durable());
+        } catch (UncheckedIOException e) {
+            Store store = this.store;
+            change(() -> store.bookingsById.compute(key, (k, current) ->
+                    current != null || store.history.contains(k) ? current : restore(store, k, change)));
+            log.warn("Booking {} delete could not be journaled — rolled back.", BookingId.format(key));
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the booking a change replaced again, with the status, version and aggregate cell
+     * it had.
+     *
+     * @return what to hold in {@link Store#bookingsById} for the key
+     */
+    private Booking restore(Store store, long key, Change change) {
+        Booking booking = change.before();
+        booking.setStatus(change.status());
+        booking.setVersion(change.version());
+        add(store, key, booking, change.cell());
+        if (changeFeed.isActive()) changeFeed.publish(BookingJournal.encodeSave(booking));
+        return booking.getStatus() == BookingStatus.ACTIVE ? booking : null;
+    }
+
+    /**
+     * Runs a change to the indexes under the shared side of {@link #snapshotLock}.
+     */
+    private void change(Runnable change) {
+        snapshotLock.readLock().lock();
+        try {
+            change.run();
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every booking, active and finished, to {@code out} as journal save records, e.g.
+     * to seed a follower before it receives the {@link ChangeFeed}, or to compact the journal.
+     */
+    void snapshot(Consumer<ByteBuffer> out) {
+        Store store = this.store;
+        List<ByteBuffer> records = new ArrayList<>(store.bookingsById.size());
+        List<Booking> finished;
+        snapshotLock.writeLock().lock();
+        try {
+            for (Booking booking : store.bookingsById.values()) records.add(BookingJournal.encodeSave(booking).flip());
+            Set<Long> live = new HashSet<>(store.bookingsById.keySet());
+            finished = store.history.findAll(live::contains);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+        records.forEach(out);
+        for (Booking booking : finished) out.accept(BookingJournal.encodeSave(booking).flip());
+    }
+
+    /**
+     * Drops every booking without journaling, before a follower applies a fresh snapshot.
+     * Writers must not run concurrently.
+     */
+    void reset() {
+        store = new Store(slotOf);
+    }
+
+    /**
+     * Replaces every booking with those of {@code staged}, e.g. a snapshot a follower loaded
+     * off to the side, so readers move from the old bookings to the new ones in a single step
+     * instead of seeing an empty repository in between. Nothing is journaled or published.
+     * {@code staged} should resolve slots from a repository whose indexes this one's slot
+     * repository adopts at the same time. Writers must not run concurrently.
+     */
+    void adopt(BookingRepository staged) {
+        store = staged.store;
+    }
+
+    /**
+     * Applies a replayed journal record, or a replicated one, to the in-memory indexes
+     * without journaling it again.
+     */
+    void apply(BookingJournal.JournalEntry entry) {
+        long key = BookingId.parse(entry.bookingId());
+        if (key < 0) {
+            log.warn("Skipping journal record with invalid booking ID {}.", entry.bookingId());
+            return;
+        }
+        Store store = this.store;
+        if (entry.isSave()) {
+            store.bookingsById.computeIfAbsent(key, k -> add(store, k, entry.booking()) && entry.booking().getStatus() == BookingStatus.ACTIVE
+                    ? entry.booking() : null);
+        } else if (entry.isStatusChange()) {
+            store.bookingsById.compute(key, (k, existing) ->
+                    changeStatus(store, k, existing, null, entry.status()) && entry.status() != BookingStatus.ACTIVE ? null : existing);
+        } else if (entry.isDelete()) {
+            store.bookingsById.compute(key, (k, existing) -> {
+                remove(store, k, existing);
+                return null;
+            });
+        }
+    }
+
+    /*
+     * The helpers below run inside a compute on the booking's key, which serializes every
+     * change to one booking whether it is held as an object or in the history.
+     */
+
+    /**
+     * Indexes a booking that is not stored as an object yet: active bookings by phone,
+     * finished ones straight into the history.
+     *
+     * @return {@code false} if the ID is already taken by a finished booking
+     */
+    private boolean add(Store store, long key, Booking booking) {
+        return add(store, key, booking, store.aggregates.cellOf(booking));
+    }
+
+    /**
+     * @param cell the aggregate cell to count the booking in
+     */
+    private boolean add(Store store, long key, Booking booking, int cell) {
+        if (store.history.contains(key)) return false;
+        if (booking.getStatus() == BookingStatus.ACTIVE) index(store, key, booking);
+        else if (!store.history.add(key, booking, normalize(booking.getUserPhone()), cell)) return false;
+        store.aggregates.added(key, cell, booking);
+        return true;
+    }
+
+    /**
+     * Changes the status of a stored booking and bumps its version; an active booking that
+     * finishes is moved into the history, and the caller must then drop it from
+     * {@link #bookingsById}.
+     *
+     * @param existing the booking held as an object, or {@code null} to look in the history
+     * @param expected the status the booking must have, or {@code null} for any
+     * @return {@code false} if no such booking exists or it does not have the expected status
+     */
+    private boolean changeStatus(Store store, long key, Booking existing, BookingStatus expected, BookingStatus newStatus) {
+        if (existing == null) {
+            Optional<Booking> archived = store.history.find(key);
+            int cell = store.history.cellOf(key);
+            if (archived.isEmpty() || !store.history.updateStatus(key, expected, newStatus)) return false;
+            store.aggregates.statusChanged(key, cell, archived.get(), archived.get().getStatus(), newStatus);
+            return true;
+        }
+        BookingStatus previous = existing.getStatus();
+        if (expected != null && previous != expected) return false;
+        int cell = store.aggregates.activeCellOf(key, existing);
+        existing.setStatus(newStatus);
+        existing.setVersion(existing.getVersion() + 1);
+        if (newStatus != BookingStatus.ACTIVE) {
+            store.history.add(key, existing, normalize(existing.getUserPhone()), cell);
+            unindex(store, key, existing);
+        }
+        store.aggregates.statusChanged(key, cell, existing, previous, newStatus);
+        return true;
+    }
+
+    /**
+     * @param existing the booking held as an object, or {@code null} to look in the history
+     * @return {@code false} if no such booking exists
+     */
+    private boolean remove(Store store, long key, Booking existing) {
+        if (existing == null) {
+            Optional<Booking> archived = store.history.find(key);
+            int cell = store.history.cellOf(key);
+            if (archived.isEmpty() || !store.history.remove(key)) return false;
+            store.aggregates.removed(key, cell, archived.get());
+            return true;
+        }
+        int cell = store.aggregates.activeCellOf(key, existing);
+        unindex(store, key, existing);
+        store.aggregates.removed(key, cell, existing);
+        return true;
+    }
+
+    /**
+     * @param existing the booking held as an object, or {@code null} if it is in the history
+     * @return the aggregate cell the booking is counted in
+     */
+    private static int cellOf(Store store, long key, Booking existing) {
+        return existing != null ? store.aggregates.activeCellOf(key, existing) : store.history.cellOf(key);
+    }
+
+    private static void index(Store store, Long key, Booking booking) {
+        store.activeIds.add(key);
+        store.bookingIdsByPhone.computeIfAbsent(normalize(booking.getUserPhone()), p -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    private static void unindex(Store store, Long key, Booking booking) {
+        store.activeIds.remove(key);
+        Set<Long> ids = store.bookingIdsByPhone.get(normalize(booking.getUserPhone()));
+        if (ids != null) ids.remove(key);
+    }
+
+    private static long key(String bookingId) {
+        long id = BookingId.parse(bookingId);
+        if (id < 0) throw new IllegalArgumentException("Invalid booking ID: " + bookingId);
+        return id;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
     }
 }
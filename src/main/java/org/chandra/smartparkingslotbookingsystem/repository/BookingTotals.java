@@ -0,0 +1,23 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+/**
+ * Running booking totals of one slot type at one location.
+ *
+ * @param type              the normalized slot type
+ * @param location          the normalized location code
+ * @param activeBookings    bookings currently active
+ * @param completedBookings bookings completed so far
+ * @param cancelledBookings bookings cancelled so far
+ * @param revenueMinor      the amounts of active and completed bookings, in minor units
+ * @param dwellMinutes      the booked minutes of completed bookings
+ */
+public record BookingTotals(String type, String location, long activeBookings, long completedBookings,
+                            long cancelledBookings, long revenueMinor, long dwellMinutes) {
+
+    /**
+     * @return the mean booked minutes of a completed booking, {@code 0} before the first one
+     */
+    public double averageDwellMinutes() {
+        return completedBookings <= 0 ? 0 : (double) dwellMinutes / completedBookings;
+    }
+}
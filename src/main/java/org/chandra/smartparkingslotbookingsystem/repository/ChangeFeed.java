@@ -0,0 +1,143 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Ordered feed of booking and slot mutations, for replicating the repositories to another node.
+ * <p>
+ * Each change is a binary record in the {@link BookingJournal} payload format: booking
+ * saves, status changes and deletes use the journal's own records, and slot upserts, slot
+ * deletes and resets add three record types. Repositories publish a change while they hold
+ * the lock of the entity it touches, so every listener sees the changes to one slot or
+ * booking in the order they happened. With no listener subscribed nothing is encoded.
+ * </p>
+ * <p>
+ * Listeners run on the mutating thread, inside that lock, and must only hand the record off.
+ * </p>
+ */
+@Component
+public class ChangeFeed {
+    public static final byte SLOT_SAVE = 4;
+    public static final byte SLOT_DELETE = 5;
+    public static final byte RESET = 6;
+
+    private static final byte KIND_CAR = 0;
+    private static final byte KIND_BIKE = 1;
+    private static final int FLAG_AVAILABLE = 1;
+    private static final int FLAG_CHARGING = 1 << 1;
+    private static final int FLAG_HELMET_LOCK = 1 << 2;
+
+    /**
+     * Receives each change as a read-only buffer positioned at the start of the record.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onChange(ByteBuffer change);
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    boolean isActive() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Passes an encoded change, written but not yet flipped, to every listener.
+     */
+    void publish(ByteBuffer change) {
+        ByteBuffer record = change.flip().asReadOnlyBuffer();
+        for (Listener listener : listeners) listener.onChange(record.duplicate());
+    }
+
+    /**
+     * @return the type byte of a change record, without consuming it
+     */
+    public static byte typeOf(ByteBuffer change) {
+        return change.get(change.position());
+    }
+
+    static ByteBuffer encodeSlot(ParkingSlot slot) {
+        int flags = slot.isAvailable() ? FLAG_AVAILABLE : 0;
+        int maxLength = 0;
+        byte kind;
+        if (slot instanceof CarParkingSlot car) {
+            kind = KIND_CAR;
+            if (car.hasChargingStation()) flags |= FLAG_CHARGING;
+            maxLength = car.getMaxLength();
+        } else if (slot instanceof BikeParkingSlot bike) {
+            kind = KIND_BIKE;
+            if (bike.hasChargingStation()) flags |= FLAG_CHARGING;
+            if (bike.hasHelmetLock()) flags |= FLAG_HELMET_LOCK;
+        } else {
+            throw new IllegalArgumentException("Unsupported slot type for replication: " + slot.getClass().getSimpleName());
+        }
+        ByteBuffer change = ByteBuffer.allocate(1 + BookingJournal.stringBytes(slot.getId()) + 1
+                + BookingJournal.stringBytes(slot.getType()) + BookingJournal.stringBytes(slot.getLocation())
+                + Double.BYTES + 1 + Integer.BYTES + Long.BYTES);
+        change.put(SLOT_SAVE);
+        BookingJournal.putString(change, slot.getId());
+        change.put(kind);
+        BookingJournal.putString(change, slot.getType());
+        BookingJournal.putString(change, slot.getLocation());
+        change.putDouble(slot.getHourlyRate()).put((byte) flags).putInt(maxLength).putLong(slot.getVersion());
+        return change;
+    }
+
+    static ByteBuffer encodeSlotDelete(String slotId) {
+        ByteBuffer change = ByteBuffer.allocate(1 + BookingJournal.stringBytes(slotId));
+        change.put(SLOT_DELETE);
+        BookingJournal.putString(change, slotId);
+        return change;
+    }
+
+    static ByteBuffer encodeReset() {
+        return ByteBuffer.allocate(1).put(RESET);
+    }
+
+    /**
+     * Decodes a {@link #SLOT_SAVE} record, consuming it.
+     */
+    static ParkingSlot decodeSlot(ByteBuffer change) {
+        change.get();
+        String id = BookingJournal.getString(change);
+        byte kind = change.get();
+        String type = BookingJournal.getString(change);
+        String location = BookingJournal.getString(change);
+        double rate = change.getDouble();
+        int flags = change.get();
+        int maxLength = change.getInt();
+        long version = change.getLong();
+        boolean available = (flags & FLAG_AVAILABLE) != 0;
+        boolean charging = (flags & FLAG_CHARGING) != 0;
+        ParkingSlot slot = switch (kind) {
+            case KIND_CAR -> new CarParkingSlot(id, type, location, rate, available, charging, maxLength);
+            case KIND_BIKE -> new BikeParkingSlot(id, type, location, rate, available, charging, (flags & FLAG_HELMET_LOCK) != 0);
+            default -> throw new IllegalStateException("Unknown slot kind " + kind + " in change record");
+        };
+        slot.setVersion(version);
+        return slot;
+    }
+
+    /**
+     * Decodes a {@link #SLOT_DELETE} record, consuming it.
+     */
+    static String decodeSlotDelete(ByteBuffer change) {
+        change.get();
+        return BookingJournal.getString(change);
+    }
+}
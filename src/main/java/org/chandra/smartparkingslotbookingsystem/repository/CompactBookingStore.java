@@ -0,0 +1,341 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Columnar, append-only store for finished (completed or cancelled) bookings.
+ * <p>
+ * Each booking is one row across parallel primitive arrays: the ID, start and end times as
+ * epoch seconds, the amount, a status byte, the version, an {@code int} tag the owner attaches
+ * to the row, and {@code int} codes into two dictionaries, one for slot IDs and one for user
+ * names, emails, phone numbers and vehicle numbers.
+ * A row takes about 64 bytes, against several hundred for a {@link Booking} with its
+ * {@link LocalDateTime}s and strings, and repeated strings are stored once.
+ * {@link Booking} objects are only materialized when a row is read.
+ * </p>
+ * <p>
+ * Rows are found by ID through an open-addressing {@code long -> int} index, by phone
+ * through a per-phone chain of row numbers, and in ID order, for pages, through
+ * {@link IdOrderedRows}. Times are kept with second precision.
+ * Deleted rows leave the ID index and are skipped by scans; their space is not reclaimed.
+ * Reads share a read lock; writes are exclusive.
+ * </p>
+ */
+public final class CompactBookingStore {
+    private static final int INITIAL_ROWS = 1024;
+    private static final byte DELETED = -1;
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int NO_ROW = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringDictionary slotIds = new StringDictionary();
+    private final StringDictionary userStrings = new StringDictionary();
+    private final StringDictionary phoneKeys = new StringDictionary();
+    private final LongIntHashIndex rowsById = new LongIntHashIndex(INITIAL_ROWS);
+    private final IdOrderedRows rowsInIdOrder = new IdOrderedRows();
+
+    private long[] ids = new long[INITIAL_ROWS];
+    private long[] startSeconds = new long[INITIAL_ROWS];
+    private long[] endSeconds = new long[INITIAL_ROWS];
+    private double[] amounts = new double[INITIAL_ROWS];
+    private int[] slots = new int[INITIAL_ROWS];
+    private int[] names = new int[INITIAL_ROWS];
+    private int[] emails = new int[INITIAL_ROWS];
+    private int[] phones = new int[INITIAL_ROWS];
+    private int[] vehicles = new int[INITIAL_ROWS];
+    private byte[] statuses = new byte[INITIAL_ROWS];
+    private int[] versions = new int[INITIAL_ROWS];
+    private int[] tags = new int[INITIAL_ROWS];
+    private int[] previousRowOfPhone = new int[INITIAL_ROWS];
+    private int[] lastRowOfPhone = newRowHeads(64);
+    private int rows;
+
+    /**
+     * Appends a booking with a tag of {@code 0}, unless one with the same ID is already stored.
+     *
+     * @param id       the numeric booking ID
+     * @param booking  the booking to store; it is copied, not retained
+     * @param phoneKey the normalized phone number used for {@link #findByPhone(String)}
+     * @return {@code true} if the booking was added
+     */
+    public boolean add(long id, Booking booking, String phoneKey) {
+        return add(id, booking, phoneKey, 0);
+    }
+
+    /**
+     * Appends a booking, unless one with the same ID is already stored.
+     *
+     * @param id       the numeric booking ID
+     * @param booking  the booking to store; it is copied, not retained
+     * @param phoneKey the normalized phone number used for {@link #findByPhone(String)}
+     * @param tag      a value of the caller's to keep with the row, see {@link #tag(long)}
+     * @return {@code true} if the booking was added
+     */
+    public boolean add(long id, Booking booking, String phoneKey, int tag) {
+        lock.writeLock().lock();
+        try {
+            if (rowsById.get(id) != LongIntHashIndex.MISSING) return false;
+            if (rows == ids.length) grow();
+            int row = rows++;
+            ids[row] = id;
+            startSeconds[row] = toSeconds(booking.getStartTime());
+            endSeconds[row] = toSeconds(booking.getEndTime());
+            amounts[row] = booking.getTotalAmount();
+            slots[row] = slotIds.encode(booking.getSlotId());
+            names[row] = userStrings.encode(booking.getUserName());
+            emails[row] = userStrings.encode(booking.getUserEmail());
+            phones[row] = userStrings.encode(booking.getUserPhone());
+            vehicles[row] = userStrings.encode(booking.getVehicleNumber());
+            statuses[row] = (byte) booking.getStatus().ordinal();
+            versions[row] = (int) booking.getVersion();
+            tags[row] = tag;
+
+            int phone = phoneKeys.encode(phoneKey == null ? "" : phoneKey);
+            if (phone == lastRowOfPhone.length) {
+                int[] grown = newRowHeads(phone * 2);
+                System.arraycopy(lastRowOfPhone, 0, grown, 0, phone);
+                lastRowOfPhone = grown;
+            }
+            previousRowOfPhone[row] = lastRowOfPhone[phone];
+            lastRowOfPhone[phone] = row;
+
+            rowsById.put(id, row);
+            rowsInIdOrder.add(row, ids);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if a booking with this ID is stored
+     */
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return rowsById.get(id) != LongIntHashIndex.MISSING;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the tag the booking with this ID was added with, or {@code -1} if it is not stored
+     */
+    public int tag(long id) {
+        lock.readLock().lock();
+        try {
+            int row = rowsById.get(id);
+            return row == LongIntHashIndex.MISSING ? -1 : tags[row];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return a materialized copy of the booking with this ID, if stored
+     */
+    public Optional<Booking> find(long id) {
+        lock.readLock().lock();
+        try {
+            int row = rowsById.get(id);
+            return row == LongIntHashIndex.MISSING ? Optional.empty() : Optional.of(materialize(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param phoneKey the normalized phone number
+     * @return materialized copies of that user's bookings, most recently stored first
+     */
+    public List<Booking> findByPhone(String phoneKey) {
+        lock.readLock().lock();
+        try {
+            List<Booking> result = new ArrayList<>();
+            int phone = phoneKeys.lookup(phoneKey);
+            if (phone == StringDictionary.NULL_CODE) return result;
+            for (int row = lastRowOfPhone[phone]; row != NO_ROW; row = previousRowOfPhone[row])
+                if (statuses[row] != DELETED) result.add(materialize(row));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Materializes every stored booking whose ID is not excluded.
+     *
+     * @param exclude IDs to skip, e.g. bookings the caller already holds as objects
+     */
+    public List<Booking> findAll(LongPredicate exclude) {
+        lock.readLock().lock();
+        try {
+            List<Booking> result = new ArrayList<>(rowsById.size());
+            for (int row = 0; row < rows; row++)
+                if (statuses[row] != DELETED && !exclude.test(ids[row])) result.add(materialize(row));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the stored bookings with the smallest IDs above {@code afterId} that match a
+     * filter, walking the rows in ID order from {@code afterId}, evaluating the filter on the
+     * primitive columns and materializing only the bookings that make the page.
+     *
+     * @param afterId only bookings with a larger ID; {@code 0} for the first page
+     * @param limit   the maximum number of bookings to return
+     * @param filter  the criteria to match
+     * @return matching bookings ordered by ID
+     */
+    public List<Booking> page(long afterId, int limit, BookingFilter filter) {
+        lock.readLock().lock();
+        try {
+            byte status = filter.status() == null ? DELETED : (byte) filter.status().ordinal();
+            boolean[] slotMatches = filter.slotId() == null ? null : matchingCodes(slotIds, filter.slotId().trim());
+            long fromSeconds = filter.from() == null ? Long.MIN_VALUE : filter.from().atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+            long toSeconds = filter.to() == null ? Long.MAX_VALUE : filter.to().plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+
+            int[] pageRows = new int[limit];
+            int[] found = {0};
+            rowsInIdOrder.forEachAfter(afterId, ids, row -> {
+                if (statuses[row] == DELETED) return true;
+                if (status != DELETED && statuses[row] != status) return true;
+                if (slotMatches != null && (slots[row] < 0 || !slotMatches[slots[row]])) return true;
+                long start = startSeconds[row];
+                if (start == NO_TIME ? filter.from() != null || filter.to() != null : start < fromSeconds || start >= toSeconds)
+                    return true;
+                pageRows[found[0]++] = row;
+                return found[0] < limit;
+            });
+            List<Booking> result = new ArrayList<>(found[0]);
+            for (int i = 0; i < found[0]; i++) result.add(materialize(pageRows[i]));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the status of a stored booking in place and bumps its version.
+     *
+     * @return {@code true} if the booking is stored
+     */
+    public boolean updateStatus(long id, BookingStatus status) {
+        return updateStatus(id, null, status);
+    }
+
+    /**
+     * Changes the status of a stored booking in place and bumps its version, if its status
+     * is {@code expected}.
+     *
+     * @param expected the status the booking must have, or {@code null} for any
+     * @return {@code true} if the booking is stored and had the expected status
+     */
+    public boolean updateStatus(long id, BookingStatus expected, BookingStatus status) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.get(id);
+            if (row == LongIntHashIndex.MISSING) return false;
+            if (expected != null && statuses[row] != expected.ordinal()) return false;
+            statuses[row] = (byte) status.ordinal();
+            versions[row]++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a stored booking.
+     *
+     * @return {@code true} if the booking was stored
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.remove(id);
+            if (row == LongIntHashIndex.MISSING) return false;
+            statuses[row] = DELETED;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of stored bookings
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Booking materialize(int row) {
+        Booking booking = new Booking(BookingId.format(ids[row]),
+                userStrings.decode(names[row]), userStrings.decode(emails[row]),
+                userStrings.decode(phones[row]), userStrings.decode(vehicles[row]),
+                slotIds.decode(slots[row]),
+                toDateTime(startSeconds[row]), toDateTime(endSeconds[row]),
+                STATUSES[statuses[row]], amounts[row]);
+        booking.setVersion(versions[row]);
+        return booking;
+    }
+
+    private static boolean[] matchingCodes(StringDictionary dictionary, String value) {
+        boolean[] matches = new boolean[dictionary.size()];
+        for (int code = 0; code < matches.length; code++)
+            matches[code] = value.equalsIgnoreCase(dictionary.decode(code));
+        return matches;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        startSeconds = Arrays.copyOf(startSeconds, capacity);
+        endSeconds = Arrays.copyOf(endSeconds, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        slots = Arrays.copyOf(slots, capacity);
+        names = Arrays.copyOf(names, capacity);
+        emails = Arrays.copyOf(emails, capacity);
+        phones = Arrays.copyOf(phones, capacity);
+        vehicles = Arrays.copyOf(vehicles, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        tags = Arrays.copyOf(tags, capacity);
+        previousRowOfPhone = Arrays.copyOf(previousRowOfPhone, capacity);
+    }
+
+    private static int[] newRowHeads(int length) {
+        int[] heads = new int[length];
+        Arrays.fill(heads, NO_ROW);
+        return heads;
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toDateTime(long seconds) {
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+}
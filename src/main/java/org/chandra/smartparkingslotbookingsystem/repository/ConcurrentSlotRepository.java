@@ -0,0 +1,748 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.SlotRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Thread-safe, hash-indexed base implementation of {@link SlotRepository}, sharded by location.
+ * <p>
+ * Slots are keyed by their normalized (trimmed, upper-case) ID, so lookups and updates
+ * are O(1) instead of a scan over every stored slot. The indexes are partitioned into
+ * {@link SlotShard}s by location code: all slots of a location live in one shard, which
+ * gives each of them a dense ordinal and keeps an {@link AvailabilityBitmap} of the
+ * available ones per normalized type. Counting free slots of a type costs one read per
+ * shard, and finding or iterating them walks 64 slots per word without allocating. A
+ * {@link SlotFeatureIndex} orders slots by features and rate for best-fit queries.
+ * </p>
+ * <p>
+ * Every mutation of a given slot runs inside {@link ConcurrentMap#compute} for its key,
+ * so the primary map and the indexes change together, and concurrent writers to
+ * different slots never block each other. Writers at different locations also never
+ * share an ordinal lock or a bitmap word. Large cross-shard scans fan out over the
+ * common fork-join pool. Each mutation is also published to the {@link ChangeFeed} under
+ * the same lock, for replication.
+ * </p>
+ * <p>
+ * Each stored change bumps the slot's version, so callers that read, edit a
+ * {@link ParkingSlot#copy() copy} and write it back can use
+ * {@link #update(ParkingSlot, long)} to detect a change made in between.
+ * </p>
+ * <p>
+ * Every change also publishes the next immutable {@link ShardSnapshot} of its shard with a
+ * compare-and-set on that shard's reference, from inside the slot's compute, so snapshots
+ * follow the order of each slot's changes and writers at different locations never contend
+ * on publishing. {@link #snapshot()} hands the current ones to readers as one
+ * {@link SlotSnapshot} without locking or copying.
+ * </p>
+ * <p>
+ * The same changes keep {@link OccupancyCounters} of slots and occupied slots per type and
+ * location, so {@link #occupancy(String, String)} answers without a scan.
+ * </p>
+ */
+public abstract class ConcurrentSlotRepository implements SlotRepository {
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentSlotRepository.class);
+    private static final int PARALLEL_LOAD_THRESHOLD = 10_000;
+    private static final int PARALLEL_SCAN_THRESHOLD = 10_000;
+    private static final int STREAM_PAGE_SIZE = 512;
+
+    private volatile Indexes indexes;
+    private volatile boolean deferPublishing;
+    private ChangeFeed changeFeed = new ChangeFeed();
+
+    /**
+     * Every slot and index the repository holds, replaced as a whole by {@link #adopt}, so a
+     * follower can load a snapshot off to the side and switch readers over in one step.
+     * Operations read the reference once and work on that holder throughout.
+     */
+    private static final class Indexes {
+        final ConcurrentMap<String, ParkingSlot> slotsById = new ConcurrentHashMap<>();
+        final ConcurrentMap<String, SlotShard> shardsById = new ConcurrentHashMap<>();
+        final SlotShard[] shards;
+        final SlotFeatureIndex features = new SlotFeatureIndex();
+        final OccupancyCounters occupancy = new OccupancyCounters();
+
+        Indexes(int shardCount) {
+            shards = new SlotShard[shardCount];
+            for (int i = 0; i < shardCount; i++) shards[i] = new SlotShard(i, shardCount);
+        }
+    }
+
+    /**
+     * Creates a repository with one shard per available processor, rounded up to a power of two.
+     */
+    protected ConcurrentSlotRepository() {
+        this(defaultShardCount());
+    }
+
+    /**
+     * @param shardCount the number of location shards, a power of two
+     */
+    protected ConcurrentSlotRepository(int shardCount) {
+        if (shardCount <= 0 || Integer.bitCount(shardCount) != 1)
+            throw new IllegalArgumentException("Shard count must be a positive power of two: " + shardCount);
+        indexes = new Indexes(shardCount);
+    }
+
+    /**
+     * Publishes every slot mutation to {@code changeFeed}. Injected by Spring; repositories
+     * created without it publish to a feed nobody listens to.
+     */
+    @Autowired
+    public void setChangeFeed(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    /**
+     * @return the number of available processors rounded up to a power of two
+     */
+    static int defaultShardCount() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return processors <= 1 ? 1 : Integer.highestOneBit(processors - 1) << 1;
+    }
+
+    /**
+     * Maps a location code to one of {@code shardCount} shards, a power of two. Codes are
+     * normalized first, so {@code a1} and {@code A1} share a shard.
+     */
+    static int shardIndex(String location, int shardCount) {
+        int hash = normalize(location).hashCode();
+        return (hash ^ (hash >>> 16)) & (shardCount - 1);
+    }
+
+    /**
+     * Normalizes a slot ID or slot type so that lookups stay case-insensitive.
+     *
+     * @param value the raw identifier
+     * @return the trimmed, upper-case form, or an empty string for {@code null}
+     */
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Retrieves all parking slots currently stored in the repository, ordered by slot ID.
+     *
+     * @return a new {@link List} containing all stored {@link ParkingSlot} objects
+     */
+    @Override
+    public List<ParkingSlot> findAll() {
+        Indexes indexes = this.indexes;
+        List<ParkingSlot> all = new ArrayList<>(indexes.slotsById.values());
+        all.sort(Comparator.comparing(ParkingSlot::getId, String.CASE_INSENSITIVE_ORDER));
+        return all;
+    }
+
+    /**
+     * Retrieves one page of slots matching a filter, shard by shard and within a shard in
+     * the order the slots were added.
+     * <p>
+     * The cursor is a global slot ordinal, so each page resumes exactly where the previous
+     * one ended without re-reading earlier slots. Available-only queries of one type walk
+     * the type's availability bitmaps instead of every slot.
+     * </p>
+     *
+     * @param filter the criteria to match
+     * @param cursor the {@link Page#nextCursor()} of the previous page, or {@code null} for the first page
+     * @param limit  the maximum number of slots per page
+     * @return the page, whose cursor continues after its last slot
+     * @throws IllegalArgumentException if the cursor is not one returned by this method or the limit is not positive
+     */
+    @Override
+    public Page<ParkingSlot> findPage(SlotFilter filter, String cursor, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        Indexes indexes = this.indexes;
+        int position = parseCursor(cursor);
+        List<ParkingSlot> items = new ArrayList<>(Math.min(limit, 64));
+        boolean byBitmap = filter.availableOnly() && filter.type() != null;
+
+        int ordinal = position / indexes.shards.length;
+        for (int s = position % indexes.shards.length; s < indexes.shards.length; s++, ordinal = 0) {
+            SlotShard shard = indexes.shards[s];
+            AvailabilityBitmap available = byBitmap ? shard.bitmapFor(filter.type()) : null;
+            if (byBitmap && available == null) continue;
+            int end = shard.limit();
+            while (true) {
+                if (available != null) ordinal = available.nextSetBit(ordinal);
+                if (ordinal < 0 || ordinal >= end) break;
+                String key = shard.keyAt(ordinal);
+                ParkingSlot slot = key == null ? null : indexes.slotsById.get(key);
+                if (slot != null && filter.matches(slot)) {
+                    if (items.size() == limit) return new Page<>(items, Integer.toString(shard.global(ordinal)));
+                    items.add(slot);
+                }
+                ordinal++;
+            }
+        }
+        return new Page<>(items, null);
+    }
+
+    /**
+     * Streams every slot matching a filter, fetching {@value #STREAM_PAGE_SIZE} slots at a
+     * time instead of copying the whole inventory.
+     *
+     * @param filter the criteria to match
+     * @return a lazy, sequential {@link Stream} of slots in {@link #findPage} order
+     */
+    @Override
+    public Stream<ParkingSlot> stream(SlotFilter filter) {
+        return Stream.iterate(findPage(filter, null, STREAM_PAGE_SIZE), Objects::nonNull,
+                        page -> page.hasNext() ? findPage(filter, page.nextCursor(), STREAM_PAGE_SIZE) : null)
+                .flatMap(page -> page.items().stream());
+    }
+
+    /**
+     * Finds a parking slot by its unique ID.
+     *
+     * @param slotId the identifier of the slot to search for
+     * @return an {@link Optional} containing the {@link ParkingSlot} if found, otherwise empty
+     */
+    @Override
+    public Optional<ParkingSlot> findById(String slotId) {
+        return Optional.ofNullable(indexes.slotsById.get(normalize(slotId)));
+    }
+
+    /**
+     * Adds a new parking slot to the repository.
+     * <p>
+     * If a slot with the same ID already exists, the save is skipped.
+     * </p>
+     *
+     * @param slot the {@link ParkingSlot} instance to be added
+     */
+    @Override
+    public void save(ParkingSlot slot) {
+        Indexes indexes = this.indexes;
+        String key = normalize(slot.getId());
+        boolean[] added = {false};
+        indexes.slotsById.computeIfAbsent(key, k -> {
+            place(indexes, k, null, slot);
+            added[0] = true;
+            return slot;
+        });
+        if (added[0])
+            log.debug("Slot {} added successfully.", slot.getId());
+        else
+            log.warn("Slot {} already exists — save skipped.", slot.getId());
+    }
+
+    /**
+     * Adds a batch of new parking slots, skipping IDs that already exist.
+     * <p>
+     * The slots are indexed one by one but published together: each shard the batch touches
+     * gets one new snapshot with all of its added slots, instead of one per slot.
+     * </p>
+     *
+     * @param slots the {@link ParkingSlot} instances to be added
+     * @return the number of slots added
+     */
+    @Override
+    public int saveAll(Collection<? extends ParkingSlot> slots) {
+        Indexes indexes = this.indexes;
+        int shardCount = indexes.shards.length;
+        int[][] ordinals = new int[shardCount][];
+        int[] counts = new int[shardCount];
+        int added = 0;
+        for (ParkingSlot slot : slots) {
+            boolean[] inserted = {false};
+            indexes.slotsById.computeIfAbsent(normalize(slot.getId()), k -> {
+                place(indexes, k, null, slot, false);
+                int index = shardIndex(slot.getLocation(), shardCount);
+                if (ordinals[index] == null) ordinals[index] = new int[Math.min(slots.size(), 1024)];
+                else if (counts[index] == ordinals[index].length) ordinals[index] = Arrays.copyOf(ordinals[index], counts[index] * 2);
+                ordinals[index][counts[index]++] = indexes.shards[index].ordinalOf(k);
+                inserted[0] = true;
+                return slot;
+            });
+            if (inserted[0]) added++;
+        }
+        if (!deferPublishing)
+            for (int index = 0; index < shardCount; index++) {
+                if (counts[index] == 0) continue;
+                SlotShard shard = indexes.shards[index];
+                shard.publishAll(ordinals[index], counts[index], ordinal -> {
+                    ParkingSlot slot = slotAt(indexes, shard, ordinal);
+                    return slot == null ? null : SlotRecord.of(slot);
+                });
+            }
+        return added;
+    }
+
+    /**
+     * Updates an existing parking slot if it exists and re-indexes its type, availability
+     * and, if its location changed, its shard. The stored slot gets the next version,
+     * whatever version it carries.
+     * <p>
+     * If no matching slot is found, the update operation is skipped gracefully.
+     * </p>
+     *
+     * @param slot the updated {@link ParkingSlot} instance
+     */
+    @Override
+    public void update(ParkingSlot slot) {
+        Indexes indexes = this.indexes;
+        String key = normalize(slot.getId());
+        ParkingSlot updated = indexes.slotsById.computeIfPresent(key, (k, existing) -> {
+            slot.setVersion(existing.getVersion() + 1);
+            place(indexes, k, existing, slot);
+            return slot;
+        });
+        if (updated != null)
+            log.debug("Slot {} updated successfully.", slot.getId());
+        else
+            log.warn("Slot {} not found — update skipped.", slot.getId());
+    }
+
+    /**
+     * Updates an existing parking slot only if its stored version is still
+     * {@code expectedVersion}.
+     * <p>
+     * The version check and the write happen in the same {@link ConcurrentMap#compute} as
+     * every other change to the slot, so an edit based on a stale read, e.g. one that raced
+     * a reservation, is refused instead of overwriting it. The caller holds no lock between
+     * reading the slot and writing it back, and can re-read and retry on {@code false}.
+     * </p>
+     *
+     * @param slot            the edited {@link ParkingSlot}, typically a {@link ParkingSlot#copy() copy}
+     * @param expectedVersion the version the edit was based on
+     * @return {@code true} if the slot was stored with the next version
+     */
+    @Override
+    public boolean update(ParkingSlot slot, long expectedVersion) {
+        Indexes indexes = this.indexes;
+        boolean[] updated = {false};
+        indexes.slotsById.computeIfPresent(normalize(slot.getId()), (k, existing) -> {
+            if (existing.getVersion() != expectedVersion) return existing;
+            slot.setVersion(expectedVersion + 1);
+            place(indexes, k, existing, slot);
+            updated[0] = true;
+            return slot;
+        });
+        if (updated[0])
+            log.debug("Slot {} updated to version {}.", slot.getId(), slot.getVersion());
+        else
+            log.debug("Slot {} is missing or no longer at version {} — update refused.", slot.getId(), expectedVersion);
+        return updated[0];
+    }
+
+    /**
+     * Deletes an existing parking slot from the repository.
+     * <p>
+     * If the specified slot does not exist, a warning message is logged.
+     * </p>
+     *
+     * @param slot the {@link ParkingSlot} to be deleted
+     */
+    @Override
+    public void delete(ParkingSlot slot) {
+        Indexes indexes = this.indexes;
+        String key = normalize(slot.getId());
+        boolean[] removed = {false};
+        indexes.slotsById.computeIfPresent(key, (k, existing) -> {
+            SlotShard shard = indexes.shardsById.get(k);
+            shard.unindex(k, existing);
+            int ordinal = shard.ordinalOf(k);
+            indexes.features.remove(shard.global(ordinal));
+            indexes.occupancy.untrack(k);
+            publish(shard, ordinal, null);
+            if (changeFeed.isActive()) changeFeed.publish(ChangeFeed.encodeSlotDelete(existing.getId()));
+            removed[0] = true;
+            return null;
+        });
+        if (removed[0])
+            log.debug("Slot {} deleted successfully.", slot.getId());
+        else
+            log.warn("Slot {} not found — deletion skipped.", slot.getId());
+    }
+
+    /**
+     * Retrieves all available parking slots of a specified type (e.g., "Car", "Bike")
+     * from the availability bitmaps, shard by shard. With more than
+     * {@value #PARALLEL_SCAN_THRESHOLD} candidates the shards are scanned in parallel on the
+     * common fork-join pool and their results concatenated in shard order.
+     *
+     * @param type the type of parking slot to filter by
+     * @return a {@link List} of available {@link ParkingSlot} objects matching the given type
+     */
+    @Override
+    public List<ParkingSlot> findAvailableByType(String type) {
+        Indexes indexes = this.indexes;
+        int count = countAvailableByType(type);
+        if (indexes.shards.length == 1 || count < PARALLEL_SCAN_THRESHOLD) {
+            List<ParkingSlot> result = new ArrayList<>(count);
+            forEachAvailableByType(type, result::add);
+            return result;
+        }
+        return Arrays.stream(indexes.shards).parallel()
+                .map(shard -> {
+                    List<ParkingSlot> part = new ArrayList<>();
+                    forEachAvailableIn(indexes, shard, type, part::add);
+                    return part;
+                })
+                .collect(() -> new ArrayList<>(count), List::addAll, List::addAll);
+    }
+
+    /**
+     * Counts the available slots of a type with one read per shard.
+     *
+     * @param type the slot type, matched case-insensitively
+     * @return the number of available slots of that type
+     */
+    @Override
+    public int countAvailableByType(String type) {
+        Indexes indexes = this.indexes;
+        int count = 0;
+        for (SlotShard shard : indexes.shards) {
+            AvailabilityBitmap available = shard.bitmapFor(type);
+            if (available != null) count += available.cardinality();
+        }
+        return count;
+    }
+
+    /**
+     * Finds an available slot of a type: the earliest added one of the first shard that has any.
+     *
+     * @param type the slot type, matched case-insensitively
+     * @return the first available slot, or empty if none is free
+     */
+    @Override
+    public Optional<ParkingSlot> findFirstAvailableByType(String type) {
+        Indexes indexes = this.indexes;
+        for (SlotShard shard : indexes.shards) {
+            AvailabilityBitmap available = shard.bitmapFor(type);
+            if (available == null) continue;
+            for (int ordinal = available.nextSetBit(0); ordinal >= 0; ordinal = available.nextSetBit(ordinal + 1)) {
+                ParkingSlot slot = slotAt(indexes, shard, ordinal);
+                if (slot != null && slot.isAvailable()) return Optional.of(slot);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Passes every available slot of a type to {@code action}, shard by shard in ordinal
+     * order, without building a list.
+     *
+     * @param type   the slot type, matched case-insensitively
+     * @param action the callback for each available slot
+     */
+    @Override
+    public void forEachAvailableByType(String type, Consumer<? super ParkingSlot> action) {
+        Indexes indexes = this.indexes;
+        for (SlotShard shard : indexes.shards) forEachAvailableIn(indexes, shard, type, action);
+    }
+
+    private static void forEachAvailableIn(Indexes indexes, SlotShard shard, String type, Consumer<? super ParkingSlot> action) {
+        AvailabilityBitmap available = shard.bitmapFor(type);
+        if (available == null) return;
+        for (int ordinal = available.nextSetBit(0); ordinal >= 0; ordinal = available.nextSetBit(ordinal + 1)) {
+            ParkingSlot slot = slotAt(indexes, shard, ordinal);
+            if (slot != null && slot.isAvailable()) action.accept(slot);
+        }
+    }
+
+    /**
+     * Streams the slots that satisfy a best-fit query, best first: by charged rate then
+     * location distance for {@link SlotQuery.Order#CHEAPEST}, or the other way round for
+     * {@link SlotQuery.Order#CLOSEST}. Candidates come lazily from the feature index, so
+     * taking the first few costs time in the number of feature combinations, not slots.
+     * Availability is not considered; callers check it for the window they need.
+     *
+     * @param query the requirements to satisfy
+     * @param rates what each slot actually costs per hour, for ranking and the rate ceiling
+     * @return a lazy, ordered {@link Stream} of matching slots
+     */
+    @Override
+    public Stream<ParkingSlot> findMatching(SlotQuery query, SlotRates rates) {
+        Indexes indexes = this.indexes;
+        Spliterator.OfInt ordinals = Spliterators.spliteratorUnknownSize(indexes.features.candidates(query, rates), Spliterator.ORDERED);
+        return StreamSupport.intStream(ordinals, false)
+                .mapToObj(ordinal -> slotAt(indexes, ordinal))
+                .filter(slot -> slot != null && query.matches(slot, rates))
+                .distinct(); // a slot re-indexed mid-iteration may be met twice
+    }
+
+    /**
+     * Atomically reserves a slot if it is currently available.
+     * <p>
+     * The availability check and the transition to booked happen inside a single
+     * {@link ConcurrentMap#compute} on the slot's key, which locks only that slot's hash bin,
+     * so two callers can never both reserve the same slot while reservations of
+     * different slots proceed in parallel.
+     * </p>
+     *
+     * @param slotId the identifier of the slot to reserve
+     * @return {@code true} if this call reserved the slot, {@code false} if it was
+     *         already booked or does not exist
+     */
+    @Override
+    public boolean tryReserve(String slotId) {
+        Indexes indexes = this.indexes;
+        boolean[] reserved = {false};
+        indexes.slotsById.computeIfPresent(normalize(slotId), (k, slot) -> {
+            if (slot.isAvailable()) {
+                slot.markBooked();
+                slot.setVersion(slot.getVersion() + 1);
+                indexes.occupancy.occupy(k, true);
+                republish(indexes, k, slot);
+                if (changeFeed.isActive()) changeFeed.publish(ChangeFeed.encodeSlot(slot));
+                reserved[0] = true;
+            }
+            return slot;
+        });
+        return reserved[0];
+    }
+
+    /**
+     * Atomically marks a slot as available again. Releasing an available slot changes
+     * nothing and publishes nothing.
+     *
+     * @param slotId the identifier of the slot to release
+     * @return {@code true} if the slot exists, otherwise {@code false}
+     */
+    @Override
+    public boolean release(String slotId) {
+        Indexes indexes = this.indexes;
+        return indexes.slotsById.computeIfPresent(normalize(slotId), (k, slot) -> {
+            if (slot.isAvailable()) return slot;
+            slot.markAvailable();
+            slot.setVersion(slot.getVersion() + 1);
+            indexes.occupancy.occupy(k, false);
+            republish(indexes, k, slot);
+            if (changeFeed.isActive()) changeFeed.publish(ChangeFeed.encodeSlot(slot));
+            return slot;
+        }) != null;
+    }
+
+    /**
+     * Stores a slot during repository initialization, or a replicated copy, without the
+     * per-slot console output. Existing slots with the same ID are replaced.
+     *
+     * @param slot the {@link ParkingSlot} to load
+     */
+    protected void preload(ParkingSlot slot) {
+        Indexes indexes = this.indexes;
+        indexes.slotsById.compute(normalize(slot.getId()), (k, existing) -> {
+            place(indexes, k, existing, slot);
+            return slot;
+        });
+    }
+
+    /**
+     * Stores a batch of slots during initialization, in parallel for large batches.
+     *
+     * @param slots the slots to load
+     */
+    protected void preloadAll(Collection<? extends ParkingSlot> slots) {
+        if (slots.size() < PARALLEL_LOAD_THRESHOLD) {
+            slots.forEach(this::preload);
+            return;
+        }
+        deferPublishing = true;
+        try {
+            slots.parallelStream().forEach(this::preload);
+        } finally {
+            deferPublishing = false;
+            rebuildSnapshot(indexes);
+        }
+    }
+
+    /**
+     * Returns the current immutable snapshot of every slot. Taking it is one volatile read
+     * per shard; the snapshot never changes afterwards, however long it is held.
+     *
+     * @return the latest published {@link SlotSnapshot}
+     */
+    @Override
+    public SlotSnapshot snapshot() {
+        SlotShard[] shards = indexes.shards;
+        ShardSnapshot[] published = new ShardSnapshot[shards.length];
+        for (int i = 0; i < shards.length; i++) published[i] = shards[i].published();
+        return new SlotSnapshot(published);
+    }
+
+    /**
+     * Counts the slots of a type at a location and how many of them are booked, from
+     * counters kept up to date by every change instead of a scan.
+     *
+     * @param type     the slot type, matched case-insensitively
+     * @param location the location code, matched case-insensitively
+     * @return the current {@link SlotOccupancy}
+     */
+    @Override
+    public SlotOccupancy occupancy(String type, String location) {
+        return indexes.occupancy.occupancy(type, location);
+    }
+
+    /**
+     * Lists the occupancy of every slot type at every location from the same counters, in
+     * time proportional to the number of types and locations rather than slots.
+     *
+     * @return one {@link SlotOccupancy} per type and location, ordered by location and then type
+     */
+    @Override
+    public List<SlotOccupancy> occupancy() {
+        return indexes.occupancy.all();
+    }
+
+    /**
+     * Writes every slot to {@code out} as a change record, e.g. to seed a follower before it
+     * receives the {@link ChangeFeed}.
+     */
+    void snapshot(Consumer<ByteBuffer> out) {
+        Indexes indexes = this.indexes;
+        for (ParkingSlot slot : indexes.slotsById.values()) out.accept(ChangeFeed.encodeSlot(slot).flip());
+    }
+
+    /**
+     * @return an empty repository with the same number of shards, publishing to no feed,
+     *         to load a snapshot into before {@link #adopt adopting} it
+     */
+    ConcurrentSlotRepository staging() {
+        return new ConcurrentSlotRepository(indexes.shards.length) {};
+    }
+
+    /**
+     * Replaces every slot and index with those of {@code staged}, e.g. a snapshot a follower
+     * loaded into a {@link #staging()} repository, so readers move from the old state to the
+     * new one in a single step instead of seeing an empty repository in between. The
+     * published snapshot continues this repository's sequence. Both repositories share the
+     * adopted indexes afterwards, so lookups through either see the same slots; only this
+     * one should be written to. Writers must not run concurrently.
+     *
+     * @param staged a repository created by {@link #staging()}
+     */
+    void adopt(ConcurrentSlotRepository staged) {
+        Indexes next = staged.indexes;
+        if (next.shards.length != indexes.shards.length)
+            throw new IllegalArgumentException("Cannot adopt " + next.shards.length + " shards into " + indexes.shards.length);
+        for (int i = 0; i < next.shards.length; i++) next.shards[i].continueFrom(indexes.shards[i]);
+        indexes = next;
+        log.debug("Adopted {} slots from a staged load.", next.slotsById.size());
+    }
+
+    /**
+     * Removes every slot and index entry. Intended for lifecycle cleanup.
+     */
+    protected void clear() {
+        indexes.slotsById.clear();
+        indexes.shardsById.clear();
+        for (SlotShard shard : indexes.shards) shard.clear();
+        indexes.features.clear();
+        indexes.occupancy.clear();
+    }
+
+    /**
+     * @return the number of slots currently stored
+     */
+    protected int size() {
+        return indexes.slotsById.size();
+    }
+
+    /**
+     * Indexes and publishes a slot that is being stored in place of {@code existing}, if any,
+     * in the shard of its location. A slot whose location changed is forgotten by its old
+     * shard. Runs inside a compute on the slot's key.
+     */
+    private void place(Indexes indexes, String key, ParkingSlot existing, ParkingSlot slot) {
+        place(indexes, key, existing, slot, true);
+    }
+
+    /**
+     * @param publishNow whether to publish the slot's shard now, or leave it to a caller
+     *                   that publishes a whole batch at once
+     */
+    private void place(Indexes indexes, String key, ParkingSlot existing, ParkingSlot slot, boolean publishNow) {
+        SlotShard shard = shardFor(indexes, slot);
+        SlotShard previous = indexes.shardsById.put(key, shard);
+        if (previous != null) {
+            if (existing != null) previous.unindex(key, existing);
+            if (previous != shard) {
+                int previousOrdinal = previous.ordinalOf(key);
+                indexes.features.remove(previous.global(previousOrdinal));
+                previous.forget(key);
+                publish(previous, previousOrdinal, null);
+            }
+        }
+        shard.index(key, slot);
+        int ordinal = shard.ordinalOf(key);
+        indexes.features.place(shard.global(ordinal), slot);
+        indexes.occupancy.track(key, slot);
+        if (publishNow) publish(shard, ordinal, slot);
+        if (changeFeed.isActive()) changeFeed.publish(ChangeFeed.encodeSlot(slot));
+    }
+
+    /**
+     * Re-indexes a slot whose availability changed in place and publishes its new state.
+     * Runs inside a compute on the slot's key.
+     */
+    private void republish(Indexes indexes, String key, ParkingSlot slot) {
+        SlotShard shard = indexes.shardsById.get(key);
+        shard.index(key, slot);
+        publish(shard, shard.ordinalOf(key), slot);
+    }
+
+    /**
+     * Publishes the next snapshot of a shard, with the slot's current state at a local
+     * ordinal, or that position emptied if {@code slot} is {@code null}. Runs inside a
+     * compute on the slot's key.
+     */
+    private void publish(SlotShard shard, int ordinal, ParkingSlot slot) {
+        if (deferPublishing) return;
+        shard.publish(ordinal, slot == null ? null : SlotRecord.of(slot));
+    }
+
+    /**
+     * Publishes snapshots built from scratch after a bulk load, one per shard.
+     */
+    private static void rebuildSnapshot(Indexes indexes) {
+        for (SlotShard shard : indexes.shards)
+            shard.rebuild(ordinal -> {
+                ParkingSlot slot = slotAt(indexes, shard, ordinal);
+                return slot == null ? null : SlotRecord.of(slot);
+            });
+    }
+
+    private static SlotShard shardFor(Indexes indexes, ParkingSlot slot) {
+        return indexes.shards[shardIndex(slot.getLocation(), indexes.shards.length)];
+    }
+
+    private static int parseCursor(String cursor) {
+        if (cursor == null) return 0;
+        try {
+            int ordinal = Integer.parseInt(cursor);
+            if (ordinal >= 0) return ordinal;
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid slot cursor: " + cursor);
+    }
+
+    private static ParkingSlot slotAt(Indexes indexes, int ordinal) {
+        return slotAt(indexes, indexes.shards[ordinal % indexes.shards.length], ordinal / indexes.shards.length);
+    }
+
+    private static ParkingSlot slotAt(Indexes indexes, SlotShard shard, int ordinal) {
+        String key = shard.keyAt(ordinal);
+        return key != null ? indexes.slotsById.get(key) : null;
+    }
+}
@@ -0,0 +1,13 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import java.time.LocalDate;
+
+/**
+ * The revenue of the active and completed bookings starting on one day at one location.
+ *
+ * @param date         the day the bookings start
+ * @param location     the normalized location code
+ * @param revenueMinor the sum of their amounts, in minor units
+ */
+public record DailyRevenue(LocalDate date, String location, long revenueMinor) {
+}
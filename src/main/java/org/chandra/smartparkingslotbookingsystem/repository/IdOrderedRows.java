@@ -0,0 +1,77 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Row numbers of a {@link CompactBookingStore} in ascending booking ID order, so a page after
+ * a cursor starts with a binary search instead of a scan over every row.
+ * <p>
+ * Rows are appended in the order bookings finish, not in ID order, so they are kept as sorted
+ * runs whose sizes are distinct powers of two, like the digits of a binary counter: adding a
+ * row merges the runs of equal size, which copies each row {@code O(log n)} times over its
+ * life. Rows are compared through the ID column passed to each call. Not thread-safe;
+ * callers synchronize.
+ * </p>
+ */
+final class IdOrderedRows {
+    private int[][] runs = new int[0][]; // runs[k] is null or holds 2^k rows sorted by ID
+
+    /**
+     * Adds a row, whose ID must already be in {@code ids}.
+     */
+    void add(int row, long[] ids) {
+        int[] carry = {row};
+        int level = 0;
+        for (; level < runs.length && runs[level] != null; level++) {
+            carry = merge(runs[level], carry, ids);
+            runs[level] = null;
+        }
+        if (level == runs.length) runs = Arrays.copyOf(runs, level + 1);
+        runs[level] = carry;
+    }
+
+    /**
+     * Passes the rows whose IDs are above {@code afterId} to {@code visitor} in ascending ID
+     * order, until it returns {@code false}.
+     */
+    void forEachAfter(long afterId, long[] ids, IntPredicate visitor) {
+        int[] positions = new int[runs.length];
+        for (int level = 0; level < runs.length; level++)
+            if (runs[level] != null) positions[level] = firstAbove(runs[level], afterId, ids);
+        while (true) {
+            int next = -1;
+            long nextId = 0;
+            for (int level = 0; level < runs.length; level++) {
+                int[] run = runs[level];
+                if (run == null || positions[level] == run.length) continue;
+                long id = ids[run[positions[level]]];
+                if (next < 0 || id < nextId) {
+                    next = level;
+                    nextId = id;
+                }
+            }
+            if (next < 0 || !visitor.test(runs[next][positions[next]++])) return;
+        }
+    }
+
+    private static int firstAbove(int[] run, long afterId, long[] ids) {
+        int low = 0, high = run.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[run[middle]] <= afterId) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static int[] merge(int[] left, int[] right, long[] ids) {
+        int[] merged = new int[left.length + right.length];
+        int l = 0, r = 0, m = 0;
+        while (l < left.length && r < right.length)
+            merged[m++] = ids[left[l]] <= ids[right[r]] ? left[l++] : right[r++];
+        while (l < left.length) merged[m++] = left[l++];
+        while (r < right.length) merged[m++] = right[r++];
+        return merged;
+    }
+}
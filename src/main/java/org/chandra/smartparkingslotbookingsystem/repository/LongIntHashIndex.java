@@ -0,0 +1,97 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+/**
+ * Open-addressing hash map from positive {@code long} keys to {@code int} values, stored in
+ * two primitive arrays with linear probing, so entries cost 12 bytes instead of a boxed
+ * {@code Long}, an {@code Integer} and a map node. Not thread-safe; callers synchronize.
+ */
+final class LongIntHashIndex {
+    static final int MISSING = -1;
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntHashIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * @return the value mapped to {@code key}, or {@link #MISSING}
+     */
+    int get(long key) {
+        if (key <= 0) return MISSING;
+        int mask = keys.length - 1;
+        for (int slot = slotOf(key, mask); ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == key) return values[slot];
+            if (existing == EMPTY) return MISSING;
+        }
+    }
+
+    /**
+     * Maps {@code key} (which must be positive) to {@code value}, replacing any previous value.
+     */
+    void put(long key, int value) {
+        if (key <= 0) throw new IllegalArgumentException("Key must be positive: " + key);
+        if ((size + 1) * 2 > keys.length) resize(keys.length * 2);
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (keys[slot] != EMPTY && keys[slot] != key) slot = (slot + 1) & mask;
+        if (keys[slot] == EMPTY) size++;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * Removes {@code key}, shifting later entries of its probe run back so lookups never
+     * need tombstones.
+     *
+     * @return the removed value, or {@link #MISSING}
+     */
+    int remove(long key) {
+        if (key <= 0) return MISSING;
+        int mask = keys.length - 1;
+        int slot = slotOf(key, mask);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) return MISSING;
+            slot = (slot + 1) & mask;
+        }
+        int removed = values[slot];
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slotOf(keys[next], mask);
+            // move the entry into the gap unless its home lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++)
+            if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+    }
+
+    private static int slotOf(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,139 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live slot and occupied-slot counts per type and location of a {@link ConcurrentSlotRepository}.
+ * <p>
+ * Counts are maintained incrementally as slots are stored, reserved, released and deleted,
+ * so reading one costs a map lookup and two {@link LongAdder} sums instead of a scan. Each
+ * slot remembers which count it contributes to, so a change only moves that one
+ * contribution. Every method that changes a slot's contribution must run inside the
+ * repository's compute on the slot's key.
+ * </p>
+ * <p>
+ * The two counts of a location are read one after the other, so a reader racing a
+ * reservation may see the occupied count one step ahead of or behind the total.
+ * </p>
+ */
+final class OccupancyCounters {
+    private final ConcurrentMap<String, Cell> cells = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Tally> tallies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Cell>> cellsBySpelling = new ConcurrentHashMap<>();
+
+    /**
+     * The counts of one type at one location, with its two possible contributions.
+     */
+    private static final class Cell {
+        final String type;
+        final String location;
+        final LongAdder total = new LongAdder();
+        final LongAdder occupied = new LongAdder();
+        final Tally free = new Tally(this, false);
+        final Tally taken = new Tally(this, true);
+
+        Cell(String type, String location) {
+            this.type = type;
+            this.location = location;
+        }
+
+        SlotOccupancy read() {
+            return new SlotOccupancy(type, location, total.sum(), occupied.sum());
+        }
+    }
+
+    /**
+     * What one slot contributes: one to the total of its cell and, if occupied, one to its occupied count.
+     */
+    private record Tally(Cell cell, boolean occupied) {}
+
+    /**
+     * Counts a slot that was stored, replacing whatever it contributed before, e.g. under
+     * another type or location.
+     */
+    void track(String key, ParkingSlot slot) {
+        Cell cell = cellFor(ConcurrentSlotRepository.normalize(slot.getType()), ConcurrentSlotRepository.normalize(slot.getLocation()));
+        move(key, tallies.get(key), slot.isAvailable() ? cell.free : cell.taken);
+    }
+
+    /**
+     * Recounts a slot whose availability changed in place. Its type and location are
+     * unchanged, so no normalization is needed.
+     */
+    void occupy(String key, boolean occupied) {
+        Tally previous = tallies.get(key);
+        if (previous != null) move(key, previous, occupied ? previous.cell.taken : previous.cell.free);
+    }
+
+    /**
+     * Stops counting a deleted slot.
+     */
+    void untrack(String key) {
+        Tally previous = tallies.remove(key);
+        if (previous != null) subtract(previous);
+    }
+
+    void clear() {
+        tallies.clear();
+        cells.clear();
+        cellsBySpelling.clear();
+    }
+
+    /**
+     * Reads the counts of a type at a location, remembering each spelling that matched a
+     * known combination so repeated lookups, e.g. for every booking, skip normalization.
+     *
+     * @return the counts; zero for a combination never stored
+     */
+    SlotOccupancy occupancy(String type, String location) {
+        if (type != null && location != null) {
+            ConcurrentMap<String, Cell> byLocation = cellsBySpelling.get(type);
+            Cell cell = byLocation != null ? byLocation.get(location) : null;
+            if (cell != null) return cell.read();
+        }
+        String normalizedType = ConcurrentSlotRepository.normalize(type);
+        String normalizedLocation = ConcurrentSlotRepository.normalize(location);
+        Cell cell = cells.get(cellKey(normalizedType, normalizedLocation));
+        if (cell == null) return new SlotOccupancy(normalizedType, normalizedLocation, 0, 0);
+        if (type != null && location != null)
+            cellsBySpelling.computeIfAbsent(type, t -> new ConcurrentHashMap<>()).put(location, cell);
+        return cell.read();
+    }
+
+    /**
+     * @return the counts of every type and location that ever held a slot, by location and then type
+     */
+    List<SlotOccupancy> all() {
+        return cells.values().stream()
+                .map(Cell::read)
+                .sorted(Comparator.comparing(SlotOccupancy::location).thenComparing(SlotOccupancy::type))
+                .toList();
+    }
+
+    private void move(String key, Tally previous, Tally next) {
+        if (previous == next) return;
+        tallies.put(key, next);
+        if (previous != null) subtract(previous);
+        next.cell.total.increment();
+        if (next.occupied) next.cell.occupied.increment();
+    }
+
+    private static void subtract(Tally tally) {
+        tally.cell.total.decrement();
+        if (tally.occupied) tally.cell.occupied.decrement();
+    }
+
+    private Cell cellFor(String type, String location) {
+        return cells.computeIfAbsent(cellKey(type, location), k -> new Cell(type, location));
+    }
+
+    private static String cellKey(String type, String location) {
+        return type + '@' + location;
+    }
+}
@@ -0,0 +1,17 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paged query.
+ *
+ * @param items      the items on this page, in query order
+ * @param nextCursor the cursor to pass back for the following page, or {@code null} on the last page
+ * @param <T>        the item type
+ */
+public record Page<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,88 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes the slot and booking repositories as {@link ChangeFeed} records, for
+ * replication between a leader and a follower.
+ * <p>
+ * A leader seeds a new follower with {@link #snapshot(Consumer)}: a reset followed by every
+ * slot and every booking. It then streams the live feed, which may repeat changes already
+ * in the snapshot. Every record carries the full state of one entity or is idempotent, so
+ * a follower that {@link #apply(ByteBuffer) applies} them in order converges on the
+ * leader's state.
+ * </p>
+ * <p>
+ * A reset does not empty the local repositories. The records after it load into fresh
+ * staging repositories while reads keep being served from the previous state, and
+ * {@link #finishSnapshot()} swaps the loaded state in once the snapshot is complete.
+ * A follower calls both from its one replication thread.
+ * </p>
+ *
+ * <p><strong>Profiles:</strong> leader, follower</p>
+ */
+@Component
+@Profile({"leader", "follower"})
+public class ReplicaStore {
+    private final ConcurrentSlotRepository slotRepository;
+    private final BookingRepository bookingRepository;
+    private ConcurrentSlotRepository stagedSlots;
+    private BookingRepository stagedBookings;
+
+    @Autowired
+    public ReplicaStore(ConcurrentSlotRepository slotRepository, BookingRepository bookingRepository) {
+        this.slotRepository = slotRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Writes a reset record, then the current state of every slot and booking.
+     *
+     * @param out receives each record, flipped and ready to read
+     */
+    public void snapshot(Consumer<ByteBuffer> out) {
+        out.accept(ChangeFeed.encodeReset().flip());
+        slotRepository.snapshot(out);
+        bookingRepository.snapshot(out);
+    }
+
+    /**
+     * Applies one change record to the local repositories, or to the staging ones while a
+     * snapshot is loading. Replicated booking changes are not journaled again.
+     *
+     * @throws IllegalStateException if the record type is unknown
+     */
+    public void apply(ByteBuffer change) {
+        ConcurrentSlotRepository slots = stagedSlots != null ? stagedSlots : slotRepository;
+        BookingRepository bookings = stagedBookings != null ? stagedBookings : bookingRepository;
+        switch (ChangeFeed.typeOf(change)) {
+            case BookingJournal.SAVE, BookingJournal.STATUS, BookingJournal.DELETE ->
+                    bookings.apply(BookingJournal.decode(change));
+            case ChangeFeed.SLOT_SAVE -> slots.preload(ChangeFeed.decodeSlot(change));
+            case ChangeFeed.SLOT_DELETE -> slots.findById(ChangeFeed.decodeSlotDelete(change)).ifPresent(slots::delete);
+            case ChangeFeed.RESET -> {
+                stagedSlots = slotRepository.staging();
+                stagedBookings = new BookingRepository(BookingJournal.disabled(), new ChangeFeed(), stagedSlots);
+            }
+            default -> throw new IllegalStateException("Unknown change record type " + ChangeFeed.typeOf(change));
+        }
+    }
+
+    /**
+     * Swaps the snapshot loaded since the last reset into the local repositories, in place
+     * of their previous state. Later records apply to the local repositories directly. Does
+     * nothing if no snapshot is loading.
+     */
+    public void finishSnapshot() {
+        if (stagedSlots == null) return;
+        slotRepository.adopt(stagedSlots);
+        bookingRepository.adopt(stagedBookings);
+        stagedSlots = null;
+        stagedBookings = null;
+    }
+}
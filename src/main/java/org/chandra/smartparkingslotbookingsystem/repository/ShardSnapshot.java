@@ -0,0 +1,212 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.SlotRecord;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, point-in-time view of the slots of one {@link SlotShard}, the part of a
+ * {@link SlotSnapshot} that a change to one of those slots replaces.
+ * <p>
+ * Records sit in chunks of 1024 positions, indexed by the slot's local ordinal in the
+ * shard. A change copies the array of chunks and the one chunk it touches and shares the
+ * rest with the previous snapshot; a batch of changes copies each chunk it touches once. Deleted and moved slots leave empty positions, which
+ * iteration skips.
+ * </p>
+ * <p>
+ * Alongside the records, each slot type has a bitmap of the ordinals whose slot is available,
+ * in chunks of the same 1024 positions and copied on write the same way, so the available
+ * slots of a type are found from the snapshot's own bits instead of a scan of every record.
+ * </p>
+ */
+final class ShardSnapshot {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_WORDS = CHUNK_SIZE / Long.SIZE;
+
+    static final ShardSnapshot EMPTY = new ShardSnapshot(new SlotRecord[0][], Map.of(), 0, 0);
+
+    private final SlotRecord[][] chunks;
+    private final Map<String, long[][]> availableByType; // normalized type -> chunks of availability bits, never modified
+    private final int size;
+    private final long sequence;
+
+    private ShardSnapshot(SlotRecord[][] chunks, Map<String, long[][]> availableByType, int size, long sequence) {
+        this.chunks = chunks;
+        this.availableByType = availableByType;
+        this.size = size;
+        this.sequence = sequence;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of changes published to the shard before this snapshot
+     */
+    long sequence() {
+        return sequence;
+    }
+
+    /**
+     * @return every slot, in ordinal order
+     */
+    Stream<SlotRecord> stream() {
+        return Arrays.stream(chunks).filter(Objects::nonNull).flatMap(Arrays::stream).filter(Objects::nonNull);
+    }
+
+    /**
+     * @param type the normalized slot type
+     * @return the available slots of that type, in ordinal order
+     */
+    Stream<SlotRecord> available(String type) {
+        long[][] bits = availableByType.get(type);
+        if (bits == null) return Stream.empty();
+        return IntStream.range(0, bits.length)
+                .filter(index -> bits[index] != null)
+                .flatMap(index -> BitSet.valueOf(bits[index]).stream().map(bit -> (index << CHUNK_BITS) | bit))
+                .mapToObj(this::at);
+    }
+
+    void forEach(Consumer<? super SlotRecord> action) {
+        for (SlotRecord[] chunk : chunks) {
+            if (chunk == null) continue;
+            for (SlotRecord slot : chunk) if (slot != null) action.accept(slot);
+        }
+    }
+
+    /**
+     * @return the record at a local ordinal, or {@code null} if that position is empty
+     */
+    SlotRecord at(int ordinal) {
+        int chunk = ordinal >>> CHUNK_BITS;
+        return chunk < chunks.length && chunks[chunk] != null ? chunks[chunk][ordinal & CHUNK_MASK] : null;
+    }
+
+    /**
+     * @param record the new record at {@code ordinal}, or {@code null} to empty that position
+     * @return the next snapshot, sharing every untouched chunk with this one
+     */
+    ShardSnapshot with(int ordinal, SlotRecord record) {
+        if (record == null && at(ordinal) == null) return new ShardSnapshot(chunks, availableByType, size, sequence + 1);
+        Edit edit = new Edit();
+        edit.put(ordinal, record);
+        return edit.next();
+    }
+
+    /**
+     * Applies a batch of changes as one snapshot, e.g. the slots of one import chunk, copying
+     * each touched chunk once rather than once per change.
+     *
+     * @param ordinals the local ordinals that changed; the first {@code count} are used
+     * @param recordAt the new record at each of those ordinals, or {@code null} for an empty position
+     * @return the next snapshot, sharing every untouched chunk with this one
+     */
+    ShardSnapshot withAll(int[] ordinals, int count, IntFunction<SlotRecord> recordAt) {
+        Edit edit = new Edit();
+        for (int i = 0; i < count; i++) edit.put(ordinals[i], recordAt.apply(ordinals[i]));
+        return edit.next();
+    }
+
+    /**
+     * Copy-on-write changes to this snapshot. A chunk, bitmap or map is copied the first time
+     * the edit touches it, which it tells by identity with this snapshot's own.
+     */
+    private final class Edit {
+        private SlotRecord[][] records = chunks.clone();
+        private Map<String, long[][]> bits = availableByType;
+        private int nextSize = size;
+
+        void put(int ordinal, SlotRecord record) {
+            int index = ordinal >>> CHUNK_BITS;
+            SlotRecord previous = index < records.length && records[index] != null ? records[index][ordinal & CHUNK_MASK] : null;
+            if (index >= records.length) records = Arrays.copyOf(records, index + 1);
+            if (records[index] == null) records[index] = new SlotRecord[CHUNK_SIZE];
+            else if (index < chunks.length && records[index] == chunks[index]) records[index] = records[index].clone();
+            records[index][ordinal & CHUNK_MASK] = record;
+            nextSize += (record != null ? 1 : 0) - (previous != null ? 1 : 0);
+
+            String from = availableType(previous);
+            String to = availableType(record);
+            if (Objects.equals(from, to)) return;
+            if (from != null) setBit(from, ordinal, false);
+            if (to != null) setBit(to, ordinal, true);
+        }
+
+        private void setBit(String type, int ordinal, boolean set) {
+            int index = ordinal >>> CHUNK_BITS;
+            if (bits == availableByType) bits = new HashMap<>(availableByType);
+            long[][] original = availableByType.get(type);
+            long[][] typeBits = bits.get(type);
+            if (typeBits == null) typeBits = new long[index + 1][];
+            else if (typeBits == original) typeBits = typeBits.clone();
+            if (index >= typeBits.length) typeBits = Arrays.copyOf(typeBits, index + 1);
+            if (typeBits[index] == null) typeBits[index] = new long[CHUNK_WORDS];
+            else if (original != null && index < original.length && typeBits[index] == original[index]) typeBits[index] = typeBits[index].clone();
+            int bit = ordinal & CHUNK_MASK;
+            if (set) typeBits[index][bit >>> 6] |= 1L << bit;
+            else typeBits[index][bit >>> 6] &= ~(1L << bit);
+            bits.put(type, typeBits);
+        }
+
+        ShardSnapshot next() {
+            return new ShardSnapshot(records, bits, nextSize, sequence + 1);
+        }
+    }
+
+    private static String availableType(SlotRecord record) {
+        return record != null && record.available() ? ConcurrentSlotRepository.normalize(record.type()) : null;
+    }
+
+    /**
+     * @return an empty snapshot that follows this one
+     */
+    ShardSnapshot cleared() {
+        return new ShardSnapshot(new SlotRecord[0][], Map.of(), 0, sequence + 1);
+    }
+
+    /**
+     * @return this snapshot's slots as a snapshot that follows {@code previous}, e.g. when a
+     *         separately loaded repository takes over from the one {@code previous} came from
+     */
+    ShardSnapshot following(ShardSnapshot previous) {
+        return new ShardSnapshot(chunks, availableByType, size, previous.sequence + sequence + 1);
+    }
+
+    /**
+     * Builds a snapshot in one pass, e.g. after a bulk load.
+     *
+     * @param limit    one past the highest local ordinal in use
+     * @param recordAt the record at each ordinal, or {@code null} for an empty position
+     * @param sequence the sequence of the new snapshot
+     */
+    static ShardSnapshot build(int limit, IntFunction<SlotRecord> recordAt, long sequence) {
+        int chunkCount = (limit + CHUNK_MASK) >>> CHUNK_BITS;
+        SlotRecord[][] chunks = new SlotRecord[chunkCount][];
+        Map<String, long[][]> availableByType = new HashMap<>();
+        int size = 0;
+        for (int ordinal = 0; ordinal < limit; ordinal++) {
+            SlotRecord record = recordAt.apply(ordinal);
+            if (record == null) continue;
+            int index = ordinal >>> CHUNK_BITS;
+            if (chunks[index] == null) chunks[index] = new SlotRecord[CHUNK_SIZE];
+            chunks[index][ordinal & CHUNK_MASK] = record;
+            size++;
+            if (!record.available()) continue;
+            long[][] bits = availableByType.computeIfAbsent(ConcurrentSlotRepository.normalize(record.type()), t -> new long[chunkCount][]);
+            if (bits[index] == null) bits[index] = new long[CHUNK_WORDS];
+            bits[index][(ordinal & CHUNK_MASK) >>> 6] |= 1L << ordinal;
+        }
+        return new ShardSnapshot(chunks, availableByType, size, sequence);
+    }
+}
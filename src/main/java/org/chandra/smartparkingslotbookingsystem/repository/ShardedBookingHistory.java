@@ -0,0 +1,127 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+
+/**
+ * Finished-booking history partitioned by the location code of each booking's slot.
+ * <p>
+ * Each partition is a {@link CompactBookingStore} with its own lock, so bookings finishing at
+ * different locations are archived in parallel instead of queueing on one write lock. A
+ * booking's partition is chosen from its slot's location when it is archived; bookings of
+ * slots whose location is unknown fall back to the slot ID. Lookups by booking ID alone ask
+ * each partition in turn, and scans over all partitions fan out over the common fork-join pool.
+ * </p>
+ */
+final class ShardedBookingHistory {
+    private static final Comparator<Booking> BY_ID = Comparator.comparingLong(b -> BookingId.parse(b.getBookingId()));
+
+    private final CompactBookingStore[] shards;
+    private final Function<String, String> locationOfSlot;
+
+    /**
+     * @param shardCount     the number of partitions, a power of two
+     * @param locationOfSlot resolves a slot ID to its location code, or {@code null} if unknown
+     */
+    ShardedBookingHistory(int shardCount, Function<String, String> locationOfSlot) {
+        if (shardCount <= 0 || Integer.bitCount(shardCount) != 1)
+            throw new IllegalArgumentException("Shard count must be a positive power of two: " + shardCount);
+        this.shards = new CompactBookingStore[shardCount];
+        for (int i = 0; i < shardCount; i++) shards[i] = new CompactBookingStore();
+        this.locationOfSlot = locationOfSlot;
+    }
+
+    /**
+     * Archives a booking in the partition of its slot's location, unless that partition
+     * already holds its ID.
+     *
+     * @param cell the {@link BookingAggregates} cell the booking is counted in
+     */
+    boolean add(long id, Booking booking, String phoneKey, int cell) {
+        return shardFor(booking).add(id, booking, phoneKey, cell);
+    }
+
+    /**
+     * @return the aggregate cell an archived booking is counted in, or {@code -1} if it is not archived
+     */
+    int cellOf(long id) {
+        CompactBookingStore shard = shardOf(id);
+        return shard != null ? shard.tag(id) : -1;
+    }
+
+    boolean contains(long id) {
+        return shardOf(id) != null;
+    }
+
+    Optional<Booking> find(long id) {
+        for (CompactBookingStore shard : shards) {
+            Optional<Booking> booking = shard.find(id);
+            if (booking.isPresent()) return booking;
+        }
+        return Optional.empty();
+    }
+
+    List<Booking> findByPhone(String phoneKey) {
+        List<Booking> result = new ArrayList<>();
+        for (CompactBookingStore shard : shards) result.addAll(shard.findByPhone(phoneKey));
+        return result;
+    }
+
+    List<Booking> findAll(LongPredicate exclude) {
+        return Arrays.stream(shards).parallel()
+                .map(shard -> shard.findAll(exclude))
+                .collect(ArrayList::new, List::addAll, List::addAll);
+    }
+
+    /**
+     * Merges the partitions' pages into the {@code limit} smallest matching IDs above
+     * {@code afterId}, ordered by ID.
+     */
+    List<Booking> page(long afterId, int limit, BookingFilter filter) {
+        List<Booking> merged = Arrays.stream(shards).parallel()
+                .map(shard -> shard.page(afterId, limit, filter))
+                .collect(ArrayList::new, List::addAll, List::addAll);
+        merged.sort(BY_ID);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    boolean updateStatus(long id, BookingStatus expected, BookingStatus status) {
+        CompactBookingStore shard = shardOf(id);
+        return shard != null && shard.updateStatus(id, expected, status);
+    }
+
+    boolean remove(long id) {
+        CompactBookingStore shard = shardOf(id);
+        return shard != null && shard.remove(id);
+    }
+
+    int size() {
+        int size = 0;
+        for (CompactBookingStore shard : shards) size += shard.size();
+        return size;
+    }
+
+    /**
+     * Finds the partition holding a booking with read locks only, so a status change or
+     * removal write-locks just that partition.
+     */
+    private CompactBookingStore shardOf(long id) {
+        for (CompactBookingStore shard : shards)
+            if (shard.contains(id)) return shard;
+        return null;
+    }
+
+    private CompactBookingStore shardFor(Booking booking) {
+        String location = booking.getSlotId() == null ? null : locationOfSlot.apply(booking.getSlotId());
+        return shards[ConcurrentSlotRepository.shardIndex(location != null ? location : booking.getSlotId(), shards.length)];
+    }
+}
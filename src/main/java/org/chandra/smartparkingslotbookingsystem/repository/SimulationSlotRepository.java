@@ -0,0 +1,74 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Simulation profile implementation of {@link SlotRepository}.
+ * <p>
+ * Generates an inventory of any size for traffic simulations: {@code simulation.slots}
+ * available slots spread round-robin over {@code simulation.locations} locations, of which
+ * a {@code simulation.car-share} fraction are {@link CarParkingSlot}s and the rest
+ * {@link BikeParkingSlot}s, with rates and features drawn from {@code simulation.seed}.
+ * </p>
+ *
+ * <p><strong>Profile:</strong> simulation</p>
+ */
+@Repository
+@Profile("simulation")
+public class SimulationSlotRepository extends ConcurrentSlotRepository {
+    private static final Logger log = LoggerFactory.getLogger(SimulationSlotRepository.class);
+    private final int slots;
+    private final double carShare;
+    private final int locations;
+    private final long seed;
+
+    @Autowired
+    public SimulationSlotRepository(@Value("${simulation.slots:10000}") int slots,
+                                    @Value("${simulation.car-share:0.7}") double carShare,
+                                    @Value("${simulation.locations:16}") int locations,
+                                    @Value("${simulation.seed:42}") long seed) {
+        if (slots <= 0 || locations <= 0 || carShare < 0 || carShare > 1)
+            throw new IllegalArgumentException("Invalid simulated inventory: slots=" + slots + ", locations=" + locations + ", car-share=" + carShare);
+        this.slots = slots;
+        this.carShare = carShare;
+        this.locations = locations;
+        this.seed = seed;
+    }
+
+    @PostConstruct
+    public void init() {
+        SplittableRandom random = new SplittableRandom(seed);
+        int cars = (int) Math.round(slots * carShare);
+        List<ParkingSlot> inventory = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            String location = "S" + (i % locations + 1);
+            if (i < cars)
+                inventory.add(new CarParkingSlot(String.format("C-%06d", i + 1), "Car", location,
+                        40 + 10 * random.nextInt(8), true, random.nextInt(4) == 0, 14 + random.nextInt(4)));
+            else
+                inventory.add(new BikeParkingSlot(String.format("B-%06d", i - cars + 1), "Bike", location,
+                        15 + 5 * random.nextInt(4), true, random.nextInt(4) == 0, random.nextBoolean()));
+        }
+        preloadAll(inventory);
+        log.info("Generated {} simulated slots ({} Car, {} Bike) over {} locations.", size(), cars, slots - cars, locations);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        clear();
+    }
+}
@@ -0,0 +1,170 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index of slot ordinals by feature combination and hourly rate, for best-fit allocation.
+ * <p>
+ * Slots sharing a type, charging station, helmet lock, maximum length and location form one
+ * bucket, a skip list ordered by the slots' own rates. A {@link SlotQuery} selects the
+ * eligible buckets (there are far fewer buckets than slots) and merges their heads in a
+ * priority queue by the rate each head is actually charged, from {@link SlotRates}. Within a
+ * bucket the charged rate follows the slot's own rate, so a bucket is cut at its first slot
+ * charged above the ceiling. The best candidate is found in {@code O(B log B)} for {@code B} eligible
+ * buckets, and each further one in {@code O(log B)}, independent of the inventory size.
+ * </p>
+ * <p>
+ * The features a slot was indexed under are remembered per ordinal, so slots edited in place
+ * are still removed from their old bucket. Callers serialize changes per slot.
+ * </p>
+ */
+final class SlotFeatureIndex {
+
+    private record Features(String type, boolean charging, boolean helmetLock, int maxLength, String location) {}
+
+    private record Entry(double rate, int ordinal) {}
+
+    private record Placement(Features features, Entry entry) {}
+
+    private static final Comparator<Entry> BY_RATE = Comparator.comparingDouble(Entry::rate).thenComparingInt(Entry::ordinal);
+
+    private final ConcurrentMap<Features, ConcurrentSkipListSet<Entry>> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Features>> featuresByType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Placement> placements = new ConcurrentHashMap<>();
+
+    /**
+     * Indexes or re-indexes the slot at {@code ordinal}.
+     */
+    void place(int ordinal, ParkingSlot slot) {
+        Features features = featuresOf(slot);
+        Entry entry = new Entry(slot.getHourlyRate(), ordinal);
+        Placement previous = placements.get(ordinal);
+        if (previous != null) {
+            if (previous.features().equals(features) && previous.entry().equals(entry)) return;
+            buckets.get(previous.features()).remove(previous.entry());
+        }
+        buckets.computeIfAbsent(features, key -> {
+            featuresByType.computeIfAbsent(key.type(), type -> ConcurrentHashMap.newKeySet()).add(key);
+            return new ConcurrentSkipListSet<>(BY_RATE);
+        }).add(entry);
+        placements.put(ordinal, new Placement(features, entry));
+    }
+
+    void remove(int ordinal) {
+        Placement previous = placements.remove(ordinal);
+        if (previous != null) buckets.get(previous.features()).remove(previous.entry());
+    }
+
+    void clear() {
+        placements.clear();
+        buckets.values().forEach(Set::clear);
+    }
+
+    /**
+     * Returns the ordinals of slots whose indexed features satisfy the query, best first
+     * according to {@link SlotQuery#order()} and the charged rates. The iterator is lazy and
+     * weakly consistent.
+     */
+    PrimitiveIterator.OfInt candidates(SlotQuery query, SlotRates rates) {
+        Comparator<Head> order = query.order() == SlotQuery.Order.CLOSEST
+                ? Comparator.comparingInt(Head::distance).thenComparingDouble(Head::rate).thenComparingInt(Head::ordinal)
+                : Comparator.comparingDouble(Head::rate).thenComparingInt(Head::distance).thenComparingInt(Head::ordinal);
+        PriorityQueue<Head> heads = new PriorityQueue<>(order);
+        Set<Features> types = featuresByType.get(ConcurrentSlotRepository.normalize(query.type()));
+        if (types != null) {
+            for (Features features : types) {
+                if (!eligible(features, query)) continue;
+                Head head = new Head(features, buckets.get(features).iterator(), rates, query.maxRate(), query.distanceTo(features.location()));
+                if (head.advance()) heads.add(head);
+            }
+        }
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public int nextInt() {
+                Head head = heads.poll();
+                if (head == null) throw new NoSuchElementException();
+                int ordinal = head.ordinal();
+                if (head.advance()) heads.add(head);
+                return ordinal;
+            }
+        };
+    }
+
+    private static boolean eligible(Features features, SlotQuery query) {
+        return features.maxLength() >= query.vehicleLength()
+                && (!query.needsCharging() || features.charging())
+                && (!query.needsHelmetLock() || features.helmetLock());
+    }
+
+    private static Features featuresOf(ParkingSlot slot) {
+        String type = ConcurrentSlotRepository.normalize(slot.getType());
+        String location = ConcurrentSlotRepository.normalize(slot.getLocation());
+        return switch (slot) {
+            case CarParkingSlot car -> new Features(type, car.hasChargingStation(), false, car.getMaxLength(), location);
+            case BikeParkingSlot bike -> new Features(type, bike.hasChargingStation(), bike.hasHelmetLock(), Integer.MAX_VALUE, location);
+            default -> new Features(type, false, false, 0, location);
+        };
+    }
+
+    /**
+     * Current position in one bucket during a merge, with the rate charged for it.
+     */
+    private static final class Head {
+        private final Features features;
+        private final Iterator<Entry> rest;
+        private final SlotRates rates;
+        private final double maxRate;
+        private final int distance;
+        private Entry entry;
+        private double rate;
+
+        Head(Features features, Iterator<Entry> rest, SlotRates rates, double maxRate, int distance) {
+            this.features = features;
+            this.rest = rest;
+            this.rates = rates;
+            this.maxRate = maxRate;
+            this.distance = distance;
+        }
+
+        /**
+         * Moves to the next slot of the bucket.
+         *
+         * @return {@code false} if the bucket has no further slot within the rate ceiling
+         */
+        boolean advance() {
+            if (!rest.hasNext()) return false;
+            entry = rest.next();
+            rate = rates.hourlyRate(features.type(), features.location(), entry.rate());
+            return maxRate <= 0 || rate <= maxRate;
+        }
+
+        int distance() {
+            return distance;
+        }
+
+        double rate() {
+            return rate;
+        }
+
+        int ordinal() {
+            return entry.ordinal();
+        }
+    }
+}
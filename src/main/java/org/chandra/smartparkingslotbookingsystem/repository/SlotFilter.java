@@ -0,0 +1,29 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+
+/**
+ * Criteria for paged slot queries. A {@code null} criterion matches every slot.
+ *
+ * @param type          only slots of this type, matched case-insensitively
+ * @param location      only slots at this location code, matched case-insensitively
+ * @param availableOnly only slots that are currently available
+ */
+public record SlotFilter(String type, String location, boolean availableOnly) {
+
+    private static final SlotFilter ALL = new SlotFilter(null, null, false);
+
+    public static SlotFilter all() {
+        return ALL;
+    }
+
+    public static SlotFilter ofType(String type) {
+        return new SlotFilter(type, null, false);
+    }
+
+    public boolean matches(ParkingSlot slot) {
+        return (type == null || type.trim().equalsIgnoreCase(slot.getType()))
+                && (location == null || location.trim().equalsIgnoreCase(slot.getLocation()))
+                && (!availableOnly || slot.isAvailable());
+    }
+}
@@ -0,0 +1,24 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+/**
+ * How many slots of one type at one location exist and how many of them are occupied.
+ *
+ * @param type     the normalized slot type
+ * @param location the normalized location code
+ * @param total    the number of slots
+ * @param occupied the number of slots currently booked
+ */
+public record SlotOccupancy(String type, String location, long total, long occupied) {
+
+    /**
+     * @return the occupied share in whole percent, rounded down; {@code 0} without slots
+     */
+    public int percent() {
+        return total <= 0 ? 0 : (int) Math.min(100, Math.max(0, occupied * 100 / total));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s @ %s: %d of %d occupied (%d%%)", type, location, occupied, total, percent());
+    }
+}
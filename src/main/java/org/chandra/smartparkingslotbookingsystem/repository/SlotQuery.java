@@ -0,0 +1,85 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+
+import java.util.Locale;
+
+/**
+ * Requirements for best-fit slot allocation. Zero, {@code false} and {@code null} requirements
+ * match every slot.
+ *
+ * @param type              the slot type, matched case-insensitively; required
+ * @param vehicleLength     the vehicle length in feet; car slots must allow at least this
+ * @param needsCharging     only slots with a charging station
+ * @param needsHelmetLock   only bike slots with a helmet lock
+ * @param preferredLocation the location code to park near; see {@link #distanceTo(String)}
+ * @param maxRate           the highest acceptable hourly rate, as charged (see {@link SlotRates}),
+ *                          or {@code 0} for no ceiling
+ * @param order             whether the cheapest or the closest slot is preferred
+ */
+public record SlotQuery(String type, int vehicleLength, boolean needsCharging, boolean needsHelmetLock,
+                        String preferredLocation, double maxRate, Order order) {
+
+    public enum Order {
+        /** Lowest hourly rate, as charged, first, then closest. */
+        CHEAPEST,
+        /** Closest location first, then lowest hourly rate, as charged. */
+        CLOSEST
+    }
+
+    public SlotQuery {
+        if (type == null || type.isBlank()) throw new IllegalArgumentException("Slot type is required");
+        if (vehicleLength < 0) throw new IllegalArgumentException("Vehicle length must not be negative: " + vehicleLength);
+        if (maxRate < 0) throw new IllegalArgumentException("Maximum rate must not be negative: " + maxRate);
+        if (order == null) order = Order.CHEAPEST;
+        if (preferredLocation != null && preferredLocation.isBlank()) preferredLocation = null;
+    }
+
+    public static SlotQuery cheapest(String type) {
+        return new SlotQuery(type, 0, false, false, null, 0, Order.CHEAPEST);
+    }
+
+    /**
+     * @return {@code true} if the slot's type, features, size and own hourly rate satisfy this query
+     */
+    public boolean matches(ParkingSlot slot) {
+        return matches(slot, SlotRates.LISTED);
+    }
+
+    /**
+     * @param rates what each slot actually costs per hour
+     * @return {@code true} if the slot's type, features, size and charged rate satisfy this query
+     */
+    public boolean matches(ParkingSlot slot, SlotRates rates) {
+        if (!type.trim().equalsIgnoreCase(slot.getType())) return false;
+        if (maxRate > 0 && rates.hourlyRate(ConcurrentSlotRepository.normalize(slot.getType()),
+                ConcurrentSlotRepository.normalize(slot.getLocation()), slot.getHourlyRate()) > maxRate) return false;
+        return switch (slot) {
+            case CarParkingSlot car -> car.getMaxLength() >= vehicleLength && (!needsCharging || car.hasChargingStation()) && !needsHelmetLock;
+            case BikeParkingSlot bike -> (!needsCharging || bike.hasChargingStation()) && (!needsHelmetLock || bike.hasHelmetLock());
+            default -> !needsCharging && !needsHelmetLock && vehicleLength == 0;
+        };
+    }
+
+    /**
+     * Ranks how close a location is to the preferred one: {@code 0} for the same location code
+     * (or when there is no preference), {@code 1} for the same zone, i.e. the same letters before
+     * the number as in {@code A1} and {@code A2}, and {@code 2} otherwise.
+     */
+    public int distanceTo(String location) {
+        if (preferredLocation == null) return 0;
+        String preferred = preferredLocation.trim().toUpperCase(Locale.ROOT);
+        String other = location == null ? "" : location.trim().toUpperCase(Locale.ROOT);
+        if (preferred.equals(other)) return 0;
+        String zone = zoneOf(preferred);
+        return !zone.isEmpty() && zone.equals(zoneOf(other)) ? 1 : 2;
+    }
+
+    private static String zoneOf(String location) {
+        int end = 0;
+        while (end < location.length() && Character.isLetter(location.charAt(end))) end++;
+        return location.substring(0, end);
+    }
+}
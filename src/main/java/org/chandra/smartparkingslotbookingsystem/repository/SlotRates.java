@@ -0,0 +1,30 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+
+/**
+ * What a slot actually costs per hour, by which best-fit allocation ranks candidates and
+ * applies {@link SlotQuery#maxRate()}. The booking service supplies one from its pricing
+ * for the requested window, so tariffs, time-of-day bands and surge are taken into account.
+ * <p>
+ * For a given type and location the rate must never decrease as the slot's own
+ * {@link ParkingSlot#getHourlyRate()} increases: the feature index keeps each bucket ordered
+ * by the slot's own rate and stops at the first slot above the ceiling.
+ * </p>
+ */
+@FunctionalInterface
+public interface SlotRates {
+
+    /**
+     * Every slot costs its own hourly rate.
+     */
+    SlotRates LISTED = (type, location, slotRate) -> slotRate;
+
+    /**
+     * @param type     the slot type, normalized
+     * @param location the slot location, normalized
+     * @param slotRate the slot's own hourly rate
+     * @return the hourly rate actually charged for such a slot
+     */
+    double hourlyRate(String type, String location, double slotRate);
+}
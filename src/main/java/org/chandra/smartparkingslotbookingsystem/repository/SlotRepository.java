@@ -2,8 +2,11 @@ package org.chandra.smartparkingslotbookingsystem.repository;
 
 import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Common contract for managing parking slots in the system.
@@ -11,9 +14,97 @@ import java.util.Optional;
  */
 public interface SlotRepository {
     List<ParkingSlot> findAll();
+
+    /**
+     * Retrieves one page of slots matching a filter.
+     *
+     * @param cursor the {@link Page#nextCursor()} of the previous page, or {@code null} for the first page
+     */
+    Page<ParkingSlot> findPage(SlotFilter filter, String cursor, int limit);
+
+    /**
+     * Streams the slots matching a filter page by page, without copying the inventory.
+     */
+    Stream<ParkingSlot> stream(SlotFilter filter);
+
+    /**
+     * @return an immutable, consistent view of every slot, taken without locking or copying
+     */
+    SlotSnapshot snapshot();
     Optional<ParkingSlot> findById(String slotId);
     void save(ParkingSlot slot);
+
+    /**
+     * Adds a batch of new slots, skipping any whose ID already exists.
+     *
+     * @return the number of slots added
+     */
+    int saveAll(Collection<? extends ParkingSlot> slots);
     void update(ParkingSlot slot);
+
+    /**
+     * Stores {@code slot} in place of the current slot with its ID only if that slot is
+     * still at {@code expectedVersion}, e.g. a {@link ParkingSlot#copy() copy} edited since it
+     * was read. The stored slot gets the next version.
+     *
+     * @return {@code true} if the slot was stored, {@code false} if it changed in the
+     *         meantime or does not exist
+     */
+    boolean update(ParkingSlot slot, long expectedVersion);
     void delete(ParkingSlot slot);
     List<ParkingSlot> findAvailableByType(String type);
+
+    /**
+     * @return the number of available slots of a type
+     */
+    int countAvailableByType(String type);
+
+    /**
+     * @return how many slots of a type exist at a location and how many of them are booked
+     */
+    SlotOccupancy occupancy(String type, String location);
+
+    /**
+     * @return the occupancy of every type at every location, ordered by location and then type
+     */
+    List<SlotOccupancy> occupancy();
+
+    /**
+     * @return an available slot of a type, if any is free
+     */
+    Optional<ParkingSlot> findFirstAvailableByType(String type);
+
+    /**
+     * Passes every available slot of a type to {@code action} without collecting them.
+     */
+    void forEachAvailableByType(String type, Consumer<? super ParkingSlot> action);
+
+    /**
+     * Streams the slots whose features and own rate satisfy a best-fit query, best match first,
+     * regardless of availability.
+     */
+    default Stream<ParkingSlot> findMatching(SlotQuery query) {
+        return findMatching(query, SlotRates.LISTED);
+    }
+
+    /**
+     * Streams the slots whose features and charged rate satisfy a best-fit query, best match
+     * first by that rate, regardless of availability.
+     */
+    Stream<ParkingSlot> findMatching(SlotQuery query, SlotRates rates);
+
+    /**
+     * Atomically marks a slot as booked if, and only if, it is currently available.
+     *
+     * @return {@code true} if this call reserved the slot, {@code false} if it was
+     *         already booked or does not exist
+     */
+    boolean tryReserve(String slotId);
+
+    /**
+     * Atomically marks a slot as available again.
+     *
+     * @return {@code true} if the slot exists, otherwise {@code false}
+     */
+    boolean release(String slotId);
 }
@@ -0,0 +1,67 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory repository of per-slot reservation timelines.
+ * <p>
+ * Each slot gets its own {@link SlotTimeline}, so a slot can carry any number of future
+ * bookings and overlap checks never scan the {@link BookingRepository}.
+ * Timelines of different slots lock independently.
+ * </p>
+ */
+@Repository
+public class SlotScheduleRepository {
+    private final ConcurrentMap<String, SlotTimeline> timelines = new ConcurrentHashMap<>();
+
+    @PreDestroy
+    public void shutdown() {
+        timelines.clear();
+    }
+
+    /**
+     * Reserves a time window on a slot if it does not overlap any existing reservation.
+     *
+     * @param slotId    the slot to reserve
+     * @param start     inclusive start time
+     * @param end       exclusive end time
+     * @param bookingId the booking that will hold the window
+     * @return {@code true} if the window was reserved, {@code false} on overlap
+     */
+    public boolean tryReserve(String slotId, LocalDateTime start, LocalDateTime end, String bookingId) {
+        return timeline(slotId).tryReserve(start, end, bookingId);
+    }
+
+    /**
+     * Releases the window a booking holds on a slot.
+     *
+     * @param slotId    the slot holding the window
+     * @param start     the start time of the window
+     * @param bookingId the booking that holds the window
+     * @return {@code true} if a window was released
+     */
+    public boolean release(String slotId, LocalDateTime start, String bookingId) {
+        SlotTimeline timeline = timelines.get(ConcurrentSlotRepository.normalize(slotId));
+        return timeline != null && timeline.release(start, bookingId);
+    }
+
+    /**
+     * Checks whether a time window on a slot is free of reservations.
+     */
+    public boolean isFree(String slotId, LocalDateTime start, LocalDateTime end) {
+        SlotTimeline timeline = timelines.get(ConcurrentSlotRepository.normalize(slotId));
+        return timeline == null || timeline.isFree(start, end);
+    }
+
+    /**
+     * Returns the timeline of a slot, creating an empty one on first use.
+     */
+    public SlotTimeline timeline(String slotId) {
+        return timelines.computeIfAbsent(ConcurrentSlotRepository.normalize(slotId), k -> new SlotTimeline());
+    }
+}
@@ -0,0 +1,204 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.SlotRecord;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+/**
+ * The slot indexes of one location partition of a {@link ConcurrentSlotRepository}.
+ * <p>
+ * A shard gives each of its slots a dense local ordinal and keeps, per normalized type, an
+ * {@link AvailabilityBitmap} of the ordinals that are free. Ordinal assignment and bitmap
+ * words are private to the shard, so reservations at different locations never touch the
+ * same lock, counter or cache line.
+ * </p>
+ * <p>
+ * A local ordinal {@code l} of shard {@code s} out of {@code n} is exposed as the global
+ * ordinal {@code l * n + s}, which is unique across the repository.
+ * </p>
+ * <p>
+ * Each shard also publishes the {@link ShardSnapshot} of its slots, so publishing a change
+ * only contends with changes at the same locations.
+ * </p>
+ */
+final class SlotShard {
+    private final int index;
+    private final int count;
+    private final ConcurrentMap<String, AvailabilityBitmap> availableByType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AvailabilityBitmap> availableByTypeSpelling = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile String[] keysByOrdinal = new String[16];
+    private volatile int nextOrdinal;
+    private final AtomicReference<ShardSnapshot> published = new AtomicReference<>(ShardSnapshot.EMPTY);
+
+    SlotShard(int index, int count) {
+        this.index = index;
+        this.count = count;
+    }
+
+    int index() {
+        return index;
+    }
+
+    /**
+     * @return the global ordinal of a local one
+     */
+    int global(int ordinal) {
+        return ordinal * count + index;
+    }
+
+    boolean holds(String key) {
+        return ordinals.containsKey(key);
+    }
+
+    /**
+     * Sets or clears the slot's bit in the bitmap of its type.
+     */
+    void index(String key, ParkingSlot slot) {
+        AvailabilityBitmap available = availableByType.computeIfAbsent(ConcurrentSlotRepository.normalize(slot.getType()), t -> new AvailabilityBitmap());
+        int ordinal = ordinalOf(key);
+        if (slot.isAvailable()) available.set(ordinal);
+        else available.clear(ordinal);
+    }
+
+    void unindex(String key, ParkingSlot slot) {
+        AvailabilityBitmap available = availableByType.get(ConcurrentSlotRepository.normalize(slot.getType()));
+        Integer ordinal = ordinals.get(key);
+        if (available != null && ordinal != null) available.clear(ordinal);
+    }
+
+    /**
+     * Drops a slot that moved to another shard, so scans of this shard no longer meet it.
+     */
+    void forget(String key) {
+        Integer ordinal = ordinals.remove(key);
+        if (ordinal == null) return;
+        synchronized (this) {
+            keysByOrdinal[ordinal] = null;
+        }
+    }
+
+    /**
+     * Forgets every slot and hands out ordinals from zero again, so a reload numbers its
+     * slots the way a fresh shard would.
+     */
+    synchronized void clear() {
+        availableByType.clear();
+        availableByTypeSpelling.clear();
+        ordinals.clear();
+        keysByOrdinal = new String[16];
+        nextOrdinal = 0;
+        published.updateAndGet(ShardSnapshot::cleared);
+    }
+
+    /**
+     * @return the latest snapshot of this shard's slots
+     */
+    ShardSnapshot published() {
+        return published.get();
+    }
+
+    /**
+     * Publishes the next snapshot, with {@code record} at a local ordinal, or that position
+     * emptied if it is {@code null}. Runs inside a compute on the slot's key and retries the
+     * compare-and-set if a change to another slot of the shard was published first.
+     */
+    void publish(int ordinal, SlotRecord record) {
+        ShardSnapshot current, next;
+        do {
+            current = published.get();
+            next = current.with(ordinal, record);
+        } while (!published.compareAndSet(current, next));
+    }
+
+    /**
+     * Publishes one snapshot for a batch of changes, e.g. the slots of one import chunk. The
+     * records are read from live state on each attempt, so retrying the compare-and-set after
+     * a concurrent change never publishes a record older than that change's.
+     *
+     * @param ordinals the local ordinals that changed; the first {@code count} are used
+     * @param recordAt the live record at each of those ordinals, or {@code null} for an empty position
+     */
+    void publishAll(int[] ordinals, int count, IntFunction<SlotRecord> recordAt) {
+        ShardSnapshot current, next;
+        do {
+            current = published.get();
+            next = current.withAll(ordinals, count, recordAt);
+        } while (!published.compareAndSet(current, next));
+    }
+
+    /**
+     * Publishes a snapshot built from scratch, e.g. after a bulk load, retrying if a
+     * concurrent change was published while it was being built.
+     *
+     * @param recordAt the record at each local ordinal, or {@code null} for an empty position
+     */
+    void rebuild(IntFunction<SlotRecord> recordAt) {
+        ShardSnapshot current, next;
+        do {
+            current = published.get();
+            next = ShardSnapshot.build(limit(), recordAt, current.sequence() + 1);
+        } while (!published.compareAndSet(current, next));
+    }
+
+    /**
+     * Renumbers the published snapshot to follow {@code previous}'s, when this shard of a
+     * separately loaded repository takes over from it.
+     */
+    void continueFrom(SlotShard previous) {
+        published.set(published.get().following(previous.published()));
+    }
+
+    /**
+     * Resolves the bitmap of a type, remembering each spelling that matched a known type so
+     * repeated queries such as "Car" skip normalization.
+     */
+    AvailabilityBitmap bitmapFor(String type) {
+        if (type == null) return null;
+        AvailabilityBitmap available = availableByTypeSpelling.get(type);
+        if (available != null) return available;
+        available = availableByType.get(ConcurrentSlotRepository.normalize(type));
+        if (available != null) availableByTypeSpelling.put(type, available);
+        return available;
+    }
+
+    /**
+     * @return the slot key at a local ordinal, or {@code null} past the end or for a forgotten slot
+     */
+    String keyAt(int ordinal) {
+        String[] keys = keysByOrdinal;
+        return ordinal < keys.length ? keys[ordinal] : null;
+    }
+
+    /**
+     * @return one past the highest local ordinal handed out so far
+     */
+    int limit() {
+        return nextOrdinal;
+    }
+
+    int ordinalOf(String key) {
+        Integer ordinal = ordinals.get(key);
+        return ordinal != null ? ordinal : ordinals.computeIfAbsent(key, this::assignOrdinal);
+    }
+
+    /**
+     * Gives a slot key the next ordinal. The key is stored before the grown array and the new
+     * limit are published, so readers that find the ordinal in a bitmap or below
+     * {@link #limit()} can always resolve it.
+     */
+    private synchronized int assignOrdinal(String key) {
+        int ordinal = nextOrdinal;
+        String[] keys = keysByOrdinal;
+        if (ordinal == keys.length) keys = Arrays.copyOf(keys, ordinal * 2);
+        keys[ordinal] = key;
+        keysByOrdinal = keys;
+        nextOrdinal = ordinal + 1;
+        return ordinal;
+    }
+}
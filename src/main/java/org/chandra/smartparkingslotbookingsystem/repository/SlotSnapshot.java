@@ -0,0 +1,86 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.SlotRecord;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, point-in-time view of every slot, as {@link SlotRecord}s.
+ * <p>
+ * Each {@link SlotShard} of a {@link ConcurrentSlotRepository} publishes a new
+ * {@link ShardSnapshot} of its own slots through its own atomic reference after every
+ * change, read-copy-update style, so writers at different locations never contend on a
+ * shared reference. Taking a snapshot is one volatile read per shard: readers never lock,
+ * never copy the inventory, and see the slots of each location as of the same moment
+ * however long they hold on to it. Different locations may be seen a few changes apart.
+ * </p>
+ */
+public final class SlotSnapshot implements Iterable<SlotRecord> {
+    static final SlotSnapshot EMPTY = new SlotSnapshot(new ShardSnapshot[0]);
+
+    private final ShardSnapshot[] shards;
+    private final int size;
+    private final long sequence;
+
+    /**
+     * @param shards the current snapshot of every shard, in shard order
+     */
+    SlotSnapshot(ShardSnapshot[] shards) {
+        this.shards = shards;
+        int size = 0;
+        long sequence = 0;
+        for (ShardSnapshot shard : shards) {
+            size += shard.size();
+            sequence += shard.sequence();
+        }
+        this.size = size;
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return the number of slots in this snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of changes published before this snapshot, counting a slot that
+     *         moved between locations once in each; a reader that sees the same sequence
+     *         twice has nothing new to show
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * @return every slot, in repository order
+     */
+    public Stream<SlotRecord> stream() {
+        return Arrays.stream(shards).flatMap(ShardSnapshot::stream);
+    }
+
+    /**
+     * Reads the available slots of a type from each shard's availability bitmap, so the cost
+     * follows the number of available slots of that type rather than the whole inventory.
+     *
+     * @return the available slots of a type, compared case-insensitively, in repository order
+     */
+    public Stream<SlotRecord> availableByType(String type) {
+        String wanted = ConcurrentSlotRepository.normalize(type);
+        return Arrays.stream(shards).flatMap(shard -> shard.available(wanted));
+    }
+
+    @Override
+    public void forEach(Consumer<? super SlotRecord> action) {
+        for (ShardSnapshot shard : shards) shard.forEach(action);
+    }
+
+    @Override
+    public Iterator<SlotRecord> iterator() {
+        return stream().iterator();
+    }
+}
@@ -0,0 +1,172 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Versioned, fixed-record binary snapshot of a slot inventory.
+ * <p>
+ * Layout: a 12-byte header ({@code magic:int, version:short, recordSize:short, count:int})
+ * followed by {@code count} records of {@value #RECORD_BYTES} bytes each:
+ * </p>
+ * <pre>
+ *  0  id          16 bytes, UTF-8, zero padded
+ * 16  kind         1 byte   (0 = Car, 1 = Bike)
+ * 17  flags        1 byte   (bit 0 unused, bit 1 charging, bit 2 helmet lock)
+ * 18  location     8 bytes, UTF-8, zero padded
+ * 26  hourlyRate   8 bytes  double
+ * 34  maxLength    4 bytes  int (Car only)
+ * 38  reserved     2 bytes
+ * </pre>
+ * <p>
+ * Because every record has the same size, record {@code i} sits at a known offset and the
+ * memory-mapped file is decoded in parallel without any parsing state.
+ * </p>
+ * <p>
+ * A snapshot holds the inventory, not its occupancy: slots are written and read back as
+ * available, and whoever loads one rebuilds occupancy from the active bookings, as
+ * {@code BookingServiceImpl.restoreReservations} does on startup. Bit 0 of the flags
+ * recorded availability in earlier snapshots and is ignored.
+ * </p>
+ */
+public final class SlotSnapshotFile {
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    static final int RECORD_BYTES = 40;
+    private static final int ID_BYTES = 16;
+    private static final int LOCATION_BYTES = 8;
+
+    private static final byte KIND_CAR = 0;
+    private static final byte KIND_BIKE = 1;
+    private static final int FLAG_CHARGING = 1 << 1;
+    private static final int FLAG_HELMET_LOCK = 1 << 2;
+
+    private SlotSnapshotFile() {}
+
+    /**
+     * Writes the given slots to {@code path}, replacing any existing snapshot atomically.
+     * Whether a slot is currently booked is not recorded.
+     *
+     * @param path  the snapshot file to produce
+     * @param slots the slots to store
+     * @return the number of slots written
+     * @throws IllegalArgumentException if a slot is neither a car nor a bike slot, or its
+     *                                  ID or location does not fit the fixed-width fields
+     */
+    public static int write(Path path, Collection<? extends ParkingSlot> slots) throws IOException {
+        ParkingSlot[] records = slots.toArray(new ParkingSlot[0]);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + records.length * RECORD_BYTES);
+        buffer.putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) RECORD_BYTES).putInt(records.length);
+        for (ParkingSlot slot : records) encode(buffer, slot);
+        buffer.flip();
+
+        if (path.toAbsolutePath().getParent() != null) Files.createDirectories(path.toAbsolutePath().getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return records.length;
+    }
+
+    /**
+     * Memory-maps a snapshot and decodes every record in parallel.
+     *
+     * @param path the snapshot file to read
+     * @return the decoded slots, in file order, all available
+     * @throws IOException if the file is not a snapshot or has an unsupported version
+     */
+    public static List<ParkingSlot> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException("Not a slot snapshot: " + path);
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (data.getInt(0) != MAGIC) throw new IOException("Not a slot snapshot: " + path);
+            short version = data.getShort(4);
+            if (version != FORMAT_VERSION)
+                throw new IOException("Unsupported slot snapshot version " + version + ": " + path);
+            int recordSize = data.getShort(6);
+            int count = data.getInt(8);
+            if (recordSize != RECORD_BYTES || HEADER_BYTES + (long) count * recordSize > size)
+                throw new IOException("Corrupt slot snapshot: " + path);
+
+            ParkingSlot[] slots = new ParkingSlot[count];
+            IntStream.range(0, count).parallel()
+                    .forEach(i -> slots[i] = decode(data, HEADER_BYTES + i * RECORD_BYTES));
+            return Arrays.asList(slots);
+        }
+    }
+
+    private static void encode(ByteBuffer buffer, ParkingSlot slot) {
+        int start = buffer.position();
+        putFixed(buffer, slot.getId(), ID_BYTES, "slot ID");
+        int flags = 0;
+        int maxLength = 0;
+        byte kind;
+        if (slot instanceof CarParkingSlot car) {
+            kind = KIND_CAR;
+            if (car.hasChargingStation()) flags |= FLAG_CHARGING;
+            maxLength = car.getMaxLength();
+        } else if (slot instanceof BikeParkingSlot bike) {
+            kind = KIND_BIKE;
+            if (bike.hasChargingStation()) flags |= FLAG_CHARGING;
+            if (bike.hasHelmetLock()) flags |= FLAG_HELMET_LOCK;
+        } else {
+            throw new IllegalArgumentException("Unsupported slot type for snapshot: " + slot.getClass().getSimpleName());
+        }
+        buffer.put(kind).put((byte) flags);
+        putFixed(buffer, slot.getLocation(), LOCATION_BYTES, "location");
+        buffer.putDouble(slot.getHourlyRate()).putInt(maxLength);
+        buffer.position(start + RECORD_BYTES);
+    }
+
+    private static ParkingSlot decode(ByteBuffer data, int offset) {
+        String id = getFixed(data, offset, ID_BYTES);
+        byte kind = data.get(offset + 16);
+        int flags = data.get(offset + 17);
+        String location = getFixed(data, offset + 18, LOCATION_BYTES);
+        double rate = data.getDouble(offset + 26);
+        boolean charging = (flags & FLAG_CHARGING) != 0;
+        return switch (kind) {
+            case KIND_CAR -> new CarParkingSlot(id, "Car", location, rate, true, charging, data.getInt(offset + 34));
+            case KIND_BIKE -> new BikeParkingSlot(id, "Bike", location, rate, true, charging,
+                    (flags & FLAG_HELMET_LOCK) != 0);
+            default -> throw new IllegalStateException("Unknown slot kind " + kind + " at offset " + offset);
+        };
+    }
+
+    private static void putFixed(ByteBuffer buffer, String value, int width, String field) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > width)
+            throw new IllegalArgumentException(String.format("%s '%s' is longer than %d bytes", field, value, width));
+        int start = buffer.position();
+        buffer.put(bytes);
+        buffer.position(start + width);
+    }
+
+    private static String getFixed(ByteBuffer data, int offset, int width) {
+        byte[] bytes = new byte[width];
+        data.get(offset, bytes);
+        int length = 0;
+        while (length < width && bytes[length] != 0) length++;
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
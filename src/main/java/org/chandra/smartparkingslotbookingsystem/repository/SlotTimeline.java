@@ -0,0 +1,90 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Non-overlapping reservation windows of a single parking slot, ordered by start time.
+ * <p>
+ * Windows are half-open ({@code [start, end)}), so a booking may start exactly when the
+ * previous one ends. Because stored windows never overlap, a new window can only collide
+ * with its floor or ceiling neighbour, which makes every check and insert O(log n) in the
+ * number of reservations held by this slot.
+ * </p>
+ * <p>
+ * All methods synchronize on the timeline itself, giving each slot its own lock.
+ * </p>
+ */
+public class SlotTimeline {
+    private final TreeMap<LocalDateTime, Window> windows = new TreeMap<>();
+
+    /**
+     * A reserved window on the timeline.
+     *
+     * @param start     inclusive start time
+     * @param end       exclusive end time
+     * @param bookingId the booking holding the window
+     */
+    public record Window(LocalDateTime start, LocalDateTime end, String bookingId) {}
+
+    /**
+     * Reserves {@code [start, end)} for a booking if it does not overlap any existing window.
+     *
+     * @return {@code true} if the window was reserved, {@code false} on overlap
+     */
+    public synchronized boolean tryReserve(LocalDateTime start, LocalDateTime end, String bookingId) {
+        if (!isFree(start, end)) return false;
+        windows.put(start, new Window(start, end, bookingId));
+        return true;
+    }
+
+    /**
+     * Reserves several windows under a single acquisition of this timeline's lock.
+     * Windows are tried in the given order; each one that overlaps an existing window,
+     * or a window accepted earlier in the same call, is rejected.
+     *
+     * @return for each window, whether it was reserved
+     */
+    public synchronized boolean[] tryReserveAll(List<Window> requested) {
+        boolean[] reserved = new boolean[requested.size()];
+        for (int i = 0; i < reserved.length; i++) {
+            Window window = requested.get(i);
+            if (isFree(window.start(), window.end())) {
+                windows.put(window.start(), window);
+                reserved[i] = true;
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * Releases the window starting at {@code start} if it is held by the given booking.
+     *
+     * @return {@code true} if a window was removed
+     */
+    public synchronized boolean release(LocalDateTime start, String bookingId) {
+        Window window = windows.get(start);
+        if (window == null || !window.bookingId().equalsIgnoreCase(bookingId)) return false;
+        windows.remove(start);
+        return true;
+    }
+
+    /**
+     * Checks whether {@code [start, end)} overlaps no existing window.
+     */
+    public synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Window> before = windows.floorEntry(start);
+        if (before != null && before.getValue().end().isAfter(start)) return false;
+        Map.Entry<LocalDateTime, Window> after = windows.ceilingEntry(start);
+        return after == null || !after.getKey().isBefore(end);
+    }
+
+    /**
+     * @return the number of reserved windows
+     */
+    public synchronized int size() {
+        return windows.size();
+    }
+}
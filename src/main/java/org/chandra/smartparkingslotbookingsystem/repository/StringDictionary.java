@@ -0,0 +1,47 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary encoding of repeated strings: each distinct value is stored once and referred
+ * to by a dense {@code int} code. Not thread-safe; callers synchronize.
+ */
+final class StringDictionary {
+    static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[64];
+
+    /**
+     * @return the code of {@code value}, assigning the next free code on first use,
+     *         or {@link #NULL_CODE} for {@code null}
+     */
+    int encode(String value) {
+        if (value == null) return NULL_CODE;
+        Integer code = codes.get(value);
+        if (code != null) return code;
+        int next = codes.size();
+        if (next == values.length) values = Arrays.copyOf(values, next * 2);
+        values[next] = value;
+        codes.put(value, next);
+        return next;
+    }
+
+    /**
+     * @return the code of {@code value} without assigning one, or {@link #NULL_CODE} if unknown
+     */
+    int lookup(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code == null ? NULL_CODE : code;
+    }
+
+    String decode(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    int size() {
+        return codes.size();
+    }
+}
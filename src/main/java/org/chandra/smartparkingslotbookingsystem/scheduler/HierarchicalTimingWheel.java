@@ -0,0 +1,208 @@
+package org.chandra.smartparkingslotbookingsystem.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hierarchical timing wheel holding any number of one-shot timers with O(1) insert and cancel.
+ * <p>
+ * Time advances in ticks of {@code tickMillis}. There are {@value #LEVELS} wheels of
+ * {@value #WHEEL_SIZE} buckets; a bucket of level {@code n} spans {@code 64^n} ticks, so
+ * with one-second ticks the wheels reach about 34 years ahead. A timer is placed on the
+ * lowest level whose range covers its deadline. When a lower wheel wraps around, the
+ * matching bucket of the next level is cascaded down, and timers in level-0 buckets expire
+ * when their tick is reached. Buckets are intrusive doubly-linked lists, so a timer costs
+ * one small object and needs no per-timer tree or heap node.
+ * </p>
+ * <p>
+ * {@link #schedule} and {@link Timeout#cancel()} may be called from any thread: they only
+ * enqueue onto lock-free queues. The buckets are touched solely by the single thread that
+ * calls {@link #advance}, which first applies the queued inserts and cancellations.
+ * </p>
+ */
+public final class HierarchicalTimingWheel {
+    static final int WHEEL_BITS = 6;
+    static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    static final int LEVELS = 5;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final long MAX_DELTA = 1L << (WHEEL_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final Bucket[][] wheels = new Bucket[LEVELS][WHEEL_SIZE];
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final LongAdder pending = new LongAdder();
+    private long currentTick;
+
+    /**
+     * @param tickMillis  the resolution of the wheel
+     * @param startMillis the current time, in epoch milliseconds
+     */
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (Bucket[] wheel : wheels)
+            for (int i = 0; i < WHEEL_SIZE; i++) wheel[i] = new Bucket();
+    }
+
+    /**
+     * Schedules {@code task} to run once the wheel has advanced past {@code deadlineMillis}.
+     * Deadlines in the past expire on the next advance.
+     *
+     * @param deadlineMillis the deadline, in epoch milliseconds
+     * @param task           the task to run
+     * @return a handle that can cancel the timer
+     */
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        Timeout timeout = new Timeout(this, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), task);
+        pending.increment();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel to {@code nowMillis}, handing every expired task to {@code executor}.
+     * Must only be called by one thread at a time.
+     *
+     * @return the number of tasks that expired
+     */
+    public int advance(long nowMillis, Executor executor) {
+        for (Timeout timeout; (timeout = cancelled.poll()) != null; ) {
+            if (timeout.bucket != null) timeout.bucket.remove(timeout);
+        }
+        for (Timeout timeout; (timeout = scheduled.poll()) != null; ) {
+            if (timeout.state == Timeout.PENDING) place(timeout);
+        }
+        int expired = 0;
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick <= targetTick) {
+            cascade(currentTick);
+            Bucket bucket = wheels[0][(int) (currentTick & WHEEL_MASK)];
+            for (Timeout timeout = bucket.clear(); timeout != null; ) {
+                Timeout next = timeout.next;
+                timeout.next = timeout.prev = null;
+                timeout.bucket = null;
+                if (timeout.deadlineTick > currentTick) {
+                    place(timeout); // only timers clamped beyond the top wheel get here early
+                } else if (Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+                    pending.decrement();
+                    executor.execute(timeout.task);
+                    expired++;
+                }
+                timeout = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    /**
+     * @return the number of timers that are neither expired nor cancelled
+     */
+    public long pendingTimers() {
+        return pending.sum();
+    }
+
+    private void cascade(long tick) {
+        for (int level = 1; level < LEVELS; level++) {
+            if (((tick >>> (WHEEL_BITS * (level - 1))) & WHEEL_MASK) != 0) return;
+            Bucket bucket = wheels[level][(int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK)];
+            for (Timeout timeout = bucket.clear(); timeout != null; ) {
+                Timeout next = timeout.next;
+                timeout.next = timeout.prev = null;
+                timeout.bucket = null;
+                if (timeout.state == Timeout.PENDING) place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        long expires = delta < 0 ? currentTick : delta >= MAX_DELTA ? currentTick + MAX_DELTA - 1 : timeout.deadlineTick;
+        delta = expires - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) level++;
+        wheels[level][(int) ((expires >>> (WHEEL_BITS * level)) & WHEEL_MASK)].add(timeout);
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HierarchicalTimingWheel wheel;
+        private final long deadlineTick;
+        private final Runnable task;
+        private volatile int state;
+        private Timeout prev;
+        private Timeout next;
+        private Bucket bucket;
+
+        private Timeout(HierarchicalTimingWheel wheel, long deadlineTick, Runnable task) {
+            this.wheel = wheel;
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        /**
+         * Cancels the timer if it has not expired yet.
+         *
+         * @return {@code true} if this call cancelled the timer
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) return false;
+            wheel.pending.decrement();
+            wheel.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            if (tail == null) head = timeout;
+            else tail.next = timeout;
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev == null) head = timeout.next;
+            else timeout.prev.next = timeout.next;
+            if (timeout.next == null) tail = timeout.prev;
+            else timeout.next.prev = timeout.prev;
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /**
+         * Empties the bucket and returns its former first timer; the chain stays linked.
+         */
+        Timeout clear() {
+            Timeout first = head;
+            head = tail = null;
+            return first;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.chandra.smartparkingslotbookingsystem.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs one-shot tasks at wall-clock times, backed by a {@link HierarchicalTimingWheel}.
+ * <p>
+ * A daemon thread advances the wheel once per tick; it is started by the first
+ * {@link #schedule} call. Expired tasks run on virtual threads, so a task that waits
+ * on the booking journal does not hold back the wheel or the other tasks due in the
+ * same tick.
+ * </p>
+ */
+@Component
+public class TimerScheduler {
+    private static final Logger log = LoggerFactory.getLogger(TimerScheduler.class);
+
+    private final long tickMillis;
+    private final HierarchicalTimingWheel wheel;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread ticker;
+    private volatile boolean running;
+
+    /**
+     * Creates a scheduler with one-second ticks, e.g. for benchmarks.
+     */
+    public TimerScheduler() {
+        this(1000);
+    }
+
+    @Autowired
+    public TimerScheduler(@Value("${booking.timer.tick-millis:1000}") long tickMillis) {
+        this.tickMillis = tickMillis;
+        this.wheel = new HierarchicalTimingWheel(tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Schedules {@code task} to run at {@code time} in the system time zone; times in the
+     * past run on the next tick.
+     *
+     * @return a handle that can cancel the task
+     */
+    public HierarchicalTimingWheel.Timeout schedule(LocalDateTime time, Runnable task) {
+        start();
+        return wheel.schedule(time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Scheduled task failed", e);
+            }
+        });
+    }
+
+    /**
+     * @return the number of tasks waiting to run
+     */
+    public long pendingTimers() {
+        return wheel.pendingTimers();
+    }
+
+    /**
+     * Stops the ticker; pending tasks are dropped and running ones may finish.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (!running) return;
+        running = false;
+        ticker.interrupt();
+        try {
+            ticker.join();
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void start() {
+        if (running) return;
+        synchronized (this) {
+            if (running || executor.isShutdown()) return;
+            running = true;
+            ticker = new Thread(this::tickLoop, "booking-timer");
+            ticker.setDaemon(true);
+            ticker.start();
+        }
+    }
+
+    private void tickLoop() {
+        while (running) {
+            long now = System.currentTimeMillis();
+            wheel.advance(now, executor);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(tickMillis - now % tickMillis));
+            if (Thread.interrupted() && !running) return;
+        }
+    }
+}
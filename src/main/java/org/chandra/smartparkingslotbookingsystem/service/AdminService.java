@@ -1,9 +1,17 @@
 package org.chandra.smartparkingslotbookingsystem.service;
 
+import org.chandra.smartparkingslotbookingsystem.metrics.OperationSnapshot;
 import org.chandra.smartparkingslotbookingsystem.model.Booking;
 import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingFilter;
+import org.chandra.smartparkingslotbookingsystem.repository.Page;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotFilter;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotSnapshot;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service interface defining administrative operations for managing
@@ -11,9 +19,20 @@ import java.util.List;
  */
 public interface AdminService {
     List<ParkingSlot> getAllSlots();
+    Page<ParkingSlot> getSlots(SlotFilter filter, String cursor, int limit);
+    SlotSnapshot getSlotSnapshot();
+    Optional<ParkingSlot> getSlotById(String slotId);
     void createSlot(ParkingSlot parkingSlot);
     void updateSlot(ParkingSlot parkingSlot);
+    boolean updateSlot(ParkingSlot parkingSlot, long expectedVersion);
+    Optional<ParkingSlot> editSlot(String slotId, Consumer<ParkingSlot> edit);
     void deleteSlot(ParkingSlot parkingSlot);
     List<Booking> getAllBookings();
+    Page<Booking> getBookings(BookingFilter filter, String cursor, int limit);
+    Stream<Booking> streamBookings(BookingFilter filter);
     void cancelBookingAsAdmin(String bookingId);
+    int exportSlotSnapshot(String path);
+    SlotImportResult importSlots(String path);
+    List<OperationSnapshot> getServiceMetrics();
+    UtilizationReport getUtilizationReport();
 }
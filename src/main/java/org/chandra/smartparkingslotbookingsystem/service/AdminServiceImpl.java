@@ -1,14 +1,37 @@
 package org.chandra.smartparkingslotbookingsystem.service;
 
+import org.chandra.smartparkingslotbookingsystem.metrics.OperationSnapshot;
+import org.chandra.smartparkingslotbookingsystem.metrics.ServiceMetrics;
 import org.chandra.smartparkingslotbookingsystem.model.Booking;
-import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
 import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.SlotRecord;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingFilter;
 import org.chandra.smartparkingslotbookingsystem.repository.BookingRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.Page;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotFilter;
 import org.chandra.smartparkingslotbookingsystem.repository.SlotRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotSnapshot;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotSnapshotFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementation of {@link AdminService} providing system-level management
@@ -16,13 +39,22 @@ import java.util.List;
  */
 @Service
 public class AdminServiceImpl implements AdminService{
+    private static final Logger log = LoggerFactory.getLogger(AdminServiceImpl.class);
+    private static final int IMPORT_CHUNK_LINES = 4096;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
     private final SlotRepository slotRepository;
     private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final ServiceMetrics serviceMetrics;
 
     @Autowired
-    public AdminServiceImpl(SlotRepository slotRepository, BookingRepository bookingRepository) {
+    public AdminServiceImpl(SlotRepository slotRepository, BookingRepository bookingRepository, BookingService bookingService,
+                            ServiceMetrics serviceMetrics) {
         this.slotRepository = slotRepository;
         this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.serviceMetrics = serviceMetrics;
     }
 
     /**
@@ -34,6 +66,37 @@ public class AdminServiceImpl implements AdminService{
         return slotRepository.findAll();
     }
 
+    /**
+     * Method to retrieve a parking slot by its id from the repository's index
+     * @param slotId unique identifier of the slot, matched case-insensitively
+     * @return a {@link Optional} {@link ParkingSlot}
+     */
+    @Override
+    public Optional<ParkingSlot> getSlotById(String slotId) {
+        return slotRepository.findById(slotId);
+    }
+
+    /**
+     * Method to retrieve one page of parking slots matching a filter
+     * @param filter the criteria the slots must match
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the maximum number of slots on the page
+     * @return a {@link Page} of {@link ParkingSlot}
+     */
+    @Override
+    public Page<ParkingSlot> getSlots(SlotFilter filter, String cursor, int limit) {
+        return slotRepository.findPage(filter, cursor, limit);
+    }
+
+    /**
+     * Method to retrieve the latest immutable snapshot of every parking slot, without locking or copying
+     * @return the current {@link SlotSnapshot}
+     */
+    @Override
+    public SlotSnapshot getSlotSnapshot() {
+        return slotRepository.snapshot();
+    }
+
     /**
      * Method to create a new {@link ParkingSlot} as an Admin
      * @param slot the new {@link ParkingSlot} that is to be created
@@ -41,7 +104,7 @@ public class AdminServiceImpl implements AdminService{
     @Override
     public void createSlot(ParkingSlot slot) {
         slotRepository.save(slot);
-        System.out.printf("Admin added new slot: %s%n", slot);
+        log.info("Admin added new slot: {}", slot);
     }
 
     /**
@@ -51,7 +114,49 @@ public class AdminServiceImpl implements AdminService{
     @Override
     public void updateSlot(ParkingSlot slot) {
         slotRepository.update(slot);
-        System.out.printf("Admin updated slot: %s%n", slot);
+        log.info("Admin updated slot: {}", slot);
+    }
+
+    /**
+     * Method to update a {@link ParkingSlot} as an Admin only if nobody changed it since it was read
+     * @param slot the edited {@link ParkingSlot}, typically a copy of the stored one
+     * @param expectedVersion the version of the slot the edit was based on
+     * @return {@code true} if the slot was updated, {@code false} if it changed meanwhile or no longer exists
+     */
+    @Override
+    public boolean updateSlot(ParkingSlot slot, long expectedVersion) {
+        boolean updated = slotRepository.update(slot, expectedVersion);
+        if (updated) log.info("Admin updated slot: {}", slot);
+        else log.warn("Slot {} changed since version {} — admin update refused.", slot.getId(), expectedVersion);
+        return updated;
+    }
+
+    /**
+     * Method to apply an edit to a {@link ParkingSlot} as an Admin without overwriting concurrent changes.
+     * The edit is applied to a copy of the current slot and written back conditionally; if a booking or
+     * another admin changed the slot in between, the edit is re-applied to the fresh slot and retried.
+     * @param slotId the identifier of the slot to edit
+     * @param edit the change to make, which may run more than once
+     * @return the updated {@link ParkingSlot}, or empty if the slot does not exist
+     */
+    @Override
+    public Optional<ParkingSlot> editSlot(String slotId, Consumer<ParkingSlot> edit) {
+        for (int attempt = 1; ; attempt++) {
+            Optional<ParkingSlot> current = slotRepository.findById(slotId);
+            if (current.isEmpty()) {
+                log.warn("Slot {} not found — edit skipped.", slotId);
+                return Optional.empty();
+            }
+            ParkingSlot slot = current.get();
+            long version = slot.getVersion();
+            ParkingSlot edited = slot.copy();
+            edit.accept(edited);
+            if (slotRepository.update(edited, version)) {
+                log.info("Admin updated slot: {}", edited);
+                return Optional.of(edited);
+            }
+            log.debug("Slot {} changed during admin edit (attempt {}), retrying.", slotId, attempt);
+        }
     }
 
     /**
@@ -61,7 +166,7 @@ public class AdminServiceImpl implements AdminService{
     @Override
     public void deleteSlot(ParkingSlot slot) {
         slotRepository.delete(slot);
-        System.out.printf("Admin deleted slot: %s%n", slot);
+        log.info("Admin deleted slot: {}", slot);
     }
 
     /**
@@ -74,18 +179,130 @@ public class AdminServiceImpl implements AdminService{
     }
 
     /**
-     * Method to cancel an existing {@link Booking} if exists, lse cancellation skipped
+     * Method to retrieve one page of bookings matching a filter, ordered by booking ID
+     * @param filter the criteria the bookings must match
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the maximum number of bookings on the page
+     * @return a {@link Page} of {@link Booking}
+     */
+    @Override
+    public Page<Booking> getBookings(BookingFilter filter, String cursor, int limit) {
+        return bookingRepository.findPage(filter, cursor, limit);
+    }
+
+    /**
+     * Method to stream every booking matching a filter without copying the whole repository
+     * @param filter the criteria the bookings must match
+     * @return a lazy {@link Stream} of {@link Booking}
+     */
+    @Override
+    public Stream<Booking> streamBookings(BookingFilter filter) {
+        return bookingRepository.stream(filter);
+    }
+
+    /**
+     * Method to cancel an existing {@link Booking} if exists, lse cancellation skipped.
+     * Goes through {@link BookingService#cancelBooking}, so an active booking releases its window and slot and drops its timer
      * @param bookingId the unique identifier of the {@link Booking} to be cancelled
      */
     @Override
     public void cancelBookingAsAdmin(String bookingId) {
-        bookingRepository.findById(bookingId).ifPresentOrElse(booking -> {
-            if (booking.getStatus() == BookingStatus.CANCELLED) {
-                System.out.printf("Booking %s already cancelled.%n", bookingId);
-                return;
+        log.info("Admin forcibly cancelling booking {}.", bookingId);
+        bookingService.cancelBooking(bookingId);
+    }
+
+    /**
+     * Method to write the slot inventory, as of one published snapshot, to a binary snapshot file
+     * that the prod repository can load on startup
+     * @param path the snapshot file to produce
+     * @return the number of slots written, or -1 if the snapshot could not be written
+     */
+    @Override
+    public int exportSlotSnapshot(String path) {
+        try {
+            int written = SlotSnapshotFile.write(Path.of(path), slotRepository.snapshot().stream().map(SlotRecord::toSlot).toList());
+            log.info("Admin exported {} slots to snapshot {}.", written, path);
+            return written;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Slot snapshot {} could not be written: {}", path, e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Method to bulk-import slots from a CSV or NDJSON file (chosen by the {@code .ndjson}/{@code .jsonl}
+     * extension). Lines are streamed through a buffered reader, parsed and validated in parallel chunks,
+     * and inserted into the repository one chunk at a time
+     * @param path the file to import
+     * @return a {@link SlotImportResult} summarising imported, duplicate and rejected rows
+     */
+    @Override
+    public SlotImportResult importSlots(String path) {
+        long started = System.nanoTime();
+        String lowerPath = path.toLowerCase(Locale.ROOT);
+        SlotImportParser parser = new SlotImportParser(lowerPath.endsWith(".ndjson") || lowerPath.endsWith(".jsonl"));
+        int maxInFlight = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+        Deque<CompletableFuture<SlotImportParser.Chunk>> inFlight = new ArrayDeque<>();
+        int[] totals = new int[3]; // imported, duplicates, rejected
+        List<String> errors = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+            List<String> lines = new ArrayList<>(IMPORT_CHUNK_LINES);
+            long lineNumber = 0;
+            long chunkStart = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                lineNumber++;
+                if (lines.size() == IMPORT_CHUNK_LINES) {
+                    inFlight.add(parseAsync(parser, lines, chunkStart));
+                    lines = new ArrayList<>(IMPORT_CHUNK_LINES);
+                    chunkStart = lineNumber + 1;
+                    if (inFlight.size() >= maxInFlight) storeChunk(inFlight.poll().join(), totals, errors);
+                }
             }
-            bookingRepository.updateStatus(bookingId, BookingStatus.CANCELLED);
-            System.out.printf("Admin forcibly cancelled booking %s.%n", bookingId);
-        }, () -> System.out.printf("Booking %s not found — cannot cancel.%n", bookingId));
+            if (!lines.isEmpty()) inFlight.add(parseAsync(parser, lines, chunkStart));
+            while (!inFlight.isEmpty()) storeChunk(inFlight.poll().join(), totals, errors);
+        } catch (IOException e) {
+            log.warn("Slot import from {} failed: {}", path, e.getMessage());
+            errors.add("I/O error: " + e.getMessage());
+        }
+
+        SlotImportResult result = new SlotImportResult(totals[0], totals[1], totals[2],
+                errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS)),
+                (System.nanoTime() - started) / 1_000_000);
+        log.info("Admin imported slots from {} — {}", path, result);
+        return result;
+    }
+
+    /**
+     * Method to retrieve latency and outcome metrics of every service operation called so far
+     * @return a new {@link List} of {@link OperationSnapshot}, ordered by service and operation
+     */
+    @Override
+    public List<OperationSnapshot> getServiceMetrics() {
+        return serviceMetrics.snapshot();
+    }
+
+    /**
+     * Method to report occupancy, bookings, revenue and dwell time per location and slot type, and revenue per day.
+     * Every figure comes from counters updated on each booking and slot change, so the report does not scan the bookings
+     * @return a new {@link UtilizationReport}
+     */
+    @Override
+    public UtilizationReport getUtilizationReport() {
+        return UtilizationReport.of(slotRepository.occupancy(), bookingRepository.bookingTotals(), bookingRepository.dailyRevenue());
+    }
+
+    private static CompletableFuture<SlotImportParser.Chunk> parseAsync(SlotImportParser parser, List<String> lines, long firstLine) {
+        return CompletableFuture.supplyAsync(() -> parser.parse(lines, firstLine));
+    }
+
+    private void storeChunk(SlotImportParser.Chunk chunk, int[] totals, List<String> errors) {
+        int added = slotRepository.saveAll(chunk.slots());
+        totals[0] += added;
+        totals[1] += chunk.slots().size() - added;
+        totals[2] += chunk.errors().size();
+        if (errors.size() < MAX_REPORTED_ERRORS) errors.addAll(chunk.errors());
     }
 }
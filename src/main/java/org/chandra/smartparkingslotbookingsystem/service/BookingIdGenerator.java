@@ -0,0 +1,26 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+
+/**
+ * Strategy for assigning booking IDs.
+ * <p>
+ * Implementations must return unique, positive IDs that increase over time, and must be
+ * safe to call from many threads. Declare another bean of this type as {@code @Primary}
+ * to replace the default {@link TimeBasedBookingIdGenerator}.
+ * </p>
+ */
+public interface BookingIdGenerator {
+
+    /**
+     * @return a new unique, positive booking ID
+     */
+    long nextId();
+
+    /**
+     * @return a new booking ID in its text form, see {@link BookingId#format(long)}
+     */
+    default String nextBookingId() {
+        return BookingId.format(nextId());
+    }
+}
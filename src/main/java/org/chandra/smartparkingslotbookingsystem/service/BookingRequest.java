@@ -0,0 +1,9 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single booking request inside a batch submitted to {@link BookingService#createBookings}.
+ */
+public record BookingRequest(String userName, String userEmail, String userPhone, String vehicleNumber,
+                             String slotId, LocalDateTime startTime, LocalDateTime endTime) {}
@@ -0,0 +1,28 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+
+/**
+ * Per-request outcome of a batch or auto-assigned booking.
+ *
+ * @param request the original request
+ * @param outcome what happened to it
+ * @param booking the created booking, or {@code null} unless {@code outcome} is {@link Outcome#CREATED}
+ */
+public record BookingResult(BookingRequest request, Outcome outcome, Booking booking) {
+
+    public enum Outcome {
+        CREATED,
+        SLOT_NOT_FOUND,
+        INVALID_WINDOW,
+        /** Overlaps an existing booking or an earlier request in the same batch. */
+        CONFLICT,
+        SLOT_OCCUPIED,
+        /** Auto-assignment found no matching slot free for the window. */
+        NO_SLOT_AVAILABLE
+    }
+
+    public boolean isCreated() {
+        return outcome == Outcome.CREATED;
+    }
+}
@@ -1,10 +1,16 @@
 package org.chandra.smartparkingslotbookingsystem.service;
 
 import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.pricing.Quote;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingFilter;
+import org.chandra.smartparkingslotbookingsystem.repository.Page;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotQuery;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Service interface for managing parking bookings in a login-free environment.
@@ -15,7 +21,27 @@ public interface BookingService {
                           String vehicleNumber, String slotId,
                           LocalDateTime startTime, LocalDateTime endTime);
 
+    List<BookingResult> createBookings(List<BookingRequest> requests);
+
+    /**
+     * Books the best free slot matching {@code query} for the window, reserving it atomically.
+     */
+    BookingResult autoAssignBooking(String userName, String userEmail, String userPhone, String vehicleNumber,
+                                    SlotQuery query, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * Finds the best slot matching {@code query} that is free for the window, without reserving it.
+     */
+    Optional<ParkingSlot> findBestSlot(SlotQuery query, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * Prices a stay in a slot with the current tariffs and occupancy, without booking it.
+     */
+    Optional<Quote> quote(String slotId, LocalDateTime startTime, LocalDateTime endTime);
+
     List<Booking> getAllBookings();
+    Page<Booking> getBookings(BookingFilter filter, String cursor, int limit);
+    Stream<Booking> streamBookings(BookingFilter filter);
     List<Booking> getBookingsByUserPhone(String userPhone);
     Optional<Booking> getBookingById(String bookingId);
     void cancelBooking(String bookingId);
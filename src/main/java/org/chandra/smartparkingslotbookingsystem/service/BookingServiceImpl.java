@@ -1,32 +1,110 @@
 package org.chandra.smartparkingslotbookingsystem.service;
 
+import jakarta.annotation.PostConstruct;
+import org.chandra.smartparkingslotbookingsystem.metrics.ServiceMetrics;
 import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
 import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
 import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.pricing.PricingEngine;
+import org.chandra.smartparkingslotbookingsystem.pricing.Quote;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingFilter;
 import org.chandra.smartparkingslotbookingsystem.repository.BookingRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.ConcurrentSlotRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.Page;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotQuery;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotRates;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotScheduleRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotTimeline;
+import org.chandra.smartparkingslotbookingsystem.scheduler.HierarchicalTimingWheel;
+import org.chandra.smartparkingslotbookingsystem.scheduler.TimerScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
 
 /**
  * Implementation of {@link BookingService} responsible for managing bookings
  * in a login-free system. Captures user contact and vehicle details per booking.
+ * <p>
+ * Every active booking holds one timer: a future booking's timer fires at its start time to
+ * occupy the slot and is then re-armed for the end time, where the booking is completed and
+ * the slot released. Cancelling or completing a booking drops its timer. A status change the
+ * journal fails to record leaves the booking as it was, timer and reservation included; an
+ * end-time completion that fails is retried after {@link #COMPLETION_RETRY}.
+ * </p>
+ * <p>
+ * Amounts come from the {@link PricingEngine}, priced with the occupancy of the slot's type
+ * at its location as it was before the booking reserved anything.
+ * </p>
  */
 @Service
 public class BookingServiceImpl implements BookingService {
+    private static final Logger log = LoggerFactory.getLogger(BookingServiceImpl.class);
+    private static final String SERVICE = BookingService.class.getSimpleName();
+    private static final Duration COMPLETION_RETRY = Duration.ofSeconds(30);
 
     private final BookingRepository bookingRepository;
     private final SlotService slotService;
+    private final SlotScheduleRepository scheduleRepository;
+    private final BookingIdGenerator idGenerator;
+    private final ServiceMetrics metrics;
+    private final TimerScheduler scheduler;
+    private final PricingEngine pricing;
+    private final ConcurrentMap<Long, HierarchicalTimingWheel.Timeout> timers = new ConcurrentHashMap<>();
+
+    public BookingServiceImpl(BookingRepository bookingRepository, SlotService slotService, SlotScheduleRepository scheduleRepository) {
+        this(bookingRepository, slotService, scheduleRepository, new TimeBasedBookingIdGenerator(), new ServiceMetrics(), new TimerScheduler(),
+                new PricingEngine());
+    }
 
     @Autowired
-    public BookingServiceImpl(BookingRepository bookingRepository, SlotService slotService) {
+    public BookingServiceImpl(BookingRepository bookingRepository, SlotService slotService, SlotScheduleRepository scheduleRepository,
+                              BookingIdGenerator idGenerator, ServiceMetrics metrics, TimerScheduler scheduler,
+                              PricingEngine pricing) {
         this.bookingRepository = bookingRepository;
         this.slotService = slotService;
+        this.scheduleRepository = scheduleRepository;
+        this.idGenerator = idGenerator;
+        this.metrics = metrics;
+        this.scheduler = scheduler;
+        this.pricing = pricing;
+    }
+
+    /**
+     * Rebuilds slot timelines and occupancy from the active bookings restored by the repository,
+     * so reservations made before a restart keep blocking their windows, and re-arms their
+     * timers. Bookings that ended while the application was down are completed on the next tick.
+     */
+    @PostConstruct
+    public void restoreReservations() {
+        LocalDateTime now = LocalDateTime.now();
+        int restored = 0;
+        for (Booking booking : bookingRepository.findActive()) {
+            scheduleRepository.tryReserve(booking.getSlotId(), booking.getStartTime(), booking.getEndTime(), booking.getBookingId());
+            if (isInProgress(booking.getStartTime(), booking.getEndTime(), now))
+                slotService.reserveSlot(booking.getSlotId());
+            armTimer(booking, now);
+            restored++;
+        }
+        if (restored > 0)
+            log.info("Restored {} active booking reservations.", restored);
     }
 
     /**
@@ -45,29 +123,199 @@ public class BookingServiceImpl implements BookingService {
 
         Optional<ParkingSlot> optionalSlot = slotService.getSlotById(slotId);
         if (optionalSlot.isEmpty()) {
-            System.out.printf("Slot %s not found — booking cannot be created.%n", slotId);
+            log.warn("Slot {} not found — booking cannot be created.", slotId);
+            countOutcome("createBooking", BookingResult.Outcome.SLOT_NOT_FOUND);
             return null;
         }
         ParkingSlot slot = optionalSlot.get();
-        if (!slot.isAvailable()) {
-            System.out.printf("Slot %s is already booked — choose another slot.%n", slotId);
+        if (startTime == null || endTime == null || !endTime.isAfter(startTime)) {
+            log.warn("Booking for Slot {} must end after it starts — booking cannot be created.", slotId);
+            countOutcome("createBooking", BookingResult.Outcome.INVALID_WINDOW);
+            return null;
+        }
+        Quote quote = price(slot, startTime, endTime);
+        String bookingId = idGenerator.nextBookingId();
+        LocalDateTime now = LocalDateTime.now();
+        BookingResult.Outcome outcome = reserve(slot.getId(), startTime, endTime, bookingId, now);
+        if (outcome == BookingResult.Outcome.CONFLICT) {
+            log.info("Slot {} is already booked between {} and {} — choose another slot or time.", slotId, startTime, endTime);
+            countOutcome("createBooking", outcome);
+            return null;
+        }
+        if (outcome == BookingResult.Outcome.SLOT_OCCUPIED) {
+            log.info("Slot {} is currently occupied — choose another slot.", slotId);
+            countOutcome("createBooking", outcome);
             return null;
         }
-        // Calculate duration (round up)
-        long hours = Math.max(1, (long) Math.ceil(Duration.between(startTime, endTime).toMinutes() / 60.0));
-        double totalAmount = hours * slot.getHourlyRate();
-        String bookingId = "BKG-" + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        // Create and save booking
-        Booking booking = new Booking(bookingId, userName, userEmail, userPhone, vehicleNumber, slotId, startTime, endTime, BookingStatus.ACTIVE, totalAmount);
-
-        bookingRepository.save(booking);
-        // Mark slot as booked
-        slotService.markSlotAsBooked(slotId);
-        System.out.printf("Booking %s created successfully for Slot %s (Phone: %s).%n",
-                bookingId, slotId, userPhone);
+        Booking booking = save(bookingId, userName, userEmail, userPhone, vehicleNumber, slot, startTime, endTime, quote, now);
+        log.info("Booking {} created successfully for Slot {} (Phone: {}).", bookingId, slotId, userPhone);
+        countOutcome("createBooking", BookingResult.Outcome.CREATED);
         return booking;
     }
 
+    /**
+     * Method to book the best free slot matching the user's requirements instead of a named slot.
+     * <p>
+     * Candidates come from the slot feature index in best-fit order, ranked and capped by what
+     * the window would actually cost in each slot, tariffs, bands and surge included. Each one's window is
+     * reserved with the same atomic timeline reservation as {@link #createBooking}, so when
+     * several users are auto-assigned at once each candidate goes to exactly one of them and
+     * the others move on to the next candidate.
+     * </p>
+     * @param userName the name of the user
+     * @param userEmail the email id of the user
+     * @param userPhone the phone number of the user
+     * @param vehicleNumber the registration number of the vehicle that is being parked
+     * @param query the slot requirements and preference order
+     * @param startTime booking start time
+     * @param endTime booking end time
+     * @return a {@link BookingResult} with the booking, or {@link BookingResult.Outcome#NO_SLOT_AVAILABLE}
+     */
+    @Override
+    public BookingResult autoAssignBooking(String userName, String userEmail, String userPhone, String vehicleNumber,
+                                           SlotQuery query, LocalDateTime startTime, LocalDateTime endTime) {
+        BookingRequest request = new BookingRequest(userName, userEmail, userPhone, vehicleNumber, null, startTime, endTime);
+        if (startTime == null || endTime == null || !endTime.isAfter(startTime)) {
+            countOutcome("autoAssignBooking", BookingResult.Outcome.INVALID_WINDOW);
+            return new BookingResult(request, BookingResult.Outcome.INVALID_WINDOW, null);
+        }
+        String bookingId = idGenerator.nextBookingId();
+        LocalDateTime now = LocalDateTime.now();
+        boolean inProgress = isInProgress(startTime, endTime, now);
+        try (Stream<ParkingSlot> candidates = slotService.findMatchingSlots(query, ratesFor(startTime, endTime))) {
+            for (ParkingSlot slot : (Iterable<ParkingSlot>) candidates::iterator) {
+                if (inProgress && !slot.isAvailable()) continue;
+                Quote quote = price(slot, startTime, endTime);
+                if (reserve(slot.getId(), startTime, endTime, bookingId, now) != BookingResult.Outcome.CREATED) continue;
+                Booking booking = save(bookingId, userName, userEmail, userPhone, vehicleNumber, slot, startTime, endTime, quote, now);
+                log.info("Booking {} auto-assigned to Slot {} (Phone: {}).", bookingId, slot.getId(), userPhone);
+                countOutcome("autoAssignBooking", BookingResult.Outcome.CREATED);
+                return new BookingResult(request, BookingResult.Outcome.CREATED, booking);
+            }
+        }
+        log.info("No {} slot matches the requirements between {} and {}.", query.type(), startTime, endTime);
+        countOutcome("autoAssignBooking", BookingResult.Outcome.NO_SLOT_AVAILABLE);
+        return new BookingResult(request, BookingResult.Outcome.NO_SLOT_AVAILABLE, null);
+    }
+
+    /**
+     * Method to find the best slot matching the user's requirements that is free for a window, without reserving it.
+     * Slots are ranked and capped by what the window would actually cost in them
+     * @param query the slot requirements and preference order
+     * @param startTime window start time
+     * @param endTime window end time
+     * @return an {@link Optional} {@link ParkingSlot}, empty if no matching slot is free or the window is invalid
+     */
+    @Override
+    public Optional<ParkingSlot> findBestSlot(SlotQuery query, LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null || !endTime.isAfter(startTime)) return Optional.empty();
+        boolean inProgress = isInProgress(startTime, endTime, LocalDateTime.now());
+        try (Stream<ParkingSlot> candidates = slotService.findMatchingSlots(query, ratesFor(startTime, endTime))) {
+            return candidates
+                    .filter(slot -> !inProgress || slot.isAvailable())
+                    .filter(slot -> scheduleRepository.isFree(slot.getId(), startTime, endTime))
+                    .findFirst();
+        }
+    }
+
+    /**
+     * Method to price a stay in a slot with the configured tariffs, time-of-day bands and the current occupancy surge,
+     * without booking it. Repeated quotes for the same stay are served from the pricing engine's cache
+     * @param slotId unique identifier of the slot to price
+     * @param startTime stay start time
+     * @param endTime stay end time
+     * @return an {@link Optional} {@link Quote}, empty if the slot does not exist
+     * @throws IllegalArgumentException if the stay does not end after it starts
+     */
+    @Override
+    public Optional<Quote> quote(String slotId, LocalDateTime startTime, LocalDateTime endTime) {
+        return slotService.getSlotById(slotId).map(slot -> price(slot, startTime, endTime));
+    }
+
+    /**
+     * Method to create many bookings in one call, e.g. for fleet customers.
+     * <p>
+     * Requests are grouped by slot and each slot's timeline lock is taken only once for its
+     * whole group. Conflicts are resolved deterministically: within a slot, requests are
+     * considered by start time and then by their position in the batch, so the earliest
+     * window wins and later overlapping ones are rejected with {@link BookingResult.Outcome#CONFLICT}.
+     * All created bookings are persisted together.
+     * </p>
+     * @param requests the booking requests
+     * @return one {@link BookingResult} per request, in request order
+     * @throws java.io.UncheckedIOException if the journal write failed; the bookings that were not stored release their
+     * windows and timers
+     */
+    @Override
+    public List<BookingResult> createBookings(List<BookingRequest> requests) {
+        BookingResult[] results = new BookingResult[requests.size()];
+        Map<String, List<Integer>> bySlot = new TreeMap<>();
+        Map<String, ParkingSlot> slots = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            if (request.startTime() == null || request.endTime() == null || !request.endTime().isAfter(request.startTime())) {
+                results[i] = new BookingResult(request, BookingResult.Outcome.INVALID_WINDOW, null);
+                continue;
+            }
+            String key = ConcurrentSlotRepository.normalize(request.slotId());
+            ParkingSlot slot = slots.computeIfAbsent(key, k -> slotService.getSlotById(k).orElse(null));
+            if (slot == null) {
+                results[i] = new BookingResult(request, BookingResult.Outcome.SLOT_NOT_FOUND, null);
+                continue;
+            }
+            bySlot.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> created = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> group : bySlot.entrySet()) {
+            ParkingSlot slot = slots.get(group.getKey());
+            List<Integer> order = group.getValue();
+            order.sort(Comparator.comparing((Integer i) -> requests.get(i).startTime()).thenComparingInt(i -> i));
+
+            List<SlotTimeline.Window> windows = new ArrayList<>(order.size());
+            Quote[] quotes = new Quote[order.size()];
+            for (int n = 0; n < order.size(); n++) {
+                BookingRequest request = requests.get(order.get(n));
+                windows.add(new SlotTimeline.Window(request.startTime(), request.endTime(), idGenerator.nextBookingId()));
+                quotes[n] = price(slot, request.startTime(), request.endTime());
+            }
+            boolean[] reserved = scheduleRepository.timeline(slot.getId()).tryReserveAll(windows);
+
+            for (int n = 0; n < order.size(); n++) {
+                int i = order.get(n);
+                BookingRequest request = requests.get(i);
+                SlotTimeline.Window window = windows.get(n);
+                if (!reserved[n]) {
+                    results[i] = new BookingResult(request, BookingResult.Outcome.CONFLICT, null);
+                    continue;
+                }
+                if (isInProgress(window.start(), window.end(), now) && !slotService.reserveSlot(slot.getId())) {
+                    scheduleRepository.release(slot.getId(), window.start(), window.bookingId());
+                    results[i] = new BookingResult(request, BookingResult.Outcome.SLOT_OCCUPIED, null);
+                    continue;
+                }
+                Booking booking = new Booking(window.bookingId(), request.userName(), request.userEmail(), request.userPhone(),
+                        request.vehicleNumber(), slot.getId(), window.start(), window.end(), BookingStatus.ACTIVE,
+                        quotes[n].amount());
+                created.add(booking);
+                results[i] = new BookingResult(request, BookingResult.Outcome.CREATED, booking);
+            }
+        }
+        for (Booking booking : created) armTimer(booking, now);
+        if (!created.isEmpty()) {
+            try {
+                bookingRepository.saveAll(created);
+            } catch (RuntimeException e) {
+                for (Booking booking : created)
+                    if (bookingRepository.findById(booking.getBookingId()).isEmpty()) discard(booking);
+                throw e;
+            }
+        }
+        for (BookingResult result : results) countOutcome("createBookings", result.outcome());
+        log.info("Batch booking: {} of {} requests created.", created.size(), requests.size());
+        return Arrays.asList(results);
+    }
 
     /**
      * Method to retrieve all the bookings available in the repository
@@ -78,6 +326,28 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.findAll();
     }
 
+    /**
+     * Method to retrieve one page of bookings matching a filter, ordered by booking ID
+     * @param filter the criteria the bookings must match
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the maximum number of bookings on the page
+     * @return a {@link Page} of {@link Booking}
+     */
+    @Override
+    public Page<Booking> getBookings(BookingFilter filter, String cursor, int limit) {
+        return bookingRepository.findPage(filter, cursor, limit);
+    }
+
+    /**
+     * Method to stream every booking matching a filter without copying the whole repository
+     * @param filter the criteria the bookings must match
+     * @return a lazy {@link Stream} of {@link Booking}
+     */
+    @Override
+    public Stream<Booking> streamBookings(BookingFilter filter) {
+        return bookingRepository.stream(filter);
+    }
+
     /**
      * Method to retrieve all the bookings of a user based on their phone number
      * @param userPhone phone number of the user who's bookings are being retrieved
@@ -89,37 +359,24 @@ public class BookingServiceImpl implements BookingService {
     }
 
     /**
-     * Method to cancel a booking if it exists, else skipped if the status is already cancelled or booking doesn't exist
+     * Method to cancel a booking if it exists, else skipped if the status is already cancelled or booking doesn't exist.
+     * The status moves on with a conditional update, so a cancel racing the booking's completion releases the slot once
      * @param bookingId unique identifier of the booking that is to be cancelled
+     * @throws UncheckedIOException if the journal write failed; the booking stays active with its timer and reservation
      */
     @Override
     public void cancelBooking(String bookingId) {
-        bookingRepository.findById(bookingId).ifPresentOrElse(booking -> {
-            if (booking.getStatus() == BookingStatus.CANCELLED) {
-                System.out.printf("Booking %s is already cancelled.%n", bookingId);
-                return;
-            }
-            bookingRepository.updateStatus(bookingId, BookingStatus.CANCELLED);
-            slotService.markSlotAsAvailable(booking.getSlotId());
-            System.out.printf("Booking %s cancelled successfully.%n", bookingId);
-        }, () -> System.out.printf("Booking %s not found — cancel operation skipped.%n", bookingId));
+        finishBooking("cancelBooking", bookingId, BookingStatus.CANCELLED, false);
     }
 
     /**
      * Method to mark a booking as completed after the end time if the status is active, gets skipped if the status is already completed or booking doesn't exist
      * @param bookingId unique identifier of the booking which has to be marked as completed
+     * @throws UncheckedIOException if the journal write failed; the booking stays active with its timer and reservation
      */
     @Override
     public void completeBooking(String bookingId) {
-        bookingRepository.findById(bookingId).ifPresentOrElse(booking -> {
-            if (booking.getStatus() == BookingStatus.COMPLETED) {
-                System.out.printf("Booking %s is already completed.%n", bookingId);
-                return;
-            }
-            bookingRepository.updateStatus(bookingId, BookingStatus.COMPLETED);
-            slotService.markSlotAsAvailable(booking.getSlotId());
-            System.out.printf("Booking %s marked as completed.%n", bookingId);
-        }, () -> System.out.printf("Booking %s not found — complete operation skipped.%n", bookingId));
+        finishBooking("completeBooking", bookingId, BookingStatus.COMPLETED, false);
     }
 
     /**
@@ -131,4 +388,171 @@ public class BookingServiceImpl implements BookingService {
     public Optional<Booking> getBookingById(String bookingId) {
         return bookingRepository.findById(bookingId);
     }
+
+    /**
+     * Reserves the window on the slot's timeline, where only one overlapping caller can win it,
+     * and, for a booking that is already running, the slot itself.
+     * @return {@link BookingResult.Outcome#CREATED} if both were reserved, otherwise why not
+     */
+    private BookingResult.Outcome reserve(String slotId, LocalDateTime startTime, LocalDateTime endTime, String bookingId, LocalDateTime now) {
+        if (!scheduleRepository.tryReserve(slotId, startTime, endTime, bookingId))
+            return BookingResult.Outcome.CONFLICT;
+        if (isInProgress(startTime, endTime, now) && !slotService.reserveSlot(slotId)) {
+            scheduleRepository.release(slotId, startTime, bookingId);
+            return BookingResult.Outcome.SLOT_OCCUPIED;
+        }
+        return BookingResult.Outcome.CREATED;
+    }
+
+    /**
+     * Creates, arms and persists the booking for a reserved window. If it cannot be persisted,
+     * its timer and reservation are dropped again before the failure is rethrown.
+     */
+    private Booking save(String bookingId, String userName, String userEmail, String userPhone, String vehicleNumber,
+                         ParkingSlot slot, LocalDateTime startTime, LocalDateTime endTime, Quote quote, LocalDateTime now) {
+        Booking booking = new Booking(bookingId, userName, userEmail, userPhone, vehicleNumber, slot.getId(), startTime, endTime,
+                BookingStatus.ACTIVE, quote.amount());
+        armTimer(booking, now);
+        try {
+            bookingRepository.save(booking);
+        } catch (RuntimeException e) {
+            discard(booking);
+            throw e;
+        }
+        return booking;
+    }
+
+    /**
+     * Undoes {@link #armTimer} and the reservation of a booking that was not persisted.
+     */
+    private void discard(Booking booking) {
+        disarmTimer(booking.getBookingId());
+        releaseReservation(booking);
+        log.warn("Booking {} could not be saved — its reservation of Slot {} was released.", booking.getBookingId(), booking.getSlotId());
+    }
+
+    /**
+     * Frees the booking's window on the slot timeline and, if the booking had already
+     * started and no other booking is running on the slot now, the slot itself.
+     * Future bookings never held the slot, so it is left untouched.
+     * @param booking the booking whose reservation is released
+     */
+    private void releaseReservation(Booking booking) {
+        String slotId = booking.getSlotId();
+        scheduleRepository.release(slotId, booking.getStartTime(), booking.getBookingId());
+        LocalDateTime now = LocalDateTime.now();
+        if (!booking.getStartTime().isAfter(now) && scheduleRepository.isFree(slotId, now, now.plusNanos(1)))
+            slotService.markSlotAsAvailable(slotId);
+    }
+
+    /**
+     * Arms the booking's timer: at its start time if it has not started yet, otherwise at its end time.
+     * Timers are armed before the booking is saved, so a cancel that finds the booking also finds its timer;
+     * a booking that then fails to save is {@link #discard discarded}.
+     */
+    private void armTimer(Booking booking, LocalDateTime now) {
+        long id = BookingId.parse(booking.getBookingId());
+        if (id < 0) return;
+        timers.put(id, booking.getStartTime().isAfter(now)
+                ? scheduler.schedule(booking.getStartTime(), () -> startBooking(id, booking))
+                : scheduler.schedule(booking.getEndTime(), () -> expireBooking(id, booking.getBookingId())));
+    }
+
+    /**
+     * Start-time timer: occupies the slot and re-arms the timer for the end time. Runs under the
+     * timer's map entry, so it cannot interleave with a cancel dropping the timer.
+     */
+    private void startBooking(long id, Booking booking) {
+        timers.computeIfPresent(id, (key, timer) -> {
+            if (!slotService.reserveSlot(booking.getSlotId()))
+                log.warn("Slot {} is not free as booking {} starts.", booking.getSlotId(), booking.getBookingId());
+            return scheduler.schedule(booking.getEndTime(), () -> expireBooking(id, booking.getBookingId()));
+        });
+    }
+
+    /**
+     * End-time timer: completes the booking, which releases the slot. If the completion cannot
+     * be journaled the booking is still active, so the timer is re-armed to try again.
+     */
+    private void expireBooking(long id, String bookingId) {
+        if (timers.remove(id) == null) return;
+        try {
+            finishBooking("completeBooking", bookingId, BookingStatus.COMPLETED, true);
+        } catch (UncheckedIOException e) {
+            log.warn("Booking {} could not be completed, retrying in {}s: {}", bookingId, COMPLETION_RETRY.toSeconds(), e.getMessage());
+            timers.put(id, scheduler.schedule(LocalDateTime.now().plus(COMPLETION_RETRY), () -> expireBooking(id, bookingId)));
+        }
+    }
+
+    /**
+     * Moves a booking to a final status with a compare-and-set on the status it was read with,
+     * re-reading and retrying if another caller changed it in between. Only the caller that
+     * takes an active booking out of {@code ACTIVE} releases its slot.
+     *
+     * @param activeOnly leave a booking that is no longer active alone, as an end-time timer must
+     * @throws UncheckedIOException if the journal write failed, before the timer or reservation is touched; the
+     * repository has put the booking back as it was
+     */
+    private void finishBooking(String operation, String bookingId, BookingStatus newStatus, boolean activeOnly) {
+        while (true) {
+            Optional<Booking> found = bookingRepository.findById(bookingId);
+            if (found.isEmpty()) {
+                if (activeOnly) return;
+                log.warn("Booking {} not found — {} skipped.", bookingId, operation);
+                countOutcome(operation, "NOT_FOUND");
+                return;
+            }
+            Booking booking = found.get();
+            BookingStatus status = booking.getStatus();
+            if (activeOnly && status != BookingStatus.ACTIVE) return;
+            if (status == newStatus) {
+                log.info("Booking {} is already {}.", bookingId, newStatus.name().toLowerCase(Locale.ROOT));
+                countOutcome(operation, "ALREADY_" + newStatus);
+                return;
+            }
+            if (bookingRepository.updateStatus(bookingId, status, newStatus)) {
+                disarmTimer(bookingId);
+                if (status == BookingStatus.ACTIVE) releaseReservation(booking);
+                log.info("Booking {} {}.", bookingId, newStatus == BookingStatus.CANCELLED ? "cancelled successfully" : "marked as completed");
+                countOutcome(operation, newStatus.name());
+                return;
+            }
+            log.debug("Booking {} changed during {}, retrying.", bookingId, operation);
+        }
+    }
+
+    private void disarmTimer(String bookingId) {
+        HierarchicalTimingWheel.Timeout timer = timers.remove(BookingId.parse(bookingId));
+        if (timer != null) timer.cancel();
+    }
+
+    private void countOutcome(String operation, BookingResult.Outcome outcome) {
+        countOutcome(operation, outcome.name());
+    }
+
+    private void countOutcome(String operation, String outcome) {
+        metrics.countOutcome(SERVICE, operation, outcome);
+    }
+
+    /**
+     * Prices the window with the live occupancy of the slot's type at its location.
+     */
+    private Quote price(ParkingSlot slot, LocalDateTime startTime, LocalDateTime endTime) {
+        return pricing.quote(slot, startTime, endTime, slotService.getOccupancy(slot.getType(), slot.getLocation()));
+    }
+
+    /**
+     * Rates slots by the average hourly price of the window in them, with the live occupancy
+     * of their type at their location, so best-fit ranks by what a booking would cost.
+     */
+    private SlotRates ratesFor(LocalDateTime startTime, LocalDateTime endTime) {
+        return (type, location, slotRate) -> {
+            Quote quote = pricing.quote(type, location, slotRate, startTime, endTime, slotService.getOccupancy(type, location));
+            return quote.amount() / quote.hours();
+        };
+    }
+
+    private static boolean isInProgress(LocalDateTime startTime, LocalDateTime endTime, LocalDateTime now) {
+        return !startTime.isAfter(now) && endTime.isAfter(now);
+    }
 }
@@ -0,0 +1,143 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import org.chandra.smartparkingslotbookingsystem.json.Json;
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses and validates slot rows for the bulk import.
+ * <p>
+ * Two line formats are supported:
+ * </p>
+ * <ul>
+ *     <li>CSV: {@code id,type,location,hourlyRate,available,hasChargingStation,maxLength,hasHelmetLock}
+ *     (a header row starting with {@code id} is skipped; {@code maxLength} is required for cars and
+ *     {@code hasHelmetLock} for bikes, the other may be left empty)</li>
+ *     <li>NDJSON: one flat JSON object per line using the same field names, read with {@link Json}</li>
+ * </ul>
+ * <p>
+ * The parser is stateless, so chunks of lines can be parsed on different threads.
+ * </p>
+ */
+final class SlotImportParser {
+    static final List<String> FIELDS = List.of("id", "type", "location", "hourlyRate", "available",
+            "hasChargingStation", "maxLength", "hasHelmetLock");
+
+    private final boolean json;
+
+    SlotImportParser(boolean json) {
+        this.json = json;
+    }
+
+    /**
+     * Parsed rows of one chunk: valid slots plus error messages for rejected lines.
+     */
+    record Chunk(List<ParkingSlot> slots, List<String> errors) {}
+
+    /**
+     * Parses a chunk of lines.
+     *
+     * @param lines     the raw lines
+     * @param firstLine the 1-based line number of {@code lines.get(0)}, for error messages
+     */
+    Chunk parse(List<String> lines, long firstLine) {
+        List<ParkingSlot> slots = new ArrayList<>(lines.size());
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || (!json && firstLine + i == 1 && line.regionMatches(true, 0, "id,", 0, 3))) continue;
+            try {
+                slots.add(toSlot(json ? parseJson(line) : parseCsv(line)));
+            } catch (IllegalArgumentException e) {
+                errors.add("Line " + (firstLine + i) + ": " + e.getMessage());
+            }
+        }
+        return new Chunk(slots, errors);
+    }
+
+    private static ParkingSlot toSlot(Map<String, String> row) {
+        String id = required(row, "id");
+        String type = required(row, "type");
+        String location = required(row, "location");
+        double rate = parseDouble(required(row, "hourlyRate"), "hourlyRate");
+        if (rate < 0) throw new IllegalArgumentException("hourlyRate must not be negative");
+        boolean available = parseBoolean(row.getOrDefault("available", "true"), "available");
+        boolean charging = parseBoolean(row.getOrDefault("hasChargingStation", "false"), "hasChargingStation");
+
+        return switch (type.toLowerCase(Locale.ROOT)) {
+            case "car" -> {
+                int maxLength = parseInt(required(row, "maxLength"), "maxLength");
+                if (maxLength <= 0) throw new IllegalArgumentException("maxLength must be positive for Car slots");
+                yield new CarParkingSlot(id, "Car", location, rate, available, charging, maxLength);
+            }
+            case "bike" -> new BikeParkingSlot(id, "Bike", location, rate, available, charging,
+                    parseBoolean(required(row, "hasHelmetLock"), "hasHelmetLock"));
+            default -> throw new IllegalArgumentException("unknown slot type '" + type + "' (expected Car or Bike)");
+        };
+    }
+
+    private static Map<String, String> parseCsv(String line) {
+        String[] values = line.split(",", -1);
+        if (values.length > FIELDS.size())
+            throw new IllegalArgumentException("expected at most " + FIELDS.size() + " columns, found " + values.length);
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i].strip();
+            if (!value.isEmpty()) row.put(FIELDS.get(i), value);
+        }
+        return row;
+    }
+
+    /**
+     * Parses a single flat JSON object whose values are strings, numbers, booleans or {@code null}.
+     */
+    private static Map<String, String> parseJson(String line) {
+        if (!(Json.parse(line) instanceof Map<?, ?> object)) throw new IllegalArgumentException("expected a JSON object");
+        Map<String, String> row = new HashMap<>();
+        for (Map.Entry<?, ?> field : object.entrySet()) {
+            switch (field.getValue()) {
+                case null -> { }
+                case String value -> row.put((String) field.getKey(), value);
+                case Number value -> row.put((String) field.getKey(), value.toString());
+                case Boolean value -> row.put((String) field.getKey(), value.toString());
+                default -> throw new IllegalArgumentException(field.getKey() + " must be a string, number or boolean");
+            }
+        }
+        return row;
+    }
+
+    private static String required(Map<String, String> row, String field) {
+        String value = row.get(field);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException(field + " is required");
+        return value;
+    }
+
+    private static double parseDouble(String value, String field) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + value);
+        }
+    }
+
+    private static int parseInt(String value, String field) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a whole number: " + value);
+        }
+    }
+
+    private static boolean parseBoolean(String value, String field) {
+        if (value.equalsIgnoreCase("true")) return true;
+        if (value.equalsIgnoreCase("false")) return false;
+        throw new IllegalArgumentException(field + " must be true or false: " + value);
+    }
+}
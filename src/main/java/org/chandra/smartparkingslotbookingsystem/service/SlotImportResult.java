@@ -0,0 +1,21 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk slot import.
+ *
+ * @param imported   number of slots added to the repository
+ * @param duplicates number of valid rows skipped because the slot ID already exists
+ * @param rejected   number of rows that failed validation
+ * @param errors     the first validation errors, with line numbers
+ * @param millis     wall-clock time taken by the import
+ */
+public record SlotImportResult(int imported, int duplicates, int rejected, List<String> errors, long millis) {
+
+    @Override
+    public String toString() {
+        return String.format("Imported: %d | Duplicates skipped: %d | Rejected: %d | Time: %d ms",
+                imported, duplicates, rejected, millis);
+    }
+}
@@ -1,9 +1,17 @@
 package org.chandra.smartparkingslotbookingsystem.service;
 
 import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.Page;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotFilter;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotOccupancy;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotQuery;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotRates;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotSnapshot;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service interface for managing parking slots.
@@ -11,8 +19,18 @@ import java.util.Optional;
  */
 public interface SlotService {
     List<ParkingSlot> getAllSlots();
+    Page<ParkingSlot> getSlots(SlotFilter filter, String cursor, int limit);
+    Stream<ParkingSlot> streamSlots(SlotFilter filter);
+    SlotSnapshot getSlotSnapshot();
     List<ParkingSlot> getAvailableSlotsByType(String type);
     Optional<ParkingSlot> getSlotById(String slotId);
     void markSlotAsBooked(String slotId);
     void markSlotAsAvailable(String slotId);
+    boolean reserveSlot(String slotId);
+    int countAvailableSlots(String type);
+    SlotOccupancy getOccupancy(String type, String location);
+    Optional<ParkingSlot> findFirstAvailableSlot(String type);
+    void forEachAvailableSlot(String type, Consumer<? super ParkingSlot> action);
+    Stream<ParkingSlot> findMatchingSlots(SlotQuery query);
+    Stream<ParkingSlot> findMatchingSlots(SlotQuery query, SlotRates rates);
 }
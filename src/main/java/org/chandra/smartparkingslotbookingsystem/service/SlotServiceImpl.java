@@ -1,12 +1,22 @@
 package org.chandra.smartparkingslotbookingsystem.service;
 
 import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.Page;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotFilter;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotOccupancy;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotQuery;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotRates;
 import org.chandra.smartparkingslotbookingsystem.repository.SlotRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementation of {@link SlotService} responsible for managing parking slots
@@ -14,6 +24,7 @@ import java.util.Optional;
  */
 @Service
 public class SlotServiceImpl implements SlotService{
+    private static final Logger log = LoggerFactory.getLogger(SlotServiceImpl.class);
 
     private final SlotRepository slotRepository;
 
@@ -31,6 +42,38 @@ public class SlotServiceImpl implements SlotService{
         return slotRepository.findAll();
     }
 
+    /**
+     * Service method which retrieves one page of slots matching a filter
+     * @param filter the criteria the slots must match
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the maximum number of slots on the page
+     * @return a {@link Page} of {@link ParkingSlot}
+     */
+    @Override
+    public Page<ParkingSlot> getSlots(SlotFilter filter, String cursor, int limit) {
+        return slotRepository.findPage(filter, cursor, limit);
+    }
+
+    /**
+     * Service method which streams every slot matching a filter without copying the whole inventory
+     * @param filter the criteria the slots must match
+     * @return a lazy {@link Stream} of {@link ParkingSlot}
+     */
+    @Override
+    public Stream<ParkingSlot> streamSlots(SlotFilter filter) {
+        return slotRepository.stream(filter);
+    }
+
+    /**
+     * Service method which returns the latest immutable snapshot of every slot, for readers such as
+     * display boards that want a consistent view without locking or copying the inventory
+     * @return the current {@link SlotSnapshot}
+     */
+    @Override
+    public SlotSnapshot getSlotSnapshot() {
+        return slotRepository.snapshot();
+    }
+
     /**
      * Service method which retrieves a list of available slots by their type
      * @param type the type of the {@link ParkingSlot} to search for
@@ -57,11 +100,12 @@ public class SlotServiceImpl implements SlotService{
      */
     @Override
     public void markSlotAsBooked(String slotId) {
-        slotRepository.findById(slotId).ifPresentOrElse(slot -> {
-            slot.markBooked();
-            slotRepository.update(slot);
-            System.out.printf("Slot %s successfully marked as booked.%n", slotId);
-        }, () -> System.out.printf("Slot %s not found — cannot mark as booked.%n", slotId));
+        if (slotRepository.tryReserve(slotId))
+            log.debug("Slot {} successfully marked as booked.", slotId);
+        else if (slotRepository.findById(slotId).isPresent())
+            log.info("Slot {} is already booked.", slotId);
+        else
+            log.warn("Slot {} not found — cannot mark as booked.", slotId);
     }
 
     /**
@@ -70,10 +114,83 @@ public class SlotServiceImpl implements SlotService{
      */
     @Override
     public void markSlotAsAvailable(String slotId) {
-        slotRepository.findById(slotId).ifPresentOrElse(slot -> {
-            slot.markAvailable();
-            slotRepository.update(slot);
-            System.out.printf("Slot %s successfully marked as available.%n", slotId);
-        }, () -> System.out.printf("Slot %s not found — cannot mark as available.%n", slotId));
+        if (slotRepository.release(slotId))
+            log.debug("Slot {} successfully marked as available.", slotId);
+        else
+            log.warn("Slot {} not found — cannot mark as available.", slotId);
+    }
+
+    /**
+     * Service method to atomically reserve a slot, succeeding only for the single caller
+     * that finds it available
+     * @param slotId unique identifier of the slot to reserve
+     * @return {@code true} if the slot was reserved by this call, otherwise {@code false}
+     */
+    @Override
+    public boolean reserveSlot(String slotId) {
+        return slotRepository.tryReserve(slotId);
+    }
+
+    /**
+     * Service method which counts the available slots of a type in constant time, e.g. for entrance signage
+     * @param type the type of the {@link ParkingSlot} to count
+     * @return the number of available slots of the specified type
+     */
+    @Override
+    public int countAvailableSlots(String type) {
+        return slotRepository.countAvailableByType(type);
+    }
+
+    /**
+     * Service method which reports how many slots of a type a location has and how many are booked, from live counters
+     * @param type the type of the {@link ParkingSlot}s to count
+     * @param location the location code of the slots
+     * @return the current {@link SlotOccupancy}
+     */
+    @Override
+    public SlotOccupancy getOccupancy(String type, String location) {
+        return slotRepository.occupancy(type, location);
+    }
+
+    /**
+     * Service method which returns one available slot of a type without listing the others.
+     * The slot is not reserved; use {@link #reserveSlot(String)} to claim it
+     * @param type the type of the {@link ParkingSlot} to search for
+     * @return an {@link Optional} available {@link ParkingSlot}, empty if none is free
+     */
+    @Override
+    public Optional<ParkingSlot> findFirstAvailableSlot(String type) {
+        return slotRepository.findFirstAvailableByType(type);
+    }
+
+    /**
+     * Service method which passes every available slot of a type to a callback without building a list
+     * @param type the type of the {@link ParkingSlot} to iterate
+     * @param action the callback invoked for each available slot
+     */
+    @Override
+    public void forEachAvailableSlot(String type, Consumer<? super ParkingSlot> action) {
+        slotRepository.forEachAvailableByType(type, action);
+    }
+
+    /**
+     * Service method which returns the slots satisfying a best-fit query, best match first, from the feature index
+     * @param query the requirements and preference order
+     * @return a lazy {@link Stream} of matching {@link ParkingSlot}, whether available or not
+     */
+    @Override
+    public Stream<ParkingSlot> findMatchingSlots(SlotQuery query) {
+        return slotRepository.findMatching(query);
+    }
+
+    /**
+     * Service method which returns the slots satisfying a best-fit query, best match first by the rate actually charged
+     * @param query the requirements and preference order
+     * @param rates what each slot costs per hour, for ranking and the query's rate ceiling
+     * @return a lazy {@link Stream} of matching {@link ParkingSlot}, whether available or not
+     */
+    @Override
+    public Stream<ParkingSlot> findMatchingSlots(SlotQuery query, SlotRates rates) {
+        return slotRepository.findMatching(query, rates);
     }
 }
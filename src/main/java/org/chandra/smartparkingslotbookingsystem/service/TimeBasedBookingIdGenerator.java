@@ -0,0 +1,86 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default {@link BookingIdGenerator} producing 63-bit time/node/sequence IDs:
+ * <pre>
+ *  41 bits  milliseconds since 2025-01-01T00:00Z
+ *  10 bits  node number ({@code booking.id.node}, 0-1023)
+ *  12 bits  sequence within the millisecond
+ * </pre>
+ * <p>
+ * Platform threads do not contend per ID: each claims a block of {@value #BLOCK_SIZE}
+ * consecutive timestamp/sequence values with one atomic update and hands them out locally.
+ * A block is dropped once the clock has moved past its millisecond, so a thread that books
+ * rarely never issues IDs stamped with a time long gone. Virtual threads are too many and
+ * too short-lived for per-thread blocks to pay off, so they take each ID from the shared
+ * counter directly. The shared counter never moves backwards, so IDs stay unique if the
+ * clock is adjusted, and a burst beyond 4096 IDs per millisecond simply borrows from the
+ * following milliseconds. IDs are ordered by time to within a millisecond; because the
+ * timestamp is the high part, IDs issued after a restart are larger than those issued
+ * before it, and IDs from different nodes never collide.
+ * </p>
+ */
+@Component
+public class TimeBasedBookingIdGenerator implements BookingIdGenerator {
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int BLOCK_SIZE = 16;
+
+    private final long node;
+    private final Clock clock;
+    private final AtomicLong lastClaimed = new AtomicLong();
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[2]); // {next, end}
+
+    public TimeBasedBookingIdGenerator() {
+        this(0, Clock.systemUTC());
+    }
+
+    @Autowired
+    public TimeBasedBookingIdGenerator(@Value("${booking.id.node:0}") int node) {
+        this(node, Clock.systemUTC());
+    }
+
+    TimeBasedBookingIdGenerator(int node, Clock clock) {
+        if (node < 0 || node > MAX_NODE)
+            throw new IllegalArgumentException("booking.id.node must be between 0 and " + MAX_NODE + ": " + node);
+        this.node = node;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        long now = (clock.millis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        if (Thread.currentThread().isVirtual()) return toId(claim(now, 1));
+        long[] range = block.get();
+        if (range[0] == range[1] || range[0] >>> SEQUENCE_BITS < now >>> SEQUENCE_BITS) {
+            range[0] = claim(now, BLOCK_SIZE);
+            range[1] = range[0] + BLOCK_SIZE;
+        }
+        return toId(range[0]++);
+    }
+
+    /**
+     * Claims {@code count} consecutive values from the shared counter, starting no earlier than {@code now}.
+     *
+     * @return the first claimed value
+     */
+    private long claim(long now, int count) {
+        long previous = lastClaimed.getAndAccumulate(now, (last, time) -> Math.max(last, time) + count);
+        return Math.max(previous, now);
+    }
+
+    private long toId(long value) {
+        return (value >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | node << SEQUENCE_BITS | (value & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,73 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import org.chandra.smartparkingslotbookingsystem.pricing.Money;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingTotals;
+import org.chandra.smartparkingslotbookingsystem.repository.DailyRevenue;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotOccupancy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Utilization and revenue of the car park, built from counters the repositories keep up to
+ * date on every change, so it costs the same however many bookings exist.
+ *
+ * @param rows                occupancy and booking totals per location and slot type
+ * @param dailyRevenue        revenue per booking start day and location
+ * @param revenueMinor        the revenue of all active and completed bookings, in minor units
+ * @param averageDwellMinutes the mean booked minutes of completed bookings
+ */
+public record UtilizationReport(List<Row> rows, List<DailyRevenue> dailyRevenue, long revenueMinor, double averageDwellMinutes) {
+
+    /**
+     * @param slots         the number of slots of the type at the location
+     * @param occupiedSlots how many of them are booked right now
+     */
+    public record Row(String location, String type, long slots, long occupiedSlots, long activeBookings,
+                      long completedBookings, long cancelledBookings, long revenueMinor, double averageDwellMinutes) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %-6s slots=%-6d occupied=%-6d (%3d%%) active=%-6d completed=%-7d cancelled=%-6d revenue=%-12s avg dwell=%.1f min",
+                    location, type, slots, occupiedSlots, slots == 0 ? 0 : occupiedSlots * 100 / slots, activeBookings,
+                    completedBookings, cancelledBookings, Money.format(revenueMinor), averageDwellMinutes);
+        }
+    }
+
+    /**
+     * Joins slot occupancy and booking totals on location and type.
+     */
+    static UtilizationReport of(List<SlotOccupancy> occupancy, List<BookingTotals> totals, List<DailyRevenue> dailyRevenue) {
+        Map<String, BookingTotals> bookingsByKey = new HashMap<>();
+        for (BookingTotals bookings : totals) bookingsByKey.put(key(bookings.location(), bookings.type()), bookings);
+        Map<String, Row> rows = new TreeMap<>();
+        for (SlotOccupancy slots : occupancy) {
+            String key = key(slots.location(), slots.type());
+            rows.put(key, row(slots.location(), slots.type(), slots, bookingsByKey.remove(key)));
+        }
+        for (BookingTotals bookings : bookingsByKey.values())
+            rows.put(key(bookings.location(), bookings.type()), row(bookings.location(), bookings.type(), null, bookings));
+        long revenue = 0, completed = 0, dwellMinutes = 0;
+        for (BookingTotals bookings : totals) {
+            revenue += bookings.revenueMinor();
+            completed += bookings.completedBookings();
+            dwellMinutes += bookings.dwellMinutes();
+        }
+        return new UtilizationReport(new ArrayList<>(rows.values()), dailyRevenue, revenue,
+                completed == 0 ? 0 : (double) dwellMinutes / completed);
+    }
+
+    private static Row row(String location, String type, SlotOccupancy slots, BookingTotals bookings) {
+        return new Row(location, type, slots == null ? 0 : slots.total(), slots == null ? 0 : slots.occupied(),
+                bookings == null ? 0 : bookings.activeBookings(), bookings == null ? 0 : bookings.completedBookings(),
+                bookings == null ? 0 : bookings.cancelledBookings(), bookings == null ? 0 : bookings.revenueMinor(),
+                bookings == null ? 0 : bookings.averageDwellMinutes());
+    }
+
+    private static String key(String location, String type) {
+        return location + '\u0000' + type;
+    }
+}
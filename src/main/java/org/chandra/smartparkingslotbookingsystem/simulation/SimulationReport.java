@@ -0,0 +1,72 @@
+package org.chandra.smartparkingslotbookingsystem.simulation;
+
+import org.chandra.smartparkingslotbookingsystem.metrics.LatencyHistogram;
+
+import java.util.Locale;
+
+/**
+ * Outcome of a traffic simulation run.
+ *
+ * @param slots        the size of the slot inventory
+ * @param threads      the number of concurrent customers
+ * @param threadKind   {@code virtual} or {@code platform}
+ * @param arrivals     the number of customers that arrived
+ * @param attempts     the number of {@code createBooking} calls made
+ * @param created      the number of bookings created
+ * @param rejected     the number of customers who found no free slot within their attempts
+ * @param cancelled    the number of created bookings cancelled again
+ * @param elapsedNanos the wall-clock duration of the run
+ * @param booking      latencies of {@code createBooking} calls
+ * @param cancel       latencies of {@code cancelBooking} calls
+ */
+public record SimulationReport(int slots, int threads, String threadKind,
+                               long arrivals, long attempts, long created, long rejected, long cancelled,
+                               long elapsedNanos, Latency booking, Latency cancel) {
+
+    /**
+     * Latency distribution of one operation, in microseconds.
+     */
+    public record Latency(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+
+        static Latency of(LatencyHistogram histogram) {
+            return new Latency(histogram.count(), histogram.meanNanos() / 1_000.0,
+                    histogram.percentileNanos(0.50) / 1_000, histogram.percentileNanos(0.90) / 1_000,
+                    histogram.percentileNanos(0.99) / 1_000, histogram.percentileNanos(0.999) / 1_000,
+                    histogram.maxNanos() / 1_000);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "n=%d mean=%.1fus p50=%dus p90=%dus p99=%dus p99.9=%dus max=%dus",
+                    count, mean, p50, p90, p99, p999, max);
+        }
+    }
+
+    /**
+     * @return service calls ({@code createBooking} and {@code cancelBooking}) per second of wall-clock time
+     */
+    public double throughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : (attempts + cancelled) * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return the fraction of customers who left without a booking
+     */
+    public double rejectionRate() {
+        return arrivals == 0 ? 0 : (double) rejected / arrivals;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, """
+                ===== SIMULATION REPORT =====
+                Slots: %d | Customers: %d %s threads | Elapsed: %.2fs
+                Arrivals: %d | Booking attempts: %d | Created: %d | Rejected: %d (%.2f%%) | Cancelled: %d
+                Throughput: %.0f calls/s
+                createBooking: %s
+                cancelBooking: %s""",
+                slots, threads, threadKind, elapsedNanos / 1e9,
+                arrivals, attempts, created, rejected, rejectionRate() * 100, cancelled,
+                throughputPerSecond(), booking, cancel);
+    }
+}
@@ -0,0 +1,42 @@
+package org.chandra.smartparkingslotbookingsystem.simulation;
+
+import org.chandra.smartparkingslotbookingsystem.service.BookingService;
+import org.chandra.smartparkingslotbookingsystem.service.SlotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Runs a {@link TrafficSimulator} instead of the interactive console and prints its report.
+ * Simulated days start at the next midnight, so every booking lies in the future.
+ *
+ * <p><strong>Profile:</strong> simulation</p>
+ */
+@Component
+@Profile("simulation")
+@EnableConfigurationProperties(SimulationSettings.class)
+public class SimulationRunner implements CommandLineRunner {
+
+    private final BookingService bookingService;
+    private final SlotService slotService;
+    private final SimulationSettings settings;
+
+    @Autowired
+    public SimulationRunner(BookingService bookingService, SlotService slotService, SimulationSettings settings) {
+        this.bookingService = bookingService;
+        this.slotService = slotService;
+        this.settings = settings;
+    }
+
+    @Override
+    public void run(String... args) {
+        SimulationReport report = new TrafficSimulator(bookingService, slotService, settings)
+                .run(LocalDate.now().plusDays(1).atStartOfDay());
+        System.out.println();
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,74 @@
+package org.chandra.smartparkingslotbookingsystem.simulation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of a traffic simulation, bound from the {@code simulation.*} properties.
+ * The slot inventory itself is generated by {@code SimulationSlotRepository}.
+ *
+ * @param hours              the simulated period, in hours
+ * @param arrivalsPerHour    the mean rate of booking attempts outside rush hours (a Poisson process)
+ * @param rushHours          comma-separated hour ranges with raised arrival rates, e.g. {@code 8-10,17-19}
+ * @param rushMultiplier     the factor applied to the arrival rate during rush hours
+ * @param leadMinutes        the mean time between arriving and the booked start (exponential)
+ * @param dwellMinutes       the mean parking duration (log-normal)
+ * @param cancelRatio        the fraction of created bookings that are cancelled again
+ * @param maxAttempts        how many slots a customer tries before giving up
+ * @param threads            the number of concurrent customers
+ * @param virtualThreads     whether customers run on virtual instead of platform threads
+ * @param seed               the random seed, so runs can be repeated
+ */
+@ConfigurationProperties("simulation")
+public record SimulationSettings(@DefaultValue("24") int hours,
+                                 @DefaultValue("5000") double arrivalsPerHour,
+                                 @DefaultValue("8-10,17-19") String rushHours,
+                                 @DefaultValue("3.0") double rushMultiplier,
+                                 @DefaultValue("30") double leadMinutes,
+                                 @DefaultValue("90") double dwellMinutes,
+                                 @DefaultValue("0.1") double cancelRatio,
+                                 @DefaultValue("3") int maxAttempts,
+                                 @DefaultValue("8") int threads,
+                                 @DefaultValue("false") boolean virtualThreads,
+                                 @DefaultValue("42") long seed) {
+
+    public SimulationSettings {
+        if (hours <= 0) throw new IllegalArgumentException("simulation.hours must be positive");
+        if (arrivalsPerHour <= 0) throw new IllegalArgumentException("simulation.arrivals-per-hour must be positive");
+        if (rushMultiplier < 1) throw new IllegalArgumentException("simulation.rush-multiplier must be at least 1");
+        if (cancelRatio < 0 || cancelRatio > 1) throw new IllegalArgumentException("simulation.cancel-ratio must be between 0 and 1");
+        if (maxAttempts <= 0) throw new IllegalArgumentException("simulation.max-attempts must be positive");
+        if (threads <= 0) throw new IllegalArgumentException("simulation.threads must be positive");
+        rushHoursOf(rushHours); // fail fast on a malformed range
+    }
+
+    /**
+     * @return for each hour of the day, whether it is a rush hour
+     */
+    public boolean[] rushHourTable() {
+        boolean[] table = new boolean[24];
+        for (int[] range : rushHoursOf(rushHours))
+            for (int hour = range[0]; hour < range[1]; hour++) table[hour] = true;
+        return table;
+    }
+
+    private static List<int[]> rushHoursOf(String spec) {
+        List<int[]> ranges = new ArrayList<>();
+        if (spec == null || spec.isBlank()) return ranges;
+        for (String part : spec.split(",")) {
+            String[] bounds = part.trim().split("-");
+            try {
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : from + 1;
+                if (bounds.length > 2 || from < 0 || to > 24 || from >= to) throw new NumberFormatException();
+                ranges.add(new int[]{from, to});
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid simulation.rush-hours range: '" + part.trim() + "'");
+            }
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,88 @@
+package org.chandra.smartparkingslotbookingsystem.simulation;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic customer arrivals, in arrival order.
+ * <p>
+ * Arrivals form a non-homogeneous Poisson process: the base rate applies outside rush hours
+ * and is multiplied during them, and arrivals are drawn by thinning a process running at
+ * the peak rate. Each customer books a window that starts an exponentially distributed lead
+ * time after arriving and lasts a log-normally distributed dwell time, both in whole
+ * minutes like bookings made at the console. The sequence depends only on the seed.
+ * </p>
+ */
+final class TrafficModel {
+    private static final double DWELL_SIGMA = 0.6;
+
+    /**
+     * One customer arrival.
+     *
+     * @param sequence   the arrival number, starting at 0
+     * @param car        {@code true} for a car, {@code false} for a bike
+     * @param start      the requested start of the booking
+     * @param end        the requested end of the booking
+     * @param cancel     whether the customer cancels the booking after making it
+     * @param choiceSeed seed for the customer's own choices, such as which slots to try
+     */
+    record Arrival(int sequence, boolean car, LocalDateTime start, LocalDateTime end, boolean cancel, long choiceSeed) {}
+
+    private final SimulationSettings settings;
+    private final LocalDateTime origin;
+    private final double carShare;
+    private final boolean[] rushHours;
+    private final double baseRate;
+    private final double peakRate;
+    private final double horizonSeconds;
+    private final double dwellMu;
+    private final SplittableRandom random;
+    private double clockSeconds;
+    private int sequence;
+
+    /**
+     * @param settings the traffic parameters
+     * @param origin   the simulated time of the first possible arrival
+     * @param carShare the fraction of customers arriving by car
+     */
+    TrafficModel(SimulationSettings settings, LocalDateTime origin, double carShare) {
+        this.settings = settings;
+        this.origin = origin;
+        this.carShare = carShare;
+        this.rushHours = settings.rushHourTable();
+        this.baseRate = settings.arrivalsPerHour() / 3600.0;
+        boolean anyRush = false;
+        for (boolean rush : rushHours) anyRush |= rush;
+        this.peakRate = anyRush ? baseRate * settings.rushMultiplier() : baseRate;
+        this.horizonSeconds = settings.hours() * 3600.0;
+        this.dwellMu = Math.log(settings.dwellMinutes()) - DWELL_SIGMA * DWELL_SIGMA / 2;
+        this.random = new SplittableRandom(settings.seed());
+    }
+
+    /**
+     * @return the next arrival, or {@code null} once the simulated period is over
+     */
+    Arrival next() {
+        do {
+            clockSeconds += exponential(1 / peakRate);
+            if (clockSeconds >= horizonSeconds) return null;
+        } while (random.nextDouble() * peakRate >= rateAt(clockSeconds));
+
+        LocalDateTime arrival = origin.plusSeconds((long) clockSeconds);
+        LocalDateTime start = arrival.plusSeconds((long) (exponential(settings.leadMinutes()) * 60))
+                .truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        long dwell = Math.max(1, Math.round(Math.exp(dwellMu + DWELL_SIGMA * random.nextGaussian())));
+        return new Arrival(sequence++, random.nextDouble() < carShare, start, start.plusMinutes(dwell),
+                random.nextDouble() < settings.cancelRatio(), random.nextLong());
+    }
+
+    private double rateAt(double seconds) {
+        int hourOfDay = (origin.getHour() + (int) (seconds / 3600)) % 24;
+        return rushHours[hourOfDay] ? peakRate : baseRate;
+    }
+
+    private double exponential(double mean) {
+        return -Math.log(1 - random.nextDouble()) * mean;
+    }
+}
@@ -0,0 +1,129 @@
+package org.chandra.smartparkingslotbookingsystem.simulation;
+
+import org.chandra.smartparkingslotbookingsystem.metrics.LatencyHistogram;
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotFilter;
+import org.chandra.smartparkingslotbookingsystem.service.BookingService;
+import org.chandra.smartparkingslotbookingsystem.service.SlotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays synthetic parking traffic against {@link BookingService} and {@link SlotService}.
+ * <p>
+ * Arrivals from a {@link TrafficModel} are handed, in order and as fast as the services
+ * accept them, to a fixed number of concurrent customers running on platform or virtual
+ * threads. A customer picks random slots of their vehicle type and tries to book each in
+ * turn until one succeeds or their attempts run out, and may cancel the booking again.
+ * </p>
+ */
+public class TrafficSimulator {
+    private static final Logger log = LoggerFactory.getLogger(TrafficSimulator.class);
+
+    private final BookingService bookingService;
+    private final SlotService slotService;
+    private final SimulationSettings settings;
+
+    private final LatencyHistogram bookingLatency = new LatencyHistogram();
+    private final LatencyHistogram cancelLatency = new LatencyHistogram();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+
+    public TrafficSimulator(BookingService bookingService, SlotService slotService, SimulationSettings settings) {
+        this.bookingService = bookingService;
+        this.slotService = slotService;
+        this.settings = settings;
+    }
+
+    /**
+     * Runs the simulation to completion.
+     *
+     * @param origin the simulated start time; arrivals and bookings follow it
+     * @return the collected figures
+     */
+    public SimulationReport run(LocalDateTime origin) {
+        List<String> carSlots = slotIds("Car");
+        List<String> bikeSlots = slotIds("Bike");
+        int slots = carSlots.size() + bikeSlots.size();
+        if (slots == 0) throw new IllegalStateException("No Car or Bike slots to simulate against");
+        TrafficModel model = new TrafficModel(settings, origin, (double) carSlots.size() / slots);
+        String threadKind = settings.virtualThreads() ? "virtual" : "platform";
+        log.info("Simulating {}h of traffic on {} slots with {} {} threads...", settings.hours(), slots, settings.threads(), threadKind);
+
+        Semaphore customers = new Semaphore(settings.threads());
+        long arrivals = 0;
+        long started = System.nanoTime();
+        try (ExecutorService executor = newExecutor()) {
+            for (TrafficModel.Arrival arrival; (arrival = model.next()) != null; arrivals++) {
+                customers.acquireUninterruptibly();
+                TrafficModel.Arrival customer = arrival;
+                executor.execute(() -> {
+                    try {
+                        serve(customer, customer.car() ? carSlots : bikeSlots);
+                    } catch (RuntimeException e) {
+                        log.warn("Simulated customer {} failed: {}", customer.sequence(), e.getMessage());
+                        rejected.increment();
+                    } finally {
+                        customers.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        return new SimulationReport(slots, settings.threads(), threadKind,
+                arrivals, attempts.sum(), created.sum(), rejected.sum(), cancelled.sum(), elapsed,
+                SimulationReport.Latency.of(bookingLatency), SimulationReport.Latency.of(cancelLatency));
+    }
+
+    private void serve(TrafficModel.Arrival arrival, List<String> candidates) {
+        if (candidates.isEmpty()) {
+            rejected.increment();
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(arrival.choiceSeed());
+        String phone = String.format("8%09d", arrival.sequence());
+        Booking booking = null;
+        for (int attempt = 0; attempt < settings.maxAttempts() && booking == null; attempt++) {
+            String slotId = candidates.get(random.nextInt(candidates.size()));
+            long start = System.nanoTime();
+            booking = bookingService.createBooking("Sim Customer " + arrival.sequence(), "sim" + arrival.sequence() + "@example.com",
+                    phone, "SIM-" + arrival.sequence(), slotId, arrival.start(), arrival.end());
+            bookingLatency.record(System.nanoTime() - start);
+            attempts.increment();
+        }
+        if (booking == null) {
+            rejected.increment();
+            return;
+        }
+        created.increment();
+        if (arrival.cancel()) {
+            long start = System.nanoTime();
+            bookingService.cancelBooking(booking.getBookingId());
+            cancelLatency.record(System.nanoTime() - start);
+            cancelled.increment();
+        }
+    }
+
+    private List<String> slotIds(String type) {
+        try (var slots = slotService.streamSlots(SlotFilter.ofType(type))) {
+            return slots.map(ParkingSlot::getId).toList();
+        }
+    }
+
+    private ExecutorService newExecutor() {
+        return settings.virtualThreads()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sim-customer-", 0).factory())
+                : Executors.newFixedThreadPool(settings.threads(), Thread.ofPlatform().name("sim-customer-", 0).factory());
+    }
+}
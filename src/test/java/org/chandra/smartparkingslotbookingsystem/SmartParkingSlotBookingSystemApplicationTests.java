@@ -1,11 +1,25 @@
 package org.chandra.smartparkingslotbookingsystem;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
-@SpringBootTest
+import java.nio.file.Path;
+
+@SpringBootTest(properties = "console.enabled=false")
 class SmartParkingSlotBookingSystemApplicationTests {
 
+    @TempDir
+    static Path dataDir;
+
+    // each run starts from an empty journal of its own instead of replaying earlier runs
+    @DynamicPropertySource
+    static void journalInTempDir(DynamicPropertyRegistry registry) {
+        registry.add("booking.journal.path", () -> dataDir.resolve("booking.journal").toString());
+    }
+
     @Test
     void contextLoads() {
     }
@@ -0,0 +1,34 @@
+package org.chandra.smartparkingslotbookingsystem;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking fixtures shared by the repository, service and replication tests.
+ */
+public final class TestBookings {
+
+    /**
+     * A fixed morning that test booking windows are laid out from.
+     */
+    public static final LocalDateTime NINE = LocalDateTime.of(2025, 11, 7, 9, 0);
+
+    private TestBookings() {
+    }
+
+    /**
+     * @return an active two-hour booking of 100 by "User {@code id}"
+     */
+    public static Booking booking(long id, String phone, String slotId, LocalDateTime start) {
+        return booking(id, phone, slotId, start, start.plusHours(2), BookingStatus.ACTIVE, 100);
+    }
+
+    public static Booking booking(long id, String phone, String slotId, LocalDateTime start, LocalDateTime end,
+                                  BookingStatus status, double amount) {
+        return new Booking(BookingId.format(id), "User " + id, "u" + id + "@mail.com", phone, "KA-" + id, slotId,
+                start, end, status, amount);
+    }
+}
@@ -0,0 +1,101 @@
+package org.chandra.smartparkingslotbookingsystem.http;
+
+import org.chandra.smartparkingslotbookingsystem.json.Json;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"console.enabled=false", "http.port=0", "http.host=127.0.0.1",
+        "http.admin-token=secret", "booking.journal.enabled=false", "metrics.jmx.enabled=false",
+        "http.data-dir=${java.io.tmpdir}/smart-parking-slot-booking-test/http"})
+@ActiveProfiles({"dev", "http"})
+class HttpApiServerTests {
+
+    @Autowired
+    private HttpApiServer server;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private HttpResponse<String> send(String method, String path, String body, String... headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (headers.length > 0) request.headers(headers);
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void booksLooksUpAndCancelsOverHttp() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0).withSecond(0);
+        String booking = Json.write(Map.of("userName", "Ann", "userEmail", "ann@example.com", "userPhone", "5550001",
+                "vehicleNumber", "KA01", "slotId", "C-101", "startTime", start, "endTime", start.plusHours(2)));
+
+        HttpResponse<String> created = send("POST", "/api/bookings", booking);
+        assertEquals(201, created.statusCode(), created.body());
+        String id = (String) ((Map<String, Object>) Json.parse(created.body())).get("bookingId");
+
+        assertEquals(409, send("POST", "/api/bookings", booking).statusCode());
+        assertEquals(200, send("GET", "/api/bookings/" + id + "?phone=5550001", null).statusCode());
+        List<Object> mine = (List<Object>) Json.parse(send("GET", "/api/bookings?phone=5550001&email=ann@example.com", null).body());
+        assertEquals(1, mine.size());
+
+        HttpResponse<String> cancelled = send("DELETE", "/api/bookings/" + id + "?phone=5550001", null);
+        assertEquals("CANCELLED", ((Map<String, Object>) Json.parse(cancelled.body())).get("status"));
+        assertEquals(404, send("GET", "/api/bookings/BKG-NOPE?phone=5550001", null).statusCode());
+        assertEquals(400, send("POST", "/api/bookings", "{\"userName\":").statusCode());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onlyTheBookingsOwnerCanReadOrCancelIt() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(4).withNano(0).withSecond(0);
+        HttpResponse<String> created = send("POST", "/api/bookings", Json.write(Map.of("userName", "Bea", "userEmail", "bea@example.com",
+                "userPhone", "5550002", "vehicleNumber", "KA02", "slotId", "C-102", "startTime", start, "endTime", start.plusHours(1))));
+        assertEquals(201, created.statusCode(), created.body());
+        String id = (String) ((Map<String, Object>) Json.parse(created.body())).get("bookingId");
+
+        assertEquals(400, send("GET", "/api/bookings/" + id, null).statusCode());
+        assertEquals(404, send("GET", "/api/bookings/" + id + "?phone=5559999", null).statusCode());
+        assertEquals(404, send("DELETE", "/api/bookings/" + id + "?phone=5559999", null).statusCode());
+        assertEquals(400, send("GET", "/api/bookings?phone=5550002", null).statusCode());
+        assertEquals(List.of(), Json.parse(send("GET", "/api/bookings?phone=5550002&email=eve@example.com", null).body()));
+        assertEquals(1, ((List<Object>) Json.parse(send("GET", "/api/bookings?phone=5550002&email=BEA@example.com", null).body())).size());
+        assertEquals("ACTIVE", ((Map<String, Object>) Json.parse(send("GET", "/api/bookings/" + id + "?phone=5550002", null).body())).get("status"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchesSlotsAndGuardsAdminRoutes() throws Exception {
+        Map<String, Object> page = (Map<String, Object>) Json.parse(send("GET", "/api/slots?type=Car&limit=1", null).body());
+        assertEquals(1, ((List<Object>) page.get("items")).size());
+        assertNotNull(page.get("nextCursor"));
+
+        assertEquals(401, send("GET", "/api/admin/metrics", null).statusCode());
+        assertEquals(401, send("GET", "/api/admin/metrics", null, ParkingApi.ADMIN_TOKEN_HEADER, "wrong").statusCode());
+        assertEquals(200, send("GET", "/api/admin/metrics", null, ParkingApi.ADMIN_TOKEN_HEADER, "secret").statusCode());
+        assertEquals(405, send("PUT", "/api/slots", "{}").statusCode());
+    }
+
+    @Test
+    void confinesSnapshotAndImportFilesToTheDataDirectory() throws Exception {
+        String[] admin = {ParkingApi.ADMIN_TOKEN_HEADER, "secret"};
+        assertEquals(200, send("POST", "/api/admin/snapshot", "{\"path\":\"slots.snapshot\"}", admin).statusCode());
+        assertEquals(400, send("POST", "/api/admin/snapshot", "{\"path\":\"../escaped.snapshot\"}", admin).statusCode());
+        assertEquals(400, send("POST", "/api/admin/snapshot", "{\"path\":\"nested/../../escaped.snapshot\"}", admin).statusCode());
+        String outside = Json.write(Map.of("path", Path.of(System.getProperty("java.io.tmpdir"), "escaped.csv").toString()));
+        assertEquals(400, send("POST", "/api/admin/import", outside, admin).statusCode());
+        assertEquals(400, send("POST", "/api/admin/import", "{\"path\":\".\"}", admin).statusCode());
+    }
+}
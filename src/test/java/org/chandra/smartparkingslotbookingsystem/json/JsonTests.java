@@ -0,0 +1,47 @@
+package org.chandra.smartparkingslotbookingsystem.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTests {
+
+    @Test
+    void readsEveryValueTypeAndEscape() {
+        Object value = Json.parse(" {\"name\": \"Caf\\u00e9\\n\\t\\\"A1\\\" \\\\ \\/\", \"count\": 18, \"rate\": -12.5e1,"
+                + " \"ok\": true, \"no\": false, \"none\": null, \"items\": [1, [], {}]} ");
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("name", "Café\n\t\"A1\" \\ /");
+        expected.put("count", 18L);
+        expected.put("rate", -125.0);
+        expected.put("ok", true);
+        expected.put("no", false);
+        expected.put("none", null);
+        expected.put("items", List.of(1L, List.of(), Map.of()));
+        assertEquals(expected, value);
+    }
+
+    @Test
+    void writesWhatItReads() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("text", "line\nbreak\ttab \"quoted\" \\ \u0001");
+        value.put("day", LocalDate.of(2025, 11, 7));
+        value.put("list", List.of(1, 2.5, false));
+
+        String text = Json.write(value);
+        assertEquals("{\"text\":\"line\\nbreak\\ttab \\\"quoted\\\" \\\\ \\u0001\",\"day\":\"2025-11-07\",\"list\":[1,2.5,false]}", text);
+        assertEquals("line\nbreak\ttab \"quoted\" \\ \u0001", ((Map<?, ?>) Json.parse(text)).get("text"));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        for (String text : List.of("", "{", "{\"a\" 1}", "[1,]", "\"\\x\"", "\"\\u12\"", "\"open", "tru", "{} {}", "01x"))
+            assertThrows(IllegalArgumentException.class, () -> Json.parse(text), text);
+    }
+}
@@ -0,0 +1,37 @@
+package org.chandra.smartparkingslotbookingsystem.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTests {
+
+    @Test
+    void bucketsCoverEveryValueWithinRelativeError() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            long lower = LatencyHistogram.lowerBoundOf(LatencyHistogram.indexOf(value));
+            assertTrue(lower <= value, "lower bound above " + value);
+            assertTrue(value - lower <= value / 16, "bucket too wide for " + value);
+        }
+    }
+
+    @Test
+    void reportsPercentilesOfRecordedLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1_000; micros++) histogram.record(micros * 1_000);
+
+        assertEquals(1_000, histogram.count());
+        assertEquals(500_000, histogram.percentileNanos(0.50), 500_000 / 16.0);
+        assertEquals(990_000, histogram.percentileNanos(0.99), 990_000 / 16.0);
+        assertEquals(1_000_000, histogram.maxNanos());
+        assertEquals(500_500, histogram.meanNanos(), 0.001);
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentileNanos(0.999));
+        assertEquals(0, histogram.meanNanos());
+    }
+}
@@ -0,0 +1,71 @@
+package org.chandra.smartparkingslotbookingsystem.pricing;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.ConcurrentSlotRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotOccupancy;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingEngineTests {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 11, 7, 0, 0);
+    private static final SlotOccupancy EMPTY = new SlotOccupancy("CAR", "A1", 10, 0);
+
+    @Test
+    void pricesTariffsBandsAndSurgeInExactMinorUnits() {
+        PricingEngine engine = new PricingEngine("Car=60,Car@A1=80.50", "8-10:125,22-6:80", "50:120,90:150", 1024);
+        CarParkingSlot car = new CarParkingSlot("C-1", "Car", "a1", 50, true, false, 15);
+        CarParkingSlot elsewhere = new CarParkingSlot("C-2", "Car", "B2", 50, true, false, 15);
+        BikeParkingSlot bike = new BikeParkingSlot("B-1", "Bike", "A1", 20.5, true, false, true);
+
+        // hours starting 07:30, 08:30 and 09:30 cost 100% + 125% + 125% of the location tariff
+        Quote morning = engine.quote(car, DAY.plusHours(7).plusMinutes(30), DAY.plusHours(10).plusMinutes(10), EMPTY);
+        assertEquals(3, morning.hours());
+        assertEquals(8050, morning.hourlyRateMinor());
+        assertEquals(28_175, morning.amountMinor());
+        assertEquals(281.75, morning.amount());
+
+        Quote surged = engine.quote(car, DAY.plusHours(7).plusMinutes(30), DAY.plusHours(10), new SlotOccupancy("CAR", "A1", 10, 5));
+        assertEquals(120, surged.surgePercent());
+        assertEquals(33_810, surged.amountMinor());
+
+        // a day and two hours from 21:00 crosses the night band twice
+        assertEquals(6000 * 2470 / 100, engine.quote(elsewhere, DAY.plusHours(21), DAY.plusHours(47), EMPTY).amountMinor());
+        // no bike tariff: the slot's own rate, one started hour at 125%, rounded half up once
+        assertEquals(2563, engine.quote(bike, DAY.plusHours(9), DAY.plusHours(9).plusMinutes(1), EMPTY).amountMinor());
+
+        assertSame(morning, engine.quote(car, DAY.plusDays(3).plusHours(7), DAY.plusDays(3).plusHours(9).plusMinutes(1), EMPTY),
+                "same stay length from the same hour of the day is served from the cache");
+        assertThrows(IllegalArgumentException.class, () -> engine.quote(car, DAY, DAY, EMPTY));
+        assertThrows(IllegalArgumentException.class, () -> new PricingEngine("Car=1.234", "", "", 16));
+        assertThrows(IllegalArgumentException.class, () -> new PricingEngine("", "8-8:100", "", 16));
+        assertEquals(150, new PricingEngine().quote(car, DAY.plusHours(8), DAY.plusHours(11), EMPTY).amountMinor() / 100);
+    }
+
+    @Test
+    void occupancyFollowsReservationsMovesAndDeletes() {
+        ConcurrentSlotRepository repository = new ConcurrentSlotRepository(4) {};
+        for (int i = 0; i < 4; i++) repository.save(new CarParkingSlot("C-" + i, "Car", "A1", 50, true, false, 15));
+        repository.save(new BikeParkingSlot("B-1", "Bike", "A1", 20, true, false, true));
+
+        assertTrue(repository.tryReserve("C-0"));
+        assertTrue(repository.tryReserve("C-1"));
+        assertFalse(repository.tryReserve("C-1"));
+        assertEquals(new SlotOccupancy("CAR", "A1", 4, 2), repository.occupancy("car", " a1 "));
+        assertEquals(50, repository.occupancy("Car", "A1").percent());
+
+        repository.release("C-0");
+        repository.release("C-0");
+        repository.update(new CarParkingSlot("C-1", "Car", "B2", 50, false, false, 15));
+        repository.delete(repository.findById("C-2").orElseThrow());
+
+        assertEquals(new SlotOccupancy("CAR", "A1", 2, 0), repository.occupancy("Car", "A1"));
+        assertEquals(new SlotOccupancy("CAR", "B2", 1, 1), repository.occupancy("Car", "B2"));
+        assertEquals(new SlotOccupancy("BIKE", "A1", 1, 0), repository.occupancy("Bike", "A1"));
+        assertEquals(0, repository.occupancy("Bike", "Z9").total());
+    }
+}
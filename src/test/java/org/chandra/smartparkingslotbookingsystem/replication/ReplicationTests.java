@@ -0,0 +1,113 @@
+package org.chandra.smartparkingslotbookingsystem.replication;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingJournal;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.ChangeFeed;
+import org.chandra.smartparkingslotbookingsystem.repository.ConcurrentSlotRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.ReplicaStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.NINE;
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.booking;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationTests {
+
+    private static final class Node {
+        final ChangeFeed feed = new ChangeFeed();
+        final ConcurrentSlotRepository slots = new ConcurrentSlotRepository() {};
+        final BookingRepository bookings;
+        final ReplicaStore store;
+
+        Node() {
+            slots.setChangeFeed(feed);
+            bookings = new BookingRepository(BookingJournal.disabled(), feed, slots);
+            store = new ReplicaStore(slots, bookings);
+        }
+    }
+
+    @Test
+    void followerCatchesUpFromSnapshotAndThenFollowsChanges() throws Exception {
+        Node leader = new Node();
+        Node follower = new Node();
+        leader.slots.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        leader.slots.save(new BikeParkingSlot("B-1", "Bike", "B1", 20, true, false, true));
+        leader.bookings.save(booking(1, "5550001", "C-1", NINE));
+        leader.slots.tryReserve("C-1");
+        follower.slots.save(new CarParkingSlot("STALE", "Car", "Z9", 10, true, false, 15));
+
+        ReplicationLeader replicationLeader = new ReplicationLeader(leader.store, leader.feed, "127.0.0.1", 0, 50, 10_000);
+        replicationLeader.start();
+        ReplicationFollower replicationFollower = new ReplicationFollower(follower.store, "127.0.0.1", replicationLeader.port(), 50, 50);
+        replicationFollower.start();
+        try {
+            await(replicationFollower::isSynchronized);
+            assertTrue(follower.slots.findById("STALE").isEmpty());
+            assertEquals(0, follower.slots.countAvailableByType("Car"));
+            assertEquals(List.of("B-1"), follower.slots.findAvailableByType("Bike").stream().map(s -> s.getId()).toList());
+            assertEquals(1, follower.bookings.findByUserPhone("5550001").size());
+
+            leader.bookings.updateStatus(BookingId.format(1), BookingStatus.COMPLETED);
+            leader.slots.release("C-1");
+            leader.bookings.save(booking(2, "5550002", "B-1", NINE));
+            leader.slots.tryReserve("B-1");
+            leader.slots.delete(leader.slots.findById("C-1").orElseThrow());
+
+            await(() -> follower.bookings.findById(BookingId.format(2)).isPresent()
+                    && follower.slots.findById("C-1").isEmpty());
+            assertEquals(BookingStatus.COMPLETED, follower.bookings.findById(BookingId.format(1)).orElseThrow().getStatus());
+            assertEquals(0, follower.slots.countAvailableByType("Bike"));
+            assertEquals(1, replicationLeader.followers());
+        } finally {
+            replicationFollower.stop();
+            replicationLeader.stop();
+        }
+    }
+
+    @Test
+    void resyncKeepsPreviousStateReadableUntilSnapshotIsLoaded() {
+        Node leader = new Node();
+        Node follower = new Node();
+        follower.slots.save(new CarParkingSlot("OLD", "Car", "Z9", 10, true, false, 15));
+        follower.bookings.save(booking(9, "5550009", "OLD", NINE));
+        leader.slots.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        leader.bookings.save(booking(1, "5550001", "C-1", NINE));
+        List<ByteBuffer> snapshot = new ArrayList<>();
+        leader.store.snapshot(snapshot::add);
+
+        snapshot.forEach(follower.store::apply);
+        assertTrue(follower.slots.findById("OLD").isPresent());
+        assertTrue(follower.slots.findById("C-1").isEmpty());
+        assertEquals(1, follower.bookings.findByUserPhone("5550009").size());
+        assertEquals(1, follower.slots.snapshot().size());
+
+        long sequence = follower.slots.snapshot().sequence();
+        follower.store.finishSnapshot();
+        assertTrue(follower.slots.findById("OLD").isEmpty());
+        assertEquals("A1", follower.slots.findById("C-1").orElseThrow().getLocation());
+        assertTrue(follower.bookings.findByUserPhone("5550009").isEmpty());
+        assertEquals(1, follower.bookings.findByUserPhone("5550001").size());
+        assertEquals(1, follower.slots.snapshot().size());
+        assertTrue(follower.slots.snapshot().sequence() > sequence);
+
+        assertTrue(follower.slots.tryReserve("C-1"));
+        assertEquals(0, follower.slots.countAvailableByType("Car"));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("Follower did not catch up in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityBitmapTests {
+
+    @Test
+    void tracksCardinalityOnlyForRealFlips() {
+        AvailabilityBitmap bitmap = new AvailabilityBitmap();
+        assertTrue(bitmap.set(3));
+        assertFalse(bitmap.set(3));
+        assertTrue(bitmap.set(70_000));
+        assertEquals(2, bitmap.cardinality());
+
+        assertTrue(bitmap.clear(3));
+        assertFalse(bitmap.clear(3));
+        assertFalse(bitmap.clear(5_000_000));
+        assertEquals(1, bitmap.cardinality());
+    }
+
+    @Test
+    void findsNextSetBitAcrossWordsAndPages() {
+        AvailabilityBitmap bitmap = new AvailabilityBitmap();
+        bitmap.set(63);
+        bitmap.set(64);
+        bitmap.set(100_000);
+
+        assertEquals(63, bitmap.nextSetBit(0));
+        assertEquals(64, bitmap.nextSetBit(64));
+        assertEquals(100_000, bitmap.nextSetBit(65));
+        assertEquals(-1, bitmap.nextSetBit(100_001));
+    }
+
+    @Test
+    void concurrentFlipsKeepAnExactCount() {
+        AvailabilityBitmap bitmap = new AvailabilityBitmap();
+        IntStream.range(0, 100_000).parallel().forEach(bitmap::set);
+        IntStream.range(0, 100_000).parallel().filter(i -> i % 4 == 0).forEach(bitmap::clear);
+
+        assertEquals(75_000, bitmap.cardinality());
+        assertFalse(bitmap.get(40_000));
+        assertTrue(bitmap.get(40_001));
+    }
+}
@@ -0,0 +1,233 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.NINE;
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.booking;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingJournalTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysSavesStatusChangesAndDeletes() {
+        Path file = dir.resolve("bookings.journal");
+        BookingJournal journal = new BookingJournal(true, file.toString(), true);
+        BookingRepository repository = open(journal);
+        for (long id = 1; id <= 3; id++) repository.save(booking(id, "5550001", "C-1", NINE.plusHours(id)));
+        assertTrue(repository.updateStatus(BookingId.format(2), BookingStatus.ACTIVE, BookingStatus.CANCELLED));
+        repository.delete(BookingId.format(3));
+        journal.close();
+
+        BookingRepository restored = open(new BookingJournal(true, file.toString(), true));
+        assertEquals(BookingStatus.ACTIVE, restored.findById(BookingId.format(1)).orElseThrow().getStatus());
+        assertEquals(BookingStatus.CANCELLED, restored.findById(BookingId.format(2)).orElseThrow().getStatus());
+        assertTrue(restored.findById(BookingId.format(3)).isEmpty());
+        assertEquals(2, restored.findByUserPhone("5550001").size());
+    }
+
+    @Test
+    void truncatesTornTailAndKeepsAppending() throws IOException {
+        Path file = dir.resolve("bookings.journal");
+        BookingJournal journal = new BookingJournal(true, file.toString(), false);
+        open(journal).save(booking(1, "5550001", "C-1", NINE.plusHours(1)));
+        journal.close();
+        long intact = Files.size(file);
+        // a record header promising more bytes than were written, as after a crash mid-write
+        Files.write(file, new byte[]{0, 0, 0, 64, 1, 2, 3, 4, 5, 6}, StandardOpenOption.APPEND);
+
+        journal = new BookingJournal(true, file.toString(), false);
+        BookingRepository restored = open(journal);
+        assertEquals(intact, Files.size(file));
+        restored.save(booking(2, "5550001", "C-1", NINE.plusHours(2)));
+        journal.close();
+
+        BookingRepository reopened = open(new BookingJournal(true, file.toString(), false));
+        assertTrue(reopened.findById(BookingId.format(1)).isPresent());
+        assertTrue(reopened.findById(BookingId.format(2)).isPresent(), "records appended after the torn tail survive");
+    }
+
+    @Test
+    void concurrentSavesShareGroupCommitsAndAllReplay() throws Exception {
+        Path file = dir.resolve("bookings.journal");
+        BookingJournal journal = new BookingJournal(true, file.toString(), true);
+        BookingRepository repository = open(journal);
+        int threads = 8, perThread = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            Future<?>[] workers = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                long first = 1 + (long) t * perThread;
+                workers[t] = executor.submit(() -> {
+                    start.await();
+                    for (long id = first; id < first + perThread; id++) repository.save(booking(id, "5550001", "C-1", NINE.plusHours(id)));
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> worker : workers) worker.get();
+        }
+        journal.close();
+
+        BookingJournal reopened = new BookingJournal(true, file.toString(), true);
+        BookingRepository restored = new BookingRepository(reopened);
+        assertEquals(threads * perThread, reopened.open(restored::apply, restored::snapshot));
+        assertEquals(threads * perThread, restored.findByUserPhone("5550001").size());
+        reopened.close();
+    }
+
+    @Test
+    void compactsIntoSnapshotOfCurrentBookings() throws IOException {
+        Path file = dir.resolve("bookings.journal");
+        BookingJournal journal = new BookingJournal(true, file.toString(), false, 4096);
+        BookingRepository repository = open(journal);
+        long written = 0;
+        for (long id = 1; id <= 200; id++) {
+            repository.save(booking(id, "5550001", "C-1", NINE.plusHours(id)));
+            if (id % 2 == 0) repository.delete(BookingId.format(id));
+            else repository.updateStatus(BookingId.format(id), BookingStatus.COMPLETED);
+            written += 3;
+        }
+        journal.close();
+        assertFalse(Files.exists(dir.resolve("bookings.journal.compact")));
+
+        BookingJournal reopened = new BookingJournal(true, file.toString(), false, 4096);
+        BookingRepository restored = new BookingRepository(reopened);
+        int replayed = reopened.open(restored::apply, restored::snapshot);
+        reopened.close();
+        assertTrue(replayed < written, "replayed " + replayed + " of " + written + " records");
+        assertEquals(100, restored.findByUserPhone("5550001").size());
+        assertEquals(BookingStatus.COMPLETED, restored.findById(BookingId.format(199)).orElseThrow().getStatus());
+        assertTrue(restored.findById(BookingId.format(200)).isEmpty());
+    }
+
+    @Test
+    void compactedJournalPastTheThresholdWaitsToDoubleBeforeCompactingAgain() {
+        Path file = dir.resolve("bookings.journal");
+        BookingJournal journal = new BookingJournal(true, file.toString(), false, 4096);
+        BookingRepository repository = open(journal);
+        for (long id = 1; id <= 100; id++) repository.save(booking(id, "5550001", "C-1", NINE.plusHours(id)));
+        journal.close();
+
+        // the first batch after opening compacts the journal to a snapshot well past the threshold;
+        // the nine status records after it are appended instead of compacting it again every batch
+        journal = new BookingJournal(true, file.toString(), false, 4096);
+        repository = open(journal);
+        for (long id = 1; id <= 10; id++)
+            assertTrue(repository.updateStatus(BookingId.format(id), BookingStatus.ACTIVE, BookingStatus.COMPLETED));
+        journal.close();
+
+        BookingJournal reopened = new BookingJournal(true, file.toString(), false, 4096);
+        BookingRepository restored = new BookingRepository(reopened);
+        assertEquals(100 + 9, reopened.open(restored::apply, restored::snapshot));
+        reopened.close();
+        assertEquals(BookingStatus.COMPLETED, restored.findById(BookingId.format(10)).orElseThrow().getStatus());
+    }
+
+    @Test
+    void rejectsFieldsTooLongForTheJournalBeforeStoringAnything() {
+        Path file = dir.resolve("bookings.journal");
+        BookingJournal journal = new BookingJournal(true, file.toString(), false);
+        BookingRepository repository = open(journal);
+        String longest = "x".repeat(BookingJournal.MAX_STRING_BYTES);
+        Booking fits = new Booking(BookingId.format(1), longest, "u@mail.com", "5550001", "KA-1", "C-1",
+                NINE, NINE.plusHours(1), BookingStatus.ACTIVE, 50);
+        // 16384 characters, but 32768 bytes in UTF-8
+        Booking tooLong = new Booking(BookingId.format(2), "\u00e9".repeat(16_384), "u@mail.com", "5550001", "KA-2", "C-1",
+                NINE, NINE.plusHours(1), BookingStatus.ACTIVE, 50);
+
+        repository.save(fits);
+        assertThrows(IllegalArgumentException.class, () -> repository.save(tooLong));
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(List.of(booking(3, "5550001", "C-1", NINE.plusHours(3)), tooLong)));
+        assertThrows(IllegalArgumentException.class, () -> journal.appendSave(tooLong));
+        assertTrue(repository.findById(BookingId.format(2)).isEmpty());
+        assertTrue(repository.findById(BookingId.format(3)).isEmpty(), "a batch with a field too long stores nothing");
+        repository.save(booking(4, "5550001", "C-1", NINE.plusHours(4)));
+        journal.close();
+
+        BookingRepository restored = open(new BookingJournal(true, file.toString(), false));
+        assertEquals(longest, restored.findById(BookingId.format(1)).orElseThrow().getUserName());
+        assertTrue(restored.findById(BookingId.format(4)).isPresent(), "records after the longest field replay in place");
+        assertEquals(2, restored.findByUserPhone("5550001").size());
+    }
+
+    @Test
+    void saveIsRolledBackWhenTheJournalFails() {
+        BookingJournal failing = new BookingJournal(false, "", false) {
+            @Override
+            public CompletableFuture<Void> appendSave(Booking booking) {
+                return CompletableFuture.failedFuture(new IOException("disk full"));
+            }
+        };
+        BookingRepository repository = new BookingRepository(failing);
+
+        assertThrows(UncheckedIOException.class, () -> repository.save(booking(1, "5550001", "C-1", NINE.plusHours(1))));
+        assertTrue(repository.findById(BookingId.format(1)).isEmpty());
+        assertTrue(repository.findByUserPhone("5550001").isEmpty());
+        assertEquals(0, repository.bookingTotals().stream().mapToLong(BookingTotals::activeBookings).sum());
+    }
+
+    @Test
+    void statusChangesAndDeletesAreRolledBackWhenTheJournalFails() {
+        AtomicBoolean diskFull = new AtomicBoolean();
+        BookingJournal failing = new BookingJournal(false, "", false) {
+            @Override
+            public CompletableFuture<Void> appendStatus(String bookingId, BookingStatus status) {
+                return diskFull.get() ? CompletableFuture.failedFuture(new IOException("disk full")) : super.appendStatus(bookingId, status);
+            }
+
+            @Override
+            public CompletableFuture<Void> appendDelete(String bookingId) {
+                return diskFull.get() ? CompletableFuture.failedFuture(new IOException("disk full")) : super.appendDelete(bookingId);
+            }
+        };
+        BookingRepository repository = new BookingRepository(failing);
+        for (long id = 1; id <= 3; id++) repository.save(booking(id, "5550001", "C-1", NINE.plusHours(id)));
+        assertTrue(repository.updateStatus(BookingId.format(3), BookingStatus.COMPLETED));
+        List<BookingTotals> totals = repository.bookingTotals();
+        diskFull.set(true);
+
+        assertThrows(UncheckedIOException.class, () -> repository.updateStatus(BookingId.format(1), BookingStatus.ACTIVE, BookingStatus.CANCELLED));
+        assertThrows(UncheckedIOException.class, () -> repository.updateStatus(BookingId.format(3), BookingStatus.CANCELLED));
+        assertThrows(UncheckedIOException.class, () -> repository.delete(BookingId.format(2)));
+        assertThrows(UncheckedIOException.class, () -> repository.delete(BookingId.format(3)));
+
+        Booking first = repository.findById(BookingId.format(1)).orElseThrow();
+        assertEquals(BookingStatus.ACTIVE, first.getStatus());
+        assertEquals(0, first.getVersion());
+        assertEquals(BookingStatus.ACTIVE, repository.findById(BookingId.format(2)).orElseThrow().getStatus());
+        assertEquals(BookingStatus.COMPLETED, repository.findById(BookingId.format(3)).orElseThrow().getStatus());
+        assertEquals(2, repository.findActive().size());
+        assertEquals(3, repository.findByUserPhone("5550001").size());
+        assertEquals(totals, repository.bookingTotals());
+
+        diskFull.set(false);
+        assertTrue(repository.updateStatus(BookingId.format(1), BookingStatus.ACTIVE, BookingStatus.CANCELLED));
+        assertEquals(BookingStatus.CANCELLED, repository.findById(BookingId.format(1)).orElseThrow().getStatus());
+    }
+
+    private static BookingRepository open(BookingJournal journal) {
+        BookingRepository repository = new BookingRepository(journal);
+        repository.init();
+        return repository;
+    }
+}
@@ -0,0 +1,109 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.NINE;
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.booking;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingRepositoryTests {
+
+    @Test
+    void pagesThroughActiveAndFinishedBookingsInIdOrder() {
+        BookingRepository repository = repositoryWith(95);
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Page<Booking> page = repository.findPage(BookingFilter.all(), cursor, 10);
+            page.items().forEach(b -> seen.add(b.getBookingId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(10, pages);
+        assertEquals(LongStream.rangeClosed(1, 95).mapToObj(BookingId::format).toList(), seen);
+        assertEquals(95, repository.stream(BookingFilter.all()).count());
+    }
+
+    @Test
+    void filtersByStatusSlotAndDate() {
+        BookingRepository repository = repositoryWith(95);
+
+        BookingFilter cancelled = new BookingFilter(BookingStatus.CANCELLED, null, null, null);
+        assertTrue(repository.stream(cancelled).allMatch(b -> b.getStatus() == BookingStatus.CANCELLED));
+        assertEquals(31, repository.stream(cancelled).count());
+
+        BookingFilter slotAndDay = new BookingFilter(null, "c-3", NINE.toLocalDate().plusDays(3), LocalDate.of(2026, 1, 1));
+        List<Booking> matches = repository.findPage(slotAndDay, null, 100).items();
+        assertFalse(matches.isEmpty());
+        assertTrue(matches.stream().allMatch(b -> b.getSlotId().equals("C-3") && !b.getStartTime().isBefore(NINE.plusDays(3).withHour(0))));
+    }
+
+    @Test
+    void idAndPhoneIndexesFollowSavesStatusChangesAndDeletes() {
+        BookingRepository repository = new BookingRepository();
+        repository.save(booking(1, "5550001", "C-1", NINE.plusHours(2)));
+        repository.save(booking(2, "5550001", "C-1", NINE));
+        repository.save(booking(3, "5550002", "C-1", NINE));
+        repository.save(booking(1, "5550009", "C-1", NINE));
+
+        assertEquals("5550001", repository.findById(" " + BookingId.format(1).toLowerCase() + " ").orElseThrow().getUserPhone(),
+                "IDs match case-insensitively and a duplicate ID is skipped");
+        assertTrue(repository.findById("BKG-#").isEmpty());
+        assertEquals(List.of(BookingId.format(2), BookingId.format(1)), ids(repository.findByUserPhone(" 5550001 ")),
+                "a user's bookings come by start time");
+        assertTrue(repository.findByUserPhone("5550009").isEmpty());
+
+        assertTrue(repository.updateStatus(BookingId.format(2), BookingStatus.COMPLETED));
+        assertEquals(BookingStatus.COMPLETED, repository.findById(BookingId.format(2)).orElseThrow().getStatus());
+        assertEquals(List.of(BookingId.format(2), BookingId.format(1)), ids(repository.findByUserPhone("5550001")),
+                "finished bookings stay findable by phone");
+
+        repository.delete(BookingId.format(1));
+        repository.delete(BookingId.format(2));
+        assertTrue(repository.findById(BookingId.format(1)).isEmpty());
+        assertTrue(repository.findById(BookingId.format(2)).isEmpty());
+        assertTrue(repository.findByUserPhone("5550001").isEmpty());
+        assertEquals(List.of(BookingId.format(3)), ids(repository.findByUserPhone("5550002")));
+    }
+
+    @Test
+    void concurrentSavesAndStatusChangesAreAllIndexed() {
+        BookingRepository repository = new BookingRepository();
+        LongStream.rangeClosed(1, 20_000).parallel().forEach(id -> {
+            repository.save(booking(id, "555" + (id % 100), "C-1", NINE.plusMinutes(id)));
+            if (id % 2 == 0) assertTrue(repository.updateStatus(BookingId.format(id), BookingStatus.ACTIVE, BookingStatus.CANCELLED));
+        });
+
+        for (long id = 1; id <= 20_000; id++)
+            assertEquals(id % 2 == 0 ? BookingStatus.CANCELLED : BookingStatus.ACTIVE,
+                    repository.findById(BookingId.format(id)).orElseThrow().getStatus());
+        for (int phone = 0; phone < 100; phone++)
+            assertEquals(200, repository.findByUserPhone("555" + phone).size());
+        assertEquals(10_000, repository.findActive().size());
+    }
+
+    private static List<String> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getBookingId).toList();
+    }
+
+    private static BookingRepository repositoryWith(int count) {
+        BookingRepository repository = new BookingRepository();
+        for (int i = 1; i <= count; i++) {
+            repository.save(new Booking(BookingId.format(i), "User " + i, "u" + i + "@mail.com", "555" + (i % 7), "KA-" + i,
+                    "C-" + (i % 5), NINE.plusDays(i % 10), NINE.plusDays(i % 10).plusHours(2), BookingStatus.ACTIVE, 50));
+            if (i % 3 == 0) repository.updateStatus(BookingId.format(i), BookingStatus.CANCELLED);
+        }
+        return repository;
+    }
+}
@@ -0,0 +1,104 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.NINE;
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.booking;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactBookingStoreTests {
+
+    @Test
+    void materializesStoredBookings() {
+        CompactBookingStore store = new CompactBookingStore();
+        for (int i = 1; i <= 5_000; i++) {
+            String phone = "98765" + (i % 10);
+            store.add(i, booking(i, phone, "C-" + i, NINE.plusHours(i), NINE.plusHours(i + 2), BookingStatus.COMPLETED, 100), phone);
+        }
+
+        Booking booking = store.find(42).orElseThrow();
+        assertEquals(BookingId.format(42), booking.getBookingId());
+        assertEquals("User 42", booking.getUserName());
+        assertEquals("987652", booking.getUserPhone());
+        assertEquals("C-42", booking.getSlotId());
+        assertEquals(NINE.plusHours(42), booking.getStartTime());
+        assertEquals(NINE.plusHours(44), booking.getEndTime());
+        assertEquals(BookingStatus.COMPLETED, booking.getStatus());
+        assertEquals(100.0, booking.getTotalAmount());
+
+        assertEquals(500, store.findByPhone("987652").size());
+        assertFalse(store.add(42, booking(42, "987652", "C-42", NINE.plusHours(42), NINE.plusHours(44), BookingStatus.COMPLETED, 100), "987652"));
+    }
+
+    @Test
+    void updatesAndRemovesRows() {
+        CompactBookingStore store = new CompactBookingStore();
+        store.add(7, booking(7, "555", "C-7", NINE.plusHours(7), NINE.plusHours(9), BookingStatus.COMPLETED, 100), "555");
+        store.add(8, booking(8, "555", "C-8", NINE.plusHours(8), NINE.plusHours(10), BookingStatus.COMPLETED, 100), "555");
+
+        assertTrue(store.updateStatus(7, BookingStatus.CANCELLED));
+        assertEquals(BookingStatus.CANCELLED, store.find(7).orElseThrow().getStatus());
+        assertTrue(store.remove(8));
+        assertFalse(store.remove(8));
+        assertTrue(store.find(8).isEmpty());
+        assertEquals(List.of(BookingId.format(7)), store.findByPhone("555").stream().map(Booking::getBookingId).toList());
+        assertEquals(1, store.findAll(id -> false).size());
+        assertEquals(0, store.findAll(id -> id == 7).size());
+    }
+
+    @Test
+    void hashIndexMatchesHashMapUnderRandomPutsAndRemoves() {
+        LongIntHashIndex index = new LongIntHashIndex(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? LongIntHashIndex.MISSING : removed, index.remove(key));
+            } else {
+                expected.put(key, i);
+                index.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), index.size());
+        for (long key = 1; key <= 5_000; key++)
+            assertEquals(expected.getOrDefault(key, LongIntHashIndex.MISSING), index.get(key));
+    }
+
+    @Test
+    void pagesWalkRowsInIdOrderWhateverOrderTheyWereAdded() {
+        CompactBookingStore store = new CompactBookingStore();
+        List<Integer> order = new ArrayList<>(IntStream.rangeClosed(1, 3_000).boxed().toList());
+        Collections.shuffle(order, new Random(7));
+        for (int i : order) {
+            Booking booking = booking(i, "555", "C-" + i, NINE.plusHours(i), NINE.plusHours(i + 2), BookingStatus.COMPLETED, 100);
+            if (i % 3 == 0) booking.setStatus(BookingStatus.CANCELLED);
+            store.add(i, booking, "555");
+        }
+        store.remove(4);
+
+        BookingFilter completed = new BookingFilter(BookingStatus.COMPLETED, null, null, null);
+        List<Long> seen = new ArrayList<>();
+        long after = 0;
+        for (List<Booking> page; !(page = store.page(after, 100, completed)).isEmpty(); ) {
+            for (Booking booking : page) seen.add(BookingId.parse(booking.getBookingId()));
+            after = seen.getLast();
+        }
+        List<Long> expected = LongStream.rangeClosed(1, 3_000).filter(id -> id % 3 != 0 && id != 4).boxed().toList();
+        assertEquals(expected, seen);
+        assertEquals(List.of(BookingId.format(2999)), store.page(2998, 5, completed).stream().map(Booking::getBookingId).toList());
+    }
+}
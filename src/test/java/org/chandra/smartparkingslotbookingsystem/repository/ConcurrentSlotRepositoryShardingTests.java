@@ -0,0 +1,85 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentSlotRepositoryShardingTests {
+
+    private static final class ShardedRepository extends ConcurrentSlotRepository {
+        ShardedRepository() {
+            super(4);
+        }
+    }
+
+    @Test
+    void pagesAndFanOutCoverEveryShardOnce() {
+        ShardedRepository repository = new ShardedRepository();
+        repository.saveAll(IntStream.range(0, 12_000)
+                .mapToObj(i -> new CarParkingSlot("C-" + i, "Car", "L" + (i % 37), 50, i % 3 != 0, false, 15))
+                .toList());
+
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            Page<ParkingSlot> page = repository.findPage(SlotFilter.all(), cursor, 500);
+            page.items().forEach(slot -> assertTrue(seen.add(slot.getId()), slot.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertEquals(12_000, seen.size());
+
+        List<ParkingSlot> available = repository.findAvailableByType("car");
+        assertEquals(8_000, repository.countAvailableByType("Car"));
+        assertEquals(8_000, available.size());
+        assertEquals(8_000, new HashSet<>(available).size());
+    }
+
+    @Test
+    void slotMovedToAnotherLocationLeavesItsOldShard() {
+        ShardedRepository repository = new ShardedRepository();
+        for (int i = 0; i < 64; i++) repository.save(new CarParkingSlot("C-" + i, "Car", "L" + i, 50, true, false, 15));
+
+        repository.update(new CarParkingSlot("C-0", "Car", "L63", 40, true, false, 15));
+        assertTrue(repository.tryReserve("C-0"));
+
+        assertEquals(63, repository.countAvailableByType("Car"));
+        assertEquals(64, repository.stream(SlotFilter.all()).count());
+        assertEquals("L63", repository.findMatching(SlotQuery.cheapest("Car")).findFirst().orElseThrow().getLocation());
+    }
+
+    @Test
+    void clearedRepositoryReloadsLikeAFreshOne() {
+        List<ParkingSlot> reload = IntStream.range(0, 3_000)
+                .mapToObj(i -> (ParkingSlot) new CarParkingSlot("C-" + i, "Car", "M" + (i % 11), 50, i % 2 == 0, false, 15))
+                .toList();
+        ShardedRepository fresh = new ShardedRepository();
+        fresh.saveAll(reload);
+
+        ShardedRepository cleared = new ShardedRepository();
+        cleared.saveAll(IntStream.range(0, 5_000)
+                .mapToObj(i -> new CarParkingSlot((i % 2 == 0 ? "C-" : "X-") + i, "Car", "L" + (i % 7), 50, true, false, 15))
+                .toList());
+        cleared.clear();
+        assertEquals(0, cleared.snapshot().size());
+        assertEquals(0, cleared.stream(SlotFilter.all()).count());
+        cleared.saveAll(reload);
+
+        assertEquals(fresh.findPage(SlotFilter.all(), null, 100).nextCursor(), cleared.findPage(SlotFilter.all(), null, 100).nextCursor());
+        assertEquals(fresh.stream(SlotFilter.all()).map(ParkingSlot::getId).toList(), cleared.stream(SlotFilter.all()).map(ParkingSlot::getId).toList());
+        assertEquals(1_500, cleared.countAvailableByType("Car"));
+        assertEquals(1_500, cleared.findAvailableByType("car").size());
+        assertEquals(3_000, cleared.snapshot().size());
+        assertEquals(1_500, cleared.snapshot().availableByType("car").count());
+
+        cleared.update(new CarParkingSlot("C-0", "Car", "M5", 50, true, false, 15));
+        assertEquals(3_000, cleared.stream(SlotFilter.all()).count());
+        assertEquals(1_500, cleared.countAvailableByType("Car"));
+    }
+}
@@ -0,0 +1,103 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentSlotRepositoryTests {
+
+    @Test
+    void findsSlotsByNormalizedIdAndKeepsTypeAndAvailabilityIndexesCurrent() {
+        ConcurrentSlotRepository repository = new ConcurrentSlotRepository(4) {};
+        repository.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        repository.save(new CarParkingSlot("C-2", "Car", "A1", 50, true, false, 15));
+        repository.save(new BikeParkingSlot("B-1", "Bike", "B1", 20, true, false, true));
+        repository.save(new CarParkingSlot(" c-1 ", "Car", "A9", 99, true, false, 15));
+
+        assertEquals("A1", repository.findById(" c-1").orElseThrow().getLocation(), "a duplicate ID is skipped");
+        assertEquals(3, repository.findAll().size());
+        assertEquals(2, repository.countAvailableByType(" car "));
+
+        repository.update(new CarParkingSlot("c-2", "Car", "A1", 50, false, false, 15));
+        assertEquals(1, repository.countAvailableByType("Car"));
+        assertEquals("C-1", repository.findFirstAvailableByType("Car").orElseThrow().getId());
+
+        repository.delete(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        assertTrue(repository.findById("C-1").isEmpty());
+        assertEquals(0, repository.countAvailableByType("Car"));
+        assertTrue(repository.findAvailableByType("Car").isEmpty());
+        assertEquals(1, repository.countAvailableByType("Bike"));
+    }
+
+    @Test
+    void concurrentSavesEditsAndDeletesLeaveConsistentIndexes() {
+        ConcurrentSlotRepository repository = new ConcurrentSlotRepository(4) {};
+        IntStream.range(0, 20_000).parallel().forEach(i -> {
+            String id = "C-" + ThreadLocalRandom.current().nextInt(1_000);
+            boolean available = ThreadLocalRandom.current().nextBoolean();
+            ParkingSlot slot = new CarParkingSlot(id, "Car", "L" + (i % 11), 50, available, false, 15);
+            switch (i % 4) {
+                case 0, 1 -> repository.save(slot);
+                case 2 -> repository.update(slot);
+                default -> repository.delete(slot);
+            }
+        });
+
+        long available = repository.findAll().stream().filter(ParkingSlot::isAvailable).count();
+        assertEquals(available, repository.countAvailableByType("Car"));
+        assertEquals(available, repository.findAvailableByType("Car").size());
+        assertEquals(repository.findAll().size(), repository.stream(SlotFilter.all()).count());
+        repository.findAll().forEach(slot -> assertSame(slot, repository.findById(slot.getId()).orElseThrow()));
+    }
+
+    @Test
+    void twoThreadsRacingForOneSlotNeverBothReserveIt() throws Exception {
+        ConcurrentSlotRepository repository = new ConcurrentSlotRepository(4) {};
+        repository.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 2_000; round++) {
+                CyclicBarrier start = new CyclicBarrier(2);
+                Callable<Boolean> reserve = () -> {
+                    start.await();
+                    return repository.tryReserve("c-1");
+                };
+                Future<Boolean> first = pool.submit(reserve);
+                Future<Boolean> second = pool.submit(reserve);
+                assertTrue(first.get() ^ second.get(), "exactly one reservation wins in round " + round);
+                assertFalse(repository.findById("C-1").orElseThrow().isAvailable());
+                assertTrue(repository.release("C-1"));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, repository.countAvailableByType("Car"));
+    }
+
+    @Test
+    void everySlotIsReservedOnceUnderContention() {
+        ConcurrentSlotRepository repository = new ConcurrentSlotRepository(4) {};
+        repository.saveAll(IntStream.range(0, 1_000).mapToObj(i -> new CarParkingSlot("C-" + i, "Car", "L" + (i % 7), 50, true, false, 15)).toList());
+        AtomicInteger won = new AtomicInteger();
+
+        IntStream.range(0, 16_000).parallel().forEach(i -> {
+            if (repository.tryReserve("C-" + (i % 1_000))) won.incrementAndGet();
+        });
+
+        assertEquals(1_000, won.get());
+        assertEquals(0, repository.countAvailableByType("Car"));
+        assertFalse(repository.tryReserve("C-missing"));
+    }
+}
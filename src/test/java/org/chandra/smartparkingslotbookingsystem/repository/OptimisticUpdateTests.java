@@ -0,0 +1,75 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.NINE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticUpdateTests {
+
+    private static final class Slots extends ConcurrentSlotRepository {}
+
+    @Test
+    void staleSlotEditIsRefusedAndConcurrentEditsAreNotLost() throws Exception {
+        Slots repository = new Slots();
+        repository.save(new CarParkingSlot("C-1", "Car", "A1", 0, true, false, 15));
+
+        ParkingSlot edit = repository.findById("C-1").orElseThrow().copy();
+        assertTrue(repository.tryReserve("C-1"));
+        edit.setHourlyRate(80);
+        assertFalse(repository.update(edit, edit.getVersion()), "edit based on the pre-reservation slot");
+        assertFalse(repository.findById("C-1").orElseThrow().isAvailable());
+
+        int threads = 8, increments = 500;
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            Future<?>[] workers = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < increments; i++) {
+                        while (true) {
+                            ParkingSlot current = repository.findById("C-1").orElseThrow();
+                            long version = current.getVersion();
+                            ParkingSlot copy = current.copy();
+                            copy.setHourlyRate(copy.getHourlyRate() + 1);
+                            if (repository.update(copy, version)) break;
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> worker : workers) worker.get();
+        }
+        ParkingSlot slot = repository.findById("C-1").orElseThrow();
+        assertEquals(threads * increments, slot.getHourlyRate());
+        assertEquals(1 + threads * increments, slot.getVersion());
+    }
+
+    @Test
+    void statusChangesOnlyFromTheExpectedStatus() {
+        BookingRepository repository = new BookingRepository();
+        String id = BookingId.format(1);
+        repository.save(new Booking(id, "User", "u@mail.com", "5550001", "KA-1", "C-1", NINE, NINE.plusHours(2), BookingStatus.ACTIVE, 100));
+
+        assertTrue(repository.updateStatus(id, BookingStatus.ACTIVE, BookingStatus.CANCELLED));
+        assertFalse(repository.updateStatus(id, BookingStatus.ACTIVE, BookingStatus.COMPLETED), "lost the race to the cancel");
+        assertEquals(BookingStatus.CANCELLED, repository.findById(id).orElseThrow().getStatus());
+        assertEquals(1, repository.findById(id).orElseThrow().getVersion());
+
+        assertTrue(repository.updateStatus(id, BookingStatus.CANCELLED, BookingStatus.COMPLETED));
+        assertEquals(2, repository.findById(id).orElseThrow().getVersion());
+        assertFalse(repository.updateStatus(BookingId.format(2), null, BookingStatus.CANCELLED));
+    }
+}
@@ -0,0 +1,77 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotFeatureIndexTests {
+
+    @Test
+    void ordersCandidatesByRateOrByLocation() {
+        SlotFeatureIndex index = new SlotFeatureIndex();
+        index.place(0, new CarParkingSlot("C-1", "Car", "A1", 60, true, false, 18));
+        index.place(1, new CarParkingSlot("C-2", "Car", "B1", 40, true, false, 18));
+        index.place(2, new CarParkingSlot("C-3", "Car", "A2", 50, true, false, 18));
+        index.place(3, new BikeParkingSlot("B-1", "Bike", "A1", 10, true, false, true));
+
+        assertEquals(List.of(1, 2, 0), ordinals(index, SlotQuery.cheapest("car")));
+        assertEquals(List.of(0, 2, 1), ordinals(index, new SlotQuery("Car", 0, false, false, "A1", 0, SlotQuery.Order.CLOSEST)));
+        assertEquals(List.of(2, 1), ordinals(index, new SlotQuery("Car", 0, false, false, "A2", 55, SlotQuery.Order.CLOSEST)));
+    }
+
+    @Test
+    void filtersOnFeaturesAndFollowsEdits() {
+        SlotFeatureIndex index = new SlotFeatureIndex();
+        CarParkingSlot small = new CarParkingSlot("C-1", "Car", "A1", 30, true, true, 14);
+        index.place(0, small);
+        index.place(1, new CarParkingSlot("C-2", "Car", "A1", 50, true, true, 20));
+        index.place(2, new CarParkingSlot("C-3", "Car", "A1", 20, true, false, 20));
+
+        SlotQuery longElectric = new SlotQuery("Car", 16, true, false, null, 0, null);
+        assertEquals(List.of(1), ordinals(index, longElectric));
+
+        small.setMaxLength(18);
+        index.place(0, small);
+        assertEquals(List.of(0, 1), ordinals(index, longElectric));
+
+        index.remove(1);
+        assertEquals(List.of(0), ordinals(index, longElectric));
+        assertTrue(ordinals(index, SlotQuery.cheapest("Bike")).isEmpty());
+    }
+
+    @Test
+    void ranksAndCapsByTheChargedRate() {
+        SlotFeatureIndex index = new SlotFeatureIndex();
+        index.place(0, new CarParkingSlot("C-1", "Car", "A1", 40, true, false, 18));
+        index.place(1, new CarParkingSlot("C-2", "Car", "A1", 45, true, false, 18));
+        index.place(2, new CarParkingSlot("C-3", "Car", "B1", 50, true, false, 18));
+        index.place(3, new CarParkingSlot("C-4", "Car", "C1", 90, true, false, 18));
+        // A1 surges to 150%, C1 has a flat tariff of 30, B1 charges each slot's own rate
+        SlotRates rates = (type, location, slotRate) -> switch (location) {
+            case "A1" -> slotRate * 1.5;
+            case "C1" -> 30;
+            default -> slotRate;
+        };
+
+        assertEquals(List.of(3, 2, 0, 1), ordinals(index, SlotQuery.cheapest("Car"), rates));
+        assertEquals(List.of(3, 2), ordinals(index, new SlotQuery("Car", 0, false, false, null, 55, null), rates));
+        assertEquals(List.of(0, 1, 2), ordinals(index, new SlotQuery("Car", 0, false, false, null, 55, null), SlotRates.LISTED));
+    }
+
+    private static List<Integer> ordinals(SlotFeatureIndex index, SlotQuery query) {
+        return ordinals(index, query, SlotRates.LISTED);
+    }
+
+    private static List<Integer> ordinals(SlotFeatureIndex index, SlotQuery query, SlotRates rates) {
+        List<Integer> ordinals = new ArrayList<>();
+        PrimitiveIterator.OfInt candidates = index.candidates(query, rates);
+        while (candidates.hasNext()) ordinals.add(candidates.nextInt());
+        return ordinals;
+    }
+}
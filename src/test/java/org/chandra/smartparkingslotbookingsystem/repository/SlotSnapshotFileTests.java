@@ -0,0 +1,80 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.metrics.ServiceMetrics;
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.pricing.PricingEngine;
+import org.chandra.smartparkingslotbookingsystem.scheduler.TimerScheduler;
+import org.chandra.smartparkingslotbookingsystem.service.BookingServiceImpl;
+import org.chandra.smartparkingslotbookingsystem.service.SlotServiceImpl;
+import org.chandra.smartparkingslotbookingsystem.service.TimeBasedBookingIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotSnapshotFileTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsTheInventoryWithEverySlotAvailable() throws IOException {
+        Path file = dir.resolve("slots.snapshot");
+        List<ParkingSlot> slots = List.of(
+                new CarParkingSlot("C-1", "Car", "A1", 50.5, false, true, 18),
+                new CarParkingSlot("C-2", "Car", "A2", 40, true, false, 14),
+                new BikeParkingSlot("B-1", "Bike", "B1", 20, false, false, true),
+                new BikeParkingSlot("B-2", "Bike", "B1", 25, true, true, false));
+
+        assertEquals(4, SlotSnapshotFile.write(file, slots));
+        List<ParkingSlot> read = SlotSnapshotFile.read(file);
+
+        assertEquals(describe(slots), describe(read));
+        assertTrue(read.stream().allMatch(ParkingSlot::isAvailable), "occupancy is not part of the snapshot");
+    }
+
+    @Test
+    void occupancyIsRebuiltFromActiveBookingsOnLoad() throws IOException {
+        Path file = dir.resolve("slots.snapshot");
+        SlotSnapshotFile.write(file, List.of(
+                new CarParkingSlot("C-1", "Car", "A1", 50, false, false, 15),
+                new CarParkingSlot("C-2", "Car", "A1", 50, false, false, 15)));
+        ProdSlotRepository slots = new ProdSlotRepository(file.toString());
+        slots.init();
+        BookingRepository bookings = new BookingRepository(BookingJournal.disabled(), new ChangeFeed(), slots);
+        LocalDateTime now = LocalDateTime.now();
+        bookings.save(new Booking(BookingId.format(1), "User", "u@mail.com", "5550001", "KA-1", "C-2",
+                now.minusMinutes(5), now.plusHours(1), BookingStatus.ACTIVE, 50));
+        TimerScheduler scheduler = new TimerScheduler();
+        try {
+            new BookingServiceImpl(bookings, new SlotServiceImpl(slots), new SlotScheduleRepository(), new TimeBasedBookingIdGenerator(),
+                    new ServiceMetrics(), scheduler, new PricingEngine()).restoreReservations();
+
+            assertTrue(slots.findById("C-1").orElseThrow().isAvailable(), "booked when exported, but no booking holds it now");
+            assertFalse(slots.findById("C-2").orElseThrow().isAvailable());
+            assertEquals(1, slots.countAvailableByType("Car"));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static List<String> describe(List<ParkingSlot> slots) {
+        return slots.stream().map(slot -> switch (slot) {
+            case CarParkingSlot car -> String.join("|", car.getId(), car.getType(), car.getLocation(), String.valueOf(car.getHourlyRate()),
+                    String.valueOf(car.hasChargingStation()), String.valueOf(car.getMaxLength()));
+            case BikeParkingSlot bike -> String.join("|", bike.getId(), bike.getType(), bike.getLocation(), String.valueOf(bike.getHourlyRate()),
+                    String.valueOf(bike.hasChargingStation()), String.valueOf(bike.hasHelmetLock()));
+            default -> slot.getId();
+        }).toList();
+    }
+}
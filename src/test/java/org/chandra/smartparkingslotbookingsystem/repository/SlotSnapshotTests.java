@@ -0,0 +1,150 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.SlotRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotSnapshotTests {
+
+    private static final class ShardedRepository extends ConcurrentSlotRepository {
+        ShardedRepository() {
+            super(4);
+        }
+    }
+
+    @Test
+    void publishedSnapshotsNeverChangeAfterwards() {
+        ShardedRepository repository = new ShardedRepository();
+        repository.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        repository.save(new BikeParkingSlot("B-1", "Bike", "B1", 20, true, false, true));
+
+        SlotSnapshot before = repository.snapshot();
+        assertTrue(repository.tryReserve("C-1"));
+        CarParkingSlot moved = new CarParkingSlot("C-1", "Car", "Z9", 70, false, true, 18);
+        repository.update(moved);
+        repository.delete(repository.findById("B-1").orElseThrow());
+        SlotSnapshot after = repository.snapshot();
+
+        assertEquals(2, before.size());
+        assertEquals(List.of("C-1"), before.availableByType("car").map(SlotRecord::id).toList());
+        assertEquals(1, before.availableByType("Bike").count());
+
+        assertEquals(1, after.size());
+        SlotRecord car = after.stream().findFirst().orElseThrow();
+        assertEquals("Z9", car.location());
+        assertEquals(2, car.version());
+        assertFalse(car.available());
+        assertEquals(moved.toString(), car.toString());
+        assertEquals(before.sequence() + 4, after.sequence()); // the move publishes in both shards
+    }
+
+    @Test
+    void releasingAnAvailableSlotPublishesNothing() {
+        ShardedRepository repository = new ShardedRepository();
+        repository.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        SlotSnapshot before = repository.snapshot();
+
+        assertTrue(repository.release("C-1"));
+        assertSame(before.stream().findFirst().orElseThrow(), repository.snapshot().stream().findFirst().orElseThrow());
+        assertEquals(before.sequence(), repository.snapshot().sequence());
+        assertEquals(0, repository.findById("C-1").orElseThrow().getVersion());
+
+        assertTrue(repository.tryReserve("C-1"));
+        assertTrue(repository.release("C-1"));
+        assertEquals(before.sequence() + 2, repository.snapshot().sequence());
+        assertEquals(2, repository.findById("C-1").orElseThrow().getVersion());
+    }
+
+    @Test
+    void shardsPublishIndependently() throws InterruptedException {
+        ShardedRepository repository = new ShardedRepository();
+        int locations = 8, perLocation = 250;
+        for (int l = 0; l < locations; l++)
+            for (int i = 0; i < perLocation; i++)
+                repository.save(new CarParkingSlot("C-" + l + "-" + i, "Car", "L" + l, 50, true, false, 15));
+        long before = repository.snapshot().sequence();
+
+        Thread[] writers = new Thread[locations];
+        for (int l = 0; l < locations; l++) {
+            int location = l;
+            writers[l] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perLocation; i++) repository.tryReserve("C-" + location + "-" + i);
+            });
+        }
+        for (Thread writer : writers) writer.join();
+
+        SlotSnapshot after = repository.snapshot();
+        assertEquals(locations * perLocation, after.size());
+        assertEquals(0, after.availableByType("Car").count());
+        assertEquals(before + locations * perLocation, after.sequence());
+    }
+
+    @Test
+    void availableByTypeFollowsReservesTypeChangesAndDeletesAcrossChunks() {
+        ShardedRepository repository = new ShardedRepository();
+        for (int i = 0; i < 5_000; i++)
+            repository.save(new CarParkingSlot("C-" + i, i % 3 == 0 ? "EV" : "Car", "L" + (i % 2), 50, true, false, 15));
+        SlotSnapshot loaded = repository.snapshot();
+        for (int i = 0; i < 5_000; i += 7) repository.tryReserve("C-" + i);
+        for (int i = 1; i < 5_000; i += 11)
+            repository.update(new CarParkingSlot("C-" + i, " ev ", "L" + (i % 2), 50, true, false, 15));
+        for (int i = 2; i < 5_000; i += 13) repository.delete(repository.findById("C-" + i).orElseThrow());
+        SlotSnapshot changed = repository.snapshot();
+
+        for (SlotSnapshot snapshot : List.of(loaded, changed)) {
+            for (String type : List.of("Car", "EV")) {
+                List<String> scanned = snapshot.stream()
+                        .filter(slot -> slot.available() && slot.type().trim().equalsIgnoreCase(type))
+                        .map(SlotRecord::id)
+                        .toList();
+                assertEquals(scanned, snapshot.availableByType(type.toLowerCase()).map(SlotRecord::id).toList());
+            }
+        }
+        assertEquals(repository.countAvailableByType("EV"), changed.availableByType("EV").count());
+        assertEquals(0, changed.availableByType("Bike").count());
+    }
+
+    @Test
+    void saveAllPublishesOnceForEachShardItTouches() {
+        ShardedRepository repository = new ShardedRepository();
+        repository.save(new CarParkingSlot("C-0", "Car", "L0", 50, true, false, 15));
+        SlotSnapshot before = repository.snapshot();
+
+        int added = repository.saveAll(IntStream.range(0, 3_000)
+                .mapToObj(i -> new CarParkingSlot("C-" + i, i % 2 == 0 ? "Car" : "EV", "L" + (i % 13), 50, i % 5 != 0, false, 15))
+                .toList());
+        SlotSnapshot after = repository.snapshot();
+
+        assertEquals(2_999, added);
+        assertEquals(before.sequence() + 4, after.sequence());
+        assertEquals(3_000, after.size());
+        assertEquals(1, before.size());
+        assertEquals(repository.countAvailableByType("Car"), after.availableByType("Car").count());
+        assertEquals(repository.countAvailableByType("EV"), after.availableByType("EV").count());
+        assertEquals(after.stream().filter(SlotRecord::available).count(),
+                after.availableByType("car").count() + after.availableByType("ev").count());
+    }
+
+    @Test
+    void bulkLoadPublishesOneCompleteSnapshot() {
+        ShardedRepository repository = new ShardedRepository();
+        repository.preloadAll(IntStream.range(0, 20_000)
+                .mapToObj(i -> new CarParkingSlot("C-" + i, "Car", "L" + (i % 13), 50, i % 4 != 0, false, 15))
+                .toList());
+
+        SlotSnapshot snapshot = repository.snapshot();
+        assertEquals(20_000, snapshot.size());
+        assertEquals(15_000, snapshot.availableByType("Car").count());
+        assertEquals(repository.countAvailableByType("Car"), snapshot.availableByType("Car").count());
+
+        repository.tryReserve("C-1");
+        assertEquals(14_999, repository.snapshot().availableByType("Car").count());
+        assertEquals(15_000, snapshot.availableByType("Car").count());
+    }
+}
@@ -0,0 +1,102 @@
+package org.chandra.smartparkingslotbookingsystem.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.NINE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotTimelineTests {
+
+    @Test
+    void rejectsOverlappingWindows() {
+        SlotTimeline timeline = new SlotTimeline();
+        assertTrue(timeline.tryReserve(NINE, NINE.plusHours(3), "BKG-1"));
+
+        assertFalse(timeline.tryReserve(NINE.plusHours(1), NINE.plusHours(2), "BKG-2"));
+        assertFalse(timeline.tryReserve(NINE.minusHours(1), NINE.plusMinutes(1), "BKG-3"));
+        assertFalse(timeline.tryReserve(NINE, NINE.plusHours(1), "BKG-4"));
+        assertEquals(1, timeline.size());
+    }
+
+    @Test
+    void allowsAdjacentWindows() {
+        SlotTimeline timeline = new SlotTimeline();
+        assertTrue(timeline.tryReserve(NINE, NINE.plusHours(3), "BKG-1"));
+
+        assertTrue(timeline.tryReserve(NINE.plusHours(3), NINE.plusHours(4), "BKG-2"));
+        assertTrue(timeline.tryReserve(NINE.minusHours(2), NINE, "BKG-3"));
+        assertTrue(timeline.tryReserve(NINE.plusDays(1), NINE.plusDays(1).plusHours(1), "BKG-4"));
+        assertEquals(4, timeline.size());
+    }
+
+    @Test
+    void releaseFreesOnlyTheOwningBookingsWindow() {
+        SlotTimeline timeline = new SlotTimeline();
+        timeline.tryReserve(NINE, NINE.plusHours(3), "BKG-1");
+
+        assertFalse(timeline.release(NINE, "BKG-2"));
+        assertFalse(timeline.isFree(NINE, NINE.plusHours(1)));
+
+        assertTrue(timeline.release(NINE, "bkg-1"));
+        assertTrue(timeline.isFree(NINE, NINE.plusHours(1)));
+    }
+
+    @Test
+    void reserveAllRejectsWindowsOverlappingTheTimelineOrEarlierWindowsOfTheBatch() {
+        SlotTimeline timeline = new SlotTimeline();
+        timeline.tryReserve(NINE, NINE.plusHours(1), "BKG-1");
+
+        boolean[] reserved = timeline.tryReserveAll(List.of(
+                new SlotTimeline.Window(NINE.plusHours(1), NINE.plusHours(3), "BKG-2"),
+                new SlotTimeline.Window(NINE.plusHours(2), NINE.plusHours(4), "BKG-3"),
+                new SlotTimeline.Window(NINE.plusMinutes(30), NINE.plusHours(1), "BKG-4"),
+                new SlotTimeline.Window(NINE.plusHours(3), NINE.plusHours(4), "BKG-5")));
+
+        assertArrayEquals(new boolean[]{true, false, false, true}, reserved);
+        assertEquals(3, timeline.size());
+    }
+
+    @Test
+    void overlappingBatchesNeverShareAWindow() throws Exception {
+        SlotTimeline timeline = new SlotTimeline();
+        List<SlotTimeline.Window> first = new ArrayList<>();
+        List<SlotTimeline.Window> second = new ArrayList<>();
+        for (int hour = 0; hour < 200; hour++) {
+            first.add(new SlotTimeline.Window(NINE.plusHours(hour), NINE.plusHours(hour + 1), "BKG-A" + hour));
+            second.add(new SlotTimeline.Window(NINE.plusHours(hour).plusMinutes(30), NINE.plusHours(hour + 1).plusMinutes(30), "BKG-B" + hour));
+        }
+        CountDownLatch go = new CountDownLatch(1);
+        CompletableFuture<boolean[]> a = CompletableFuture.supplyAsync(() -> awaitThen(go, () -> timeline.tryReserveAll(first)));
+        CompletableFuture<boolean[]> b = CompletableFuture.supplyAsync(() -> awaitThen(go, () -> timeline.tryReserveAll(second)));
+        go.countDown();
+
+        List<SlotTimeline.Window> won = new ArrayList<>();
+        boolean[] wonA = a.get();
+        boolean[] wonB = b.get();
+        for (int i = 0; i < 200; i++) {
+            if (wonA[i]) won.add(first.get(i));
+            if (wonB[i]) won.add(second.get(i));
+        }
+        won.sort(Comparator.comparing(SlotTimeline.Window::start));
+        for (int i = 1; i < won.size(); i++)
+            assertFalse(won.get(i).start().isBefore(won.get(i - 1).end()), "overlap at " + won.get(i).start());
+        assertEquals(won.size(), timeline.size());
+        assertEquals(200, won.size(), "whichever batch locked first keeps all its windows");
+    }
+
+    private static <T> T awaitThen(CountDownLatch go, Supplier<T> action) {
+        try {
+            go.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return action.get();
+    }
+}
@@ -0,0 +1,60 @@
+package org.chandra.smartparkingslotbookingsystem.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTests {
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    void firesEachTimerAtItsTickAcrossCascades() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 0);
+        long[] deadlines = {500, 2_000, 63_000, 64_000, 65_500, 4_096_000, 5_000_000, 300_000_000};
+        List<Long> fired = new ArrayList<>();
+        for (long deadline : deadlines) wheel.schedule(deadline, () -> fired.add(deadline));
+
+        for (long deadline : deadlines) {
+            long tickEnd = (deadline + 999) / 1000 * 1000;
+            wheel.advance(tickEnd - 1, DIRECT);
+            assertFalse(fired.contains(deadline), "fired early: " + deadline);
+            wheel.advance(tickEnd, DIRECT);
+            assertTrue(fired.contains(deadline), "not fired: " + deadline);
+        }
+        assertEquals(deadlines.length, fired.size());
+        assertEquals(0, wheel.pendingTimers());
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 0);
+        List<Integer> fired = new ArrayList<>();
+        List<HierarchicalTimingWheel.Timeout> timeouts = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            int n = i;
+            timeouts.add(wheel.schedule(1_000L * (i + 1), () -> fired.add(n)));
+        }
+        wheel.advance(10_000, DIRECT);
+        for (int i = 0; i < timeouts.size(); i += 2) timeouts.get(i).cancel();
+        assertEquals(990 / 2, wheel.pendingTimers());
+
+        wheel.advance(2_000_000, DIRECT);
+        assertEquals(10 + 990 / 2, fired.size());
+        assertTrue(fired.stream().skip(10).allMatch(n -> n % 2 == 1));
+        assertFalse(timeouts.get(10).cancel());
+        assertTrue(timeouts.get(11).isExpired());
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextAdvance() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 50_000);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(1_000, () -> fired.add("late"));
+        wheel.advance(50_000, DIRECT);
+        assertEquals(List.of("late"), fired);
+    }
+}
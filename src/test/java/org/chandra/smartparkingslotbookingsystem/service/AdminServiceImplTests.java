@@ -0,0 +1,53 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import org.chandra.smartparkingslotbookingsystem.metrics.ServiceMetrics;
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.pricing.PricingEngine;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingJournal;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.ChangeFeed;
+import org.chandra.smartparkingslotbookingsystem.repository.ConcurrentSlotRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotScheduleRepository;
+import org.chandra.smartparkingslotbookingsystem.scheduler.TimerScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminServiceImplTests {
+
+    @Test
+    void adminCancelReleasesWindowSlotAndTimer() {
+        ConcurrentSlotRepository slots = new ConcurrentSlotRepository(4) {};
+        slots.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        BookingRepository bookings = new BookingRepository(BookingJournal.disabled(), new ChangeFeed(), slots);
+        SlotScheduleRepository schedule = new SlotScheduleRepository();
+        TimerScheduler scheduler = new TimerScheduler();
+        BookingService bookingService = new BookingServiceImpl(bookings, new SlotServiceImpl(slots), schedule,
+                new TimeBasedBookingIdGenerator(), new ServiceMetrics(), scheduler, new PricingEngine());
+        AdminService adminService = new AdminServiceImpl(slots, bookings, bookingService, new ServiceMetrics());
+        try {
+            LocalDateTime start = LocalDateTime.now().minusMinutes(5);
+            LocalDateTime end = start.plusHours(2);
+            Booking booking = bookingService.createBooking("User", "u@mail.com", "5550001", "KA-1", "C-1", start, end);
+            assertNotNull(booking);
+            assertFalse(slots.findById("C-1").orElseThrow().isAvailable());
+            assertEquals(1, scheduler.pendingTimers());
+
+            adminService.cancelBookingAsAdmin(booking.getBookingId());
+
+            assertEquals(BookingStatus.CANCELLED, bookings.findById(booking.getBookingId()).orElseThrow().getStatus());
+            assertTrue(slots.findById("C-1").orElseThrow().isAvailable());
+            assertTrue(schedule.isFree("C-1", start, end));
+            assertEquals(0, scheduler.pendingTimers());
+            assertNotNull(bookingService.createBooking("Other", "o@mail.com", "5550002", "KA-2", "C-1", start, end),
+                    "the cancelled window can be booked again");
+            assertFalse(slots.findById("C-1").orElseThrow().isAvailable());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
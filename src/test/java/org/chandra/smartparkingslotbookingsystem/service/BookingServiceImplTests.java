@@ -0,0 +1,271 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import org.chandra.smartparkingslotbookingsystem.metrics.ServiceMetrics;
+import org.chandra.smartparkingslotbookingsystem.model.Booking;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.pricing.PricingEngine;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingJournal;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.ChangeFeed;
+import org.chandra.smartparkingslotbookingsystem.repository.ConcurrentSlotRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotScheduleRepository;
+import org.chandra.smartparkingslotbookingsystem.scheduler.TimerScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingServiceImplTests {
+
+    private final ConcurrentSlotRepository slots = new ConcurrentSlotRepository(4) {};
+    private final SlotScheduleRepository schedule = new SlotScheduleRepository();
+    private final TimerScheduler scheduler = new TimerScheduler(10);
+
+    @AfterEach
+    void stopTimers() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void bookingTakesItsSlotAtStartAndFreesItAtEnd() {
+        BookingRepository bookings = bookings(BookingJournal.disabled());
+        BookingService service = service(bookings);
+        LocalDateTime start = LocalDateTime.now().plusNanos(300_000_000);
+        Booking booking = service.createBooking("User", "u@mail.com", "5550001", "KA-1", "C-1", start, start.plusNanos(300_000_000));
+
+        assertNotNull(booking);
+        assertTrue(available(), "a future booking does not hold the slot yet");
+        assertEquals(1, scheduler.pendingTimers());
+        await(() -> !available(), "the slot is taken at the start time");
+        await(() -> bookings.findById(booking.getBookingId()).orElseThrow().getStatus() == BookingStatus.COMPLETED,
+                "the booking completes at the end time");
+        await(this::available, "the slot is freed at the end time");
+        assertEquals(0, scheduler.pendingTimers());
+    }
+
+    @Test
+    void cancellingDropsTheTimer() {
+        BookingService service = service(bookings(BookingJournal.disabled()));
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        Booking future = service.createBooking("User", "u@mail.com", "5550001", "KA-1", "C-1", start, start.plusHours(1));
+        assertEquals(1, scheduler.pendingTimers());
+
+        service.cancelBooking(future.getBookingId());
+
+        assertEquals(0, scheduler.pendingTimers());
+        assertTrue(schedule.isFree("C-1", start, start.plusHours(1)));
+        assertTrue(available());
+    }
+
+    @Test
+    void failedSaveReleasesTheReservationAndTimer() {
+        BookingJournal failing = new BookingJournal(false, "", false) {
+            @Override
+            public CompletableFuture<Void> appendSave(Booking booking) {
+                return CompletableFuture.failedFuture(new IOException("disk full"));
+            }
+        };
+        BookingService service = service(bookings(failing));
+        LocalDateTime start = LocalDateTime.now().minusMinutes(5);
+        LocalDateTime later = start.plusHours(3);
+
+        assertThrows(UncheckedIOException.class,
+                () -> service.createBooking("User", "u@mail.com", "5550001", "KA-1", "C-1", start, start.plusHours(1)));
+        assertThrows(UncheckedIOException.class, () -> service.createBookings(List.of(
+                new BookingRequest("User", "u@mail.com", "5550001", "KA-1", "C-1", later, later.plusHours(1)))));
+
+        assertEquals(0, scheduler.pendingTimers());
+        assertTrue(available());
+        assertTrue(schedule.isFree("C-1", start, later.plusHours(1)));
+    }
+
+    @Test
+    void failedCancelOrCompleteKeepsTheBookingItsTimerAndItsSlot() {
+        BookingJournal failing = new BookingJournal(false, "", false) {
+            @Override
+            public CompletableFuture<Void> appendStatus(String bookingId, BookingStatus status) {
+                return CompletableFuture.failedFuture(new IOException("disk full"));
+            }
+        };
+        BookingRepository bookings = bookings(failing);
+        BookingService service = service(bookings);
+        LocalDateTime start = LocalDateTime.now().minusMinutes(5);
+        Booking booking = service.createBooking("User", "u@mail.com", "5550001", "KA-1", "C-1", start, start.plusHours(1));
+
+        assertThrows(UncheckedIOException.class, () -> service.cancelBooking(booking.getBookingId()));
+        assertThrows(UncheckedIOException.class, () -> service.completeBooking(booking.getBookingId()));
+
+        assertEquals(BookingStatus.ACTIVE, bookings.findById(booking.getBookingId()).orElseThrow().getStatus());
+        assertEquals(1, scheduler.pendingTimers());
+        assertFalse(available(), "the booking still holds its slot");
+        assertFalse(schedule.isFree("C-1", start, start.plusHours(1)));
+    }
+
+    @Test
+    void missingStartOrEndTimeIsAnInvalidWindow() {
+        BookingRepository bookings = bookings(BookingJournal.disabled());
+        BookingService service = service(bookings);
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+
+        assertNull(service.createBooking("User", "u@mail.com", "5550001", "KA-1", "C-1", null, start));
+        assertNull(service.createBooking("User", "u@mail.com", "5550001", "KA-1", "C-1", start, null));
+        assertEquals(BookingResult.Outcome.INVALID_WINDOW, service.createBookings(List.of(request("C-1", start, null))).get(0).outcome());
+        assertTrue(bookings.findAll().isEmpty());
+        assertEquals(0, scheduler.pendingTimers());
+    }
+
+    @Test
+    void batchResolvesItsOwnOverlapsByStartTimeThenPosition() {
+        BookingRepository bookings = bookings(BookingJournal.disabled());
+        BookingService service = service(bookings);
+        LocalDateTime ten = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+        List<BookingResult> results = service.createBookings(List.of(
+                request("C-1", ten.plusHours(1), ten.plusHours(3)),
+                request("c-1", ten, ten.plusHours(2)),
+                request("C-1", ten.plusHours(2), ten.plusHours(4)),
+                request("C-1", ten, ten.plusHours(1)),
+                request("C-9", ten, ten.plusHours(1)),
+                request("C-2", ten, ten)));
+
+        assertEquals(List.of(BookingResult.Outcome.CONFLICT, BookingResult.Outcome.CREATED, BookingResult.Outcome.CREATED,
+                        BookingResult.Outcome.CONFLICT, BookingResult.Outcome.SLOT_NOT_FOUND, BookingResult.Outcome.INVALID_WINDOW),
+                results.stream().map(BookingResult::outcome).toList());
+        assertEquals(2, bookings.findAll().size());
+        assertEquals(2, schedule.timeline("C-1").size());
+        assertEquals(2, scheduler.pendingTimers());
+    }
+
+    @Test
+    void rejectedBatchRequestsLeaveNothingBehind() {
+        BookingRepository bookings = bookings(BookingJournal.disabled());
+        BookingService service = service(bookings);
+        LocalDateTime ten = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime now = LocalDateTime.now();
+        assertNotNull(service.createBooking("User", "u@mail.com", "5550001", "KA-1", "C-1", ten, ten.plusHours(1)));
+        assertTrue(slots.tryReserve("C-2"), "C-2 is occupied without a booking");
+
+        List<BookingResult> results = service.createBookings(List.of(
+                request("C-1", ten.plusMinutes(30), ten.plusHours(2)),
+                request("C-2", now.minusMinutes(5), now.plusHours(1)),
+                request("C-1", ten.plusHours(1), ten.plusHours(2))));
+
+        assertEquals(List.of(BookingResult.Outcome.CONFLICT, BookingResult.Outcome.SLOT_OCCUPIED, BookingResult.Outcome.CREATED),
+                results.stream().map(BookingResult::outcome).toList());
+        assertNull(results.get(0).booking());
+        assertNull(results.get(1).booking());
+        assertTrue(schedule.isFree("C-2", now.minusMinutes(5), now.plusHours(1)), "the occupied slot's window was released");
+        assertEquals(2, bookings.findAll().size());
+        assertEquals(2, scheduler.pendingTimers());
+    }
+
+    @Test
+    void overlappingBatchesBookEachWindowOnce() throws Exception {
+        BookingRepository bookings = bookings(BookingJournal.disabled());
+        BookingService service = service(bookings);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withMinute(0).withSecond(0).withNano(0);
+        List<BookingRequest> first = new ArrayList<>();
+        List<BookingRequest> second = new ArrayList<>();
+        for (int hour = 0; hour < 50; hour++) {
+            first.add(request("C-1", base.plusHours(hour), base.plusHours(hour + 1)));
+            second.add(request(hour % 2 == 0 ? "C-1" : "C-2", base.plusHours(hour).plusMinutes(30), base.plusHours(hour + 1).plusMinutes(30)));
+        }
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<BookingResult>> a = pool.submit(() -> {
+                go.await();
+                return service.createBookings(first);
+            });
+            Future<List<BookingResult>> b = pool.submit(() -> {
+                go.await();
+                return service.createBookings(second);
+            });
+            go.countDown();
+            long created = Stream.concat(a.get().stream(), b.get().stream()).filter(BookingResult::isCreated).count();
+
+            List<Booking> onC1 = bookings.findAll().stream()
+                    .filter(booking -> booking.getSlotId().equals("C-1"))
+                    .sorted(Comparator.comparing(Booking::getStartTime))
+                    .toList();
+            for (int i = 1; i < onC1.size(); i++)
+                assertFalse(onC1.get(i).getStartTime().isBefore(onC1.get(i - 1).getEndTime()), "overlap at " + onC1.get(i).getStartTime());
+            assertEquals(created, bookings.findAll().size());
+            assertEquals(onC1.size(), schedule.timeline("C-1").size());
+            for (int hour = 1; hour < 50; hour += 2) assertTrue(b.get().get(hour).isCreated(), "C-2 requests never conflict");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlotAndWindowCreateOne() throws Exception {
+        BookingRepository bookings = bookings(BookingJournal.disabled());
+        BookingService service = service(bookings);
+        LocalDateTime start = LocalDateTime.now().minusMinutes(5);
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Booking>> attempts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String phone = "555000" + i;
+                attempts.add(pool.submit(() -> {
+                    go.await();
+                    return service.createBooking("User", "u@mail.com", phone, "KA-1", "C-1", start, start.plusHours(1));
+                }));
+            }
+            go.countDown();
+            int created = 0;
+            for (Future<Booking> attempt : attempts) if (attempt.get() != null) created++;
+
+            assertEquals(1, created);
+            assertEquals(1, bookings.findAll().size());
+            assertFalse(available());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static BookingRequest request(String slotId, LocalDateTime start, LocalDateTime end) {
+        return new BookingRequest("Fleet", "fleet@mail.com", "5550100", "KA-9", slotId, start, end);
+    }
+
+    private BookingRepository bookings(BookingJournal journal) {
+        slots.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        slots.save(new CarParkingSlot("C-2", "Car", "A1", 50, true, false, 15));
+        return new BookingRepository(journal, new ChangeFeed(), slots);
+    }
+
+    private BookingService service(BookingRepository bookings) {
+        return new BookingServiceImpl(bookings, new SlotServiceImpl(slots), schedule, new TimeBasedBookingIdGenerator(),
+                new ServiceMetrics(), scheduler, new PricingEngine());
+    }
+
+    private boolean available() {
+        return slots.findById("C-1").orElseThrow().isAvailable();
+    }
+
+    private static void await(BooleanSupplier condition, String message) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            LockSupport.parkNanos(10_000_000);
+        }
+    }
+}
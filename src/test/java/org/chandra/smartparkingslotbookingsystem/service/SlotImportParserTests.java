@@ -0,0 +1,103 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import org.chandra.smartparkingslotbookingsystem.metrics.ServiceMetrics;
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.ParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingJournal;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.ChangeFeed;
+import org.chandra.smartparkingslotbookingsystem.repository.ConcurrentSlotRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotScheduleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotImportParserTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parsesCsvRows() {
+        SlotImportParser.Chunk chunk = new SlotImportParser(false).parse(List.of(
+                "id,type,location,hourlyRate,available,hasChargingStation,maxLength,hasHelmetLock",
+                "C-1, Car ,A1,50,true,true,18,",
+                "",
+                "B-1,bike,B2,20.5,false,false,,true",
+                "C-2,Car,A1,50,true,true,,",
+                "X-1,Truck,A1,50",
+                "C-3,Car,A1,cheap,true,false,18,",
+                "C-4,Car,A1,50,true,false,18,,extra"), 1);
+
+        assertEquals(2, chunk.slots().size());
+        CarParkingSlot car = (CarParkingSlot) chunk.slots().get(0);
+        assertEquals(List.of("C-1", "Car", "A1", 50.0, true), List.of(car.getId(), car.getType(), car.getLocation(), car.getHourlyRate(), car.isAvailable()));
+        assertTrue(car.hasChargingStation());
+        assertEquals(18, car.getMaxLength());
+        BikeParkingSlot bike = (BikeParkingSlot) chunk.slots().get(1);
+        assertEquals(List.of("B-1", "Bike", 20.5, false), List.of(bike.getId(), bike.getType(), bike.getHourlyRate(), bike.isAvailable()));
+        assertTrue(bike.hasHelmetLock());
+        assertEquals(List.of(
+                "Line 5: maxLength is required",
+                "Line 6: unknown slot type 'Truck' (expected Car or Bike)",
+                "Line 7: hourlyRate is not a number: cheap",
+                "Line 8: expected at most 8 columns, found 9"), chunk.errors());
+    }
+
+    @Test
+    void parsesNdjsonRowsWithEscapes() {
+        SlotImportParser.Chunk chunk = new SlotImportParser(true).parse(List.of(
+                "{\"id\": \"C-\\u00e9\\t1\", \"type\": \"Car\", \"location\": \"A\\n1\", \"hourlyRate\": 50, \"maxLength\": 18, \"note\": null}",
+                "{\"id\":\"B-\\\"1\\\"\",\"type\":\"Bike\",\"location\":\"B2\",\"hourlyRate\":\"20.5\",\"available\":false,\"hasHelmetLock\":true}",
+                "{\"id\":\"C-2\",\"type\":\"Car\",\"location\":\"A1\",\"hourlyRate\":50,\"maxLength\":[18]}",
+                "{\"id\":\"C-3\",\"type\":\"Car\"",
+                "[1, 2]"), 10);
+
+        assertEquals(2, chunk.slots().size());
+        ParkingSlot car = chunk.slots().get(0);
+        assertEquals("C-é\t1", car.getId());
+        assertEquals("A\n1", car.getLocation());
+        assertEquals(18, ((CarParkingSlot) car).getMaxLength());
+        ParkingSlot bike = chunk.slots().get(1);
+        assertEquals("B-\"1\"", bike.getId());
+        assertFalse(bike.isAvailable());
+        assertEquals(3, chunk.errors().size());
+        assertEquals("Line 12: maxLength must be a string, number or boolean", chunk.errors().get(0));
+        assertTrue(chunk.errors().get(1).startsWith("Line 13: "), chunk.errors().get(1));
+        assertEquals("Line 14: expected a JSON object", chunk.errors().get(2));
+    }
+
+    @Test
+    void importsFilesAndSkipsDuplicates() throws IOException {
+        ConcurrentSlotRepository slots = new ConcurrentSlotRepository(4) {};
+        slots.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        BookingRepository bookings = new BookingRepository(BookingJournal.disabled(), new ChangeFeed(), slots);
+        AdminService adminService = new AdminServiceImpl(slots, bookings,
+                new BookingServiceImpl(bookings, new SlotServiceImpl(slots), new SlotScheduleRepository()), new ServiceMetrics());
+        Path csv = Files.writeString(dir.resolve("slots.csv"), """
+                id,type,location,hourlyRate,available,hasChargingStation,maxLength,hasHelmetLock
+                C-1,Car,A1,50,true,false,15,
+                C-2,Car,A2,40,true,false,16,
+                B-1,Bike,B1,oops,true,false,,true
+                """);
+        Path ndjson = Files.writeString(dir.resolve("slots.ndjson"), """
+                {"id":"B-1","type":"Bike","location":"B1","hourlyRate":20,"hasHelmetLock":true}
+                {"id":"B-2","type":"Bike","location":"B\\u00e9","hourlyRate":20,"hasHelmetLock":false}
+                """);
+
+        SlotImportResult fromCsv = adminService.importSlots(csv.toString());
+        assertEquals(List.of(1, 1, 1), List.of(fromCsv.imported(), fromCsv.duplicates(), fromCsv.rejected()));
+        assertEquals(List.of("Line 4: hourlyRate is not a number: oops"), fromCsv.errors());
+        SlotImportResult fromNdjson = adminService.importSlots(ndjson.toString());
+        assertEquals(List.of(2, 0, 0), List.of(fromNdjson.imported(), fromNdjson.duplicates(), fromNdjson.rejected()));
+        assertEquals("Bé", slots.findById("B-2").orElseThrow().getLocation());
+        assertEquals(40.0, slots.findById("C-2").orElseThrow().getHourlyRate());
+    }
+}
@@ -0,0 +1,112 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeBasedBookingIdGeneratorTests {
+
+    @Test
+    void generatesUniqueIdsAcrossThreads() {
+        TimeBasedBookingIdGenerator generator = new TimeBasedBookingIdGenerator(7, Clock.systemUTC());
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 200_000).parallel().forEach(i -> assertTrue(ids.add(generator.nextId())));
+
+        long id = ids.iterator().next();
+        assertEquals(7, (id >>> TimeBasedBookingIdGenerator.SEQUENCE_BITS) & TimeBasedBookingIdGenerator.MAX_NODE);
+    }
+
+    @Test
+    void keepsIncreasingWhenTheClockStandsStillOrGoesBack() {
+        Clock frozen = Clock.fixed(Instant.parse("2025-11-07T09:00:00Z"), ZoneOffset.UTC);
+        TimeBasedBookingIdGenerator generator = new TimeBasedBookingIdGenerator(0, frozen);
+        long previous = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void dropsAnUnusedBlockOnceTheClockMovesOn() {
+        long start = Instant.parse("2025-11-07T09:00:00Z").toEpochMilli();
+        AtomicLong millis = new AtomicLong(start);
+        TimeBasedBookingIdGenerator generator = new TimeBasedBookingIdGenerator(0, new TickingClock(millis));
+        generator.nextId();
+
+        millis.addAndGet(5_000);
+        assertEquals(start + 5_000, millisOf(generator.nextId()), "not the rest of the block claimed 5 s ago");
+    }
+
+    @Test
+    void virtualThreadsTakeIdsFromTheSharedCounter() throws InterruptedException {
+        long start = Instant.parse("2025-11-07T09:00:00Z").toEpochMilli();
+        TimeBasedBookingIdGenerator generator = new TimeBasedBookingIdGenerator(0, new TickingClock(new AtomicLong(start)));
+        long[] ids = new long[3];
+        Thread.ofVirtual().start(() -> ids[0] = generator.nextId()).join();
+        Thread.ofVirtual().start(() -> ids[1] = generator.nextId()).join();
+        ids[2] = generator.nextId();
+
+        assertEquals(ids[0] + 1, ids[1], "no block was claimed for the first virtual thread");
+        assertEquals(ids[1] + 1, ids[2]);
+        assertEquals(start, millisOf(ids[2]));
+    }
+
+    @Test
+    void textFormRoundTripsCaseInsensitively() {
+        long id = new TimeBasedBookingIdGenerator().nextId();
+        String text = BookingId.format(id);
+        assertEquals(id, BookingId.parse(text));
+        assertEquals(id, BookingId.parse("  " + text.toLowerCase() + " "));
+        assertEquals(Long.parseLong("A1B2C3", 36), BookingId.parse("BKG-a1b2c3"));
+        assertEquals(-1, BookingId.parse("BKG-"));
+        assertEquals(-1, BookingId.parse("BKG-12#4"));
+        assertEquals(-1, BookingId.parse("ABC-123"));
+    }
+
+    private static long millisOf(long id) {
+        return (id >>> (TimeBasedBookingIdGenerator.NODE_BITS + TimeBasedBookingIdGenerator.SEQUENCE_BITS)) + TimeBasedBookingIdGenerator.EPOCH_MILLIS;
+    }
+
+    /**
+     * A clock whose time the test moves by hand.
+     */
+    private static final class TickingClock extends Clock {
+        private final AtomicLong millis;
+
+        TickingClock(AtomicLong millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.chandra.smartparkingslotbookingsystem.service;
+
+import org.chandra.smartparkingslotbookingsystem.metrics.ServiceMetrics;
+import org.chandra.smartparkingslotbookingsystem.model.BikeParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.model.BookingId;
+import org.chandra.smartparkingslotbookingsystem.model.BookingStatus;
+import org.chandra.smartparkingslotbookingsystem.model.CarParkingSlot;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingJournal;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.BookingTotals;
+import org.chandra.smartparkingslotbookingsystem.repository.ChangeFeed;
+import org.chandra.smartparkingslotbookingsystem.repository.ConcurrentSlotRepository;
+import org.chandra.smartparkingslotbookingsystem.repository.DailyRevenue;
+import org.chandra.smartparkingslotbookingsystem.repository.SlotScheduleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.NINE;
+import static org.chandra.smartparkingslotbookingsystem.TestBookings.booking;
+import static org.junit.jupiter.api.Assertions.*;
+
+class UtilizationReportTests {
+
+    @Test
+    void aggregatesFollowEveryBookingChange() {
+        ConcurrentSlotRepository slots = new ConcurrentSlotRepository(4) {};
+        slots.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        slots.save(new CarParkingSlot("C-2", "Car", "a1", 50, true, false, 15));
+        slots.save(new BikeParkingSlot("B-1", "Bike", "B2", 20, true, false, true));
+        BookingRepository bookings = new BookingRepository(BookingJournal.disabled(), new ChangeFeed(), slots);
+        AdminService adminService = new AdminServiceImpl(slots, bookings,
+                new BookingServiceImpl(bookings, new SlotServiceImpl(slots), new SlotScheduleRepository()), new ServiceMetrics());
+
+        bookings.save(booking(1, "5550001", "C-1", NINE, NINE.plusHours(2), BookingStatus.ACTIVE, 100));
+        bookings.save(booking(2, "5550002", "C-2", NINE, NINE.plusHours(3), BookingStatus.ACTIVE, 150.5));
+        bookings.save(booking(3, "5550003", "B-1", NINE.plusDays(1), NINE.plusDays(1).plusHours(1), BookingStatus.ACTIVE, 20));
+        bookings.save(booking(4, "5550004", "C-1", NINE.minusDays(1), NINE.minusDays(1).plusMinutes(90), BookingStatus.COMPLETED, 60));
+        bookings.save(booking(5, "5550005", "gone", NINE, NINE.plusHours(1), BookingStatus.ACTIVE, 10));
+        assertTrue(slots.tryReserve("C-1"));
+
+        UtilizationReport before = adminService.getUtilizationReport();
+        assertEquals(new UtilizationReport.Row("A1", "CAR", 2, 1, 2, 1, 0, 31_050, 90), before.rows().get(0));
+        assertEquals(34_050, before.revenueMinor());
+
+        assertTrue(bookings.updateStatus(BookingId.format(1), BookingStatus.ACTIVE, BookingStatus.COMPLETED));
+        assertTrue(bookings.updateStatus(BookingId.format(2), BookingStatus.ACTIVE, BookingStatus.CANCELLED));
+        assertTrue(bookings.updateStatus(BookingId.format(4), BookingStatus.COMPLETED, BookingStatus.CANCELLED), "a finished booking");
+        bookings.delete(BookingId.format(3));
+
+        UtilizationReport report = adminService.getUtilizationReport();
+        assertEquals(List.of(
+                new UtilizationReport.Row("A1", "CAR", 2, 1, 0, 1, 2, 10_000, 120),
+                new UtilizationReport.Row("B2", "BIKE", 1, 0, 0, 0, 0, 0, 0),
+                new UtilizationReport.Row("UNKNOWN", "UNKNOWN", 0, 0, 1, 0, 0, 1_000, 0)), report.rows());
+        assertEquals(List.of(new DailyRevenue(NINE.toLocalDate(), "A1", 10_000), new DailyRevenue(NINE.toLocalDate(), "UNKNOWN", 1_000)),
+                report.dailyRevenue());
+        assertEquals(11_000, report.revenueMinor());
+        assertEquals(120, report.averageDwellMinutes());
+    }
+
+    @Test
+    void finishedBookingsLeaveTheCellTheyWereCountedIn() {
+        ConcurrentSlotRepository slots = new ConcurrentSlotRepository(4) {};
+        slots.save(new CarParkingSlot("C-1", "Car", "A1", 50, true, false, 15));
+        BookingRepository bookings = new BookingRepository(BookingJournal.disabled(), new ChangeFeed(), slots);
+        bookings.save(booking(1, "5550001", "C-1", NINE, NINE.plusHours(2), BookingStatus.ACTIVE, 100));
+        bookings.save(booking(2, "5550002", "C-1", NINE.minusDays(1), NINE.minusDays(1).plusHours(1), BookingStatus.COMPLETED, 50));
+        assertTrue(bookings.updateStatus(BookingId.format(1), BookingStatus.ACTIVE, BookingStatus.COMPLETED));
+
+        slots.save(new CarParkingSlot("C-1", "Bike", "B2", 50, true, false, 15)); // the slot is rebuilt elsewhere
+        assertTrue(bookings.updateStatus(BookingId.format(1), BookingStatus.COMPLETED, BookingStatus.CANCELLED));
+        bookings.delete(BookingId.format(2));
+
+        assertEquals(List.of(new BookingTotals("CAR", "A1", 0, 0, 1, 0, 0)), bookings.bookingTotals());
+        assertTrue(bookings.dailyRevenue().isEmpty());
+    }
+}
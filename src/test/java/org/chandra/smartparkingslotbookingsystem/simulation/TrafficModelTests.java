@@ -0,0 +1,48 @@
+package org.chandra.smartparkingslotbookingsystem.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficModelTests {
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private static SimulationSettings settings(long seed) {
+        return new SimulationSettings(24, 600, "8-10", 4.0, 30, 90, 0.25, 3, 4, false, seed);
+    }
+
+    private static List<TrafficModel.Arrival> arrivals(SimulationSettings settings) {
+        TrafficModel model = new TrafficModel(settings, ORIGIN, 0.5);
+        List<TrafficModel.Arrival> arrivals = new ArrayList<>();
+        for (TrafficModel.Arrival arrival; (arrival = model.next()) != null; ) arrivals.add(arrival);
+        return arrivals;
+    }
+
+    @Test
+    void sameSeedReplaysSameTraffic() {
+        assertEquals(arrivals(settings(7)), arrivals(settings(7)));
+        assertNotEquals(arrivals(settings(7)), arrivals(settings(8)));
+    }
+
+    @Test
+    void arrivalsFollowRushHoursAndProduceValidWindows() {
+        List<TrafficModel.Arrival> arrivals = arrivals(settings(1));
+        // 22 normal hours at 600/h plus 2 rush hours at 2400/h
+        assertEquals(22 * 600 + 2 * 2400, arrivals.size(), 400);
+
+        long rush = arrivals.stream().filter(a -> a.start().minusMinutes(1).getHour() == 9).count();
+        long quiet = arrivals.stream().filter(a -> a.start().minusMinutes(1).getHour() == 14).count();
+        assertTrue(rush > 2 * quiet, "rush=" + rush + " quiet=" + quiet);
+
+        long cancels = arrivals.stream().filter(TrafficModel.Arrival::cancel).count();
+        assertEquals(0.25, (double) cancels / arrivals.size(), 0.03);
+        for (TrafficModel.Arrival arrival : arrivals) {
+            assertTrue(arrival.end().isAfter(arrival.start()));
+            assertEquals(0, arrival.start().getSecond());
+        }
+    }
+}